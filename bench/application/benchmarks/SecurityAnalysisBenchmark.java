@@ -0,0 +1,51 @@
+package application.benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import application.models.AnalysisTier;
+import application.models.SecurityIssue;
+import application.services.SecurityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Security analysis of one parsed unit, run from the project root by scripts/run-benchmarks.sh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityAnalysisBenchmark {
+    
+    private static final Set<AnalysisTier> ALL_TIERS = EnumSet.of(AnalysisTier.STANDARD, AnalysisTier.DEEP);
+    
+    @Param({"VulnerableUserService", "synthetic-50k"})
+    public String input;
+    
+    private CompilationUnit unit;
+    private SecurityService securityService;
+    
+    @Setup(Level.Trial)
+    public void parse() throws IOException {
+        String source = "synthetic-50k".equals(input)
+            ? SyntheticSource.generate(50_000)
+            : new String(Files.readAllBytes(Paths.get("src/testing/VulnerableUserService.java")), StandardCharsets.UTF_8);
+        
+        unit = new JavaParser().parse(source).getResult()
+            .orElseThrow(() -> new IllegalStateException("Benchmark input does not parse: " + input));
+        securityService = new SecurityService();
+    }
+    
+    @Benchmark
+    public List<SecurityIssue> analyzeSecurityIssues() {
+        return securityService.analyzeSecurityIssues(unit, ALL_TIERS);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package application.benchmarks;
+
+import application.analysis.TaintCatalog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Catalog lookups for the calls of a typical method, with the bundled catalog grown 1x, 10x and 100x
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureLookupBenchmark {
+    
+    private static final String[] ROLES = { "source", "sink", "sanitizer", "propagator" };
+    
+    @Param({"1", "10", "100"})
+    public int scale;
+    
+    private TaintCatalog catalog;
+    
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        List<String> lines = new ArrayList<>(Files.readAllLines(
+            Paths.get("src/application/analysis/taint-catalog.txt"), StandardCharsets.UTF_8));
+        int bundled = TaintCatalog.parse(lines).size();
+        
+        // Half the added entries overload members the lookups use, on other owners and arities
+        String[] shared = { "execute", "append", "getParameter", "valueOf", "<init>" };
+        for (int i = 0; i < bundled * (scale - 1); i++) {
+            String role = ROLES[i % ROLES.length];
+            String member = i % 2 == 0 ? shared[i % shared.length] + "/" + (i % 7) : "call" + i;
+            lines.add(role + " Api" + i + "Client " + member + " 0 SQL_INJECTION");
+        }
+        catalog = TaintCatalog.parse(lines);
+    }
+    
+    @Benchmark
+    public void lookupCalls(Blackhole blackhole) {
+        blackhole.consume(catalog.find(TaintCatalog.Role.SINK, "PreparedStatement", "executeQuery", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.SINK, "Statement", "execute", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.SOURCE, "HttpServletRequest", "getParameter", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.PROPAGATOR, "StringBuilder", "append", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.SANITIZER, "Integer", "parseInt", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.SANITIZER, "String", "valueOf", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.SINK, null, "append", 1));
+        blackhole.consume(catalog.find(TaintCatalog.Role.SINK, "UserRepository", "findUserById", 1));
+        blackhole.consume(catalog.findConstructor(TaintCatalog.Role.SINK, "FileInputStream", 1));
+        blackhole.consume(catalog.findConstructor(TaintCatalog.Role.PROPAGATOR, "ArrayList", 0));
+    }
+}
\ No newline at end of file
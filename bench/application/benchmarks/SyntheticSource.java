@@ -0,0 +1,51 @@
+package application.benchmarks;
+
+// A single class of roughly the requested length, built from the patterns the security checks look at
+final class SyntheticSource {
+    
+    private static final String METHOD =
+        "    public String process%1$d(String userInput, int index, Object value, int[] data) {\n" +
+        "        String query = \"SELECT * FROM users WHERE name = '\" + userInput + \"'\";\n" +
+        "        String label = null;\n" +
+        "        if (index > 0) {\n" +
+        "            label = lookup%1$d(userInput);\n" +
+        "        }\n" +
+        "        try {\n" +
+        "            statement.executeQuery(query);\n" +
+        "            File file = new File(\"/data/\" + userInput);\n" +
+        "            String text = (String) value;\n" +
+        "            int total = data[index] + text.length();\n" +
+        "            Runtime.getRuntime().exec(\"ls \" + userInput);\n" +
+        "            return label.trim() + total;\n" +
+        "        } catch (Exception e) {\n" +
+        "            e.printStackTrace();\n" +
+        "        }\n" +
+        "        return \"Adm1n!Passw0rd\";\n" +
+        "    }\n" +
+        "    \n" +
+        "    private String lookup%1$d(String key) {\n" +
+        "        return cache.get(key);\n" +
+        "    }\n" +
+        "    \n";
+    
+    private static final int LINES_PER_METHOD = 23;
+    
+    private SyntheticSource() {
+    }
+    
+    static String generate(int lines) {
+        StringBuilder source = new StringBuilder(lines * 48);
+        source.append("import java.io.File;\n")
+              .append("import java.sql.Statement;\n")
+              .append("import java.util.Map;\n\n")
+              .append("public class SyntheticService {\n")
+              .append("    private static final String API_KEY = \"sk-1234567890abcdefghijklmnop\";\n")
+              .append("    private Statement statement;\n")
+              .append("    private Map<String, String> cache;\n\n");
+        
+        for (int i = 0; i < lines / LINES_PER_METHOD; i++) {
+            source.append(String.format(METHOD, i));
+        }
+        return source.append("}\n").toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+#!/bin/sh
+# Builds the class-data sharing archives used by run-fast.sh and by the CFR child JVMs.
+# Usage: scripts/build-cds-archives.sh <javafx-sdk-lib-dir> [training-class-file]
+# Expects the application compiled into bin/ (as the Eclipse project does).
+set -e
+cd "$(dirname "$0")/.."
+
+JAVAFX_LIB="${1:?usage: build-cds-archives.sh <javafx-sdk-lib-dir> [training-class-file]}"
+TRAINING_CLASS="${2:-bin/testing/VulnerableUserService.class}"
+CDS_DIR="${ANALYZER_CDS_DIR:-$HOME/.java_analyzer/cds}"
+CFR_OUT="$(mktemp -d)"
+
+mkdir -p "$CDS_DIR"
+rm -f "$CDS_DIR/app.jsa" "$CDS_DIR/cfr.jsa"
+
+# Class-data sharing only archives classes loaded from JARs, not from class directories
+jar --create --file "$CDS_DIR/analyzer.jar" -C bin .
+
+# CFR runs in a separate JVM per class, so it gets its own archive
+java -XX:ArchiveClassesAtExit="$CDS_DIR/cfr.jsa" -jar lib/cfr-0.152.jar "$TRAINING_CLASS" \
+     --outputdir "$CFR_OUT" --comments false --showversion false > /dev/null
+rm -rf "$CFR_OUT"
+
+# Opens the training class, runs every tier, draws the graph and heatmap views, then exits
+java -XX:ArchiveClassesAtExit="$CDS_DIR/app.jsa" \
+     --module-path "$JAVAFX_LIB" --add-modules javafx.controls \
+     -Danalyzer.cds.dir="$CDS_DIR" \
+     -cp "$CDS_DIR/analyzer.jar:lib/*" application.TrainingMain "$TRAINING_CLASS"
+
+echo "Archives written to $CDS_DIR"
@@ -0,0 +1,18 @@
+#!/bin/sh
+# Compiles and runs the JMH benchmarks under bench/ against the analyzer classes in bin/.
+# Usage: scripts/run-benchmarks.sh <jmh-lib-dir> [jmh-options]
+# The JMH directory needs jmh-core, jmh-generator-annprocess, jopt-simple and commons-math3.
+# Expects the application compiled into bin/ (as the Eclipse project does).
+set -e
+cd "$(dirname "$0")/.."
+
+JMH_LIB="${1:?usage: run-benchmarks.sh <jmh-lib-dir> [jmh-options]}"
+shift
+BENCH_OUT="$(mktemp -d)"
+CLASSPATH="bin:lib/*:$JMH_LIB/*"
+
+# The annotation processor writes the generated benchmark stubs and the META-INF/BenchmarkList
+javac -cp "$CLASSPATH" -d "$BENCH_OUT" $(find bench -name '*.java')
+
+java -cp "$BENCH_OUT:$CLASSPATH" org.openjdk.jmh.Main "$@"
+rm -rf "$BENCH_OUT"
@@ -0,0 +1,12 @@
+#!/bin/sh
+# Starts the UI with the application archive from build-cds-archives.sh and prints startup timings.
+# Usage: scripts/run-fast.sh <javafx-sdk-lib-dir>
+cd "$(dirname "$0")/.."
+
+JAVAFX_LIB="${1:?usage: run-fast.sh <javafx-sdk-lib-dir>}"
+CDS_DIR="${ANALYZER_CDS_DIR:-$HOME/.java_analyzer/cds}"
+
+exec java -XX:SharedArchiveFile="$CDS_DIR/app.jsa" -Xshare:auto \
+     --module-path "$JAVAFX_LIB" --add-modules javafx.controls \
+     -Danalyzer.cds.dir="$CDS_DIR" -Danalyzer.startupMetrics=true \
+     -cp "$CDS_DIR/analyzer.jar:lib/*" application.Main
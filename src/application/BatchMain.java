@@ -0,0 +1,224 @@
+package application;
+
+import application.models.AnalysisTier;
+import application.models.BatchAnalysisReport;
+import application.models.BatchTaskResult;
+import application.models.ClassAnalysisResult;
+import application.models.SecurityIssue;
+import application.analysis.VulnerabilityIndex;
+import application.services.BatchAnalysisService;
+import application.services.DependencyScanService;
+import application.services.ResultMemoryBudget;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class BatchMain {
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            printUsageAndExit();
+        }
+        
+        if ("--refresh-vuln-index".equals(args[0])) {
+            refreshVulnerabilityIndex(args);
+            return;
+        }
+        if ("--fingerprint".equals(args[0])) {
+            if (args.length != 2) printUsageAndExit();
+            printFingerprints(new File(args[1]));
+            return;
+        }
+        if (args[0].startsWith("--")) {
+            System.err.println("Unknown option " + args[0]);
+            printUsageAndExit();
+        }
+        
+        File input = new File(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        long memoryBudget = ResultMemoryBudget.defaultBudgetBytes();
+        AnalysisTier maxTier = AnalysisTier.DEEP;
+        
+        for (int i = 1; i < args.length; i++) {
+            String flag = args[i];
+            if (!"--threads".equals(flag) && !"--memory-budget".equals(flag) && !"--tier".equals(flag)) {
+                System.err.println("Unknown argument " + flag);
+                printUsageAndExit();
+            }
+            if (i + 1 == args.length) {
+                System.err.println(flag + " expects a value");
+                printUsageAndExit();
+            }
+            
+            String value = args[++i];
+            if ("--threads".equals(flag)) {
+                threads = (int) parsePositive(flag, value);
+            } else if ("--memory-budget".equals(flag)) {
+                memoryBudget = parsePositive(flag, value) * 1024 * 1024;
+            } else {
+                maxTier = parseTier(value);
+            }
+        }
+        
+        BatchAnalysisService batchService = new BatchAnalysisService(threads, memoryBudget);
+        batchService.setMaxTier(maxTier);
+        try {
+            List<File> classFiles = batchService.collectClassFiles(input);
+            
+            // The bytecode tier needs no decompilation, so its findings are printed before the full run starts
+            printQuickScan(batchService.quickScan(classFiles));
+            printArchiveRisks(batchService.getArchiveRisks());
+            printResourceIssues(batchService.scanResources(input));
+            printDependencyIssues(batchService.scanDependencies(input));
+            StartupMetrics.mark("First results printed");
+            if (maxTier == AnalysisTier.BYTECODE) return;
+            
+            System.out.println();
+            BatchAnalysisReport report = batchService.analyzeClassFiles(classFiles);
+            printReport(report);
+        } finally {
+            batchService.shutdown();
+        }
+    }
+    
+    private static void printUsageAndExit() {
+        System.err.println("Usage: BatchMain <class-file|directory|jar> [--threads N] [--memory-budget MB] [--tier 0|1|2]");
+        System.err.println("       BatchMain --refresh-vuln-index <feed-file>... | --fingerprint <jar>");
+        System.exit(2);
+    }
+    
+    private static long parsePositive(String flag, String value) {
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed > 0 && parsed <= Integer.MAX_VALUE) return parsed;
+        } catch (NumberFormatException e) {
+            // Reported below with the usage line
+        }
+        System.err.println(flag + " expects a positive number, got '" + value + "'");
+        printUsageAndExit();
+        return 0;
+    }
+    
+    // 0, 1 or 2, or the tier's name
+    private static AnalysisTier parseTier(String value) {
+        for (AnalysisTier tier : AnalysisTier.values()) {
+            if (value.equals(String.valueOf(tier.getLevel())) || value.equalsIgnoreCase(tier.name())) return tier;
+        }
+        System.err.println("--tier expects 0, 1 or 2, got '" + value + "'");
+        printUsageAndExit();
+        return null;
+    }
+    
+    private static void printQuickScan(Map<File, ClassAnalysisResult> results) {
+        System.out.println("Bytecode scan (tier 0):");
+        for (Map.Entry<File, ClassAnalysisResult> entry : results.entrySet()) {
+            ClassAnalysisResult result = entry.getValue();
+            if (result != null) {
+                System.out.printf("%-60s %4d optimizations %4d security%n",
+                    entry.getKey().getName(),
+                    result.getOptimizationSuggestions().size(),
+                    result.getSecurityIssues().size());
+            } else {
+                System.out.printf("%-60s FAILED%n", entry.getKey().getName());
+            }
+        }
+    }
+    
+    private static void printArchiveRisks(List<SecurityIssue> issues) {
+        if (issues.isEmpty()) return;
+        
+        System.out.println();
+        System.out.println("Deserialization and reflection:");
+        for (SecurityIssue issue : issues) {
+            System.out.printf("%-60s %-8s %s%n",
+                issue.getResource() + ":" + issue.getLineNumber(),
+                issue.getSeverity(), issue.getDescription());
+        }
+    }
+    
+    private static void printResourceIssues(List<SecurityIssue> issues) {
+        if (issues.isEmpty()) return;
+        
+        System.out.println();
+        System.out.println("Resources:");
+        for (SecurityIssue issue : issues) {
+            System.out.printf("%-60s %-8s %s (%s)%n",
+                issue.getResource() + ":" + issue.getLineNumber(),
+                issue.getSeverity(), issue.getDescription(), issue.getVulnerableCode());
+        }
+    }
+    
+    private static void printDependencyIssues(List<SecurityIssue> issues) {
+        if (issues.isEmpty()) return;
+        
+        System.out.println();
+        System.out.println("Dependencies:");
+        for (SecurityIssue issue : issues) {
+            System.out.printf("%-60s %-8s %s (%s)%n",
+                issue.getResource(), issue.getSeverity(), issue.getDescription(), issue.getVulnerableCode());
+        }
+    }
+    
+    private static void refreshVulnerabilityIndex(String[] args) throws Exception {
+        List<Path> feeds = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            feeds.add(new File(args[i]).toPath());
+        }
+        
+        Path index = VulnerabilityIndex.defaultIndexFile().toPath();
+        try {
+            VulnerabilityIndex.refresh(index, feeds);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Vulnerability index not refreshed: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.printf("%s: %d keys%n", index, VulnerabilityIndex.open(index).size());
+    }
+    
+    // Lines in the feed's fingerprint format; the coordinates are left for whoever adds them to a feed
+    private static void printFingerprints(File archive) throws Exception {
+        for (Map.Entry<String, String> entry : new DependencyScanService().fingerprint(archive).entrySet()) {
+            System.out.printf("fingerprint %s <groupId>:<artifactId>:<version>  # %s%n",
+                entry.getValue(), entry.getKey().isEmpty() ? archive.getName() : entry.getKey());
+        }
+    }
+    
+    private static void printReport(BatchAnalysisReport report) {
+        for (BatchTaskResult task : report.getTaskResults()) {
+            if (task.isSuccessful()) {
+                System.out.printf("%-60s %4d optimizations %4d security  %6d ms (est. %d ms, worker %d%s) tier %d%n",
+                    task.getClassFile().getName(),
+                    task.getResult().getOptimizationSuggestions().size(),
+                    task.getResult().getSecurityIssues().size(),
+                    toMillis(task.getActualNanos()),
+                    toMillis(task.getEstimatedNanos()),
+                    task.getWorkerIndex(),
+                    task.isStolen() ? ", stolen" : "",
+                    task.getResult().getTier().getLevel());
+            } else {
+                System.out.printf("%-60s FAILED: %s%n", task.getClassFile().getName(), task.getError());
+            }
+        }
+        
+        System.out.println();
+        System.out.printf("Classes: %d (%d failed), workers: %d, stolen tasks: %d%n",
+            report.getTaskResults().size(), report.getFailedCount(),
+            report.getWorkerCount(), report.getStolenCount());
+        System.out.printf("Makespan: predicted %d ms, actual %d ms (%+.1f%%)%n",
+            toMillis(report.getPredictedMakespanNanos()),
+            toMillis(report.getActualMakespanNanos()),
+            report.getPredictionError() * 100);
+        
+        if (report.getSpilledResultCount() > 0) {
+            System.out.printf("Memory budget exceeded: %d results spilled to disk (%d KB)%n",
+                report.getSpilledResultCount(), report.getSpilledBytes() / 1024);
+        }
+    }
+    
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+}
\ No newline at end of file
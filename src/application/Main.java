@@ -1,6 +1,8 @@
 package application;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -15,6 +17,7 @@ import application.services.AnalyzerService;
 import application.ui.components.*;
 
 import java.io.File;
+import java.util.function.Consumer;
 
 public class Main extends Application {
     
@@ -29,6 +32,14 @@ public class Main extends Application {
     private GraphVisualizationPanel graphPanel;
     private ClassInfoPanel classInfoPanel;
     private HeatmapVisualizationPanel heatmapPanel;
+    private Tab graphTab;
+    private Tab heatmapTab;
+    
+    private ClassAnalysisResult currentResult;
+    private ClassAnalysisResult graphsShownFor;
+    private ClassAnalysisResult heatmapShownFor;
+    private ClassAnalysisResult graphsLoadingFor;
+    private ClassAnalysisResult heatmapLoadingFor;
     
     @Override
     public void start(Stage primaryStage) {
@@ -47,6 +58,10 @@ public class Main extends Application {
             primaryStage.setScene(scene);
             primaryStage.show();
             
+            StartupMetrics.mark("Window shown (cold start)");
+            mainController.getServicesReady().thenRun(
+                () -> Platform.runLater(() -> StartupMetrics.mark("Interactive, services ready")));
+            
         } catch(Exception e) {
             e.printStackTrace();
         }
@@ -107,7 +122,7 @@ public class Main extends Application {
         securityTab.setContent(securityPanel);
         securityTab.setClosable(false);
         
-        Tab graphTab = new Tab("Graph Visualization");
+        graphTab = new Tab("Graph Visualization");
         graphTab.setContent(graphPanel);
         graphTab.setClosable(false);
         
@@ -115,7 +130,7 @@ public class Main extends Application {
         classInfoTab.setContent(classInfoPanel);
         classInfoTab.setClosable(false);
         
-        Tab heatmapTab = new Tab("Quality Heatmap");
+        heatmapTab = new Tab("Quality Heatmap");
         heatmapTab.setContent(heatmapPanel);
         heatmapTab.setClosable(false);
         
@@ -124,6 +139,8 @@ public class Main extends Application {
     
     private void setupEventHandlers() {
         mainController.setOnAnalysisComplete(this::onAnalysisComplete);
+        mainTabPane.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldTab, newTab) -> showSelectedLazyTab());
     }
     
     private void selectClassFile() {
@@ -139,25 +156,89 @@ public class Main extends Application {
         }
     }
     
-    private void processClassFile(File classFile) {
+    protected void processClassFile(File classFile) {
         Label filePathLabel = (Label) rootLayout.getTop().lookup("#filePathLabel");
         filePathLabel.setText(classFile.getAbsolutePath());
         
         mainController.analyzeClassFile(classFile);
     }
     
-    private void onAnalysisComplete(ClassAnalysisResult result) {
+    protected void onAnalysisComplete(ClassAnalysisResult result) {
         codeDisplayArea.displayCode(result.getDecompiledCode(), 
                                   result.getOptimizationSuggestions(), 
                                   result.getSecurityIssues());
         
         optimizationPanel.displayOptimizations(result.getOptimizationSuggestions());
         securityPanel.displaySecurityIssues(result.getSecurityIssues());
-        graphPanel.displayGraphs(result.getMethodCallGraph(), result.getClassHierarchy());
         classInfoPanel.displayClassInfo(result.getClassInfo());
+        
+        currentResult = result;
+        graphsShownFor = null;
+        heatmapShownFor = null;
+        graphsLoadingFor = null;
+        heatmapLoadingFor = null;
+        graphPanel.displayGraphs(null, null);
+        heatmapPanel.displayHeatmap(null, result.getDecompiledCode());
+        showSelectedLazyTab();
+    }
+    
+    // Computes and draws the graph and heatmap views on the calling thread, whichever tab is selected
+    protected void displayLazyViews(ClassAnalysisResult result) {
+        graphPanel.displayGraphs(result.getMethodCallGraph(), result.getClassHierarchy());
         heatmapPanel.displayHeatmap(result.getHeatmapData(), result.getDecompiledCode());
     }
     
+    // Graphs and the heatmap are computed the first time their tab is shown for a result; a failed computation
+    // is tried again the next time the tab is selected
+    private void showSelectedLazyTab() {
+        ClassAnalysisResult result = currentResult;
+        Tab selectedTab = mainTabPane.getSelectionModel().getSelectedItem();
+        if (result == null || !result.isComplete()) return;
+        
+        if (selectedTab == graphTab && graphsShownFor != result && graphsLoadingFor != result) {
+            graphsLoadingFor = result;
+            computeInBackground(() -> {
+                result.getMethodCallGraph();
+                result.getClassHierarchy();
+            }, succeeded -> {
+                if (graphsLoadingFor == result) graphsLoadingFor = null;
+                if (succeeded && result == currentResult) {
+                    graphsShownFor = result;
+                    graphPanel.displayGraphs(result.getMethodCallGraph(), result.getClassHierarchy());
+                }
+            });
+        } else if (selectedTab == heatmapTab && heatmapShownFor != result && heatmapLoadingFor != result) {
+            heatmapLoadingFor = result;
+            computeInBackground(result::getHeatmapData, succeeded -> {
+                if (heatmapLoadingFor == result) heatmapLoadingFor = null;
+                if (succeeded && result == currentResult) {
+                    heatmapShownFor = result;
+                    heatmapPanel.displayHeatmap(result.getHeatmapData(), result.getDecompiledCode());
+                }
+            });
+        }
+    }
+    
+    // onDone runs on the FX thread with whether the computation succeeded
+    private void computeInBackground(Runnable computation, Consumer<Boolean> onDone) {
+        Task<Void> task = new Task<Void>() {
+            @Override
+            protected Void call() {
+                computation.run();
+                return null;
+            }
+        };
+        task.setOnSucceeded(event -> onDone.accept(true));
+        task.setOnFailed(event -> {
+            System.err.println("Failed to compute view data: " + task.getException().getMessage());
+            onDone.accept(false);
+        });
+        
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,22 @@
+package application;
+
+import java.lang.management.ManagementFactory;
+
+public final class StartupMetrics {
+    
+    private static final boolean ENABLED = Boolean.getBoolean("analyzer.startupMetrics");
+    
+    private StartupMetrics() {
+    }
+    
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+    
+    public static void mark(String milestone) {
+        if (!ENABLED) return;
+        
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("[startup] %s after %d ms%n", milestone, sinceJvmStart);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package application;
+
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import application.models.ClassAnalysisResult;
+
+import java.io.File;
+import java.util.List;
+
+// Training run for the class-data sharing archive: opens one class, touches every view once, then exits
+public class TrainingMain extends Main {
+    
+    @Override
+    public void start(Stage primaryStage) {
+        super.start(primaryStage);
+        
+        List<String> args = getParameters().getRaw();
+        if (args.isEmpty()) {
+            System.err.println("Usage: TrainingMain <class-file>");
+            Platform.exit();
+            return;
+        }
+        processClassFile(new File(args.get(0)));
+    }
+    
+    @Override
+    protected void onAnalysisComplete(ClassAnalysisResult result) {
+        super.onAnalysisComplete(result);
+        if (result.isComplete()) {
+            displayLazyViews(result);
+            Platform.exit();
+        }
+    }
+    
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,227 @@
+package application.analysis;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.*;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class CodeMetrics {
+    
+    private final int parameterCount;
+    private int cyclomaticComplexity = 1;
+    private int cognitiveComplexity;
+    private int maxNestingDepth;
+    private int linesOfCode;
+    private int loopCount;
+    private int callCount;
+    private final List<Integer> decisionLines = new ArrayList<>();
+    
+    private CodeMetrics(int parameterCount) {
+        this.parameterCount = parameterCount;
+    }
+    
+    // Callers keep the result in their own per-analysis table; nothing is written back to the shared node
+    public static CodeMetrics measure(Node owner) {
+        int parameterCount = owner instanceof CallableDeclaration
+            ? ((CallableDeclaration<?>) owner).getParameters().size() : 0;
+        
+        CodeMetrics metrics = new CodeMetrics(parameterCount);
+        owner.accept(metrics.new Calculator(owner), 0);
+        metrics.linesOfCode = countCodeLines(owner);
+        return metrics;
+    }
+    
+    // Lines holding at least one real token, so blank lines and comment-only lines do not count
+    private static int countCodeLines(Node owner) {
+        if (!owner.getTokenRange().isPresent()) {
+            return owner.getRange().map(range -> range.end.line - range.begin.line + 1).orElse(0);
+        }
+        
+        Set<Integer> lines = new HashSet<>();
+        for (JavaToken token : owner.getTokenRange().get()) {
+            if (!token.getCategory().isWhitespaceOrComment()) {
+                token.getRange().ifPresent(range -> lines.add(range.begin.line));
+            }
+        }
+        return lines.size();
+    }
+    
+    public int getParameterCount() { return parameterCount; }
+    public int getCyclomaticComplexity() { return cyclomaticComplexity; }
+    public int getCognitiveComplexity() { return cognitiveComplexity; }
+    public int getMaxNestingDepth() { return maxNestingDepth; }
+    public int getLinesOfCode() { return linesOfCode; }
+    public int getLoopCount() { return loopCount; }
+    public int getCallCount() { return callCount; }
+    public List<Integer> getDecisionLines() { return Collections.unmodifiableList(decisionLines); }
+    
+    // The visitor argument is the nesting level of the node being visited
+    private class Calculator extends VoidVisitorAdapter<Integer> {
+        
+        private final Node root;
+        
+        Calculator(Node root) {
+            this.root = root;
+        }
+        
+        private void decision(Node node) {
+            cyclomaticComplexity++;
+            decisionLines.add(node.getBegin().map(pos -> pos.line).orElse(0));
+        }
+        
+        private void structure(Node node, int nesting) {
+            decision(node);
+            cognitiveComplexity += 1 + nesting;
+            maxNestingDepth = Math.max(maxNestingDepth, nesting + 1);
+        }
+        
+        private void loop(Node node, int nesting) {
+            loopCount++;
+            structure(node, nesting);
+        }
+        
+        // Members of nested and anonymous classes are measured on their own
+        @Override
+        public void visit(MethodDeclaration md, Integer nesting) {
+            if (md == root) super.visit(md, nesting);
+        }
+        
+        @Override
+        public void visit(ConstructorDeclaration cd, Integer nesting) {
+            if (cd == root) super.visit(cd, nesting);
+        }
+        
+        @Override
+        public void visit(InitializerDeclaration id, Integer nesting) {
+            if (id == root) super.visit(id, nesting);
+        }
+        
+        @Override
+        public void visit(IfStmt n, Integer nesting) {
+            // An else-if reads as a flat chain, so it costs one and adds no nesting
+            boolean elseIf = n.getParentNode()
+                .filter(parent -> parent instanceof IfStmt && ((IfStmt) parent).getElseStmt().orElse(null) == n)
+                .isPresent();
+            structure(n, elseIf ? 0 : nesting);
+            n.getCondition().accept(this, nesting);
+            n.getThenStmt().accept(this, nesting + 1);
+            
+            if (n.getElseStmt().isPresent()) {
+                Statement elseStmt = n.getElseStmt().get();
+                if (elseStmt instanceof IfStmt) {
+                    elseStmt.accept(this, nesting);
+                } else {
+                    cognitiveComplexity++;
+                    elseStmt.accept(this, nesting + 1);
+                }
+            }
+        }
+        
+        @Override
+        public void visit(ForStmt n, Integer nesting) {
+            loop(n, nesting);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(ForEachStmt n, Integer nesting) {
+            loop(n, nesting);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(WhileStmt n, Integer nesting) {
+            loop(n, nesting);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(DoStmt n, Integer nesting) {
+            loop(n, nesting);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(SwitchStmt n, Integer nesting) {
+            cognitiveComplexity += 1 + nesting;
+            maxNestingDepth = Math.max(maxNestingDepth, nesting + 1);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(SwitchExpr n, Integer nesting) {
+            cognitiveComplexity += 1 + nesting;
+            maxNestingDepth = Math.max(maxNestingDepth, nesting + 1);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(SwitchEntry n, Integer nesting) {
+            if (!n.getLabels().isEmpty()) {
+                decision(n);
+            }
+            super.visit(n, nesting);
+        }
+        
+        @Override
+        public void visit(CatchClause n, Integer nesting) {
+            structure(n, nesting);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(ConditionalExpr n, Integer nesting) {
+            structure(n, nesting);
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(LambdaExpr n, Integer nesting) {
+            super.visit(n, nesting + 1);
+        }
+        
+        @Override
+        public void visit(BinaryExpr n, Integer nesting) {
+            if (n.getOperator() == BinaryExpr.Operator.AND || n.getOperator() == BinaryExpr.Operator.OR) {
+                decision(n);
+                // Cognitive complexity charges each run of like operators once
+                boolean continuesRun = n.getParentNode()
+                    .filter(parent -> parent instanceof BinaryExpr && ((BinaryExpr) parent).getOperator() == n.getOperator())
+                    .isPresent();
+                if (!continuesRun) {
+                    cognitiveComplexity++;
+                }
+            }
+            super.visit(n, nesting);
+        }
+        
+        @Override
+        public void visit(BreakStmt n, Integer nesting) {
+            if (n.getLabel().isPresent()) cognitiveComplexity++;
+            super.visit(n, nesting);
+        }
+        
+        @Override
+        public void visit(ContinueStmt n, Integer nesting) {
+            if (n.getLabel().isPresent()) cognitiveComplexity++;
+            super.visit(n, nesting);
+        }
+        
+        @Override
+        public void visit(MethodCallExpr n, Integer nesting) {
+            callCount++;
+            super.visit(n, nesting);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Metrics of the methods of one unit, each measured on first request; the pipeline hands one table to the rules
+// and the heatmap so neither measures a method the other already has
+public class CodeMetricsTable {
+    
+    private final Map<Node, CodeMetrics> metricsByOwner = new IdentityHashMap<>();
+    
+    // Metrics of the method, constructor or initializer the node belongs to
+    public synchronized CodeMetrics get(Node node) {
+        return metricsByOwner.computeIfAbsent(ControlFlowGraph.findOwner(node), CodeMetrics::measure);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,676 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.stmt.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ControlFlowGraph {
+    
+    public enum EdgeKind {
+        NORMAL, TRUE, FALSE, EXCEPTION
+    }
+    
+    public static class Edge {
+        private final BasicBlock source;
+        private final BasicBlock target;
+        private final EdgeKind kind;
+        
+        Edge(BasicBlock source, BasicBlock target, EdgeKind kind) {
+            this.source = source;
+            this.target = target;
+            this.kind = kind;
+        }
+        
+        public BasicBlock getSource() { return source; }
+        public BasicBlock getTarget() { return target; }
+        public EdgeKind getKind() { return kind; }
+    }
+    
+    public static class BasicBlock {
+        private final int id;
+        private final List<Node> elements = new ArrayList<>();
+        private final List<Edge> outgoing = new ArrayList<>();
+        private final List<Edge> incoming = new ArrayList<>();
+        
+        BasicBlock(int id) {
+            this.id = id;
+        }
+        
+        public int getId() { return id; }
+        public List<Node> getElements() { return elements; }
+        public List<Edge> getOutgoing() { return outgoing; }
+        public List<Edge> getIncoming() { return incoming; }
+        
+        public List<BasicBlock> getSuccessors() {
+            List<BasicBlock> successors = new ArrayList<>(outgoing.size());
+            for (Edge edge : outgoing) {
+                successors.add(edge.target);
+            }
+            return successors;
+        }
+        
+        public List<BasicBlock> getPredecessors() {
+            List<BasicBlock> predecessors = new ArrayList<>(incoming.size());
+            for (Edge edge : incoming) {
+                predecessors.add(edge.source);
+            }
+            return predecessors;
+        }
+        
+        @Override
+        public String toString() {
+            return "B" + id;
+        }
+    }
+    
+    public static class Loop {
+        private final BasicBlock header;
+        private final BitSet body = new BitSet();
+        
+        Loop(BasicBlock header) {
+            this.header = header;
+            body.set(header.id);
+        }
+        
+        public BasicBlock getHeader() { return header; }
+        
+        public boolean contains(BasicBlock block) {
+            return block != null && body.get(block.id);
+        }
+        
+        public int size() {
+            return body.cardinality();
+        }
+    }
+    
+    private final Node owner;
+    private final List<BasicBlock> blocks = new ArrayList<>();
+    private final Map<Node, BasicBlock> blocksByElement = new IdentityHashMap<>();
+    private final BasicBlock entry;
+    private final BasicBlock exit;
+    private int[] immediateDominators;
+    private List<Loop> loops;
+    
+    private ControlFlowGraph(Node owner) {
+        this.owner = owner;
+        this.entry = newBlock();
+        this.exit = newBlock();
+    }
+    
+    // Builds the graph of a method, constructor, initializer or block lambda; other owners get an empty graph
+    public static ControlFlowGraph build(Node owner) {
+        ControlFlowGraph graph = new ControlFlowGraph(owner);
+        BlockStmt body = bodyOf(owner);
+        
+        if (body != null) {
+            Builder builder = graph.new Builder();
+            BasicBlock first = graph.newBlock();
+            graph.link(graph.entry, first, EdgeKind.NORMAL);
+            graph.link(builder.build(body, first), graph.exit, EdgeKind.NORMAL);
+        } else {
+            graph.link(graph.entry, graph.exit, EdgeKind.NORMAL);
+        }
+        return graph;
+    }
+    
+    private static BlockStmt bodyOf(Node owner) {
+        if (owner instanceof MethodDeclaration) {
+            return ((MethodDeclaration) owner).getBody().orElse(null);
+        }
+        if (owner instanceof ConstructorDeclaration) {
+            return ((ConstructorDeclaration) owner).getBody();
+        }
+        if (owner instanceof InitializerDeclaration) {
+            return ((InitializerDeclaration) owner).getBody();
+        }
+        if (owner instanceof LambdaExpr && ((LambdaExpr) owner).getBody() instanceof BlockStmt) {
+            return (BlockStmt) ((LambdaExpr) owner).getBody();
+        }
+        return null;
+    }
+    
+    // Nearest enclosing method, constructor or initializer; the compilation unit for anything else
+    public static Node findOwner(Node node) {
+        Node owner = node;
+        while (owner.getParentNode().isPresent() &&
+               !(owner instanceof MethodDeclaration) &&
+               !(owner instanceof ConstructorDeclaration) &&
+               !(owner instanceof InitializerDeclaration)) {
+            owner = owner.getParentNode().get();
+        }
+        return owner;
+    }
+    
+    public Node getOwner() { return owner; }
+    public BasicBlock getEntry() { return entry; }
+    public BasicBlock getExit() { return exit; }
+    
+    public List<BasicBlock> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+    
+    // Block holding the innermost simple statement or condition that contains the node
+    public BasicBlock getBlock(Node node) {
+        Node current = node;
+        while (current != null && current != owner) {
+            BasicBlock block = blocksByElement.get(current);
+            if (block != null) return block;
+            current = current.getParentNode().orElse(null);
+        }
+        return null;
+    }
+    
+    // The simple statement or condition registered in a block that contains the node
+    public Node getElement(Node node) {
+        Node current = node;
+        while (current != null && current != owner) {
+            if (blocksByElement.containsKey(current)) return current;
+            current = current.getParentNode().orElse(null);
+        }
+        return null;
+    }
+    
+    public boolean isReachable(BasicBlock block) {
+        computeDominators();
+        return immediateDominators[block.id] >= 0;
+    }
+    
+    public BasicBlock getImmediateDominator(BasicBlock block) {
+        computeDominators();
+        int dominator = immediateDominators[block.id];
+        return dominator < 0 || block == entry ? null : blocks.get(dominator);
+    }
+    
+    public boolean dominates(BasicBlock dominator, BasicBlock block) {
+        computeDominators();
+        if (immediateDominators[block.id] < 0) return false;
+        
+        int current = block.id;
+        while (true) {
+            if (current == dominator.id) return true;
+            if (current == entry.id) return false;
+            current = immediateDominators[current];
+        }
+    }
+    
+    public List<Loop> getLoops() {
+        if (loops == null) {
+            loops = findLoops();
+        }
+        return loops;
+    }
+    
+    public Loop getInnermostLoop(BasicBlock block) {
+        Loop innermost = null;
+        for (Loop loop : getLoops()) {
+            if (loop.contains(block) && (innermost == null || loop.size() < innermost.size())) {
+                innermost = loop;
+            }
+        }
+        return innermost;
+    }
+    
+    public boolean isInLoop(BasicBlock block) {
+        return getInnermostLoop(block) != null;
+    }
+    
+    private BasicBlock newBlock() {
+        BasicBlock block = new BasicBlock(blocks.size());
+        blocks.add(block);
+        return block;
+    }
+    
+    private void link(BasicBlock source, BasicBlock target, EdgeKind kind) {
+        for (Edge edge : source.outgoing) {
+            if (edge.target == target && edge.kind == kind) return;
+        }
+        Edge edge = new Edge(source, target, kind);
+        source.outgoing.add(edge);
+        target.incoming.add(edge);
+    }
+    
+    // Cooper, Harvey and Kennedy's iterative algorithm over reverse postorder
+    private void computeDominators() {
+        if (immediateDominators != null) return;
+        
+        List<BasicBlock> order = reversePostorder();
+        int[] orderIndex = new int[blocks.size()];
+        int[] dominators = new int[blocks.size()];
+        Arrays.fill(orderIndex, -1);
+        Arrays.fill(dominators, -1);
+        for (int i = 0; i < order.size(); i++) {
+            orderIndex[order.get(i).id] = i;
+        }
+        dominators[entry.id] = entry.id;
+        
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < order.size(); i++) {
+                BasicBlock block = order.get(i);
+                int newDominator = -1;
+                for (Edge edge : block.incoming) {
+                    int predecessor = edge.source.id;
+                    if (dominators[predecessor] < 0) continue;
+                    newDominator = newDominator < 0 ? predecessor
+                                                    : intersect(predecessor, newDominator, dominators, orderIndex);
+                }
+                if (dominators[block.id] != newDominator) {
+                    dominators[block.id] = newDominator;
+                    changed = true;
+                }
+            }
+        }
+        
+        immediateDominators = dominators;
+    }
+    
+    private int intersect(int first, int second, int[] dominators, int[] orderIndex) {
+        while (first != second) {
+            while (orderIndex[first] > orderIndex[second]) {
+                first = dominators[first];
+            }
+            while (orderIndex[second] > orderIndex[first]) {
+                second = dominators[second];
+            }
+        }
+        return first;
+    }
+    
+    List<BasicBlock> reversePostorder() {
+        List<BasicBlock> postorder = new ArrayList<>();
+        boolean[] visited = new boolean[blocks.size()];
+        Deque<BasicBlock> stack = new ArrayDeque<>();
+        Deque<Integer> nextEdge = new ArrayDeque<>();
+        
+        stack.push(entry);
+        nextEdge.push(0);
+        visited[entry.id] = true;
+        while (!stack.isEmpty()) {
+            BasicBlock block = stack.peek();
+            int edgeIndex = nextEdge.pop();
+            if (edgeIndex < block.outgoing.size()) {
+                nextEdge.push(edgeIndex + 1);
+                BasicBlock successor = block.outgoing.get(edgeIndex).target;
+                if (!visited[successor.id]) {
+                    visited[successor.id] = true;
+                    stack.push(successor);
+                    nextEdge.push(0);
+                }
+            } else {
+                stack.pop();
+                postorder.add(block);
+            }
+        }
+        
+        Collections.reverse(postorder);
+        return postorder;
+    }
+    
+    // Natural loops: a back edge targets a block that dominates its source
+    private List<Loop> findLoops() {
+        computeDominators();
+        Map<BasicBlock, Loop> loopsByHeader = new IdentityHashMap<>();
+        
+        for (BasicBlock block : blocks) {
+            if (immediateDominators[block.id] < 0) continue;
+            for (Edge edge : block.outgoing) {
+                if (!dominates(edge.target, block)) continue;
+                
+                Loop loop = loopsByHeader.computeIfAbsent(edge.target, Loop::new);
+                Deque<BasicBlock> worklist = new ArrayDeque<>();
+                if (!loop.body.get(block.id)) {
+                    loop.body.set(block.id);
+                    worklist.push(block);
+                }
+                while (!worklist.isEmpty()) {
+                    for (Edge incoming : worklist.pop().incoming) {
+                        BasicBlock predecessor = incoming.source;
+                        if (immediateDominators[predecessor.id] >= 0 && !loop.body.get(predecessor.id)) {
+                            loop.body.set(predecessor.id);
+                            worklist.push(predecessor);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(loopsByHeader.values());
+    }
+    
+    private static class JumpTarget {
+        final String label;
+        final BasicBlock breakTarget;
+        final BasicBlock continueTarget;
+        final boolean acceptsUnlabeledBreak;
+        
+        JumpTarget(String label, BasicBlock breakTarget, BasicBlock continueTarget, boolean acceptsUnlabeledBreak) {
+            this.label = label;
+            this.breakTarget = breakTarget;
+            this.continueTarget = continueTarget;
+            this.acceptsUnlabeledBreak = acceptsUnlabeledBreak;
+        }
+    }
+    
+    // Conditions are kept whole, so short-circuit operators do not split blocks. Jumps out of a try
+    // go straight to their target rather than through the finally block.
+    private class Builder {
+        
+        private final Deque<JumpTarget> jumpTargets = new ArrayDeque<>();
+        private final Deque<List<BasicBlock>> handlers = new ArrayDeque<>();
+        private String pendingLabel;
+        
+        BasicBlock build(Statement statement, BasicBlock current) {
+            if (statement instanceof BlockStmt) {
+                for (Statement child : ((BlockStmt) statement).getStatements()) {
+                    current = build(child, current);
+                }
+                return current;
+            }
+            if (statement instanceof IfStmt) return buildIf((IfStmt) statement, current);
+            if (statement instanceof WhileStmt) return buildWhile((WhileStmt) statement, current);
+            if (statement instanceof DoStmt) return buildDo((DoStmt) statement, current);
+            if (statement instanceof ForStmt) return buildFor((ForStmt) statement, current);
+            if (statement instanceof ForEachStmt) return buildForEach((ForEachStmt) statement, current);
+            if (statement instanceof SwitchStmt) return buildSwitch((SwitchStmt) statement, current);
+            if (statement instanceof TryStmt) return buildTry((TryStmt) statement, current);
+            if (statement instanceof LabeledStmt) return buildLabeled((LabeledStmt) statement, current);
+            
+            if (statement instanceof SynchronizedStmt) {
+                SynchronizedStmt synchronizedStmt = (SynchronizedStmt) statement;
+                append(current, synchronizedStmt.getExpression());
+                return build(synchronizedStmt.getBody(), current);
+            }
+            
+            append(current, statement);
+            
+            if (statement instanceof ReturnStmt) {
+                link(current, exit, EdgeKind.NORMAL);
+                return newBlock();
+            }
+            if (statement instanceof ThrowStmt) {
+                linkToHandlers(current);
+                return newBlock();
+            }
+            if (statement instanceof BreakStmt) {
+                String label = ((BreakStmt) statement).getLabel().map(Node::toString).orElse(null);
+                JumpTarget target = findTarget(label, false);
+                if (target != null) {
+                    link(current, target.breakTarget, EdgeKind.NORMAL);
+                }
+                return newBlock();
+            }
+            if (statement instanceof ContinueStmt) {
+                String label = ((ContinueStmt) statement).getLabel().map(Node::toString).orElse(null);
+                JumpTarget target = findTarget(label, true);
+                if (target != null) {
+                    link(current, target.continueTarget, EdgeKind.NORMAL);
+                }
+                return newBlock();
+            }
+            return current;
+        }
+        
+        private BasicBlock buildIf(IfStmt ifStmt, BasicBlock current) {
+            append(current, ifStmt.getCondition());
+            BasicBlock join = newBlock();
+            
+            BasicBlock thenBlock = newBlock();
+            link(current, thenBlock, EdgeKind.TRUE);
+            link(build(ifStmt.getThenStmt(), thenBlock), join, EdgeKind.NORMAL);
+            
+            if (ifStmt.getElseStmt().isPresent()) {
+                BasicBlock elseBlock = newBlock();
+                link(current, elseBlock, EdgeKind.FALSE);
+                link(build(ifStmt.getElseStmt().get(), elseBlock), join, EdgeKind.NORMAL);
+            } else {
+                link(current, join, EdgeKind.FALSE);
+            }
+            return join;
+        }
+        
+        private BasicBlock buildWhile(WhileStmt whileStmt, BasicBlock current) {
+            String label = takeLabel();
+            BasicBlock header = newBlock();
+            BasicBlock body = newBlock();
+            BasicBlock after = newBlock();
+            
+            link(current, header, EdgeKind.NORMAL);
+            append(header, whileStmt.getCondition());
+            link(header, body, EdgeKind.TRUE);
+            if (!isConstantTrue(whileStmt.getCondition())) {
+                link(header, after, EdgeKind.FALSE);
+            }
+            
+            jumpTargets.push(new JumpTarget(label, after, header, true));
+            link(build(whileStmt.getBody(), body), header, EdgeKind.NORMAL);
+            jumpTargets.pop();
+            return after;
+        }
+        
+        private BasicBlock buildDo(DoStmt doStmt, BasicBlock current) {
+            String label = takeLabel();
+            BasicBlock body = newBlock();
+            BasicBlock condition = newBlock();
+            BasicBlock after = newBlock();
+            
+            link(current, body, EdgeKind.NORMAL);
+            jumpTargets.push(new JumpTarget(label, after, condition, true));
+            link(build(doStmt.getBody(), body), condition, EdgeKind.NORMAL);
+            jumpTargets.pop();
+            
+            append(condition, doStmt.getCondition());
+            link(condition, body, EdgeKind.TRUE);
+            if (!isConstantTrue(doStmt.getCondition())) {
+                link(condition, after, EdgeKind.FALSE);
+            }
+            return after;
+        }
+        
+        private BasicBlock buildFor(ForStmt forStmt, BasicBlock current) {
+            String label = takeLabel();
+            forStmt.getInitialization().forEach(init -> append(current, init));
+            
+            BasicBlock header = newBlock();
+            BasicBlock body = newBlock();
+            BasicBlock update = newBlock();
+            BasicBlock after = newBlock();
+            
+            link(current, header, EdgeKind.NORMAL);
+            link(header, body, EdgeKind.TRUE);
+            if (forStmt.getCompare().isPresent()) {
+                append(header, forStmt.getCompare().get());
+                if (!isConstantTrue(forStmt.getCompare().get())) {
+                    link(header, after, EdgeKind.FALSE);
+                }
+            }
+            
+            jumpTargets.push(new JumpTarget(label, after, update, true));
+            link(build(forStmt.getBody(), body), update, EdgeKind.NORMAL);
+            jumpTargets.pop();
+            
+            forStmt.getUpdate().forEach(expression -> append(update, expression));
+            link(update, header, EdgeKind.NORMAL);
+            return after;
+        }
+        
+        private BasicBlock buildForEach(ForEachStmt forEachStmt, BasicBlock current) {
+            String label = takeLabel();
+            append(current, forEachStmt.getIterable());
+            
+            BasicBlock header = newBlock();
+            BasicBlock body = newBlock();
+            BasicBlock after = newBlock();
+            
+            link(current, header, EdgeKind.NORMAL);
+            link(header, body, EdgeKind.TRUE);
+            link(header, after, EdgeKind.FALSE);
+            // The loop variable is assigned at the top of every iteration
+            append(body, forEachStmt.getVariable());
+            
+            jumpTargets.push(new JumpTarget(label, after, header, true));
+            link(build(forEachStmt.getBody(), body), header, EdgeKind.NORMAL);
+            jumpTargets.pop();
+            return after;
+        }
+        
+        private BasicBlock buildSwitch(SwitchStmt switchStmt, BasicBlock current) {
+            takeLabel();
+            append(current, switchStmt.getSelector());
+            BasicBlock after = newBlock();
+            BasicBlock fallThrough = null;
+            boolean hasDefault = false;
+            
+            jumpTargets.push(new JumpTarget(null, after, null, true));
+            for (SwitchEntry entry : switchStmt.getEntries()) {
+                BasicBlock entryBlock = newBlock();
+                link(current, entryBlock, EdgeKind.NORMAL);
+                if (fallThrough != null) {
+                    link(fallThrough, entryBlock, EdgeKind.NORMAL);
+                }
+                entry.getLabels().forEach(caseLabel -> append(entryBlock, caseLabel));
+                hasDefault |= entry.isDefault() || entry.getLabels().isEmpty();
+                
+                BasicBlock end = entryBlock;
+                for (Statement statement : entry.getStatements()) {
+                    end = build(statement, end);
+                }
+                
+                if (entry.getType() == SwitchEntry.Type.STATEMENT_GROUP) {
+                    fallThrough = end;
+                } else {
+                    link(end, after, EdgeKind.NORMAL);
+                    fallThrough = null;
+                }
+            }
+            jumpTargets.pop();
+            
+            if (fallThrough != null) {
+                link(fallThrough, after, EdgeKind.NORMAL);
+            }
+            if (!hasDefault) {
+                link(current, after, EdgeKind.NORMAL);
+            }
+            return after;
+        }
+        
+        private BasicBlock buildTry(TryStmt tryStmt, BasicBlock current) {
+            List<BasicBlock> catchEntries = new ArrayList<>();
+            for (CatchClause catchClause : tryStmt.getCatchClauses()) {
+                BasicBlock catchEntry = newBlock();
+                append(catchEntry, catchClause.getParameter());
+                catchEntries.add(catchEntry);
+            }
+            BasicBlock finallyEntry = tryStmt.getFinallyBlock().isPresent() ? newBlock() : null;
+            BasicBlock after = newBlock();
+            
+            List<BasicBlock> tryHandlers = new ArrayList<>(catchEntries);
+            if (finallyEntry != null) {
+                tryHandlers.add(finallyEntry);
+            }
+            
+            // A fresh block so only statements inside the try get exception edges
+            BasicBlock tryStart = newBlock();
+            link(current, tryStart, EdgeKind.NORMAL);
+            handlers.push(tryHandlers);
+            tryStmt.getResources().forEach(resource -> append(tryStart, resource));
+            List<BasicBlock> ends = new ArrayList<>();
+            ends.add(build(tryStmt.getTryBlock(), tryStart));
+            handlers.pop();
+            
+            if (finallyEntry != null) {
+                handlers.push(Collections.singletonList(finallyEntry));
+            }
+            for (int i = 0; i < catchEntries.size(); i++) {
+                ends.add(build(tryStmt.getCatchClauses().get(i).getBody(), catchEntries.get(i)));
+            }
+            if (finallyEntry != null) {
+                handlers.pop();
+            }
+            
+            if (finallyEntry == null) {
+                ends.forEach(end -> link(end, after, EdgeKind.NORMAL));
+                return after;
+            }
+            
+            ends.forEach(end -> link(end, finallyEntry, EdgeKind.NORMAL));
+            BasicBlock finallyEnd = build(tryStmt.getFinallyBlock().get(), finallyEntry);
+            link(finallyEnd, after, EdgeKind.NORMAL);
+            // An exception nobody caught resumes propagating once the finally block completes
+            linkToHandlers(finallyEnd);
+            return after;
+        }
+        
+        private BasicBlock buildLabeled(LabeledStmt labeledStmt, BasicBlock current) {
+            String label = labeledStmt.getLabel().asString();
+            Statement inner = labeledStmt.getStatement();
+            
+            if (inner instanceof WhileStmt || inner instanceof DoStmt ||
+                inner instanceof ForStmt || inner instanceof ForEachStmt) {
+                pendingLabel = label;
+                return build(inner, current);
+            }
+            
+            BasicBlock after = newBlock();
+            jumpTargets.push(new JumpTarget(label, after, null, false));
+            link(build(inner, current), after, EdgeKind.NORMAL);
+            jumpTargets.pop();
+            return after;
+        }
+        
+        private String takeLabel() {
+            String label = pendingLabel;
+            pendingLabel = null;
+            return label;
+        }
+        
+        private JumpTarget findTarget(String label, boolean isContinue) {
+            for (JumpTarget target : jumpTargets) {
+                if (label != null) {
+                    if (label.equals(target.label)) return target;
+                } else if (isContinue ? target.continueTarget != null : target.acceptsUnlabeledBreak) {
+                    return target;
+                }
+            }
+            return null;
+        }
+        
+        private void append(BasicBlock block, Node element) {
+            block.elements.add(element);
+            blocksByElement.put(element, block);
+            if (!handlers.isEmpty()) {
+                for (BasicBlock handler : handlers.peek()) {
+                    link(block, handler, EdgeKind.EXCEPTION);
+                }
+            }
+        }
+        
+        private void linkToHandlers(BasicBlock block) {
+            if (handlers.isEmpty()) {
+                link(block, exit, EdgeKind.EXCEPTION);
+                return;
+            }
+            for (BasicBlock handler : handlers.peek()) {
+                link(block, handler, EdgeKind.EXCEPTION);
+            }
+        }
+        
+        private boolean isConstantTrue(Expression condition) {
+            return condition instanceof BooleanLiteralExpr && ((BooleanLiteralExpr) condition).getValue();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.Arrays;
+
+public abstract class DataflowAnalysis {
+    
+    public enum Direction {
+        FORWARD, BACKWARD
+    }
+    
+    private final Direction direction;
+    private final boolean mustAnalysis;
+    private final int width;
+    
+    // Must analyses meet by intersection and start interior blocks at the full set; may analyses use union
+    protected DataflowAnalysis(Direction direction, boolean mustAnalysis, int width) {
+        this.direction = direction;
+        this.mustAnalysis = mustAnalysis;
+        this.width = width;
+    }
+    
+    public Direction getDirection() { return direction; }
+    public boolean isMustAnalysis() { return mustAnalysis; }
+    public int getWidth() { return width; }
+    
+    public int getWordCount() {
+        return (width + 63) >>> 6;
+    }
+    
+    // Facts at method entry for forward analyses, at method exit for backward ones
+    public abstract void initializeBoundary(long[] facts);
+    
+    public abstract void transfer(Node element, long[] facts);
+    
+    public void transferEdge(ControlFlowGraph.Edge edge, long[] facts) {
+    }
+    
+    public static void set(long[] facts, int index) {
+        facts[index >>> 6] |= 1L << index;
+    }
+    
+    public static void clear(long[] facts, int index) {
+        facts[index >>> 6] &= ~(1L << index);
+    }
+    
+    public static boolean get(long[] facts, int index) {
+        return (facts[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    public static void fill(long[] facts) {
+        Arrays.fill(facts, -1L);
+    }
+    
+    public static void union(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+    
+    public static void intersect(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= source[i];
+        }
+    }
+    
+    public static void subtract(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~source[i];
+        }
+    }
+}
\ No newline at end of file
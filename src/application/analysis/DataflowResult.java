@@ -0,0 +1,68 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.List;
+
+public class DataflowResult {
+    
+    private final ControlFlowGraph graph;
+    private final DataflowAnalysis analysis;
+    private final long[][] blockStart;
+    private final long[][] blockEnd;
+    
+    DataflowResult(ControlFlowGraph graph, DataflowAnalysis analysis, long[][] blockStart, long[][] blockEnd) {
+        this.graph = graph;
+        this.analysis = analysis;
+        this.blockStart = blockStart;
+        this.blockEnd = blockEnd;
+    }
+    
+    public DataflowAnalysis getAnalysis() {
+        return analysis;
+    }
+    
+    public long[] getBlockStart(ControlFlowGraph.BasicBlock block) {
+        return blockStart[block.getId()].clone();
+    }
+    
+    public long[] getBlockEnd(ControlFlowGraph.BasicBlock block) {
+        return blockEnd[block.getId()].clone();
+    }
+    
+    // Facts in program order around a single element, replayed from the nearest block boundary
+    public long[] factsBefore(Node element) {
+        return factsAround(element, true);
+    }
+    
+    public long[] factsAfter(Node element) {
+        return factsAround(element, false);
+    }
+    
+    private long[] factsAround(Node element, boolean before) {
+        ControlFlowGraph.BasicBlock block = graph.getBlock(element);
+        if (block == null) {
+            throw new IllegalArgumentException("Node is not an element of this graph: " + element);
+        }
+        List<Node> elements = block.getElements();
+        
+        if (analysis.getDirection() == DataflowAnalysis.Direction.FORWARD) {
+            long[] facts = blockStart[block.getId()].clone();
+            for (Node current : elements) {
+                if (current == element && before) break;
+                analysis.transfer(current, facts);
+                if (current == element) break;
+            }
+            return facts;
+        }
+        
+        long[] facts = blockEnd[block.getId()].clone();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            Node current = elements.get(i);
+            if (current == element && !before) break;
+            analysis.transfer(current, facts);
+            if (current == element) break;
+        }
+        return facts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+public class DataflowSolver {
+    
+    public static DataflowResult solve(ControlFlowGraph graph, DataflowAnalysis analysis) {
+        boolean forward = analysis.getDirection() == DataflowAnalysis.Direction.FORWARD;
+        int blockCount = graph.getBlocks().size();
+        int words = analysis.getWordCount();
+        
+        long[][] blockStart = new long[blockCount][words];
+        long[][] blockEnd = new long[blockCount][words];
+        if (analysis.isMustAnalysis()) {
+            for (int i = 0; i < blockCount; i++) {
+                DataflowAnalysis.fill(blockStart[i]);
+                DataflowAnalysis.fill(blockEnd[i]);
+            }
+        }
+        
+        ControlFlowGraph.BasicBlock boundary = forward ? graph.getEntry() : graph.getExit();
+        long[] boundaryFacts = new long[words];
+        analysis.initializeBoundary(boundaryFacts);
+        
+        // Reverse postorder for forward problems and postorder for backward ones keeps iterations low
+        List<ControlFlowGraph.BasicBlock> order = graph.reversePostorder();
+        if (!forward) {
+            Collections.reverse(order);
+        }
+        
+        Deque<ControlFlowGraph.BasicBlock> worklist = new ArrayDeque<>(order);
+        boolean[] queued = new boolean[blockCount];
+        for (ControlFlowGraph.BasicBlock block : order) {
+            queued[block.getId()] = true;
+        }
+        
+        long[] scratch = new long[words];
+        while (!worklist.isEmpty()) {
+            ControlFlowGraph.BasicBlock block = worklist.poll();
+            queued[block.getId()] = false;
+            
+            long[] input = forward ? blockStart[block.getId()] : blockEnd[block.getId()];
+            if (block == boundary) {
+                System.arraycopy(boundaryFacts, 0, input, 0, words);
+            } else {
+                meet(graph, analysis, block, forward, blockStart, blockEnd, input, scratch);
+            }
+            
+            long[] output = input.clone();
+            List<Node> elements = block.getElements();
+            if (forward) {
+                for (Node element : elements) {
+                    analysis.transfer(element, output);
+                }
+            } else {
+                for (int i = elements.size() - 1; i >= 0; i--) {
+                    analysis.transfer(elements.get(i), output);
+                }
+            }
+            
+            long[] previous = forward ? blockEnd[block.getId()] : blockStart[block.getId()];
+            if (Arrays.equals(previous, output)) continue;
+            System.arraycopy(output, 0, previous, 0, words);
+            
+            List<ControlFlowGraph.Edge> dependents = forward ? block.getOutgoing() : block.getIncoming();
+            for (ControlFlowGraph.Edge edge : dependents) {
+                ControlFlowGraph.BasicBlock next = forward ? edge.getTarget() : edge.getSource();
+                if (!queued[next.getId()]) {
+                    queued[next.getId()] = true;
+                    worklist.add(next);
+                }
+            }
+        }
+        
+        return new DataflowResult(graph, analysis, blockStart, blockEnd);
+    }
+    
+    private static void meet(ControlFlowGraph graph, DataflowAnalysis analysis, ControlFlowGraph.BasicBlock block,
+                             boolean forward, long[][] blockStart, long[][] blockEnd, long[] input, long[] scratch) {
+        List<ControlFlowGraph.Edge> edges = forward ? block.getIncoming() : block.getOutgoing();
+        boolean first = true;
+        
+        for (ControlFlowGraph.Edge edge : edges) {
+            ControlFlowGraph.BasicBlock neighbour = forward ? edge.getSource() : edge.getTarget();
+            if (forward && !graph.isReachable(neighbour)) continue;
+            
+            long[] facts = forward ? blockEnd[neighbour.getId()] : blockStart[neighbour.getId()];
+            System.arraycopy(facts, 0, scratch, 0, scratch.length);
+            if (forward) {
+                analysis.transferEdge(edge, scratch);
+            }
+            
+            if (first) {
+                System.arraycopy(scratch, 0, input, 0, input.length);
+                first = false;
+            } else if (analysis.isMustAnalysis()) {
+                DataflowAnalysis.intersect(input, scratch);
+            } else {
+                DataflowAnalysis.union(input, scratch);
+            }
+        }
+        
+        if (first) {
+            Arrays.fill(input, 0L);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,315 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.*;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DefUseIndex {
+    
+    public enum SymbolKind {
+        PARAMETER, LOCAL, LOOP_VARIABLE, CATCH_PARAMETER, PATTERN_VARIABLE
+    }
+    
+    public static class Symbol {
+        private final String name;
+        private final String type;
+        private final SymbolKind kind;
+        private final Node declaration;
+        private final List<NameExpr> reads = new ArrayList<>();
+        private final List<Expression> writes = new ArrayList<>();
+        
+        Symbol(String name, String type, SymbolKind kind, Node declaration) {
+            this.name = name;
+            this.type = type;
+            this.kind = kind;
+            this.declaration = declaration;
+        }
+        
+        public String getName() { return name; }
+        public String getType() { return type; }
+        public SymbolKind getKind() { return kind; }
+        public Node getDeclaration() { return declaration; }
+        public List<NameExpr> getReads() { return reads; }
+        public List<Expression> getWrites() { return writes; }
+        
+        public boolean isRead() {
+            return !reads.isEmpty();
+        }
+        
+        public boolean isReferenced() {
+            return !reads.isEmpty() || !writes.isEmpty();
+        }
+    }
+    
+    private final Node root;
+    private final List<Symbol> symbols = new ArrayList<>();
+    private final Map<Node, Symbol> symbolsByDeclaration = new IdentityHashMap<>();
+    private final Map<NameExpr, Symbol> symbolsByReference = new IdentityHashMap<>();
+    private final Map<String, Set<String>> typesByName = new HashMap<>();
+    private final Map<String, Integer> unresolvedReferences = new HashMap<>();
+    
+    private DefUseIndex(Node root) {
+        this.root = root;
+    }
+    
+    public static DefUseIndex build(Node root) {
+        DefUseIndex index = new DefUseIndex(root);
+        root.accept(index.new Builder(), null);
+        return index;
+    }
+    
+    public Node getRoot() {
+        return root;
+    }
+    
+    public Collection<Symbol> getSymbols() {
+        return Collections.unmodifiableList(symbols);
+    }
+    
+    public Symbol getSymbol(Node declaration) {
+        return symbolsByDeclaration.get(declaration);
+    }
+    
+    public Symbol resolve(NameExpr reference) {
+        return symbolsByReference.get(reference);
+    }
+    
+    public boolean isReferenced(VariableDeclarator declarator) {
+        Symbol symbol = symbolsByDeclaration.get(declarator);
+        return symbol == null || symbol.isReferenced();
+    }
+    
+    public boolean isDeclaredAs(String name, String type) {
+        Set<String> types = typesByName.get(name);
+        return types != null && types.contains(type);
+    }
+    
+    public int getUnresolvedReferenceCount(String name) {
+        return unresolvedReferences.getOrDefault(name, 0);
+    }
+    
+    private class Builder extends VoidVisitorAdapter<Void> {
+        
+        private final Deque<Map<String, Symbol>> scopes = new ArrayDeque<>();
+        
+        Builder() {
+            scopes.push(new HashMap<>());
+        }
+        
+        private void declare(String name, String type, SymbolKind kind, Node declaration) {
+            Symbol symbol = new Symbol(name, type, kind, declaration);
+            symbols.add(symbol);
+            symbolsByDeclaration.put(declaration, symbol);
+            typesByName.computeIfAbsent(name, key -> new HashSet<>()).add(type);
+            scopes.peek().put(name, symbol);
+        }
+        
+        private Symbol lookup(String name) {
+            for (Map<String, Symbol> scope : scopes) {
+                Symbol symbol = scope.get(name);
+                if (symbol != null) return symbol;
+            }
+            return null;
+        }
+        
+        private void enterScope() {
+            scopes.push(new HashMap<>());
+        }
+        
+        private void exitScope() {
+            scopes.pop();
+        }
+        
+        // The adapter visits bodies before parameters and for-init, so declarations are walked first here
+        @Override
+        public void visit(MethodDeclaration md, Void arg) {
+            enterScope();
+            md.getParameters().forEach(parameter -> parameter.accept(this, arg));
+            md.getBody().ifPresent(body -> body.accept(this, arg));
+            exitScope();
+        }
+        
+        @Override
+        public void visit(ConstructorDeclaration cd, Void arg) {
+            enterScope();
+            cd.getParameters().forEach(parameter -> parameter.accept(this, arg));
+            cd.getBody().accept(this, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(LambdaExpr le, Void arg) {
+            enterScope();
+            le.getParameters().forEach(parameter -> parameter.accept(this, arg));
+            le.getBody().accept(this, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(Parameter p, Void arg) {
+            super.visit(p, arg);
+            declare(p.getNameAsString(), p.getTypeAsString(), SymbolKind.PARAMETER, p);
+        }
+        
+        @Override
+        public void visit(BlockStmt bs, Void arg) {
+            enterScope();
+            super.visit(bs, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(SwitchStmt ss, Void arg) {
+            // Declarations in one case stay visible in the following cases
+            enterScope();
+            super.visit(ss, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(ForStmt fs, Void arg) {
+            enterScope();
+            fs.getInitialization().forEach(init -> init.accept(this, arg));
+            fs.getCompare().ifPresent(compare -> compare.accept(this, arg));
+            fs.getUpdate().forEach(update -> update.accept(this, arg));
+            fs.getBody().accept(this, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(ForEachStmt fes, Void arg) {
+            fes.getIterable().accept(this, arg);
+            
+            enterScope();
+            for (VariableDeclarator vd : fes.getVariable().getVariables()) {
+                declare(vd.getNameAsString(), vd.getTypeAsString(), SymbolKind.LOOP_VARIABLE, vd);
+            }
+            fes.getBody().accept(this, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(TryStmt ts, Void arg) {
+            // Resources are scoped to the try block
+            enterScope();
+            ts.getResources().forEach(resource -> resource.accept(this, arg));
+            ts.getTryBlock().accept(this, arg);
+            exitScope();
+            
+            ts.getCatchClauses().forEach(catchClause -> catchClause.accept(this, arg));
+            ts.getFinallyBlock().ifPresent(finallyBlock -> finallyBlock.accept(this, arg));
+        }
+        
+        @Override
+        public void visit(CatchClause cc, Void arg) {
+            enterScope();
+            Parameter parameter = cc.getParameter();
+            declare(parameter.getNameAsString(), parameter.getTypeAsString(), SymbolKind.CATCH_PARAMETER, parameter);
+            cc.getBody().accept(this, arg);
+            exitScope();
+        }
+        
+        @Override
+        public void visit(ObjectCreationExpr oce, Void arg) {
+            oce.getScope().ifPresent(scope -> scope.accept(this, arg));
+            oce.getArguments().forEach(argument -> argument.accept(this, arg));
+            
+            if (oce.getAnonymousClassBody().isPresent()) {
+                enterScope();
+                oce.getAnonymousClassBody().get().forEach(member -> member.accept(this, arg));
+                exitScope();
+            }
+        }
+        
+        @Override
+        public void visit(FieldDeclaration fd, Void arg) {
+            // Fields of local and anonymous classes are members, not locals; only their initializers matter
+            for (VariableDeclarator vd : fd.getVariables()) {
+                vd.getInitializer().ifPresent(initializer -> initializer.accept(this, arg));
+            }
+        }
+        
+        @Override
+        public void visit(VariableDeclarator vd, Void arg) {
+            vd.getInitializer().ifPresent(initializer -> initializer.accept(this, arg));
+            
+            SymbolKind kind = vd.getParentNode().flatMap(Node::getParentNode)
+                                .filter(grandParent -> grandParent instanceof ForStmt)
+                                .isPresent() ? SymbolKind.LOOP_VARIABLE : SymbolKind.LOCAL;
+            declare(vd.getNameAsString(), declaredType(vd), kind, vd);
+        }
+        
+        @Override
+        public void visit(TypePatternExpr tpe, Void arg) {
+            declare(tpe.getNameAsString(), tpe.getTypeAsString(), SymbolKind.PATTERN_VARIABLE, tpe);
+        }
+        
+        @Override
+        public void visit(NameExpr ne, Void arg) {
+            String name = ne.getNameAsString();
+            Symbol symbol = lookup(name);
+            
+            if (symbol == null) {
+                unresolvedReferences.merge(name, 1, Integer::sum);
+                return;
+            }
+            
+            symbolsByReference.put(ne, symbol);
+            Node parent = ne.getParentNode().orElse(null);
+            
+            if (parent instanceof AssignExpr && ((AssignExpr) parent).getTarget() == ne) {
+                AssignExpr assignment = (AssignExpr) parent;
+                symbol.writes.add(assignment);
+                if (assignment.getOperator() != AssignExpr.Operator.ASSIGN) {
+                    symbol.reads.add(ne);
+                }
+            } else if (parent instanceof UnaryExpr && isIncrementOrDecrement((UnaryExpr) parent)) {
+                symbol.writes.add((UnaryExpr) parent);
+                symbol.reads.add(ne);
+            } else {
+                symbol.reads.add(ne);
+            }
+        }
+        
+        private boolean isIncrementOrDecrement(UnaryExpr ue) {
+            return ue.getOperator() == UnaryExpr.Operator.POSTFIX_INCREMENT ||
+                   ue.getOperator() == UnaryExpr.Operator.POSTFIX_DECREMENT ||
+                   ue.getOperator() == UnaryExpr.Operator.PREFIX_INCREMENT ||
+                   ue.getOperator() == UnaryExpr.Operator.PREFIX_DECREMENT;
+        }
+        
+        private String declaredType(VariableDeclarator vd) {
+            String type = vd.getTypeAsString();
+            if (!"var".equals(type) || !vd.getInitializer().isPresent()) {
+                return type;
+            }
+            
+            Expression initializer = vd.getInitializer().get();
+            if (initializer instanceof StringLiteralExpr || initializer instanceof TextBlockLiteralExpr) {
+                return "String";
+            }
+            if (initializer instanceof ObjectCreationExpr) {
+                return ((ObjectCreationExpr) initializer).getType().getNameAsString();
+            }
+            return type;
+        }
+    }
+}
\ No newline at end of file
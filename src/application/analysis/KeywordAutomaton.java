@@ -0,0 +1,122 @@
+package application.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// Aho-Corasick matcher over up to 64 ASCII keywords, case-insensitive; the caller feeds it one char at a time
+public class KeywordAutomaton {
+    
+    public static final int START = 0;
+    
+    // ASCII letters are folded to lower case; anything outside ASCII shares symbol 0, which no keyword uses
+    private static final int ALPHABET = 128;
+    
+    private final int[] transitions;
+    private final long[] matches;
+    private final long[] terminals;
+    private final int[] depths;
+    
+    public KeywordAutomaton(String... keywords) {
+        if (keywords.length > 64) throw new IllegalArgumentException("At most 64 keywords, got " + keywords.length);
+        
+        List<int[]> children = new ArrayList<>();
+        List<Long> terminalList = new ArrayList<>();
+        List<Integer> depthList = new ArrayList<>();
+        children.add(newRow());
+        terminalList.add(0L);
+        depthList.add(0);
+        
+        for (int k = 0; k < keywords.length; k++) {
+            String keyword = keywords[k];
+            if (keyword.isEmpty()) throw new IllegalArgumentException("Empty keyword");
+            
+            int state = START;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = symbol(keyword.charAt(i));
+                if (symbol == 0) throw new IllegalArgumentException("Keyword is not ASCII: " + keyword);
+                
+                if (children.get(state)[symbol] < 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(newRow());
+                    terminalList.add(0L);
+                    depthList.add(i + 1);
+                }
+                state = children.get(state)[symbol];
+            }
+            terminalList.set(state, terminalList.get(state) | 1L << k);
+        }
+        
+        int count = children.size();
+        transitions = new int[count * ALPHABET];
+        matches = new long[count];
+        terminals = new long[count];
+        depths = new int[count];
+        for (int state = 0; state < count; state++) {
+            terminals[state] = terminalList.get(state);
+            depths[state] = depthList.get(state);
+        }
+        
+        // Breadth-first, so each state's failure target is complete before its children copy from it
+        int[] failure = new int[count];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = children.get(START)[symbol];
+            transitions[symbol] = child < 0 ? START : child;
+            if (child > 0) queue.add(child);
+        }
+        matches[START] = terminals[START];
+        
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] = terminals[state] | matches[failure[state]];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = children.get(state)[symbol];
+                if (child < 0) {
+                    transitions[state * ALPHABET + symbol] = transitions[failure[state] * ALPHABET + symbol];
+                } else {
+                    failure[child] = transitions[failure[state] * ALPHABET + symbol];
+                    transitions[state * ALPHABET + symbol] = child;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+    
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+    
+    private static int symbol(char ch) {
+        if (ch >= ALPHABET) return 0;
+        return ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch;
+    }
+    
+    public int step(int state, char ch) {
+        return transitions[state * ALPHABET + symbol(ch)];
+    }
+    
+    // Keywords (bit k for keywords[k]) that end at the char which led to this state
+    public long matchesAt(int state) {
+        return matches[state];
+    }
+    
+    // Keywords that make up everything read so far, when the state was reached from START without a failure
+    public long prefixMatchesAt(int state, int charsRead) {
+        return depths[state] == charsRead ? terminals[state] : 0L;
+    }
+    
+    public long findAll(CharSequence text) {
+        int state = START;
+        long found = 0L;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            found |= matches[state];
+        }
+        return found;
+    }
+}
\ No newline at end of file
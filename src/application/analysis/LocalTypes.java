@@ -0,0 +1,130 @@
+package application.analysis;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Types as far as declarations in the same unit tell them; no classpath or symbol solver is involved
+public class LocalTypes {
+    
+    // Field declarators by name, kept on the type so lookups in large classes do not rescan every member
+    private static final DataKey<Map<String, VariableDeclarator>> FIELDS = new DataKey<Map<String, VariableDeclarator>>() { };
+    
+    private final DefUseIndex index;
+    
+    public LocalTypes(DefUseIndex index) {
+        this.index = index;
+    }
+    
+    public static String rawName(String type) {
+        if (type == null) return null;
+        
+        int typeArguments = type.indexOf('<');
+        String raw = typeArguments >= 0 ? type.substring(0, typeArguments) : type;
+        int qualifier = raw.lastIndexOf('.');
+        return (qualifier >= 0 ? raw.substring(qualifier + 1) : raw).trim();
+    }
+    
+    // Declared type of a local, parameter, field, literal, cast or creation; null when it cannot be told locally
+    public String getDeclaredType(Expression expression) {
+        if (expression instanceof EnclosedExpr) {
+            return getDeclaredType(((EnclosedExpr) expression).getInner());
+        }
+        if (expression instanceof IntegerLiteralExpr) return "int";
+        if (expression instanceof LongLiteralExpr) return "long";
+        if (expression instanceof DoubleLiteralExpr) {
+            String value = ((DoubleLiteralExpr) expression).getValue();
+            return value.endsWith("f") || value.endsWith("F") ? "float" : "double";
+        }
+        if (expression instanceof BooleanLiteralExpr) return "boolean";
+        if (expression instanceof CharLiteralExpr) return "char";
+        if (expression instanceof StringLiteralExpr || expression instanceof TextBlockLiteralExpr) return "String";
+        if (expression instanceof CastExpr) return ((CastExpr) expression).getTypeAsString();
+        if (expression instanceof ObjectCreationExpr) return ((ObjectCreationExpr) expression).getTypeAsString();
+        
+        if (expression instanceof NameExpr) {
+            DefUseIndex.Symbol symbol = index.resolve((NameExpr) expression);
+            if (symbol != null) return symbol.getType();
+        }
+        VariableDeclarator declarator = findDeclarator(expression);
+        return declarator != null ? declarator.getTypeAsString() : null;
+    }
+    
+    // The class actually created when every value stored in the variable comes from one `new`, else the declared type
+    public String getInstantiatedType(Expression expression) {
+        String declared = getDeclaredType(expression);
+        VariableDeclarator declarator = findDeclarator(expression);
+        if (declarator == null) return declared;
+        
+        List<Expression> values = new ArrayList<>();
+        declarator.getInitializer().ifPresent(values::add);
+        DefUseIndex.Symbol symbol = index.getSymbol(declarator);
+        if (symbol != null) {
+            for (Expression write : symbol.getWrites()) {
+                if (!(write instanceof AssignExpr)) return declared;
+                values.add(((AssignExpr) write).getValue());
+            }
+        }
+        
+        String instantiated = null;
+        for (Expression value : values) {
+            if (!(value instanceof ObjectCreationExpr)) return declared;
+            
+            String created = ((ObjectCreationExpr) value).getType().getNameAsString();
+            if (instantiated != null && !instantiated.equals(created)) return declared;
+            instantiated = created;
+        }
+        return instantiated != null ? instantiated : declared;
+    }
+    
+    // The local or field declarator behind a name or this.name; fields are searched from the innermost type outwards
+    public VariableDeclarator findDeclarator(Expression expression) {
+        String fieldName;
+        if (expression instanceof NameExpr) {
+            DefUseIndex.Symbol symbol = index.resolve((NameExpr) expression);
+            if (symbol != null) {
+                Node declaration = symbol.getDeclaration();
+                return declaration instanceof VariableDeclarator ? (VariableDeclarator) declaration : null;
+            }
+            fieldName = ((NameExpr) expression).getNameAsString();
+        } else if (expression instanceof FieldAccessExpr &&
+                   ((FieldAccessExpr) expression).getScope() instanceof ThisExpr) {
+            fieldName = ((FieldAccessExpr) expression).getNameAsString();
+        } else {
+            return null;
+        }
+        
+        Node current = expression.getParentNode().orElse(null);
+        while (current != null) {
+            if (current instanceof TypeDeclaration) {
+                VariableDeclarator field = fieldsOf((TypeDeclaration<?>) current).get(fieldName);
+                if (field != null) return field;
+            }
+            current = current.getParentNode().orElse(null);
+        }
+        return null;
+    }
+    
+    private static Map<String, VariableDeclarator> fieldsOf(TypeDeclaration<?> type) {
+        synchronized (type) {
+            if (type.containsData(FIELDS)) {
+                return type.getData(FIELDS);
+            }
+            
+            Map<String, VariableDeclarator> fields = new HashMap<>();
+            for (FieldDeclaration field : type.getFields()) {
+                field.getVariables().forEach(variable -> fields.putIfAbsent(variable.getNameAsString(), variable));
+            }
+            type.setData(FIELDS, fields);
+            return fields;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,447 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.LocalClassDeclarationStmt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class MethodDataflow {
+    
+    private static final int[] NONE = new int[0];
+    
+    private final ControlFlowGraph graph;
+    private final DefUseIndex index;
+    private final List<DefUseIndex.Symbol> variables = new ArrayList<>();
+    private final Map<DefUseIndex.Symbol, Integer> variableIds = new IdentityHashMap<>();
+    private final List<Node> definitions = new ArrayList<>();
+    private final List<Integer> definitionVariables = new ArrayList<>();
+    private final Map<Node, int[]> definitionsByElement = new IdentityHashMap<>();
+    private final Map<Node, int[]> usesByElement = new IdentityHashMap<>();
+    private final Map<Node, List<NameExpr>> readsByElement = new IdentityHashMap<>();
+    private final List<Integer> parameterDefinitions = new ArrayList<>();
+    private long[][] definitionsOfVariable;
+    
+    private DataflowResult reachingDefinitions;
+    private DataflowResult liveVariables;
+    private DataflowResult definiteAssignment;
+    private DataflowResult nonNullVariables;
+    
+    public MethodDataflow(ControlFlowGraph graph, DefUseIndex index) {
+        this.graph = graph;
+        this.index = index;
+        internVariables();
+    }
+    
+    public static MethodDataflow build(Node owner) {
+        return new MethodDataflow(ControlFlowGraph.build(owner), DefUseIndex.build(owner));
+    }
+    
+    public ControlFlowGraph getControlFlowGraph() { return graph; }
+    public DefUseIndex getDefUseIndex() { return index; }
+    
+    public int getVariableCount() {
+        return variables.size();
+    }
+    
+    // Locals and parameters of the graph owner; lambda and local class variables belong to their own bodies
+    public boolean isTracked(DefUseIndex.Symbol symbol) {
+        return symbol != null && variableIds.containsKey(symbol);
+    }
+    
+    public DataflowResult getReachingDefinitions() {
+        if (reachingDefinitions == null) {
+            reachingDefinitions = DataflowSolver.solve(graph, new ReachingDefinitions());
+        }
+        return reachingDefinitions;
+    }
+    
+    public DataflowResult getLiveVariables() {
+        if (liveVariables == null) {
+            liveVariables = DataflowSolver.solve(graph, new LiveVariables());
+        }
+        return liveVariables;
+    }
+    
+    public DataflowResult getDefiniteAssignment() {
+        if (definiteAssignment == null) {
+            definiteAssignment = DataflowSolver.solve(graph, new DefiniteAssignment());
+        }
+        return definiteAssignment;
+    }
+    
+    public DataflowResult getNonNullVariables() {
+        if (nonNullVariables == null) {
+            nonNullVariables = DataflowSolver.solve(graph, new NonNullVariables());
+        }
+        return nonNullVariables;
+    }
+    
+    // Definition sites (declarators, assignments, increments, parameters) of the read's variable that reach it
+    public List<Node> getReachingDefinitions(NameExpr read) {
+        List<Node> reaching = new ArrayList<>();
+        Integer variable = variableOf(read);
+        Node element = graph.getElement(read);
+        if (variable == null || element == null) return reaching;
+        
+        long[] facts = getReachingDefinitions().factsBefore(element);
+        long[] candidates = definitionsOfVariable[variable];
+        for (int word = 0; word < candidates.length; word++) {
+            long bits = candidates[word] & facts[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                reaching.add(definitions.get((word << 6) + bit));
+                bits &= bits - 1;
+            }
+        }
+        return reaching;
+    }
+    
+    public boolean isDefinitelyAssigned(NameExpr read) {
+        Integer variable = variableOf(read);
+        Node element = graph.getElement(read);
+        if (variable == null || element == null) return true;
+        
+        return DataflowAnalysis.get(getDefiniteAssignment().factsBefore(element), variable);
+    }
+    
+    // False when every value stored into the variable is overwritten or dropped before being read
+    public boolean hasLiveDefinition(DefUseIndex.Symbol symbol) {
+        Integer variable = variableIds.get(symbol);
+        if (variable == null) return true;
+        
+        boolean defined = false;
+        for (int definition = 0; definition < definitions.size(); definition++) {
+            if (definitionVariables.get(definition) != variable.intValue()) continue;
+            defined = true;
+            
+            Node element = graph.getElement(definitions.get(definition));
+            if (element == null) return true;
+            if (DataflowAnalysis.get(getLiveVariables().factsAfter(element), variable)) return true;
+        }
+        return !defined;
+    }
+    
+    // The literal every reaching definition assigns, or null when they disagree or are not literals
+    public LiteralExpr getConstantValue(NameExpr read) {
+        LiteralExpr constant = null;
+        for (Node definition : getReachingDefinitions(read)) {
+            Expression value = definedValue(definition);
+            if (!(value instanceof LiteralExpr)) return null;
+            if (constant != null && !constant.equals(value)) return null;
+            constant = (LiteralExpr) value;
+        }
+        return constant;
+    }
+    
+    public boolean isDefinitelyNonNull(NameExpr read) {
+        Integer variable = variableOf(read);
+        Node element = graph.getElement(read);
+        if (variable == null || element == null) return false;
+        
+        return DataflowAnalysis.get(getNonNullVariables().factsBefore(element), variable);
+    }
+    
+    public boolean mayBeNull(NameExpr read, Predicate<Expression> possiblyNullValue) {
+        if (!isTracked(index.resolve(read)) || isDefinitelyNonNull(read)) return false;
+        
+        for (Node definition : getReachingDefinitions(read)) {
+            Expression value = definedValue(definition);
+            if (value != null && possiblyNullValue.test(value)) return true;
+        }
+        return false;
+    }
+    
+    // The value stored by a plain definition; compound assignments, increments and parameters have none
+    public static Expression definedValue(Node definition) {
+        if (definition instanceof VariableDeclarator) {
+            return ((VariableDeclarator) definition).getInitializer().map(MethodDataflow::unwrap).orElse(null);
+        }
+        if (definition instanceof AssignExpr && ((AssignExpr) definition).getOperator() == AssignExpr.Operator.ASSIGN) {
+            return unwrap(((AssignExpr) definition).getValue());
+        }
+        return null;
+    }
+    
+    private static Expression unwrap(Expression expression) {
+        while (expression instanceof EnclosedExpr || expression instanceof CastExpr) {
+            expression = expression instanceof EnclosedExpr ? ((EnclosedExpr) expression).getInner()
+                                                            : ((CastExpr) expression).getExpression();
+        }
+        return expression;
+    }
+    
+    Integer variableOf(NameExpr read) {
+        DefUseIndex.Symbol symbol = index.resolve(read);
+        return symbol != null ? variableIds.get(symbol) : null;
+    }
+    
+    // Numbering shared with other analyses in this package that track the same variables
+    DefUseIndex.Symbol getVariable(int variable) {
+        return variables.get(variable);
+    }
+    
+    int[] getDefinitionsAt(Node element) {
+        return definitionsByElement.getOrDefault(element, NONE);
+    }
+    
+    Node getDefinitionSite(int definition) {
+        return definitions.get(definition);
+    }
+    
+    int getDefinitionVariable(int definition) {
+        return definitionVariables.get(definition);
+    }
+    
+    private void internVariables() {
+        for (DefUseIndex.Symbol symbol : index.getSymbols()) {
+            if (!isLocalToOwner(symbol.getDeclaration())) continue;
+            
+            int variable = variables.size();
+            variables.add(symbol);
+            variableIds.put(symbol, variable);
+            
+            Node declaration = symbol.getDeclaration();
+            boolean declares = symbol.getKind() == DefUseIndex.SymbolKind.PARAMETER ||
+                               symbol.getKind() == DefUseIndex.SymbolKind.CATCH_PARAMETER ||
+                               symbol.getKind() == DefUseIndex.SymbolKind.PATTERN_VARIABLE ||
+                               (declaration instanceof VariableDeclarator &&
+                                (((VariableDeclarator) declaration).getInitializer().isPresent() ||
+                                 isForEachVariable((VariableDeclarator) declaration)));
+            if (declares) {
+                addDefinition(declaration, variable, symbol.getKind() == DefUseIndex.SymbolKind.PARAMETER);
+            }
+            for (Expression write : symbol.getWrites()) {
+                addDefinition(write, variable, false);
+            }
+            for (NameExpr read : symbol.getReads()) {
+                Node element = graph.getElement(read);
+                if (element == null) continue;
+                usesByElement.put(element, append(usesByElement.getOrDefault(element, NONE), variable));
+                readsByElement.computeIfAbsent(element, key -> new ArrayList<>()).add(read);
+            }
+        }
+        
+        int words = (definitions.size() + 63) >>> 6;
+        definitionsOfVariable = new long[variables.size()][words];
+        for (int definition = 0; definition < definitions.size(); definition++) {
+            DataflowAnalysis.set(definitionsOfVariable[definitionVariables.get(definition)], definition);
+        }
+    }
+    
+    private void addDefinition(Node site, int variable, boolean atEntry) {
+        int definition = definitions.size();
+        definitions.add(site);
+        definitionVariables.add(variable);
+        
+        if (atEntry) {
+            parameterDefinitions.add(definition);
+            return;
+        }
+        Node element = graph.getElement(site);
+        if (element != null) {
+            definitionsByElement.put(element, append(definitionsByElement.getOrDefault(element, NONE), definition));
+        }
+    }
+    
+    private boolean isLocalToOwner(Node declaration) {
+        Node owner = graph.getOwner();
+        Node current = declaration.getParentNode().orElse(null);
+        while (current != null && current != owner) {
+            if (current instanceof LambdaExpr || current instanceof BodyDeclaration ||
+                current instanceof LocalClassDeclarationStmt) {
+                return false;
+            }
+            current = current.getParentNode().orElse(null);
+        }
+        return current == owner;
+    }
+    
+    private boolean isForEachVariable(VariableDeclarator declarator) {
+        return declarator.getParentNode().flatMap(Node::getParentNode)
+                         .filter(grandParent -> grandParent instanceof ForEachStmt)
+                         .isPresent();
+    }
+    
+    private static int[] append(int[] values, int value) {
+        int[] extended = new int[values.length + 1];
+        System.arraycopy(values, 0, extended, 0, values.length);
+        extended[values.length] = value;
+        return extended;
+    }
+    
+    private class ReachingDefinitions extends DataflowAnalysis {
+        
+        ReachingDefinitions() {
+            super(Direction.FORWARD, false, definitions.size());
+        }
+        
+        @Override
+        public void initializeBoundary(long[] facts) {
+            parameterDefinitions.forEach(definition -> set(facts, definition));
+        }
+        
+        @Override
+        public void transfer(Node element, long[] facts) {
+            for (int definition : definitionsByElement.getOrDefault(element, NONE)) {
+                subtract(facts, definitionsOfVariable[definitionVariables.get(definition)]);
+            }
+            for (int definition : definitionsByElement.getOrDefault(element, NONE)) {
+                set(facts, definition);
+            }
+        }
+    }
+    
+    private class LiveVariables extends DataflowAnalysis {
+        
+        LiveVariables() {
+            super(Direction.BACKWARD, false, variables.size());
+        }
+        
+        @Override
+        public void initializeBoundary(long[] facts) {
+        }
+        
+        @Override
+        public void transfer(Node element, long[] facts) {
+            for (int definition : definitionsByElement.getOrDefault(element, NONE)) {
+                clear(facts, definitionVariables.get(definition));
+            }
+            for (int variable : usesByElement.getOrDefault(element, NONE)) {
+                set(facts, variable);
+            }
+        }
+    }
+    
+    private class DefiniteAssignment extends DataflowAnalysis {
+        
+        DefiniteAssignment() {
+            super(Direction.FORWARD, true, variables.size());
+        }
+        
+        @Override
+        public void initializeBoundary(long[] facts) {
+            parameterDefinitions.forEach(definition -> set(facts, definitionVariables.get(definition)));
+        }
+        
+        @Override
+        public void transfer(Node element, long[] facts) {
+            for (int definition : definitionsByElement.getOrDefault(element, NONE)) {
+                set(facts, definitionVariables.get(definition));
+            }
+        }
+    }
+    
+    // Variables known to hold a non-null reference: after a dereference, a null check or a non-null assignment
+    private class NonNullVariables extends DataflowAnalysis {
+        
+        NonNullVariables() {
+            super(Direction.FORWARD, true, variables.size());
+        }
+        
+        @Override
+        public void initializeBoundary(long[] facts) {
+        }
+        
+        @Override
+        public void transfer(Node element, long[] facts) {
+            for (NameExpr read : readsByElement.getOrDefault(element, Collections.emptyList())) {
+                if (isDereferenced(read) || isRequireNonNullArgument(read)) {
+                    set(facts, variableOf(read));
+                }
+            }
+            for (int definition : definitionsByElement.getOrDefault(element, NONE)) {
+                int variable = definitionVariables.get(definition);
+                Node site = definitions.get(definition);
+                if (isNonNullValue(definedValue(site)) || isStringAppend(site)) {
+                    set(facts, variable);
+                } else {
+                    clear(facts, variable);
+                }
+            }
+        }
+        
+        @Override
+        public void transferEdge(ControlFlowGraph.Edge edge, long[] facts) {
+            if (edge.getKind() != ControlFlowGraph.EdgeKind.TRUE && edge.getKind() != ControlFlowGraph.EdgeKind.FALSE) {
+                return;
+            }
+            List<Node> elements = edge.getSource().getElements();
+            if (elements.isEmpty() || !(elements.get(elements.size() - 1) instanceof Expression)) return;
+            
+            addNonNullFacts((Expression) elements.get(elements.size() - 1),
+                            edge.getKind() == ControlFlowGraph.EdgeKind.TRUE, facts);
+        }
+        
+        private void addNonNullFacts(Expression condition, boolean outcome, long[] facts) {
+            condition = unwrap(condition);
+            
+            if (condition instanceof UnaryExpr && ((UnaryExpr) condition).getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+                addNonNullFacts(((UnaryExpr) condition).getExpression(), !outcome, facts);
+            } else if (condition instanceof InstanceOfExpr && outcome) {
+                markNonNull(((InstanceOfExpr) condition).getExpression(), facts);
+            } else if (condition instanceof BinaryExpr) {
+                BinaryExpr binary = (BinaryExpr) condition;
+                BinaryExpr.Operator operator = binary.getOperator();
+                
+                if ((operator == BinaryExpr.Operator.AND && outcome) || (operator == BinaryExpr.Operator.OR && !outcome)) {
+                    addNonNullFacts(binary.getLeft(), outcome, facts);
+                    addNonNullFacts(binary.getRight(), outcome, facts);
+                } else if ((operator == BinaryExpr.Operator.NOT_EQUALS && outcome) ||
+                           (operator == BinaryExpr.Operator.EQUALS && !outcome)) {
+                    if (binary.getRight() instanceof NullLiteralExpr) markNonNull(binary.getLeft(), facts);
+                    if (binary.getLeft() instanceof NullLiteralExpr) markNonNull(binary.getRight(), facts);
+                }
+            }
+        }
+        
+        private void markNonNull(Expression expression, long[] facts) {
+            expression = unwrap(expression);
+            // (line = reader.readLine()) != null checks the variable it assigns
+            if (expression instanceof AssignExpr && ((AssignExpr) expression).getOperator() == AssignExpr.Operator.ASSIGN) {
+                expression = ((AssignExpr) expression).getTarget();
+            }
+            if (expression instanceof NameExpr) {
+                Integer variable = variableOf((NameExpr) expression);
+                if (variable != null) {
+                    set(facts, variable);
+                }
+            }
+        }
+        
+        private boolean isDereferenced(NameExpr read) {
+            Node parent = read.getParentNode().orElse(null);
+            return (parent instanceof MethodCallExpr && ((MethodCallExpr) parent).getScope().orElse(null) == read) ||
+                   (parent instanceof FieldAccessExpr && ((FieldAccessExpr) parent).getScope() == read) ||
+                   (parent instanceof ArrayAccessExpr && ((ArrayAccessExpr) parent).getName() == read);
+        }
+        
+        private boolean isRequireNonNullArgument(NameExpr read) {
+            Node parent = read.getParentNode().orElse(null);
+            if (!(parent instanceof MethodCallExpr)) return false;
+            
+            MethodCallExpr call = (MethodCallExpr) parent;
+            return "requireNonNull".equals(call.getNameAsString()) &&
+                   !call.getArguments().isEmpty() && call.getArguments().get(0) == read;
+        }
+        
+        private boolean isStringAppend(Node site) {
+            return site instanceof AssignExpr && ((AssignExpr) site).getOperator() == AssignExpr.Operator.PLUS;
+        }
+        
+        private boolean isNonNullValue(Expression value) {
+            return value instanceof ObjectCreationExpr || value instanceof ArrayCreationExpr ||
+                   value instanceof ArrayInitializerExpr || value instanceof ThisExpr ||
+                   (value instanceof LiteralExpr && !(value instanceof NullLiteralExpr)) ||
+                   (value instanceof BinaryExpr && ((BinaryExpr) value).getOperator() == BinaryExpr.Operator.PLUS);
+        }
+    }
+}
\ No newline at end of file
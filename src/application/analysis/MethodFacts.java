@@ -0,0 +1,208 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Name-level facts about one method, collected in a single walk so checks never re-serialize the body
+public class MethodFacts {
+    
+    // The only terms mentions() answers for; each is looked for while walking instead of keeping the words
+    private static final String[] TERMS = {
+        "password", "key", "token", "crypto", "security", "auth", "config", "properties"
+    };
+    private static final int ALL_TERMS = (1 << TERMS.length) - 1;
+    
+    private final Map<String, List<Expression>> assignedValues = new HashMap<>();
+    private final Set<String> concatenationDerived = new HashSet<>();
+    private final Map<String, List<Expression>> dereferences = new HashMap<>();
+    private final Set<String> nullChecked = new HashSet<>();
+    private final Set<String> instanceOfChecked = new HashSet<>();
+    private final Set<String> boundsChecked = new HashSet<>();
+    private final Set<String> qualifiedCalls = new HashSet<>();
+    private int mentionedTerms;
+    private boolean hasInstanceOf;
+    
+    public static MethodFacts build(Node owner) {
+        MethodFacts facts = new MethodFacts();
+        owner.walk(facts::record);
+        return facts;
+    }
+    
+    public List<Expression> getAssignedValues(String name) {
+        return assignedValues.getOrDefault(name, Collections.emptyList());
+    }
+    
+    // Assigned from a `+` expression somewhere, or grown with +=
+    public boolean isConcatenationDerived(String name) {
+        return concatenationDerived.contains(name);
+    }
+    
+    // Method call and field access sites that use the name as their receiver
+    public List<Expression> getDereferences(String name) {
+        return dereferences.getOrDefault(name, Collections.emptyList());
+    }
+    
+    public boolean isNullChecked(String name) {
+        return nullChecked.contains(name);
+    }
+    
+    public boolean isInstanceOfChecked(String name) {
+        return instanceOfChecked.contains(name);
+    }
+    
+    public boolean hasInstanceOf() {
+        return hasInstanceOf;
+    }
+    
+    public boolean isBoundsChecked(String name) {
+        return boundsChecked.contains(name);
+    }
+    
+    // A call written as Scope.name(...), e.g. "System.getenv"
+    public boolean callsQualified(String call) {
+        return qualifiedCalls.contains(call);
+    }
+    
+    // True when an identifier or string literal in the method contains the term, ignoring case
+    public boolean mentions(String term) {
+        for (int i = 0; i < TERMS.length; i++) {
+            if (TERMS[i].equals(term)) return (mentionedTerms & (1 << i)) != 0;
+        }
+        throw new IllegalArgumentException("Term is not tracked: " + term);
+    }
+    
+    private void addWord(String word) {
+        if (mentionedTerms == ALL_TERMS) return;
+        
+        for (int i = 0; i < TERMS.length; i++) {
+            if ((mentionedTerms & (1 << i)) == 0 && containsIgnoreCase(word, TERMS[i])) {
+                mentionedTerms |= 1 << i;
+            }
+        }
+    }
+    
+    private static boolean containsIgnoreCase(String word, String term) {
+        for (int start = 0; start + term.length() <= word.length(); start++) {
+            if (word.regionMatches(true, start, term, 0, term.length())) return true;
+        }
+        return false;
+    }
+    
+    private static boolean containsConcatenation(Expression value) {
+        if (value instanceof BinaryExpr) {
+            BinaryExpr binary = (BinaryExpr) value;
+            return binary.getOperator() == BinaryExpr.Operator.PLUS ||
+                   containsConcatenation(binary.getLeft()) || containsConcatenation(binary.getRight());
+        }
+        if (value instanceof EnclosedExpr) return containsConcatenation(((EnclosedExpr) value).getInner());
+        if (value instanceof ConditionalExpr) {
+            ConditionalExpr conditional = (ConditionalExpr) value;
+            return containsConcatenation(conditional.getThenExpr()) || containsConcatenation(conditional.getElseExpr());
+        }
+        return false;
+    }
+    
+    private static String targetName(Expression target) {
+        if (target instanceof NameExpr) return ((NameExpr) target).getNameAsString();
+        if (target instanceof FieldAccessExpr && ((FieldAccessExpr) target).getScope() instanceof ThisExpr) {
+            return ((FieldAccessExpr) target).getNameAsString();
+        }
+        return null;
+    }
+    
+    private void assigned(String name, Expression value) {
+        assignedValues.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        if (containsConcatenation(value)) {
+            concatenationDerived.add(name);
+        }
+    }
+    
+    private void dereferenced(Expression receiver, Expression site) {
+        if (receiver instanceof NameExpr) {
+            String name = ((NameExpr) receiver).getNameAsString();
+            dereferences.computeIfAbsent(name, key -> new ArrayList<>()).add(site);
+        }
+    }
+    
+    private static void addName(Expression operand, Set<String> names) {
+        if (operand instanceof NameExpr) names.add(((NameExpr) operand).getNameAsString());
+    }
+    
+    // Adds what one node contributes, without descending; callers feed every node of the method once
+    public void record(Node node) {
+        if (node instanceof SimpleName) {
+            addWord(((SimpleName) node).getIdentifier());
+        } else if (node instanceof StringLiteralExpr) {
+            addWord(((StringLiteralExpr) node).getValue());
+        } else if (node instanceof VariableDeclarator) {
+            VariableDeclarator vd = (VariableDeclarator) node;
+            vd.getInitializer().ifPresent(value -> assigned(vd.getNameAsString(), value));
+        } else if (node instanceof AssignExpr) {
+            recordAssignment((AssignExpr) node);
+        } else if (node instanceof MethodCallExpr) {
+            recordCall((MethodCallExpr) node);
+        } else if (node instanceof FieldAccessExpr) {
+            dereferenced(((FieldAccessExpr) node).getScope(), (FieldAccessExpr) node);
+        } else if (node instanceof BinaryExpr) {
+            recordComparison((BinaryExpr) node);
+        } else if (node instanceof InstanceOfExpr) {
+            hasInstanceOf = true;
+            addName(((InstanceOfExpr) node).getExpression(), instanceOfChecked);
+        }
+    }
+    
+    private void recordAssignment(AssignExpr ae) {
+        String name = targetName(ae.getTarget());
+        if (name == null) return;
+        
+        assigned(name, ae.getValue());
+        if (ae.getOperator() == AssignExpr.Operator.PLUS) {
+            concatenationDerived.add(name);
+        }
+    }
+    
+    private void recordCall(MethodCallExpr mce) {
+        String name = mce.getNameAsString();
+        if (mce.getScope().isPresent()) {
+            Expression scope = mce.getScope().get();
+            dereferenced(scope, mce);
+            if (scope instanceof NameExpr) {
+                qualifiedCalls.add(((NameExpr) scope).getNameAsString() + "." + name);
+            }
+        }
+        
+        if ("requireNonNull".equals(name) || "isNull".equals(name) || "nonNull".equals(name)) {
+            mce.getArguments().forEach(argument -> addName(argument, nullChecked));
+        } else if ("checkIndex".equals(name) || "checkBounds".equals(name) || "isValidIndex".equals(name)) {
+            mce.getArguments().forEach(argument -> addName(argument, boundsChecked));
+        }
+    }
+    
+    private void recordComparison(BinaryExpr be) {
+        switch (be.getOperator()) {
+            case EQUALS:
+            case NOT_EQUALS:
+                if (be.getRight() instanceof NullLiteralExpr) addName(be.getLeft(), nullChecked);
+                if (be.getLeft() instanceof NullLiteralExpr) addName(be.getRight(), nullChecked);
+                break;
+            case LESS:
+            case LESS_EQUALS:
+            case GREATER:
+            case GREATER_EQUALS:
+                addName(be.getLeft(), boundsChecked);
+                addName(be.getRight(), boundsChecked);
+                break;
+            default:
+                break;
+        }
+    }
+}
\ No newline at end of file
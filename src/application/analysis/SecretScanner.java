@@ -0,0 +1,189 @@
+package application.analysis;
+
+// Decides whether a literal looks like a password, key or token in one pass over its chars, without allocating.
+// Keeps scratch counts, so one instance serves one thread.
+public class SecretScanner {
+    
+    // -Danalyzer.secretEntropy=<bits per char> overrides the entropy a secret-looking value needs
+    private static final String ENTROPY_PROPERTY = "analyzer.secretEntropy";
+    public static final double DEFAULT_ENTROPY_THRESHOLD = 3.0;
+    
+    private static final KeywordAutomaton CREDENTIAL_NAMES = new KeywordAutomaton(
+        "password", "secret", "key", "token", "user", "credential", "auth");
+    
+    private static final int ADMIN = 0;
+    private static final int PRIVATE_KEY = 1;
+    private static final int URL = 2;
+    private static final int FIRST_ASSIGNMENT = 3;
+    private static final int FIRST_PREFIX = 7;
+    private static final KeywordAutomaton VALUE_KEYWORDS = new KeywordAutomaton(
+        "admin", "private key", "://",
+        // Credentials spelled out in connection strings and query parameters
+        "password=", "passwd=", "pwd=", "secret=",
+        // Prefixes of well-known issued keys: OpenAI/Stripe, GitHub, AWS, Slack, Google
+        "sk-", "sk_live_", "rk_live_", "ghp_", "gho_", "github_pat_", "akia", "asia", "xoxb-", "xoxp-", "aiza");
+    private static final long ASSIGNMENTS = (1L << FIRST_PREFIX) - (1L << FIRST_ASSIGNMENT);
+    private static final long PREFIXES = -1L << FIRST_PREFIX;
+    
+    private static final String SPECIAL_CHARS = "!@#$%^&*()_+-=[]{}|;:,.<>?";
+    
+    private static final double[] COUNT_LOG_COUNT = new double[1024];
+    private static final double LOG_2 = Math.log(2);
+    
+    static {
+        for (int count = 1; count < COUNT_LOG_COUNT.length; count++) {
+            COUNT_LOG_COUNT[count] = count * Math.log(count) / LOG_2;
+        }
+    }
+    
+    private static volatile Double configuredThreshold;
+    
+    private final double entropyThreshold;
+    private final int[] counts = new int[256];
+    
+    public SecretScanner() {
+        this(getConfiguredThreshold());
+    }
+    
+    public SecretScanner(double entropyThreshold) {
+        if (entropyThreshold < 0 || Double.isNaN(entropyThreshold)) {
+            throw new IllegalArgumentException("Entropy threshold must be at least 0: " + entropyThreshold);
+        }
+        this.entropyThreshold = entropyThreshold;
+    }
+    
+    public static double getConfiguredThreshold() {
+        Double threshold = configuredThreshold;
+        if (threshold == null) {
+            threshold = DEFAULT_ENTROPY_THRESHOLD;
+            String value = System.getProperty(ENTROPY_PROPERTY);
+            if (value != null) {
+                try {
+                    threshold = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    System.err.println("Ignoring " + ENTROPY_PROPERTY + "=" + value + ": not a number");
+                }
+            }
+            configuredThreshold = threshold;
+        }
+        return threshold;
+    }
+    
+    public double getEntropyThreshold() {
+        return entropyThreshold;
+    }
+    
+    // Field and variable names such as dbPassword, API_KEY or authToken
+    public static boolean isCredentialName(CharSequence name) {
+        int state = KeywordAutomaton.START;
+        for (int i = 0; i < name.length(); i++) {
+            state = CREDENTIAL_NAMES.step(state, name.charAt(i));
+            if (CREDENTIAL_NAMES.matchesAt(state) != 0) return true;
+        }
+        return false;
+    }
+    
+    public boolean looksLikeSecret(CharSequence value) {
+        int length = value.length();
+        if (length < 3) return false;
+        
+        if (equalsIgnoreCase(value, "admin") || equalsIgnoreCase(value, "administrator") ||
+            equalsIgnoreCase(value, "root") || equalsIgnoreCase(value, "sa")) {
+            return true;
+        }
+        
+        boolean upper = false, lower = false, digit = false, special = false, whitespace = false, assigned = false;
+        long keywords = 0L;
+        int state = KeywordAutomaton.START;
+        double countLogCount = 0;
+        
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (Character.isUpperCase(ch)) upper = true;
+            else if (Character.isLowerCase(ch)) lower = true;
+            else if (Character.isDigit(ch)) digit = true;
+            else if (Character.isWhitespace(ch)) whitespace = true;
+            else if (SPECIAL_CHARS.indexOf(ch) >= 0) special = true;
+            
+            state = VALUE_KEYWORDS.step(state, ch);
+            long matches = VALUE_KEYWORDS.matchesAt(state);
+            keywords |= matches & ~PREFIXES | VALUE_KEYWORDS.prefixMatchesAt(state, i + 1);
+            // password= only counts with a value after it, not as the head of a concatenation
+            if ((matches & ASSIGNMENTS) != 0 && i + 1 < length && value.charAt(i + 1) != '&') assigned = true;
+            
+            // Entropy as log2(n) - sum(c * log2 c) / n, kept up to date as each count grows
+            int bucket = ch & 0xFF;
+            int count = counts[bucket]++;
+            countLogCount += countLogCount(count + 1) - countLogCount(count);
+        }
+        for (int i = 0; i < length; i++) {
+            counts[value.charAt(i) & 0xFF] = 0;
+        }
+        
+        if (has(keywords, ADMIN) && length < 20) return true;
+        if (has(keywords, PRIVATE_KEY) || assigned) return true;
+        if ((keywords & PREFIXES) != 0 && length >= 12 && !whitespace) return true;
+        if (whitespace || has(keywords, URL) || length < 6) return false;
+        
+        int classes = (upper ? 1 : 0) + (lower ? 1 : 0) + (digit ? 1 : 0) + (special ? 1 : 0);
+        double entropy = log2(length) - countLogCount / length;
+        // Short values cannot reach a high per-char entropy, so they are held to a share of their maximum
+        return classes >= 2 && entropy >= Math.min(entropyThreshold, 0.9 * log2(length));
+    }
+    
+    // Only the signals that hold without context: private key blocks and well-known issued-key prefixes
+    public static boolean looksLikeIssuedSecret(CharSequence value) {
+        int length = value.length();
+        int state = KeywordAutomaton.START;
+        boolean whitespace = false;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            whitespace |= Character.isWhitespace(ch);
+            state = VALUE_KEYWORDS.step(state, ch);
+            if (has(VALUE_KEYWORDS.matchesAt(state), PRIVATE_KEY)) return true;
+            if ((VALUE_KEYWORDS.prefixMatchesAt(state, i + 1) & PREFIXES) != 0 && length >= 12) {
+                for (int j = i + 1; j < length && !whitespace; j++) {
+                    whitespace = Character.isWhitespace(value.charAt(j));
+                }
+                return !whitespace;
+            }
+        }
+        return false;
+    }
+    
+    // Shannon entropy in bits per char, with chars bucketed by their low byte
+    public double entropy(CharSequence value) {
+        int length = value.length();
+        if (length == 0) return 0;
+        
+        double countLogCount = 0;
+        for (int i = 0; i < length; i++) {
+            int count = counts[value.charAt(i) & 0xFF]++;
+            countLogCount += countLogCount(count + 1) - countLogCount(count);
+        }
+        for (int i = 0; i < length; i++) {
+            counts[value.charAt(i) & 0xFF] = 0;
+        }
+        return log2(length) - countLogCount / length;
+    }
+    
+    private static boolean equalsIgnoreCase(CharSequence value, String word) {
+        if (value.length() != word.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(value.charAt(i)) != word.charAt(i)) return false;
+        }
+        return true;
+    }
+    
+    private static boolean has(long keywords, int keyword) {
+        return (keywords & 1L << keyword) != 0;
+    }
+    
+    private static double countLogCount(int count) {
+        return count < COUNT_LOG_COUNT.length ? COUNT_LOG_COUNT[count] : count * Math.log(count) / LOG_2;
+    }
+    
+    private static double log2(int value) {
+        return value < COUNT_LOG_COUNT.length ? COUNT_LOG_COUNT[value] / value : Math.log(value) / LOG_2;
+    }
+}
\ No newline at end of file
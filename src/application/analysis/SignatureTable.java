@@ -0,0 +1,128 @@
+package application.analysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Values keyed by (member name, arity, owner simple name), so a lookup is a handful of hash probes however many signatures are stored
+public class SignatureTable<V> {
+    
+    public static final int ANY_ARITY = -1;
+    public static final String ANY_OWNER = "*";
+    
+    private static final Slot<?>[] NO_SLOTS = new Slot<?>[0];
+    
+    // Slots with this few owners are matched by comparing names in place rather than probing each suffix
+    private static final int SCAN_LIMIT = 4;
+    
+    // Insertion order decides between matches, as a linear scan over the declarations would
+    private static final class Ranked<V> {
+        final V value;
+        final int order;
+        
+        Ranked(V value, int order) {
+            this.value = value;
+            this.order = order;
+        }
+    }
+    
+    private static final class Slot<V> {
+        final Map<String, Ranked<V>> byOwner = new HashMap<>();
+        Ranked<V> first;
+    }
+    
+    // All signatures sharing a member name: one slot for any arity, one per declared arity
+    private static final class Member<V> {
+        final Slot<V> anyArity = new Slot<>();
+        @SuppressWarnings("unchecked")
+        Slot<V>[] byArity = (Slot<V>[]) NO_SLOTS;
+        
+        Slot<V> slot(int arity) {
+            if (arity == ANY_ARITY) return anyArity;
+            if (arity >= byArity.length) byArity = Arrays.copyOf(byArity, arity + 1);
+            if (byArity[arity] == null) byArity[arity] = new Slot<>();
+            return byArity[arity];
+        }
+        
+        Slot<V> find(int arity) {
+            return arity >= 0 && arity < byArity.length ? byArity[arity] : null;
+        }
+    }
+    
+    private final Map<String, Member<V>> members = new HashMap<>();
+    private final Map<String, String> names = new HashMap<>();
+    private int size;
+    
+    // The first value added for a signature wins; owner is a simple name or ANY_OWNER
+    public void add(String member, int arity, String owner, V value) {
+        if (arity < ANY_ARITY) throw new IllegalArgumentException("Negative arity for " + member);
+        
+        Slot<V> slot = members.computeIfAbsent(intern(member), key -> new Member<>()).slot(arity);
+        Ranked<V> ranked = new Ranked<>(value, size++);
+        slot.byOwner.putIfAbsent(intern(owner), ranked);
+        if (slot.first == null) slot.first = ranked;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Owners match by simple name or a camel-case suffix of it (PreparedStatement matches Statement); a null owner matches any
+    public V find(String member, int arity, String owner) {
+        return lookup(member, arity, owner, true);
+    }
+    
+    // Only an exact owner matches, as for constructors
+    public V findExact(String member, int arity, String owner) {
+        return lookup(member, arity, owner, false);
+    }
+    
+    private V lookup(String member, int arity, String owner, boolean suffixes) {
+        Member<V> candidates = members.get(member);
+        if (candidates == null) return null;
+        
+        Ranked<V> best = lookup(candidates.anyArity, owner, suffixes, null);
+        best = lookup(candidates.find(arity), owner, suffixes, best);
+        return best != null ? best.value : null;
+    }
+    
+    private static <V> Ranked<V> lookup(Slot<V> slot, String owner, boolean suffixes, Ranked<V> best) {
+        if (slot == null) return best;
+        if (owner == null) return earlier(best, slot.first);
+        
+        if (!suffixes) return earlier(best, slot.byOwner.get(owner));
+        
+        if (slot.byOwner.size() <= SCAN_LIMIT) {
+            for (Map.Entry<String, Ranked<V>> entry : slot.byOwner.entrySet()) {
+                if (matchesSuffix(owner, entry.getKey())) best = earlier(best, entry.getValue());
+            }
+            return best;
+        }
+        
+        best = earlier(best, slot.byOwner.get(owner));
+        best = earlier(best, slot.byOwner.get(ANY_OWNER));
+        for (int i = 1; i < owner.length(); i++) {
+            if (Character.isUpperCase(owner.charAt(i))) {
+                best = earlier(best, slot.byOwner.get(owner.substring(i)));
+            }
+        }
+        return best;
+    }
+    
+    private static boolean matchesSuffix(String owner, String candidate) {
+        if (candidate.equals(ANY_OWNER)) return true;
+        
+        int start = owner.length() - candidate.length();
+        return start >= 0 && owner.endsWith(candidate) && (start == 0 || Character.isUpperCase(owner.charAt(start)));
+    }
+    
+    private static <V> Ranked<V> earlier(Ranked<V> current, Ranked<V> candidate) {
+        if (candidate == null) return current;
+        return current == null || candidate.order < current.order ? candidate : current;
+    }
+    
+    // Catalogs repeat the same member and owner names many times over
+    private String intern(String name) {
+        return names.computeIfAbsent(name, key -> key);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,468 @@
+package application.analysis;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Forward may-analysis over the method's variables: a set bit means the variable can hold untrusted data.
+// When describing a body for its summary, each variable holds a word of labels instead (see TaintSummary).
+public class TaintAnalysis {
+    
+    private static final int FIRST_CALL_LABEL = TaintSummary.MAX_PARAMETERS + 1;
+    
+    // Parameter types that can carry a query, command or path in text form
+    private static final Set<String> TEXT_PARAMETER_TYPES = new HashSet<>(Arrays.asList(
+        "String", "CharSequence", "String[]", "Object"
+    ));
+    
+    private final MethodDataflow dataflow;
+    private final ControlFlowGraph graph;
+    private final TaintCatalog catalog;
+    private final TaintSummaries summaries;
+    private final boolean labelled;
+    private final boolean parametersUntrusted;
+    private final LocalTypes types;
+    private final String ownerType;
+    private final Map<Node, List<MethodCallExpr>> receiverPropagationsByElement = new IdentityHashMap<>();
+    private final Map<MethodCallExpr, Integer> callLabels = new IdentityHashMap<>();
+    private DataflowResult result;
+    
+    public TaintAnalysis(MethodDataflow dataflow, TaintCatalog catalog) {
+        this(dataflow, catalog, null, false, false);
+    }
+    
+    // Calls into summarized methods take their result taint, and field reads their stored taint, from the summaries
+    public TaintAnalysis(MethodDataflow dataflow, TaintCatalog catalog, TaintSummaries summaries) {
+        this(dataflow, catalog, summaries, false, false);
+    }
+    
+    private TaintAnalysis(MethodDataflow dataflow, TaintCatalog catalog, TaintSummaries summaries, boolean labelled,
+                          boolean parametersUntrusted) {
+        this.dataflow = dataflow;
+        this.graph = dataflow.getControlFlowGraph();
+        this.catalog = catalog;
+        this.summaries = summaries;
+        this.labelled = labelled;
+        this.parametersUntrusted = parametersUntrusted;
+        this.types = new LocalTypes(dataflow.getDefUseIndex());
+        this.ownerType = ownerTypeOf(graph.getOwner());
+    }
+    
+    public static TaintAnalysis build(Node owner, TaintCatalog catalog) {
+        return new TaintAnalysis(MethodDataflow.build(owner), catalog);
+    }
+    
+    // Also counts the text parameters of a non-private method as untrusted, as an entry point callers outside
+    // the unit can reach with anything
+    public static TaintAnalysis withUntrustedParameters(MethodDataflow dataflow, TaintCatalog catalog) {
+        return new TaintAnalysis(dataflow, catalog, null, false, true);
+    }
+    
+    static String ownerTypeOf(Node node) {
+        Node type = node.getParentNode().orElse(null);
+        while (type != null && !(type instanceof TypeDeclaration)) {
+            type = type.getParentNode().orElse(null);
+        }
+        return type != null ? ((TypeDeclaration<?>) type).getNameAsString() : null;
+    }
+    
+    // The catalog sink a method call or constructor invokes, whether or not its arguments are tainted
+    public TaintCatalog.Entry findSink(Node call) {
+        if (call instanceof ObjectCreationExpr) {
+            ObjectCreationExpr creation = (ObjectCreationExpr) call;
+            return catalog.findConstructor(TaintCatalog.Role.SINK, creation.getTypeAsString(), creation.getArguments().size());
+        }
+        if (call instanceof MethodCallExpr) {
+            MethodCallExpr mce = (MethodCallExpr) call;
+            return catalog.find(TaintCatalog.Role.SINK, receiverType(mce), mce.getNameAsString(), mce.getArguments().size());
+        }
+        return null;
+    }
+    
+    // First argument the sink covers that can carry untrusted data, or null when the call is clean
+    public Expression findTaintedArgument(Node call) {
+        TaintCatalog.Entry sink = findSink(call);
+        if (sink == null) return null;
+        
+        NodeList<Expression> arguments = argumentsOf(call);
+        for (int i = 0; i < arguments.size(); i++) {
+            if (sink.coversArgument(i) && isTainted(arguments.get(i))) return arguments.get(i);
+        }
+        return null;
+    }
+    
+    // The summary of the called method or constructor when some parameter of it reaches a sink, else null
+    public TaintSummary findSummarySink(Node call) {
+        if (summaries == null) return null;
+        
+        TaintSummary summary = summaries.find(calleeOwner(call), calleeName(call), argumentsOf(call).size());
+        return summary != null && !summary.getSinks().isEmpty() ? summary : null;
+    }
+    
+    // First argument carrying untrusted data into one of the given parameter labels, or null
+    public Expression findTaintedArgument(Node call, long parameters) {
+        NodeList<Expression> arguments = argumentsOf(call);
+        for (int i = 0; i < arguments.size(); i++) {
+            if ((parameters & TaintSummary.parameterBit(i)) != 0 && isTainted(arguments.get(i))) return arguments.get(i);
+        }
+        return null;
+    }
+    
+    public boolean isTainted(Expression expression) {
+        return labelsOf(expression) != 0;
+    }
+    
+    private long labelsOf(Expression expression) {
+        Node element = graph.getElement(expression);
+        if (element == null) return 0L;
+        
+        return evaluate(expression, getResult().factsBefore(element));
+    }
+    
+    // Solved on the first query, so a method whose calls only look like sinks by name costs no fixpoint
+    private DataflowResult getResult() {
+        if (result == null) {
+            if (labelled) assignCallLabels();
+            indexReceiverPropagations();
+            result = DataflowSolver.solve(graph, new Taint());
+        }
+        return result;
+    }
+    
+    private long read(long[] facts, int variable) {
+        if (labelled) return facts[variable];
+        return DataflowAnalysis.get(facts, variable) ? TaintSummary.SOURCE : 0L;
+    }
+    
+    private void write(long[] facts, int variable, long labels) {
+        if (labelled) {
+            facts[variable] = labels;
+        } else if (labels != 0) {
+            DataflowAnalysis.set(facts, variable);
+        } else {
+            DataflowAnalysis.clear(facts, variable);
+        }
+    }
+    
+    private long evaluate(Expression expression, long[] facts) {
+        if (expression instanceof EnclosedExpr) return evaluate(((EnclosedExpr) expression).getInner(), facts);
+        if (expression instanceof CastExpr) return evaluate(((CastExpr) expression).getExpression(), facts);
+        if (expression instanceof AssignExpr) return evaluate(((AssignExpr) expression).getValue(), facts);
+        if (expression instanceof ArrayAccessExpr) return evaluate(((ArrayAccessExpr) expression).getName(), facts);
+        
+        if (expression instanceof NameExpr) {
+            Integer variable = dataflow.variableOf((NameExpr) expression);
+            if (variable != null) return read(facts, variable);
+            return dataflow.getDefUseIndex().resolve((NameExpr) expression) == null
+                ? fieldLabels(((NameExpr) expression).getNameAsString()) : 0L;
+        }
+        if (expression instanceof FieldAccessExpr && ((FieldAccessExpr) expression).getScope() instanceof ThisExpr) {
+            return fieldLabels(((FieldAccessExpr) expression).getNameAsString());
+        }
+        if (expression instanceof BinaryExpr) {
+            // Only string concatenation carries text through; comparisons and arithmetic yield booleans and numbers
+            BinaryExpr binary = (BinaryExpr) expression;
+            return binary.getOperator() == BinaryExpr.Operator.PLUS
+                ? evaluate(binary.getLeft(), facts) | evaluate(binary.getRight(), facts) : 0L;
+        }
+        if (expression instanceof ConditionalExpr) {
+            ConditionalExpr conditional = (ConditionalExpr) expression;
+            return evaluate(conditional.getThenExpr(), facts) | evaluate(conditional.getElseExpr(), facts);
+        }
+        if (expression instanceof ArrayCreationExpr) {
+            return ((ArrayCreationExpr) expression).getInitializer().map(values -> evaluate(values, facts)).orElse(0L);
+        }
+        if (expression instanceof ArrayInitializerExpr) {
+            long labels = 0L;
+            for (Expression value : ((ArrayInitializerExpr) expression).getValues()) {
+                labels |= evaluate(value, facts);
+            }
+            return labels;
+        }
+        if (expression instanceof MethodCallExpr) return evaluateCall((MethodCallExpr) expression, facts);
+        if (expression instanceof ObjectCreationExpr) {
+            ObjectCreationExpr creation = (ObjectCreationExpr) expression;
+            TaintCatalog.Entry propagator = catalog.findConstructor(TaintCatalog.Role.PROPAGATOR, creation.getTypeAsString(),
+                                                                    creation.getArguments().size());
+            return propagator != null ? coveredLabels(creation.getArguments(), propagator, facts) : 0L;
+        }
+        return 0L;
+    }
+    
+    private long evaluateCall(MethodCallExpr call, long[] facts) {
+        String type = receiverType(call);
+        String name = call.getNameAsString();
+        int arity = call.getArguments().size();
+        
+        if (catalog.find(TaintCatalog.Role.SANITIZER, type, name, arity) != null) return 0L;
+        if (catalog.find(TaintCatalog.Role.SOURCE, type, name, arity) != null) return TaintSummary.SOURCE;
+        
+        long receiver = call.getScope().map(scope -> evaluate(scope, facts)).orElse(0L);
+        TaintCatalog.Entry propagator = catalog.find(TaintCatalog.Role.PROPAGATOR, type, name, arity);
+        if (propagator != null) {
+            return receiver | coveredLabels(call.getArguments(), propagator, facts);
+        }
+        
+        // Left open while describing a body; TaintSummaries resolves the label once the callee is summarized
+        Integer label = callLabels.get(call);
+        if (label != null) return 1L << label;
+        
+        TaintSummary summary = summaries != null ? summaries.find(type, name, arity) : null;
+        if (summary != null) {
+            long labels = summary.returnsSource() ? TaintSummary.SOURCE : 0L;
+            for (int i = 0; i < call.getArguments().size(); i++) {
+                if (summary.returnsParameter(i)) labels |= evaluate(call.getArgument(i), facts);
+            }
+            return labels;
+        }
+        // Anything else read from a tainted object (trim, substring, toString, get) is tainted too
+        return receiver;
+    }
+    
+    private long coveredLabels(NodeList<Expression> arguments, TaintCatalog.Entry entry, long[] facts) {
+        long labels = 0L;
+        for (int i = 0; i < arguments.size(); i++) {
+            if (entry.coversArgument(i)) labels |= evaluate(arguments.get(i), facts);
+        }
+        return labels;
+    }
+    
+    private long fieldLabels(String field) {
+        return summaries != null && summaries.isTaintedField(ownerType, field) ? TaintSummary.SOURCE : 0L;
+    }
+    
+    // Declared type of the receiver, the class name of a static call, or null when it cannot be told
+    private String receiverType(MethodCallExpr call) {
+        if (!call.getScope().isPresent()) return ownerType;
+        
+        Expression scope = call.getScope().get();
+        if (scope instanceof ThisExpr) return ownerType;
+        if (scope instanceof ObjectCreationExpr) return ((ObjectCreationExpr) scope).getTypeAsString();
+        
+        String declared = types.getDeclaredType(scope);
+        if (declared != null) return declared;
+        
+        String name = scope instanceof NameExpr ? ((NameExpr) scope).getNameAsString()
+                    : scope instanceof FieldAccessExpr ? ((FieldAccessExpr) scope).getNameAsString() : null;
+        boolean className = name != null && Character.isUpperCase(name.charAt(0)) &&
+                            !(scope instanceof NameExpr && dataflow.getDefUseIndex().resolve((NameExpr) scope) != null);
+        return className ? name : null;
+    }
+    
+    private String calleeOwner(Node call) {
+        return call instanceof ObjectCreationExpr ? ((ObjectCreationExpr) call).getTypeAsString()
+                                                  : receiverType((MethodCallExpr) call);
+    }
+    
+    private static String calleeName(Node call) {
+        return call instanceof ObjectCreationExpr ? TaintCatalog.CONSTRUCTOR : ((MethodCallExpr) call).getNameAsString();
+    }
+    
+    private static NodeList<Expression> argumentsOf(Node call) {
+        return call instanceof ObjectCreationExpr
+            ? ((ObjectCreationExpr) call).getArguments() : ((MethodCallExpr) call).getArguments();
+    }
+    
+    private boolean isCatalogued(MethodCallExpr call) {
+        String type = receiverType(call);
+        String name = call.getNameAsString();
+        int arity = call.getArguments().size();
+        return catalog.find(TaintCatalog.Role.SANITIZER, type, name, arity) != null ||
+               catalog.find(TaintCatalog.Role.SOURCE, type, name, arity) != null ||
+               catalog.find(TaintCatalog.Role.PROPAGATOR, type, name, arity) != null;
+    }
+    
+    // Calls past the last free bit share it, which only merges what those calls may return
+    private void assignCallLabels() {
+        int next = FIRST_CALL_LABEL;
+        for (MethodCallExpr call : graph.getOwner().findAll(MethodCallExpr.class)) {
+            if (graph.getElement(call) == null || isCatalogued(call)) continue;
+            
+            callLabels.put(call, next);
+            next = Math.min(next + 1, 63);
+        }
+    }
+    
+    // Builders such as StringBuilder.append take on the taint of what is appended to them
+    private void indexReceiverPropagations() {
+        for (MethodCallExpr call : graph.getOwner().findAll(MethodCallExpr.class)) {
+            TaintCatalog.Entry propagator = catalog.find(TaintCatalog.Role.PROPAGATOR, receiverType(call), call.getNameAsString(),
+                                                         call.getArguments().size());
+            if (propagator == null || !"receiver".equals(propagator.getDetail()) || rootVariable(call) == null) continue;
+            
+            Node element = graph.getElement(call);
+            if (element != null) {
+                receiverPropagationsByElement.computeIfAbsent(element, key -> new ArrayList<>()).add(call);
+            }
+        }
+    }
+    
+    // The local at the start of a receiver chain like sb.append(a).append(b)
+    private Integer rootVariable(MethodCallExpr call) {
+        Expression receiver = call.getScope().orElse(null);
+        while (receiver instanceof MethodCallExpr) {
+            receiver = ((MethodCallExpr) receiver).getScope().orElse(null);
+        }
+        return receiver instanceof NameExpr ? dataflow.variableOf((NameExpr) receiver) : null;
+    }
+    
+    private boolean isTextParameter(DefUseIndex.Symbol symbol) {
+        Node owner = graph.getOwner();
+        return parameterPosition(symbol) >= 0 && !((CallableDeclaration<?>) owner).isPrivate() &&
+               TEXT_PARAMETER_TYPES.contains(LocalTypes.rawName(((Parameter) symbol.getDeclaration()).getTypeAsString()));
+    }
+    
+    private int parameterPosition(DefUseIndex.Symbol symbol) {
+        Node owner = graph.getOwner();
+        if (symbol.getKind() != DefUseIndex.SymbolKind.PARAMETER || !(owner instanceof CallableDeclaration)) return -1;
+        
+        return ((CallableDeclaration<?>) owner).getParameters().indexOf(symbol.getDeclaration());
+    }
+    
+    // What the body does with its parameters and sources, with calls to methods outside the catalog left open
+    static TaintSummaries.Body describe(MethodDataflow dataflow, TaintCatalog catalog, long bodyHash) {
+        return new TaintAnalysis(dataflow, catalog, null, true, false).describe(bodyHash);
+    }
+    
+    private TaintSummaries.Body describe(long bodyHash) {
+        getResult();
+        Node owner = graph.getOwner();
+        
+        long returns = 0L;
+        for (ReturnStmt statement : owner.findAll(ReturnStmt.class)) {
+            // Returns of lambdas and local classes map to their enclosing statement and are skipped
+            if (statement.getExpression().isPresent() && graph.getElement(statement) == statement) {
+                returns |= labelsOf(statement.getExpression().get());
+            }
+        }
+        
+        Map<String, Long> sinks = new HashMap<>();
+        List<TaintSummaries.CallSite> sites = new ArrayList<>();
+        for (Node call : owner.findAll(Node.class, node -> node instanceof MethodCallExpr || node instanceof ObjectCreationExpr)) {
+            if (graph.getElement(call) == null) continue;
+            
+            TaintCatalog.Entry sink = findSink(call);
+            if (sink != null) {
+                NodeList<Expression> arguments = argumentsOf(call);
+                long labels = 0L;
+                for (int i = 0; i < arguments.size(); i++) {
+                    if (sink.coversArgument(i)) labels |= labelsOf(arguments.get(i));
+                }
+                if (labels != 0) sinks.merge(sink.getDetail(), labels, (a, b) -> a | b);
+            } else if (call instanceof ObjectCreationExpr || callLabels.containsKey(call)) {
+                sites.add(describeCall(call));
+            }
+        }
+        
+        Map<String, Long> fields = new HashMap<>();
+        for (AssignExpr assignment : owner.findAll(AssignExpr.class)) {
+            String field = assignedField(assignment.getTarget());
+            if (field == null || graph.getElement(assignment) == null) continue;
+            
+            long labels = labelsOf(assignment.getValue());
+            if (labels != 0) fields.merge(ownerType + "." + field, labels, (a, b) -> a | b);
+        }
+        
+        return new TaintSummaries.Body(bodyHash, returns, sinks, fields, sites);
+    }
+    
+    private TaintSummaries.CallSite describeCall(Node call) {
+        NodeList<Expression> arguments = argumentsOf(call);
+        long[] argumentLabels = new long[arguments.size()];
+        for (int i = 0; i < arguments.size(); i++) {
+            argumentLabels[i] = labelsOf(arguments.get(i));
+        }
+        
+        long receiver = 0L;
+        int label = -1;
+        if (call instanceof MethodCallExpr) {
+            MethodCallExpr mce = (MethodCallExpr) call;
+            receiver = mce.getScope().map(this::labelsOf).orElse(0L);
+            label = callLabels.get(mce);
+        }
+        return new TaintSummaries.CallSite(calleeOwner(call), calleeName(call), label, receiver, argumentLabels);
+    }
+    
+    private String assignedField(Expression target) {
+        if (target instanceof FieldAccessExpr && ((FieldAccessExpr) target).getScope() instanceof ThisExpr) {
+            return ((FieldAccessExpr) target).getNameAsString();
+        }
+        if (target instanceof NameExpr && dataflow.getDefUseIndex().resolve((NameExpr) target) == null) {
+            return ((NameExpr) target).getNameAsString();
+        }
+        return null;
+    }
+    
+    private class Taint extends DataflowAnalysis {
+        
+        Taint() {
+            super(Direction.FORWARD, false, labelled ? dataflow.getVariableCount() * 64 : dataflow.getVariableCount());
+        }
+        
+        // Otherwise a parameter is only untrusted when a caller passes untrusted data, which summaries follow per call
+        @Override
+        public void initializeBoundary(long[] facts) {
+            for (int variable = 0; variable < dataflow.getVariableCount(); variable++) {
+                DefUseIndex.Symbol symbol = dataflow.getVariable(variable);
+                if (labelled) {
+                    int position = parameterPosition(symbol);
+                    if (position >= 0) facts[variable] = TaintSummary.parameterBit(position);
+                } else if (parametersUntrusted && isTextParameter(symbol)) {
+                    set(facts, variable);
+                }
+            }
+        }
+        
+        @Override
+        public void transfer(Node element, long[] facts) {
+            for (MethodCallExpr call : receiverPropagationsByElement.getOrDefault(element, Collections.emptyList())) {
+                long labels = evaluate(call, facts);
+                if (labels != 0) {
+                    int root = rootVariable(call);
+                    write(facts, root, read(facts, root) | labels);
+                }
+            }
+            
+            for (int definition : dataflow.getDefinitionsAt(element)) {
+                int variable = dataflow.getDefinitionVariable(definition);
+                write(facts, variable, definedLabels(dataflow.getDefinitionSite(definition), variable, facts));
+            }
+        }
+        
+        private long definedLabels(Node site, int variable, long[] facts) {
+            if (site instanceof VariableDeclarator) {
+                VariableDeclarator declarator = (VariableDeclarator) site;
+                if (declarator.getInitializer().isPresent()) return evaluate(declarator.getInitializer().get(), facts);
+                
+                // A for-each variable takes the taint of the collection or array it walks
+                Node statement = declarator.getParentNode().flatMap(Node::getParentNode).orElse(null);
+                return statement instanceof ForEachStmt ? evaluate(((ForEachStmt) statement).getIterable(), facts) : 0L;
+            }
+            if (site instanceof AssignExpr) {
+                AssignExpr assignment = (AssignExpr) site;
+                if (assignment.getOperator() == AssignExpr.Operator.ASSIGN) return evaluate(assignment.getValue(), facts);
+                if (assignment.getOperator() == AssignExpr.Operator.PLUS) {
+                    return read(facts, variable) | evaluate(assignment.getValue(), facts);
+                }
+            }
+            // Increments and arithmetic compound assignments keep whatever the variable held
+            return read(facts, variable);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package application.analysis;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Sources, sinks, sanitizers and propagators read from taint-catalog.txt, indexed by role and signature
+public class TaintCatalog {
+    
+    public enum Role {
+        SOURCE, SINK, SANITIZER, PROPAGATOR
+    }
+    
+    public static final String CONSTRUCTOR = "<init>";
+    
+    // Entries from -Danalyzer.taintCatalog=<file> are added to the bundled ones
+    private static final String EXTRA_CATALOG_PROPERTY = "analyzer.taintCatalog";
+    
+    private static volatile TaintCatalog defaultCatalog;
+    
+    public static class Entry {
+        private final Role role;
+        private final String owner;
+        private final String member;
+        private final int arity;
+        private final long arguments;
+        private final String detail;
+        
+        Entry(Role role, String owner, String member, int arity, long arguments, String detail) {
+            this.role = role;
+            this.owner = owner;
+            this.member = member;
+            this.arity = arity;
+            this.arguments = arguments;
+            this.detail = detail;
+        }
+        
+        public Role getRole() { return role; }
+        public String getOwner() { return owner; }
+        public String getMember() { return member; }
+        
+        // SignatureTable.ANY_ARITY unless the entry was written as member/arity
+        public int getArity() { return arity; }
+        
+        // Sink category such as SQL_INJECTION, or "receiver" for propagators that also taint their receiver
+        public String getDetail() { return detail; }
+        
+        public boolean coversArgument(int position) {
+            return position < 64 && (arguments & (1L << position)) != 0;
+        }
+    }
+    
+    private final Map<Role, SignatureTable<Entry>> entriesByRole = new EnumMap<>(Role.class);
+    // FNV-1a over the entry lines read so far, so results derived from the catalog can tell it changed
+    private long fingerprint = 0xcbf29ce484222325L;
+    
+    public static TaintCatalog getDefault() {
+        TaintCatalog catalog = defaultCatalog;
+        if (catalog == null) {
+            synchronized (TaintCatalog.class) {
+                catalog = defaultCatalog;
+                if (catalog == null) {
+                    catalog = loadDefault();
+                    defaultCatalog = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+    
+    private static TaintCatalog loadDefault() {
+        TaintCatalog catalog = new TaintCatalog();
+        try (InputStream bundled = TaintCatalog.class.getResourceAsStream("taint-catalog.txt")) {
+            if (bundled == null) {
+                System.err.println("Taint catalog not found on the classpath; taint checks are disabled");
+            } else {
+                catalog.read(new BufferedReader(new InputStreamReader(bundled, StandardCharsets.UTF_8)));
+            }
+            
+            String extra = System.getProperty(EXTRA_CATALOG_PROPERTY);
+            if (extra != null) {
+                try (BufferedReader reader = Files.newBufferedReader(Paths.get(extra), StandardCharsets.UTF_8)) {
+                    catalog.read(reader);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load taint catalog: " + e.getMessage());
+        }
+        return catalog;
+    }
+    
+    public static TaintCatalog parse(List<String> lines) {
+        TaintCatalog catalog = new TaintCatalog();
+        int number = 0;
+        for (String line : lines) {
+            catalog.add(line, ++number);
+        }
+        return catalog;
+    }
+    
+    private void read(BufferedReader reader) throws IOException {
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            add(line, ++number);
+        }
+    }
+    
+    // <role> <owner> <member>[/<arity>] [<arguments> [<detail>]]
+    private void add(String line, int number) {
+        int comment = line.indexOf('#');
+        String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+        String[] columns = content.split("\\s+");
+        if (columns.length == 1 && columns[0].isEmpty()) return;
+        
+        for (int i = 0; i < content.length(); i++) {
+            fingerprint ^= content.charAt(i);
+            fingerprint *= 0x100000001b3L;
+        }
+        fingerprint ^= '\n';
+        fingerprint *= 0x100000001b3L;
+        
+        if (columns.length < 3) {
+            throw new IllegalArgumentException("Line " + number + ": expected '<role> <owner> <member>'");
+        }
+        
+        Role role;
+        try {
+            role = Role.valueOf(columns[0].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + number + ": unknown role " + columns[0]);
+        }
+        long arguments = columns.length > 3 ? parseArguments(columns[3], number) : -1L;
+        String detail = columns.length > 4 ? columns[4] : null;
+        if (role == Role.SINK && detail == null) {
+            throw new IllegalArgumentException("Line " + number + ": a sink needs a category");
+        }
+        
+        String member = columns[2];
+        int arity = SignatureTable.ANY_ARITY;
+        int slash = member.indexOf('/');
+        if (slash >= 0) {
+            arity = parseArity(member.substring(slash + 1), number);
+            member = member.substring(0, slash);
+        }
+        
+        Entry entry = new Entry(role, columns[1], member, arity, arguments, detail);
+        entriesByRole.computeIfAbsent(role, key -> new SignatureTable<>()).add(member, arity, columns[1], entry);
+    }
+    
+    private static int parseArity(String column, int number) {
+        try {
+            int arity = Integer.parseInt(column);
+            if (arity < 0 || arity > 255) throw new NumberFormatException();
+            return arity;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + number + ": bad arity " + column);
+        }
+    }
+    
+    private static long parseArguments(String column, int number) {
+        if ("*".equals(column)) return -1L;
+        if ("-".equals(column)) return 0L;
+        
+        long mask = 0;
+        for (String position : column.split(",")) {
+            try {
+                int index = Integer.parseInt(position);
+                if (index < 0 || index > 63) throw new NumberFormatException();
+                mask |= 1L << index;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + number + ": bad argument position " + position);
+            }
+        }
+        return mask;
+    }
+    
+    // The first entry with this role for a call of member with that many arguments on a receiver of the given type (null when unknown)
+    public Entry find(Role role, String receiverType, String member, int arity) {
+        SignatureTable<Entry> entries = entriesByRole.get(role);
+        return entries != null ? entries.find(member, arity, LocalTypes.rawName(receiverType)) : null;
+    }
+    
+    public Entry findConstructor(Role role, String type, int arity) {
+        SignatureTable<Entry> entries = entriesByRole.get(role);
+        return entries != null ? entries.findExact(CONSTRUCTOR, arity, LocalTypes.rawName(type)) : null;
+    }
+    
+    public long getFingerprint() {
+        return fingerprint;
+    }
+    
+    public int size() {
+        int size = 0;
+        for (SignatureTable<Entry> entries : entriesByRole.values()) {
+            size += entries.size();
+        }
+        return size;
+    }
+}
\ No newline at end of file
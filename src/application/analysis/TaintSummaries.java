@@ -0,0 +1,597 @@
+package application.analysis;
+
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Per-method taint summaries over many units. Bodies are described once per body hash; solve() then
+// resolves their open calls bottom-up over the call graph's strongly connected components, and a
+// component is only recomputed when one of its bodies or a summary it calls into has changed. save() and load()
+// carry the descriptions and summaries over to the next run, so only the classes that changed are redone there.
+public class TaintSummaries {
+    
+    private static final int FORMAT_VERSION = 1;
+    
+    // A call the describing pass could not resolve: its result label and the labels of what it was given
+    static class CallSite implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        final String owner;
+        final String name;
+        final int label;
+        final long receiver;
+        final long[] arguments;
+        // Resolved again by every solve(), so never written
+        transient List<Method> callees = Collections.emptyList();
+        
+        CallSite(String owner, String name, int label, long receiver, long[] arguments) {
+            this.owner = owner != null ? LocalTypes.rawName(owner) : null;
+            this.name = name;
+            this.label = label;
+            this.receiver = receiver;
+            this.arguments = arguments;
+        }
+        
+        int arity() {
+            return arguments.length;
+        }
+    }
+    
+    static class Body implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        final long hash;
+        final long returns;
+        final Map<String, Long> sinks;
+        final Map<String, Long> fields;
+        final List<CallSite> sites;
+        
+        Body(long hash, long returns, Map<String, Long> sinks, Map<String, Long> fields, List<CallSite> sites) {
+            this.hash = hash;
+            this.returns = returns;
+            this.sinks = sinks;
+            this.fields = fields;
+            this.sites = sites;
+        }
+    }
+    
+    // Overloads of one arity share an entry; a call to either may reach the other's flows
+    private static class Method implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        final String key;
+        final String owner;
+        final String name;
+        final int arity;
+        final List<Body> bodies = new ArrayList<>();
+        TaintSummary summary = TaintSummary.EMPTY;
+        long dependencyStamp;
+        boolean dirty = true;
+        
+        Method(String key, String owner, String name, int arity) {
+            this.key = key;
+            this.owner = owner;
+            this.name = name;
+            this.arity = arity;
+        }
+    }
+    
+    private final TaintCatalog catalog;
+    private Map<String, Method> methods = new HashMap<>();
+    private Map<String, Set<String>> methodKeysByUnit = new HashMap<>();
+    private Map<String, List<Method>> methodsByOwner = new HashMap<>();
+    private Map<String, List<Method>> methodsBySignature = new HashMap<>();
+    private int recomputedCount;
+    
+    // Published by solve() for lock-free reads from the analysis threads
+    private volatile Map<String, TaintSummary> summariesByOwner = Collections.emptyMap();
+    private volatile Map<String, TaintSummary> summariesBySignature = Collections.emptyMap();
+    private volatile Set<String> taintedFields = Collections.emptySet();
+    private volatile Set<String> sinkSignatures = Collections.emptySet();
+    
+    public TaintSummaries(TaintCatalog catalog) {
+        this.catalog = catalog;
+    }
+    
+    // Summaries of one unit on its own, describing bodies with dataflow the caller may already have built
+    public static TaintSummaries forUnit(CompilationUnit unit, TaintCatalog catalog,
+                                         Function<Node, MethodDataflow> dataflows) {
+        TaintSummaries summaries = new TaintSummaries(catalog);
+        summaries.addUnit(unit, dataflows);
+        summaries.solve();
+        return summaries;
+    }
+    
+    public static File defaultCacheFile() {
+        return new File(System.getProperty("user.home"), ".java_analyzer/taint-summaries.bin");
+    }
+    
+    // Summaries saved by an earlier run; empty when there are none or they were built with another catalog
+    public static TaintSummaries load(File file, TaintCatalog catalog) {
+        TaintSummaries summaries = new TaintSummaries(catalog);
+        if (file == null || !file.exists()) return summaries;
+        
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || in.readLong() != catalog.getFingerprint()) return summaries;
+            
+            @SuppressWarnings("unchecked")
+            Map<String, Method> methods = (Map<String, Method>) in.readObject();
+            @SuppressWarnings("unchecked")
+            Map<String, Set<String>> methodKeysByUnit = (Map<String, Set<String>>) in.readObject();
+            summaries.methods = methods;
+            summaries.methodKeysByUnit = methodKeysByUnit;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Failed to load taint summaries: " + e.getMessage());
+        }
+        return summaries;
+    }
+    
+    // Written next to the old file and moved over it, so an interrupted save leaves the previous summaries
+    public synchronized void save(File file) {
+        if (file == null) return;
+        
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            System.err.println("Failed to create taint summary directory: " + parent);
+            return;
+        }
+        
+        File temporary = new File(parent, file.getName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(catalog.getFingerprint());
+            out.writeObject(methods);
+            out.writeObject(methodKeysByUnit);
+        } catch (IOException e) {
+            System.err.println("Failed to save taint summaries: " + e.getMessage());
+            temporary.delete();
+            return;
+        }
+        
+        try {
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Failed to save taint summaries: " + e.getMessage());
+            temporary.delete();
+        }
+    }
+    
+    public String addUnit(CompilationUnit unit) {
+        return addUnit(unit, MethodDataflow::build);
+    }
+    
+    // Adds or replaces the unit's methods; bodies whose hash is unchanged keep their description. Returns the key
+    // the unit is kept under, null for a unit without types.
+    public String addUnit(CompilationUnit unit, Function<Node, MethodDataflow> dataflows) {
+        String unitKey = unit.getTypes().isEmpty() ? null : qualifiedName(unit.getType(0));
+        if (unitKey == null) return null;
+        
+        Map<Long, Body> previous = new HashMap<>();
+        synchronized (this) {
+            for (String key : methodKeysByUnit.getOrDefault(unitKey, Collections.emptySet())) {
+                Method method = methods.get(key);
+                if (method != null) method.bodies.forEach(body -> previous.put(body.hash, body));
+            }
+        }
+        
+        Map<String, Method> described = new HashMap<>();
+        Map<TypeDeclaration<?>, Long> fieldHashes = new IdentityHashMap<>();
+        for (CallableDeclaration<?> callable : unit.findAll(CallableDeclaration.class)) {
+            if (!(callable.getParentNode().orElse(null) instanceof TypeDeclaration) || !hasBody(callable)) continue;
+            
+            TypeDeclaration<?> type = (TypeDeclaration<?>) callable.getParentNode().get();
+            long fields = fieldHashes.computeIfAbsent(type, TaintSummaries::fieldHash);
+            long hash = hash(fields, callable);
+            Body body = previous.get(hash);
+            if (body == null) {
+                body = TaintAnalysis.describe(dataflows.apply(callable), catalog, hash);
+            }
+            
+            String name = callable instanceof ConstructorDeclaration ? TaintCatalog.CONSTRUCTOR : callable.getNameAsString();
+            int arity = callable.getParameters().size();
+            described.computeIfAbsent(qualifiedName(type) + "#" + name + "/" + arity,
+                key -> new Method(key, type.getNameAsString(), name, arity)).bodies.add(body);
+        }
+        
+        synchronized (this) {
+            Map<String, Method> replaced = new HashMap<>();
+            for (String key : methodKeysByUnit.getOrDefault(unitKey, Collections.emptySet())) {
+                Method old = methods.remove(key);
+                if (old != null) replaced.put(key, old);
+            }
+            for (Method method : described.values()) {
+                Method old = replaced.get(method.key);
+                if (old != null && sameBodies(old, method)) {
+                    method.summary = old.summary;
+                    method.dependencyStamp = old.dependencyStamp;
+                    method.dirty = old.dirty;
+                }
+                methods.put(method.key, method);
+            }
+            methodKeysByUnit.put(unitKey, new HashSet<>(described.keySet()));
+        }
+        return unitKey;
+    }
+    
+    // Drops the units loaded or added earlier that are not among these, such as classes since deleted
+    public synchronized void retainUnits(Set<String> unitKeys) {
+        methodKeysByUnit.entrySet().removeIf(unit -> {
+            if (unitKeys.contains(unit.getKey())) return false;
+            unit.getValue().forEach(methods::remove);
+            return true;
+        });
+    }
+    
+    public synchronized int size() {
+        return methods.size();
+    }
+    
+    // Methods whose summary the last solve() had to compute rather than reuse
+    public synchronized int getRecomputedCount() {
+        return recomputedCount;
+    }
+    
+    // Summary of the method a call with this receiver type, name and arity reaches; null when none is known
+    public TaintSummary find(String ownerType, String name, int arity) {
+        String signature = name + "/" + arity;
+        if (ownerType != null) {
+            return summariesByOwner.get(LocalTypes.rawName(ownerType) + "#" + signature);
+        }
+        return summariesBySignature.get(signature);
+    }
+    
+    // Cheap pre-check before typing the receiver: whether any method with this name and arity reaches a sink
+    public boolean mayReachSink(String name, int arity) {
+        return sinkSignatures.contains(name + "/" + arity);
+    }
+    
+    // A field some method stores untrusted data into
+    public boolean isTaintedField(String ownerType, String field) {
+        return ownerType != null && taintedFields.contains(ownerType + "." + field);
+    }
+    
+    public synchronized void solve() {
+        methodsByOwner = new HashMap<>();
+        methodsBySignature = new HashMap<>();
+        for (Method method : methods.values()) {
+            String signature = method.name + "/" + method.arity;
+            methodsByOwner.computeIfAbsent(method.owner + "#" + signature, key -> new ArrayList<>()).add(method);
+            methodsBySignature.computeIfAbsent(signature, key -> new ArrayList<>()).add(method);
+        }
+        
+        for (Method method : methods.values()) {
+            for (Body body : method.bodies) {
+                body.sites.forEach(site -> site.callees = resolve(site));
+            }
+        }
+        
+        recomputedCount = 0;
+        for (List<Method> component : components()) {
+            Set<Method> members = Collections.newSetFromMap(new IdentityHashMap<>());
+            members.addAll(component);
+            
+            long[] stamps = new long[component.size()];
+            boolean changed = false;
+            for (int i = 0; i < component.size(); i++) {
+                stamps[i] = dependencyStamp(component.get(i), members);
+                changed |= component.get(i).dirty || stamps[i] != component.get(i).dependencyStamp;
+            }
+            if (changed) {
+                recompute(component);
+            }
+            for (int i = 0; i < component.size(); i++) {
+                component.get(i).dependencyStamp = stamps[i];
+                component.get(i).dirty = false;
+            }
+        }
+        publish();
+    }
+    
+    // Starts every member from the empty summary and iterates until recursion adds nothing more
+    private void recompute(List<Method> component) {
+        component.forEach(method -> method.summary = TaintSummary.EMPTY);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Method method : component) {
+                TaintSummary summary = summarize(method);
+                if (!summary.equals(method.summary)) {
+                    method.summary = summary;
+                    changed = true;
+                }
+            }
+        }
+        recomputedCount += component.size();
+    }
+    
+    private TaintSummary summarize(Method method) {
+        TaintSummary summary = null;
+        for (Body body : method.bodies) {
+            TaintSummary bodySummary = summarize(body);
+            summary = summary == null ? bodySummary : TaintSummary.join(summary, bodySummary);
+        }
+        return summary;
+    }
+    
+    private TaintSummary summarize(Body body) {
+        long[] values = new long[64];
+        values[0] = TaintSummary.SOURCE;
+        for (int i = 0; i < TaintSummary.MAX_PARAMETERS; i++) {
+            values[i + 1] = TaintSummary.parameterBit(i);
+        }
+        
+        // Call results can feed each other through loops, so they are settled together
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (CallSite site : body.sites) {
+                if (site.label < 0) continue;
+                
+                long value = values[site.label] | resultOf(site, values);
+                if (value != values[site.label]) {
+                    values[site.label] = value;
+                    changed = true;
+                }
+            }
+        }
+        
+        Map<String, Long> sinks = resolveAll(body.sinks, values);
+        Map<String, Long> fields = resolveAll(body.fields, values);
+        for (CallSite site : body.sites) {
+            TaintSummary callee = calleeSummary(site);
+            if (callee == null) continue;
+            
+            mapThrough(callee.getSinks(), site, values, sinks);
+            mapThrough(callee.getFields(), site, values, fields);
+        }
+        return new TaintSummary(resolve(body.returns, values), sinks, fields);
+    }
+    
+    private long resultOf(CallSite site, long[] values) {
+        TaintSummary callee = calleeSummary(site);
+        if (callee == null) return resolve(site.receiver, values);
+        
+        long result = callee.returnsSource() ? TaintSummary.SOURCE : 0L;
+        for (int i = 0; i < site.arguments.length; i++) {
+            if (callee.returnsParameter(i)) result |= resolve(site.arguments[i], values);
+        }
+        return result;
+    }
+    
+    // Rewrites a callee's parameter labels into the labels of the arguments this site passed
+    private static void mapThrough(Map<String, Long> calleeFlows, CallSite site, long[] values, Map<String, Long> target) {
+        for (Map.Entry<String, Long> flow : calleeFlows.entrySet()) {
+            long labels = flow.getValue() & TaintSummary.SOURCE;
+            for (int i = 0; i < site.arguments.length; i++) {
+                if ((flow.getValue() & TaintSummary.parameterBit(i)) != 0) labels |= resolve(site.arguments[i], values);
+            }
+            if (labels != 0) target.merge(flow.getKey(), labels, (a, b) -> a | b);
+        }
+    }
+    
+    private static Map<String, Long> resolveAll(Map<String, Long> flows, long[] values) {
+        Map<String, Long> resolved = new HashMap<>();
+        flows.forEach((key, labels) -> {
+            long value = resolve(labels, values);
+            if (value != 0) resolved.put(key, value);
+        });
+        return resolved;
+    }
+    
+    private static long resolve(long labels, long[] values) {
+        long resolved = 0L;
+        for (long remaining = labels; remaining != 0; remaining &= remaining - 1) {
+            resolved |= values[Long.numberOfTrailingZeros(remaining)];
+        }
+        return resolved;
+    }
+    
+    private TaintSummary calleeSummary(CallSite site) {
+        TaintSummary summary = null;
+        for (Method callee : site.callees) {
+            summary = summary == null ? callee.summary : TaintSummary.join(summary, callee.summary);
+        }
+        return summary;
+    }
+    
+    // By receiver type when it is known, otherwise only when the name and arity are unambiguous
+    private List<Method> resolve(CallSite site) {
+        String signature = site.name + "/" + site.arity();
+        if (site.owner != null) {
+            return methodsByOwner.getOrDefault(site.owner + "#" + signature, Collections.emptyList());
+        }
+        List<Method> candidates = methodsBySignature.getOrDefault(signature, Collections.emptyList());
+        return candidates.size() == 1 ? candidates : Collections.emptyList();
+    }
+    
+    // Changes whenever a summary this method calls outside its own component changes or resolves differently
+    private long dependencyStamp(Method method, Set<Method> component) {
+        long stamp = 17;
+        for (Body body : method.bodies) {
+            for (CallSite site : body.sites) {
+                for (Method callee : site.callees) {
+                    if (component.contains(callee)) continue;
+                    stamp = stamp * 31 + callee.key.hashCode();
+                    stamp = stamp * 31 + callee.summary.hashCode();
+                }
+            }
+        }
+        return stamp;
+    }
+    
+    // Tarjan's algorithm without recursion; components come out callees first
+    private List<List<Method>> components() {
+        List<Method> all = new ArrayList<>(methods.values());
+        Map<Method, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            ids.put(all.get(i), i);
+        }
+        int[][] successors = new int[all.size()][];
+        for (int i = 0; i < all.size(); i++) {
+            Set<Integer> targets = new HashSet<>();
+            for (Body body : all.get(i).bodies) {
+                for (CallSite site : body.sites) {
+                    site.callees.forEach(callee -> targets.add(ids.get(callee)));
+                }
+            }
+            successors[i] = targets.stream().mapToInt(Integer::intValue).toArray();
+        }
+        
+        int[] index = new int[all.size()];
+        int[] lowLink = new int[all.size()];
+        int[] nextSuccessor = new int[all.size()];
+        boolean[] onStack = new boolean[all.size()];
+        Arrays.fill(index, -1);
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<Integer> path = new ArrayDeque<>();
+        List<List<Method>> components = new ArrayList<>();
+        int counter = 0;
+        
+        for (int root = 0; root < all.size(); root++) {
+            if (index[root] >= 0) continue;
+            
+            path.push(root);
+            index[root] = lowLink[root] = counter++;
+            stack.push(root);
+            onStack[root] = true;
+            while (!path.isEmpty()) {
+                int node = path.peek();
+                if (nextSuccessor[node] < successors[node].length) {
+                    int successor = successors[node][nextSuccessor[node]++];
+                    if (index[successor] < 0) {
+                        index[successor] = lowLink[successor] = counter++;
+                        stack.push(successor);
+                        onStack[successor] = true;
+                        path.push(successor);
+                    } else if (onStack[successor]) {
+                        lowLink[node] = Math.min(lowLink[node], index[successor]);
+                    }
+                    continue;
+                }
+                
+                path.pop();
+                if (!path.isEmpty()) {
+                    lowLink[path.peek()] = Math.min(lowLink[path.peek()], lowLink[node]);
+                }
+                if (lowLink[node] == index[node]) {
+                    List<Method> component = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack[member] = false;
+                        component.add(all.get(member));
+                    } while (member != node);
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+    
+    private void publish() {
+        Map<String, TaintSummary> byOwner = new HashMap<>();
+        for (Map.Entry<String, List<Method>> entry : methodsByOwner.entrySet()) {
+            byOwner.put(entry.getKey(), joined(entry.getValue()));
+        }
+        Map<String, TaintSummary> bySignature = new HashMap<>();
+        for (Map.Entry<String, List<Method>> entry : methodsBySignature.entrySet()) {
+            if (entry.getValue().size() == 1) bySignature.put(entry.getKey(), entry.getValue().get(0).summary);
+        }
+        
+        // Untrusted data reaches a field when a source is stored there, directly or through a callee
+        Set<String> fields = new HashSet<>();
+        Set<String> signatures = new HashSet<>();
+        for (Method method : methods.values()) {
+            if (!method.summary.getSinks().isEmpty()) signatures.add(method.name + "/" + method.arity);
+            method.summary.getFields().forEach((field, labels) -> {
+                if ((labels & TaintSummary.SOURCE) != 0) fields.add(field);
+            });
+        }
+        
+        summariesByOwner = byOwner;
+        summariesBySignature = bySignature;
+        taintedFields = fields;
+        sinkSignatures = signatures;
+    }
+    
+    private static TaintSummary joined(List<Method> candidates) {
+        TaintSummary summary = null;
+        for (Method method : candidates) {
+            summary = summary == null ? method.summary : TaintSummary.join(summary, method.summary);
+        }
+        return summary;
+    }
+    
+    private static boolean sameBodies(Method first, Method second) {
+        if (first.bodies.size() != second.bodies.size()) return false;
+        
+        for (int i = 0; i < first.bodies.size(); i++) {
+            if (first.bodies.get(i).hash != second.bodies.get(i).hash) return false;
+        }
+        return true;
+    }
+    
+    private static boolean hasBody(CallableDeclaration<?> callable) {
+        return !(callable instanceof MethodDeclaration) || ((MethodDeclaration) callable).getBody().isPresent();
+    }
+    
+    private static String qualifiedName(TypeDeclaration<?> type) {
+        return type.getFullyQualifiedName().orElse(type.getNameAsString());
+    }
+    
+    // Field declarations decide receiver types in the body, so they are part of what a body hash covers
+    private static long fieldHash(TypeDeclaration<?> type) {
+        long hash = hash(0xcbf29ce484222325L, type.getNameAsString());
+        for (FieldDeclaration field : type.getFields()) {
+            hash = hash(hash, field);
+        }
+        return hash;
+    }
+    
+    // 64-bit FNV-1a over the node's tokens, so hashing never goes through the pretty printer
+    private static long hash(long hash, Node node) {
+        if (!node.getTokenRange().isPresent()) return hash(hash, node.toString());
+        
+        for (JavaToken token : node.getTokenRange().get()) {
+            hash = hash(hash, token.getText());
+        }
+        return hash;
+    }
+    
+    private static long hash(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package application.analysis;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// What a method does with untrusted data, as label masks: bit 0 is a catalog source, bit 1 + i is parameter i
+public class TaintSummary implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public static final long SOURCE = 1L;
+    
+    // Parameters past this position are not tracked; their flows are dropped
+    public static final int MAX_PARAMETERS = 16;
+    
+    static final TaintSummary EMPTY = new TaintSummary(0L, Collections.emptyMap(), Collections.emptyMap());
+    
+    private final long returns;
+    private final Map<String, Long> sinks;
+    private final Map<String, Long> fields;
+    
+    TaintSummary(long returns, Map<String, Long> sinks, Map<String, Long> fields) {
+        this.returns = returns;
+        this.sinks = sinks;
+        this.fields = fields;
+    }
+    
+    public static long parameterBit(int position) {
+        return position >= 0 && position < MAX_PARAMETERS ? 1L << (position + 1) : 0L;
+    }
+    
+    // Labels that can reach the return value
+    public long getReturns() { return returns; }
+    
+    // Sink category (SQL_INJECTION, ...) to the labels that reach a sink of that category, here or in a callee
+    public Map<String, Long> getSinks() { return sinks; }
+    
+    // Owner.field to the labels stored into it, here or in a callee
+    public Map<String, Long> getFields() { return fields; }
+    
+    public boolean returnsSource() {
+        return (returns & SOURCE) != 0;
+    }
+    
+    public boolean returnsParameter(int position) {
+        return (returns & parameterBit(position)) != 0;
+    }
+    
+    // Either of two methods may be the one called, e.g. same-named classes in different packages
+    static TaintSummary join(TaintSummary first, TaintSummary second) {
+        Map<String, Long> sinks = new HashMap<>(first.sinks);
+        second.sinks.forEach((category, labels) -> sinks.merge(category, labels, (a, b) -> a | b));
+        Map<String, Long> fields = new HashMap<>(first.fields);
+        second.fields.forEach((field, labels) -> fields.merge(field, labels, (a, b) -> a | b));
+        return new TaintSummary(first.returns | second.returns, sinks, fields);
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof TaintSummary)) return false;
+        
+        TaintSummary summary = (TaintSummary) other;
+        return returns == summary.returns &&
+               sinks.equals(summary.sinks) && fields.equals(summary.fields);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(returns, sinks, fields);
+    }
+    
+    @Override
+    public String toString() {
+        return "returns=" + Long.toBinaryString(returns) + " sinks=" + sinks + " fields=" + fields;
+    }
+}
\ No newline at end of file
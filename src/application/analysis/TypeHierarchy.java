@@ -0,0 +1,277 @@
+package application.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Subtype queries over the classes of an archive, by internal name (java/io/Serializable).
+// index() numbers the superclass tree in pre-order, so a class's subclasses are one contiguous range of numbers;
+// an interface keeps the merged ranges of everything that implements it. isSubtype is a range check either way.
+public class TypeHierarchy {
+    
+    public static final String OBJECT = "java/lang/Object";
+    
+    // Supertypes of the JDK classes that archive classes commonly extend, which are not in the archive themselves
+    private static final Map<String, String[]> JDK_SUPERTYPES = new HashMap<>();
+    
+    static {
+        jdk("java/lang/Throwable", OBJECT, "java/io/Serializable");
+        jdk("java/lang/Exception", "java/lang/Throwable");
+        jdk("java/lang/RuntimeException", "java/lang/Exception");
+        jdk("java/lang/Error", "java/lang/Throwable");
+        jdk("java/io/IOException", "java/lang/Exception");
+        jdk("java/lang/Enum", OBJECT, "java/io/Serializable", "java/lang/Comparable");
+        jdk("java/lang/Number", OBJECT, "java/io/Serializable");
+        jdk("java/lang/Record", OBJECT);
+        jdk("java/io/Externalizable", null, "java/io/Serializable");
+        jdk("java/util/AbstractCollection", OBJECT, "java/util/Collection");
+        jdk("java/util/AbstractList", "java/util/AbstractCollection", "java/util/List");
+        jdk("java/util/ArrayList", "java/util/AbstractList", "java/util/List", "java/io/Serializable");
+        jdk("java/util/LinkedList", "java/util/AbstractList", "java/util/List", "java/io/Serializable");
+        jdk("java/util/AbstractMap", OBJECT, "java/util/Map");
+        jdk("java/util/HashMap", "java/util/AbstractMap", "java/util/Map", "java/io/Serializable");
+        jdk("java/util/LinkedHashMap", "java/util/HashMap");
+        jdk("java/util/TreeMap", "java/util/AbstractMap", "java/util/Map", "java/io/Serializable");
+        jdk("java/util/AbstractSet", "java/util/AbstractCollection", "java/util/Set");
+        jdk("java/util/HashSet", "java/util/AbstractSet", "java/util/Set", "java/io/Serializable");
+        jdk("java/util/Date", OBJECT, "java/io/Serializable");
+        jdk("java/util/EventObject", OBJECT, "java/io/Serializable");
+        jdk("java/io/InputStream", OBJECT, "java/io/Closeable");
+        jdk("java/io/ObjectInputStream", "java/io/InputStream", "java/io/ObjectInput");
+        jdk("java/lang/ClassLoader", OBJECT);
+        jdk("java/security/SecureClassLoader", "java/lang/ClassLoader");
+        jdk("java/net/URLClassLoader", "java/security/SecureClassLoader", "java/io/Closeable");
+    }
+    
+    private static void jdk(String name, String superName, String... interfaces) {
+        String[] supertypes = new String[interfaces.length + 1];
+        supertypes[0] = superName;
+        System.arraycopy(interfaces, 0, supertypes, 1, interfaces.length);
+        JDK_SUPERTYPES.put(name, supertypes);
+    }
+    
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<Integer> superIds = new ArrayList<>();
+    private final List<int[]> interfaceIds = new ArrayList<>();
+    private final List<Boolean> interfaceFlags = new ArrayList<>();
+    private final List<Boolean> declaredFlags = new ArrayList<>();
+    
+    private int[] preorder;
+    private int[] subtreeEnd;
+    private int[] typeAt;
+    private int[][] interfaceRanges;
+    
+    public TypeHierarchy() {
+        id(OBJECT);
+    }
+    
+    // Adding the same type twice keeps the first declaration, as the class loader would
+    public synchronized void add(String name, String superName, List<String> interfaces, boolean isInterface) {
+        int id = id(name);
+        if (declaredFlags.get(id)) return;
+        
+        declaredFlags.set(id, true);
+        interfaceFlags.set(id, isInterface);
+        declare(id, superName, interfaces.toArray(new String[0]));
+        preorder = null;
+    }
+    
+    public synchronized boolean contains(String name) {
+        Integer id = ids.get(name);
+        return id != null && declaredFlags.get(id);
+    }
+    
+    public synchronized boolean isInterface(String name) {
+        Integer id = ids.get(name);
+        return id != null && interfaceFlags.get(id);
+    }
+    
+    public synchronized String getSuperName(String name) {
+        Integer id = ids.get(name);
+        Integer superId = id != null ? superIds.get(id) : null;
+        return superId != null && superId >= 0 ? names.get(superId) : null;
+    }
+    
+    public synchronized int size() {
+        return names.size();
+    }
+    
+    public synchronized boolean isSubtype(String sub, String sup) {
+        if (sub.equals(sup)) return true;
+        
+        Integer subId = ids.get(sub);
+        Integer supId = ids.get(sup);
+        if (subId == null || supId == null) return OBJECT.equals(sup);
+        
+        index();
+        int position = preorder[subId];
+        if (!interfaceFlags.get(supId)) {
+            return preorder[supId] <= position && position <= subtreeEnd[supId];
+        }
+        return inRanges(interfaceRanges[supId], position);
+    }
+    
+    // The type itself and every type below it, in pre-order
+    public synchronized void forEachSubtype(String name, Consumer<String> action) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            action.accept(name);
+            return;
+        }
+        
+        int[] ranges = ranges(id);
+        for (int r = 0; r < ranges.length; r += 2) {
+            for (int position = ranges[r]; position <= ranges[r + 1]; position++) {
+                action.accept(names.get(typeAt[position]));
+            }
+        }
+    }
+    
+    // Counts the type itself, like forEachSubtype
+    public synchronized int subtypeCount(String name) {
+        Integer id = ids.get(name);
+        if (id == null) return 1;
+        
+        int[] ranges = ranges(id);
+        int count = 0;
+        for (int r = 0; r < ranges.length; r += 2) {
+            count += ranges[r + 1] - ranges[r] + 1;
+        }
+        return count;
+    }
+    
+    private int[] ranges(int id) {
+        index();
+        return interfaceFlags.get(id) ? interfaceRanges[id] : new int[] { preorder[id], subtreeEnd[id] };
+    }
+    
+    // Numbers the superclass tree depth-first and gathers the implementor ranges of each interface
+    private void index() {
+        if (preorder != null) return;
+        
+        int count = names.size();
+        List<List<Integer>> children = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) children.add(new ArrayList<>());
+        for (int i = 1; i < count; i++) {
+            int parent = superIds.get(i);
+            children.get(parent >= 0 ? parent : 0).add(i);
+        }
+        
+        preorder = new int[count];
+        subtreeEnd = new int[count];
+        typeAt = new int[count];
+        int next = 0;
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] { 0, 0 });
+        preorder[0] = next;
+        typeAt[next++] = 0;
+        while (!stack.isEmpty()) {
+            int[] frame = stack.peek();
+            List<Integer> below = children.get(frame[0]);
+            if (frame[1] < below.size()) {
+                int child = below.get(frame[1]++);
+                preorder[child] = next;
+                typeAt[next++] = child;
+                stack.push(new int[] { child, 0 });
+            } else {
+                subtreeEnd[frame[0]] = next - 1;
+                stack.pop();
+            }
+        }
+        
+        List<List<Integer>> implementors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) implementors.add(new ArrayList<>());
+        for (int i = 0; i < count; i++) {
+            for (int interfaceId : interfaceIds.get(i)) {
+                implementors.get(interfaceId).add(i);
+            }
+        }
+        interfaceRanges = new int[count][];
+        for (int i = 0; i < count; i++) {
+            if (interfaceFlags.get(i)) interfaceRanges(i, implementors);
+        }
+    }
+    
+    private int[] interfaceRanges(int id, List<List<Integer>> implementors) {
+        if (interfaceRanges[id] != null) return interfaceRanges[id];
+        // Guards against a cycle in malformed input
+        interfaceRanges[id] = new int[0];
+        
+        List<int[]> ranges = new ArrayList<>();
+        ranges.add(new int[] { preorder[id], subtreeEnd[id] });
+        for (int implementor : implementors.get(id)) {
+            if (interfaceFlags.get(implementor)) {
+                int[] inherited = interfaceRanges(implementor, implementors);
+                for (int r = 0; r < inherited.length; r += 2) {
+                    ranges.add(new int[] { inherited[r], inherited[r + 1] });
+                }
+            } else {
+                ranges.add(new int[] { preorder[implementor], subtreeEnd[implementor] });
+            }
+        }
+        
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] merged = new int[ranges.size() * 2];
+        int length = 0;
+        for (int[] range : ranges) {
+            if (length > 0 && range[0] <= merged[length - 1] + 1) {
+                merged[length - 1] = Math.max(merged[length - 1], range[1]);
+            } else {
+                merged[length++] = range[0];
+                merged[length++] = range[1];
+            }
+        }
+        interfaceRanges[id] = Arrays.copyOf(merged, length);
+        return interfaceRanges[id];
+    }
+    
+    private static boolean inRanges(int[] ranges, int position) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (position < ranges[middle * 2]) high = middle - 1;
+            else if (position > ranges[middle * 2 + 1]) low = middle + 1;
+            else return true;
+        }
+        return false;
+    }
+    
+    private int id(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        
+        id = names.size();
+        ids.put(name, id);
+        names.add(name);
+        superIds.add(-1);
+        interfaceIds.add(new int[0]);
+        interfaceFlags.add(false);
+        declaredFlags.add(false);
+        
+        // Types outside the archive get their supertypes from the JDK table, or hang under Object
+        String[] supertypes = JDK_SUPERTYPES.get(name);
+        if (supertypes != null) {
+            interfaceFlags.set(id, supertypes[0] == null);
+            declare(id, supertypes[0], Arrays.copyOfRange(supertypes, 1, supertypes.length));
+        }
+        return id;
+    }
+    
+    private void declare(int id, String superName, String[] interfaces) {
+        superIds.set(id, superName != null && !superName.equals(names.get(id)) ? id(superName) : (id == 0 ? -1 : 0));
+        
+        int[] interfaceList = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaceList[i] = id(interfaces[i]);
+            if (!declaredFlags.get(interfaceList[i])) interfaceFlags.set(interfaceList[i], true);
+        }
+        interfaceIds.set(id, interfaceList);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,464 @@
+package application.analysis;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Known-vulnerable libraries by Maven coordinates, alias or class-set fingerprint. The text feed
+// (vulnerable-dependencies.txt plus any refreshes) is compiled into one file: a header of magic, version, slot
+// count and a hash of the bundled feed it was built from, fixed-width slots
+// of { key hash, payload offset, payload length } sorted by hash, then the payloads. The file is memory-mapped
+// and searched in place, so a lookup is a binary search over the slots and one payload decode.
+public class VulnerabilityIndex {
+    
+    // -Danalyzer.vulnIndex=<file> moves the compiled index from ~/.java_analyzer/vulnerabilities.idx
+    private static final String INDEX_PROPERTY = "analyzer.vulnIndex";
+    private static final String BUNDLED_FEED = "vulnerable-dependencies.txt";
+    
+    private static final int MAGIC = 0x4A564958;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 16;
+    
+    private static final String ALIAS_PREFIX = "@";
+    private static final String FINGERPRINT_PREFIX = "#";
+    
+    private static volatile VulnerabilityIndex defaultIndex;
+    
+    private final ByteBuffer index;
+    private final int count;
+    
+    private VulnerabilityIndex(ByteBuffer index) throws IOException {
+        if (index.capacity() < HEADER_SIZE || index.getInt(0) != MAGIC || index.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a vulnerability index, or written by another version");
+        }
+        this.index = index;
+        this.count = index.getInt(8);
+        if ((long) HEADER_SIZE + (long) count * SLOT_SIZE > index.capacity()) {
+            throw new IOException("Truncated vulnerability index");
+        }
+    }
+    
+    public static class Advisory {
+        private final String id;
+        private final String severity;
+        private final String affectedVersions;
+        private final String summary;
+        
+        Advisory(String id, String severity, String affectedVersions, String summary) {
+            this.id = id;
+            this.severity = severity;
+            this.affectedVersions = affectedVersions;
+            this.summary = summary;
+        }
+        
+        public String getId() { return id; }
+        public String getSeverity() { return severity; }
+        public String getAffectedVersions() { return affectedVersions; }
+        public String getSummary() { return summary; }
+    }
+    
+    public static File defaultIndexFile() {
+        String configured = System.getProperty(INDEX_PROPERTY);
+        return configured != null ? new File(configured)
+                                  : new File(System.getProperty("user.home"), ".java_analyzer/vulnerabilities.idx");
+    }
+    
+    // Compiled on first use, and again once the bundled feed no longer matches the index
+    public static VulnerabilityIndex getDefault() {
+        VulnerabilityIndex result = defaultIndex;
+        if (result == null) {
+            synchronized (VulnerabilityIndex.class) {
+                result = defaultIndex;
+                if (result == null) {
+                    result = loadDefault();
+                    defaultIndex = result;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static VulnerabilityIndex loadDefault() {
+        Path file = defaultIndexFile().toPath();
+        try {
+            if (Files.isRegularFile(file)) {
+                VulnerabilityIndex existing = open(file);
+                if (existing.getBundledFeedHash() == feedHash(bundledFeed())) return existing;
+            }
+            
+            // Missing, or compiled from an older bundled feed: the feeds of the last refresh go back in with it
+            write(file, compile(sources(refreshedFeeds(file))));
+            return open(file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load vulnerability index " + file + ": " + e.getMessage());
+            try {
+                return new VulnerabilityIndex(compile(Map.of(BUNDLED_FEED, bundledFeed())));
+            } catch (IOException | IllegalArgumentException fallback) {
+                System.err.println("Dependency checks are disabled: " + fallback.getMessage());
+                return null;
+            }
+        }
+    }
+    
+    public static VulnerabilityIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new VulnerabilityIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    // Recompiles the index from the bundled feed plus the given feed files, which replace those of an earlier
+    // refresh. A merged copy of them is kept next to the index, so a later bundled feed is compiled in with them.
+    public static void refresh(Path file, List<Path> feeds) throws IOException {
+        Map<String, List<String>> refreshed = new LinkedHashMap<>();
+        for (Path feed : feeds) {
+            refreshed.put(feed.toString(), Files.readAllLines(feed, StandardCharsets.UTF_8));
+        }
+        write(file, compile(sources(refreshed)));
+        
+        Path copy = refreshedFeedsFile(file);
+        if (refreshed.isEmpty()) {
+            Files.deleteIfExists(copy);
+        } else {
+            List<String> merged = new ArrayList<>();
+            refreshed.forEach((name, lines) -> {
+                merged.add("# " + name);
+                merged.addAll(lines);
+            });
+            write(copy, ByteBuffer.wrap(String.join("\n", merged).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+    
+    private static Map<String, List<String>> sources(Map<String, List<String>> refreshed) throws IOException {
+        Map<String, List<String>> sources = new LinkedHashMap<>();
+        sources.put(BUNDLED_FEED, bundledFeed());
+        sources.putAll(refreshed);
+        return sources;
+    }
+    
+    private static Path refreshedFeedsFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".feeds");
+    }
+    
+    private static Map<String, List<String>> refreshedFeeds(Path file) throws IOException {
+        Path copy = refreshedFeedsFile(file);
+        if (!Files.isRegularFile(copy)) return Collections.emptyMap();
+        return Map.of(copy.toString(), Files.readAllLines(copy, StandardCharsets.UTF_8));
+    }
+    
+    // Written next to the old file and moved over it, so a process that has the old one mapped keeps reading a
+    // complete file
+    private static void write(Path file, ByteBuffer contents) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "vulnerabilities", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (contents.hasRemaining()) channel.write(contents);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        
+        synchronized (VulnerabilityIndex.class) {
+            if (file.equals(defaultIndexFile().toPath())) defaultIndex = null;
+        }
+    }
+    
+    private static List<String> bundledFeed() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream bundled = VulnerabilityIndex.class.getResourceAsStream(BUNDLED_FEED)) {
+            if (bundled == null) {
+                System.err.println("Bundled vulnerability feed not found on the classpath");
+                return lines;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(bundled, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) lines.add(line);
+        }
+        return lines;
+    }
+    
+    // Feed lines, by feed name, to the index layout with keys sorted by hash
+    static ByteBuffer compile(Map<String, List<String>> feeds) {
+        Map<String, List<String>> payloads = new TreeMap<>();
+        Map<String, String> groupsByArtifact = new HashMap<>();
+        for (Map.Entry<String, List<String>> feed : feeds.entrySet()) {
+            try {
+                parseFeed(feed.getValue(), payloads, groupsByArtifact);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(feed.getKey() + ": " + e.getMessage());
+            }
+        }
+        
+        // An artifactId names its library unless two groups publish one with that name
+        for (Map.Entry<String, String> artifact : groupsByArtifact.entrySet()) {
+            if (artifact.getValue().isEmpty()) continue;
+            payloads.computeIfAbsent(ALIAS_PREFIX + artifact.getKey().toLowerCase(), key -> new ArrayList<>())
+                    .add(artifact.getValue() + ":" + artifact.getKey());
+        }
+        
+        List<byte[]> encoded = new ArrayList<>();
+        List<long[]> slots = new ArrayList<>();
+        int payloadOffset = HEADER_SIZE + payloads.size() * SLOT_SIZE;
+        for (Map.Entry<String, List<String>> entry : payloads.entrySet()) {
+            String text = entry.getKey() + "\n" + String.join("\n", entry.getValue());
+            byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+            slots.add(new long[] { hash(entry.getKey()), payloadOffset, payload.length });
+            encoded.add(payload);
+            payloadOffset += payload.length;
+        }
+        slots.sort((a, b) -> Long.compare(a[0], b[0]));
+        
+        ByteBuffer buffer = ByteBuffer.allocate(payloadOffset);
+        List<String> bundled = feeds.getOrDefault(BUNDLED_FEED, Collections.emptyList());
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(slots.size()).putInt(feedHash(bundled));
+        for (long[] slot : slots) {
+            buffer.putLong(slot[0]).putInt((int) slot[1]).putInt((int) slot[2]);
+        }
+        for (byte[] payload : encoded) buffer.put(payload);
+        buffer.flip();
+        return buffer;
+    }
+    
+    private static void parseFeed(List<String> lines, Map<String, List<String>> payloads,
+                                  Map<String, String> groupsByArtifact) {
+        int number = 0;
+        for (String line : lines) {
+            number++;
+            int comment = line.indexOf('#');
+            String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (content.isEmpty()) continue;
+            
+            String[] columns = content.split("\\s+", 5);
+            if (columns[0].equals("alias") || columns[0].equals("fingerprint")) {
+                if (columns.length != 3 || columns[2].split(":").length != (columns[0].equals("alias") ? 2 : 3)) {
+                    throw new IllegalArgumentException("Line " + number + ": expected '" + columns[0] + " <name> " +
+                        (columns[0].equals("alias") ? "<groupId>:<artifactId>'" : "<groupId>:<artifactId>:<version>'"));
+                }
+                String prefix = columns[0].equals("alias") ? ALIAS_PREFIX : FINGERPRINT_PREFIX;
+                payloads.computeIfAbsent(prefix + columns[1].toLowerCase(), key -> new ArrayList<>()).add(columns[2]);
+                continue;
+            }
+            
+            String[] coordinates = columns[0].split(":");
+            if (coordinates.length != 2 || columns.length < 4) {
+                throw new IllegalArgumentException("Line " + number +
+                    ": expected '<groupId>:<artifactId> <advisory> <severity> <affected versions> [<summary>]'");
+            }
+            parseRanges(columns[3], number);
+            payloads.computeIfAbsent(columns[0], key -> new ArrayList<>())
+                    .add(columns[1] + '\t' + columns[2].toUpperCase() + '\t' + columns[3] + '\t' +
+                         (columns.length > 4 ? columns[4] : ""));
+            
+            String group = groupsByArtifact.putIfAbsent(coordinates[1], coordinates[0]);
+            if (group != null && !group.equals(coordinates[0])) groupsByArtifact.put(coordinates[1], "");
+        }
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    int getBundledFeedHash() {
+        return index.getInt(12);
+    }
+    
+    // Advisories for the library whose affected versions include this one
+    public List<Advisory> find(String groupId, String artifactId, String version) {
+        List<Advisory> advisories = new ArrayList<>();
+        for (String value : lookup(groupId + ":" + artifactId)) {
+            String[] fields = value.split("\t", 4);
+            if (version == null || inRanges(version, fields[2])) {
+                advisories.add(new Advisory(fields[0], fields[1], fields[2], fields[3]));
+            }
+        }
+        return advisories;
+    }
+    
+    // groupId:artifactId for a Bundle-SymbolicName, artifactId or other known name; null if unknown
+    public String resolveAlias(String name) {
+        List<String> values = lookup(ALIAS_PREFIX + name.toLowerCase());
+        return values.isEmpty() ? null : values.get(0);
+    }
+    
+    // groupId:artifactId:version of the library with this class-set fingerprint; null if unknown
+    public String resolveFingerprint(String fingerprint) {
+        List<String> values = lookup(FINGERPRINT_PREFIX + fingerprint.toLowerCase());
+        return values.isEmpty() ? null : values.get(0);
+    }
+    
+    private List<String> lookup(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = count;
+        // First slot whose hash is not below the key's; equal hashes sit next to each other
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (index.getLong(HEADER_SIZE + middle * SLOT_SIZE) < hash) low = middle + 1;
+            else high = middle;
+        }
+        
+        for (int slot = low; slot < count && index.getLong(HEADER_SIZE + slot * SLOT_SIZE) == hash; slot++) {
+            int offset = index.getInt(HEADER_SIZE + slot * SLOT_SIZE + 8);
+            int length = index.getInt(HEADER_SIZE + slot * SLOT_SIZE + 12);
+            byte[] payload = new byte[length];
+            index.get(offset, payload);
+            String[] lines = new String(payload, StandardCharsets.UTF_8).split("\n");
+            if (lines[0].equals(key)) {
+                List<String> values = new ArrayList<>(lines.length - 1);
+                for (int i = 1; i < lines.length; i++) values.add(lines[i]);
+                return values;
+            }
+        }
+        return Collections.emptyList();
+    }
+    
+    // 64-bit FNV-1a over the UTF-16 chars
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    // The 64-bit hash of the whole feed folded into the header's last int
+    private static int feedHash(List<String> lines) {
+        long hash = hash(String.join("\n", lines));
+        return (int) (hash ^ (hash >>> 32));
+    }
+    
+    // Maven range sets such as [1.0,1.2),[1.5,) or [2.3]; an empty bound is open
+    public static boolean inRanges(String version, String ranges) {
+        for (String[] range : parseRanges(ranges, 0)) {
+            String lower = range[1];
+            String upper = range[2];
+            int low = lower.isEmpty() ? 1 : compareVersions(version, lower);
+            int high = upper.isEmpty() ? -1 : compareVersions(version, upper);
+            boolean aboveLower = range[0].charAt(0) == '[' ? low >= 0 : low > 0;
+            boolean belowUpper = range[0].charAt(1) == ']' ? high <= 0 : high < 0;
+            if (aboveLower && belowUpper) return true;
+        }
+        return false;
+    }
+    
+    // Each range as { brackets, lower, upper }, e.g. { "[)", "2.0", "2.15.0" }
+    private static List<String[]> parseRanges(String ranges, int number) {
+        List<String[]> parsed = new ArrayList<>();
+        int position = 0;
+        while (position < ranges.length()) {
+            char open = ranges.charAt(position);
+            int close = position + 1;
+            while (close < ranges.length() && ranges.charAt(close) != ']' && ranges.charAt(close) != ')') close++;
+            if ((open != '[' && open != '(') || close == ranges.length()) {
+                throw new IllegalArgumentException("Line " + number + ": bad version range " + ranges);
+            }
+            
+            String body = ranges.substring(position + 1, close);
+            String brackets = "" + open + ranges.charAt(close);
+            int comma = body.indexOf(',');
+            if (comma < 0) {
+                // [1.2.3] is exactly that version
+                parsed.add(new String[] { "[]", body.trim(), body.trim() });
+            } else {
+                String lower = body.substring(0, comma).trim();
+                parsed.add(new String[] { brackets, lower, body.substring(comma + 1).trim() });
+            }
+            
+            position = close + 1;
+            if (position < ranges.length() && ranges.charAt(position) == ',') position++;
+        }
+        return parsed;
+    }
+    
+    // Maven-style ordering: numbers compare numerically, 1.0-alpha < 1.0-beta < 1.0-rc < 1.0-SNAPSHOT < 1.0 < 1.0-sp
+    public static int compareVersions(String a, String b) {
+        List<String> left = versionItems(a);
+        List<String> right = versionItems(b);
+        for (int i = 0; i < Math.max(left.size(), right.size()); i++) {
+            int result = compareItems(i < left.size() ? left.get(i) : null, i < right.size() ? right.get(i) : null);
+            if (result != 0) return result;
+        }
+        return 0;
+    }
+    
+    // Split at '.', '-', '_' and between digits and letters: 2.0-beta9 is 2, 0, beta, 9
+    private static List<String> versionItems(String version) {
+        List<String> items = new ArrayList<>();
+        StringBuilder item = new StringBuilder();
+        for (int i = 0; i < version.length(); i++) {
+            char ch = version.charAt(i);
+            boolean separator = ch == '.' || ch == '-' || ch == '_';
+            boolean switchesKind = item.length() > 0 &&
+                                   Character.isDigit(ch) != Character.isDigit(item.charAt(item.length() - 1));
+            if (separator || switchesKind) {
+                if (item.length() > 0) items.add(item.toString().toLowerCase());
+                item.setLength(0);
+            }
+            if (!separator) item.append(ch);
+        }
+        if (item.length() > 0) items.add(item.toString().toLowerCase());
+        return items;
+    }
+    
+    // A missing item counts as 0 against a number and as a release against a qualifier; numbers outrank qualifiers
+    private static int compareItems(String left, String right) {
+        boolean leftNumber = left != null && Character.isDigit(left.charAt(0));
+        boolean rightNumber = right != null && Character.isDigit(right.charAt(0));
+        if (leftNumber && rightNumber) return compareNumbers(left, right);
+        if (leftNumber) return right == null ? compareNumbers(left, "0") : 1;
+        if (rightNumber) return left == null ? compareNumbers("0", right) : -1;
+        
+        int leftRank = qualifierRank(left);
+        int rightRank = qualifierRank(right);
+        if (leftRank != rightRank) return Integer.compare(leftRank, rightRank);
+        return leftRank == 7 ? left.compareTo(right) : 0;
+    }
+    
+    private static int compareNumbers(String left, String right) {
+        String a = left.replaceFirst("^0+(?=.)", "");
+        String b = right.replaceFirst("^0+(?=.)", "");
+        return a.length() != b.length() ? Integer.compare(a.length(), b.length()) : a.compareTo(b);
+    }
+    
+    private static int qualifierRank(String qualifier) {
+        if (qualifier == null) return 5;
+        switch (qualifier) {
+            case "alpha": case "a":
+                return 0;
+            case "beta": case "b":
+                return 1;
+            case "milestone": case "m":
+                return 2;
+            case "rc": case "cr":
+                return 3;
+            case "snapshot":
+                return 4;
+            case "ga": case "final": case "release":
+                return 5;
+            case "sp":
+                return 6;
+            default:
+                return 7;
+        }
+    }
+}
\ No newline at end of file
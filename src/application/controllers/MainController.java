@@ -1,22 +1,20 @@
 package application.controllers;
 
+import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.concurrent.WorkerStateEvent;
 import javafx.event.EventHandler;
+import application.models.AnalysisTier;
 import application.models.ClassAnalysisResult;
 import application.services.*;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public class MainController {
     
-    private DecompilerService decompilerService;
-    private AnalyzerService analyzerService;
-    private OptimizationService optimizationService;
-    private SecurityService securityService;
-    private GraphService graphService;
-    private HeatmapAnalyzer heatmapAnalyzer;
+    private CompletableFuture<AnalysisPipeline> analysisPipeline;
     
     private Consumer<ClassAnalysisResult> onAnalysisComplete;
     
@@ -25,22 +23,27 @@ public class MainController {
     }
     
     private void initializeServices() {
-        decompilerService = new DecompilerService();
-        analyzerService = new AnalyzerService();
-        optimizationService = new OptimizationService();
-        securityService = new SecurityService();
-        graphService = new GraphService();
-        heatmapAnalyzer = new HeatmapAnalyzer();
+        // Built and warmed up off the FX thread so the window can appear first
+        analysisPipeline = CompletableFuture.supplyAsync(() -> {
+            AnalysisPipeline pipeline = new AnalysisPipeline();
+            pipeline.warmUp();
+            return pipeline;
+        }, runnable -> {
+            Thread initThread = new Thread(runnable, "service-init");
+            initThread.setDaemon(true);
+            initThread.start();
+        });
+    }
+    
+    public CompletableFuture<AnalysisPipeline> getServicesReady() {
+        return analysisPipeline;
     }
     
     public void analyzeClassFile(File classFile) {
         Task<ClassAnalysisResult> analysisTask = createAnalysisTask(classFile);
         
         analysisTask.setOnSucceeded(event -> {
-            ClassAnalysisResult result = analysisTask.getValue();
-            if (onAnalysisComplete != null) {
-                onAnalysisComplete.accept(result);
-            }
+            deliverResult(analysisTask.getValue());
         });
         
         analysisTask.setOnFailed(event -> {
@@ -57,47 +60,22 @@ public class MainController {
         return new Task<ClassAnalysisResult>() {
             @Override
             protected ClassAnalysisResult call() throws Exception {
-                updateMessage("Decompiling class file...");
-                String decompiledCode = decompilerService.decompile(classFile);
-                
-                updateMessage("Parsing code...");
-                analyzerService.parseCode(decompiledCode);
-                
-                updateMessage("Running optimization analysis...");
-                var optimizations = optimizationService.analyzeOptimizations(analyzerService.getCompilationUnit());
-                
-                updateMessage("Running security analysis...");
-                var securityIssues = securityService.analyzeSecurityIssues(analyzerService.getCompilationUnit());
-                
-                updateMessage("Generating graphs...");
-                var methodCallGraph = graphService.generateMethodCallGraph(analyzerService.getCompilationUnit());
-                var classHierarchy = graphService.generateClassHierarchy(analyzerService.getCompilationUnit());
-                
-                updateMessage("Extracting class information...");
-                var classInfo = analyzerService.extractClassInfo();
-                
-                updateMessage("Generating heatmap data...");
-                var heatmapData = heatmapAnalyzer.generateHeatmapData(
-                    analyzerService.getCompilationUnit(),
-                    optimizations,
-                    securityIssues
-                );
-                
-                updateMessage("Analysis complete");
-                
-                return new ClassAnalysisResult(
-                    decompiledCode,
-                    optimizations,
-                    securityIssues,
-                    methodCallGraph,
-                    classHierarchy,
-                    classInfo,
-                    heatmapData
-                );
+                // Earlier tiers are shown as soon as they finish and replaced in place by later ones
+                return analysisPipeline.join().analyze(classFile, AnalysisTier.DEEP, this::updateMessage, result -> {
+                    if (!result.isComplete()) {
+                        Platform.runLater(() -> deliverResult(result));
+                    }
+                });
             }
         };
     }
     
+    private void deliverResult(ClassAnalysisResult result) {
+        if (onAnalysisComplete != null) {
+            onAnalysisComplete.accept(result);
+        }
+    }
+    
     private void handleAnalysisError(Throwable exception) {
         System.err.println("Analysis failed: " + exception.getMessage());
         exception.printStackTrace();
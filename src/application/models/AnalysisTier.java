@@ -0,0 +1,9 @@
+package application.models;
+
+public enum AnalysisTier {
+    BYTECODE, STANDARD, DEEP;
+    
+    public int getLevel() {
+        return ordinal();
+    }
+}
\ No newline at end of file
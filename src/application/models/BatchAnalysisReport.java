@@ -0,0 +1,44 @@
+package application.models;
+
+import java.util.List;
+
+public class BatchAnalysisReport {
+    
+    private final List<BatchTaskResult> taskResults;
+    private final int workerCount;
+    private final long predictedMakespanNanos;
+    private final long actualMakespanNanos;
+    private final int spilledResultCount;
+    private final long spilledBytes;
+    
+    public BatchAnalysisReport(List<BatchTaskResult> taskResults, int workerCount,
+                              long predictedMakespanNanos, long actualMakespanNanos,
+                              int spilledResultCount, long spilledBytes) {
+        this.taskResults = taskResults;
+        this.workerCount = workerCount;
+        this.predictedMakespanNanos = predictedMakespanNanos;
+        this.actualMakespanNanos = actualMakespanNanos;
+        this.spilledResultCount = spilledResultCount;
+        this.spilledBytes = spilledBytes;
+    }
+    
+    public List<BatchTaskResult> getTaskResults() { return taskResults; }
+    public int getWorkerCount() { return workerCount; }
+    public long getPredictedMakespanNanos() { return predictedMakespanNanos; }
+    public long getActualMakespanNanos() { return actualMakespanNanos; }
+    public int getSpilledResultCount() { return spilledResultCount; }
+    public long getSpilledBytes() { return spilledBytes; }
+    
+    public int getFailedCount() {
+        return (int) taskResults.stream().filter(task -> !task.isSuccessful()).count();
+    }
+    
+    public int getStolenCount() {
+        return (int) taskResults.stream().filter(BatchTaskResult::isStolen).count();
+    }
+    
+    public double getPredictionError() {
+        if (actualMakespanNanos == 0) return 0.0;
+        return (double) (predictedMakespanNanos - actualMakespanNanos) / actualMakespanNanos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package application.models;
+
+import java.io.File;
+import java.util.function.Supplier;
+
+public class BatchTaskResult {
+    
+    private final File classFile;
+    private final Supplier<ClassAnalysisResult> result;
+    private final String error;
+    private final long estimatedNanos;
+    private final long actualNanos;
+    private final int workerIndex;
+    private final boolean stolen;
+    
+    public BatchTaskResult(File classFile, Supplier<ClassAnalysisResult> result, String error,
+                          long estimatedNanos, long actualNanos, int workerIndex, boolean stolen) {
+        this.classFile = classFile;
+        this.result = result;
+        this.error = error;
+        this.estimatedNanos = estimatedNanos;
+        this.actualNanos = actualNanos;
+        this.workerIndex = workerIndex;
+        this.stolen = stolen;
+    }
+    
+    public File getClassFile() { return classFile; }
+    public ClassAnalysisResult getResult() { return result != null ? result.get() : null; }
+    public String getError() { return error; }
+    public long getEstimatedNanos() { return estimatedNanos; }
+    public long getActualNanos() { return actualNanos; }
+    public int getWorkerIndex() { return workerIndex; }
+    public boolean isStolen() { return stolen; }
+    
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
\ No newline at end of file
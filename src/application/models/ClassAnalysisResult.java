@@ -1,17 +1,22 @@
 package application.models;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
-public class ClassAnalysisResult {
+public class ClassAnalysisResult implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String decompiledCode;
     private final List<OptimizationSuggestion> optimizationSuggestions;
     private final List<SecurityIssue> securityIssues;
-    private final MethodCallGraph methodCallGraph;
-    private final ClassHierarchyGraph classHierarchy;
+    private final LazyValue<MethodCallGraph> methodCallGraph;
+    private final LazyValue<ClassHierarchyGraph> classHierarchy;
     private final ClassInfo classInfo;
-    private final HeatmapData heatmapData;
+    private final LazyValue<HeatmapData> heatmapData;
+    private final AnalysisTier tier;
     
     public ClassAnalysisResult(String decompiledCode,
                              List<OptimizationSuggestion> optimizationSuggestions,
@@ -20,6 +25,30 @@ public class ClassAnalysisResult {
                              ClassHierarchyGraph classHierarchy,
                              ClassInfo classInfo,
                              HeatmapData heatmapData) {
+        this(decompiledCode, optimizationSuggestions, securityIssues, methodCallGraph,
+             classHierarchy, classInfo, heatmapData, AnalysisTier.DEEP);
+    }
+    
+    public ClassAnalysisResult(String decompiledCode,
+                             List<OptimizationSuggestion> optimizationSuggestions,
+                             List<SecurityIssue> securityIssues,
+                             MethodCallGraph methodCallGraph,
+                             ClassHierarchyGraph classHierarchy,
+                             ClassInfo classInfo,
+                             HeatmapData heatmapData,
+                             AnalysisTier tier) {
+        this(decompiledCode, optimizationSuggestions, securityIssues, classInfo,
+             LazyValue.of(methodCallGraph), LazyValue.of(classHierarchy), LazyValue.of(heatmapData), tier);
+    }
+    
+    public ClassAnalysisResult(String decompiledCode,
+                             List<OptimizationSuggestion> optimizationSuggestions,
+                             List<SecurityIssue> securityIssues,
+                             ClassInfo classInfo,
+                             LazyValue<MethodCallGraph> methodCallGraph,
+                             LazyValue<ClassHierarchyGraph> classHierarchy,
+                             LazyValue<HeatmapData> heatmapData,
+                             AnalysisTier tier) {
         this.decompiledCode = decompiledCode;
         this.optimizationSuggestions = optimizationSuggestions;
         this.securityIssues = securityIssues;
@@ -27,6 +56,7 @@ public class ClassAnalysisResult {
         this.classHierarchy = classHierarchy;
         this.classInfo = classInfo;
         this.heatmapData = heatmapData;
+        this.tier = tier;
     }
     
     public String getDecompiledCode() {
@@ -42,11 +72,15 @@ public class ClassAnalysisResult {
     }
     
     public MethodCallGraph getMethodCallGraph() {
-        return methodCallGraph;
+        return methodCallGraph.get();
     }
     
     public ClassHierarchyGraph getClassHierarchy() {
-        return classHierarchy;
+        return classHierarchy.get();
+    }
+    
+    public boolean isGraphDataComputed() {
+        return methodCallGraph.isComputed() && classHierarchy.isComputed();
     }
     
     public ClassInfo getClassInfo() {
@@ -54,6 +88,31 @@ public class ClassAnalysisResult {
     }
     
     public HeatmapData getHeatmapData() {
-        return heatmapData;
+        return heatmapData.get();
+    }
+    
+    public boolean isHeatmapDataComputed() {
+        return heatmapData.isComputed();
+    }
+    
+    // Graphs and heatmap still pending when the result was spilled are not written out with it
+    public boolean hasAbsentData() {
+        return methodCallGraph.isAbsent() || classHierarchy.isAbsent() || heatmapData.isAbsent();
+    }
+    
+    public void supplyAbsentData(Supplier<MethodCallGraph> methodCallGraph,
+                                 Supplier<ClassHierarchyGraph> classHierarchy,
+                                 Supplier<HeatmapData> heatmapData) {
+        this.methodCallGraph.supplyIfAbsent(methodCallGraph);
+        this.classHierarchy.supplyIfAbsent(classHierarchy);
+        this.heatmapData.supplyIfAbsent(heatmapData);
+    }
+    
+    public AnalysisTier getTier() {
+        return tier;
+    }
+    
+    public boolean isComplete() {
+        return tier == AnalysisTier.DEEP;
     }
 }
\ No newline at end of file
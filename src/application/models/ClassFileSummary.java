@@ -0,0 +1,136 @@
+package application.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClassFileSummary {
+    
+    private final String className;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    private final int accessFlags;
+    private final int majorVersion;
+    private final int constantPoolCount;
+    private final List<FieldSummary> fields = new ArrayList<>();
+    private final List<MethodSummary> methods = new ArrayList<>();
+    private final List<String> stringConstants = new ArrayList<>();
+    
+    public ClassFileSummary(String className, String superClassName, List<String> interfaceNames,
+                           int accessFlags, int majorVersion, int constantPoolCount) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+        this.accessFlags = accessFlags;
+        this.majorVersion = majorVersion;
+        this.constantPoolCount = constantPoolCount;
+    }
+    
+    public String getClassName() { return className; }
+    public String getSuperClassName() { return superClassName; }
+    public List<String> getInterfaceNames() { return interfaceNames; }
+    public int getAccessFlags() { return accessFlags; }
+    public int getMajorVersion() { return majorVersion; }
+    public int getConstantPoolCount() { return constantPoolCount; }
+    public List<FieldSummary> getFields() { return fields; }
+    public List<MethodSummary> getMethods() { return methods; }
+    public List<String> getStringConstants() { return stringConstants; }
+    
+    public String getSimpleName() {
+        int slash = className.lastIndexOf('/');
+        return slash >= 0 ? className.substring(slash + 1) : className;
+    }
+    
+    public String getPackageName() {
+        int slash = className.lastIndexOf('/');
+        return slash >= 0 ? className.substring(0, slash).replace('/', '.') : "";
+    }
+    
+    public static class FieldSummary {
+        private final String name;
+        private final String descriptor;
+        private final int accessFlags;
+        private final Object constantValue;
+        
+        public FieldSummary(String name, String descriptor, int accessFlags, Object constantValue) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.accessFlags = accessFlags;
+            this.constantValue = constantValue;
+        }
+        
+        public String getName() { return name; }
+        public String getDescriptor() { return descriptor; }
+        public int getAccessFlags() { return accessFlags; }
+        public Object getConstantValue() { return constantValue; }
+    }
+    
+    public static class MethodSummary {
+        private final String name;
+        private final String descriptor;
+        private final int accessFlags;
+        private final int codeLength;
+        private final int firstLine;
+        private final List<MemberReference> references;
+        
+        public MethodSummary(String name, String descriptor, int accessFlags, int codeLength,
+                            int firstLine, List<MemberReference> references) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.accessFlags = accessFlags;
+            this.codeLength = codeLength;
+            this.firstLine = firstLine;
+            this.references = references;
+        }
+        
+        public String getName() { return name; }
+        public String getDescriptor() { return descriptor; }
+        public int getAccessFlags() { return accessFlags; }
+        public int getCodeLength() { return codeLength; }
+        public int getFirstLine() { return firstLine; }
+        public List<MemberReference> getReferences() { return references; }
+    }
+    
+    public static class MemberReference {
+        private final MemberReferenceKind kind;
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+        private final int lineNumber;
+        private final String precedingStringConstant;
+        private final String leadingStringArgument;
+        
+        public MemberReference(MemberReferenceKind kind, String owner, String name, String descriptor,
+                              int lineNumber, String precedingStringConstant) {
+            this(kind, owner, name, descriptor, lineNumber, precedingStringConstant, null);
+        }
+        
+        public MemberReference(MemberReferenceKind kind, String owner, String name, String descriptor,
+                              int lineNumber, String precedingStringConstant, String leadingStringArgument) {
+            this.kind = kind;
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.lineNumber = lineNumber;
+            this.precedingStringConstant = precedingStringConstant;
+            this.leadingStringArgument = leadingStringArgument;
+        }
+        
+        public MemberReferenceKind getKind() { return kind; }
+        public String getOwner() { return owner; }
+        public String getName() { return name; }
+        public String getDescriptor() { return descriptor; }
+        public int getLineNumber() { return lineNumber; }
+        public String getPrecedingStringConstant() { return precedingStringConstant; }
+        // A string constant pushed before the call with only constants, locals and array set-up after it,
+        // e.g. the name in getMethod("run", new Class[0]); null when the first argument is computed
+        public String getLeadingStringArgument() { return leadingStringArgument; }
+        
+        public boolean matches(String owner, String name) {
+            return this.owner.equals(owner) && this.name.equals(name);
+        }
+    }
+    
+    public enum MemberReferenceKind {
+        INVOKE, INVOKE_DYNAMIC, FIELD_READ, FIELD_WRITE, NEW
+    }
+}
\ No newline at end of file
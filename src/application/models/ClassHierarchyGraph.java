@@ -1,8 +1,11 @@
 package application.models;
 
+import java.io.Serializable;
 import java.util.List;
 
-public class ClassHierarchyGraph {
+public class ClassHierarchyGraph implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String className;
     private final String superClass;
@@ -1,9 +1,12 @@
 package application.models;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ClassMetrics {
+public class ClassMetrics implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String className;
     private final int startLine;
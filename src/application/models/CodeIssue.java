@@ -1,6 +1,10 @@
 package application.models;
 
-public class CodeIssue {
+import java.io.Serializable;
+
+public class CodeIssue implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final int lineNumber;
     private final IssueType type;
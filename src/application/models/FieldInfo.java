@@ -1,6 +1,10 @@
 package application.models;
 
-public class FieldInfo {
+import java.io.Serializable;
+
+public class FieldInfo implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String name;
     private final String type;
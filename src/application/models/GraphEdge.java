@@ -1,6 +1,10 @@
 package application.models;
 
-public class GraphEdge {
+import java.io.Serializable;
+
+public class GraphEdge implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String fromNodeId;
     private final String toNodeId;
@@ -1,6 +1,10 @@
 package application.models;
 
-public class GraphNode {
+import java.io.Serializable;
+
+public class GraphNode implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String id;
     private final String label;
@@ -1,8 +1,11 @@
 package application.models;
 
+import java.io.Serializable;
 import java.util.*;
 
-public class HeatmapData {
+public class HeatmapData implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private List<ClassMetrics> classMetrics = new ArrayList<>();
     private List<MethodMetrics> methodMetrics = new ArrayList<>();
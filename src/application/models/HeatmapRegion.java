@@ -1,6 +1,10 @@
 package application.models;
 
-public class HeatmapRegion {
+import java.io.Serializable;
+
+public class HeatmapRegion implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final int startLine;
     private final int endLine;
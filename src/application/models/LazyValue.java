@@ -0,0 +1,65 @@
+package application.models;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+public class LazyValue<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private transient Supplier<T> supplier;
+    private T value;
+    private boolean computed;
+    
+    public LazyValue(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+    
+    public static <T> LazyValue<T> of(T value) {
+        LazyValue<T> lazyValue = new LazyValue<>(null);
+        lazyValue.value = value;
+        lazyValue.computed = true;
+        return lazyValue;
+    }
+    
+    // Null while absent, which only happens to a reloaded value nobody has supplied again
+    public synchronized T get() {
+        if (!computed && supplier != null) {
+            value = supplier.get();
+            computed = true;
+            // Drop the supplier so whatever it captured (typically the parsed unit) can be collected
+            supplier = null;
+        }
+        return value;
+    }
+    
+    public synchronized boolean isComputed() {
+        return computed;
+    }
+    
+    // Never computed before it was spilled, with a supplier that could not be written along with it
+    public synchronized boolean isAbsent() {
+        return !computed && supplier == null;
+    }
+    
+    public synchronized void supplyIfAbsent(Supplier<T> supplier) {
+        if (isAbsent()) {
+            this.supplier = supplier;
+        }
+    }
+    
+    // Writing never computes: a serializable supplier travels with the value, any other leaves it absent
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(!computed && supplier instanceof Serializable ? supplier : null);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        supplier = (Supplier<T>) in.readObject();
+    }
+}
\ No newline at end of file
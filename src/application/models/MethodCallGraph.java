@@ -1,10 +1,13 @@
 
 package application.models;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
-public class MethodCallGraph {
+public class MethodCallGraph implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final Map<String, List<String>> methodCalls;
     private final List<GraphNode> nodes;
@@ -1,8 +1,11 @@
 package application.models;
 
+import java.io.Serializable;
 import java.util.List;
 
-public class MethodInfo {
+public class MethodInfo implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String name;
     private final String returnType;
@@ -1,6 +1,10 @@
 package application.models;
 
-public class MethodMetrics {
+import java.io.Serializable;
+
+public class MethodMetrics implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String methodName;
     private final String className;
@@ -8,6 +12,11 @@ public class MethodMetrics {
     private final int endLine;
     private final int parameterCount;
     private int cyclomaticComplexity = 1;
+    private int cognitiveComplexity;
+    private int maxNestingDepth;
+    private int linesOfCode;
+    private int loopCount;
+    private int callCount;
     
     public MethodMetrics(String methodName, String className, int startLine, int endLine, int parameterCount) {
         this.methodName = methodName;
@@ -23,11 +32,36 @@ public class MethodMetrics {
     public int getEndLine() { return endLine; }
     public int getParameterCount() { return parameterCount; }
     public int getCyclomaticComplexity() { return cyclomaticComplexity; }
+    public int getCognitiveComplexity() { return cognitiveComplexity; }
+    public int getMaxNestingDepth() { return maxNestingDepth; }
+    public int getLinesOfCode() { return linesOfCode; }
+    public int getLoopCount() { return loopCount; }
+    public int getCallCount() { return callCount; }
     
     public void setCyclomaticComplexity(int cyclomaticComplexity) {
         this.cyclomaticComplexity = cyclomaticComplexity;
     }
     
+    public void setCognitiveComplexity(int cognitiveComplexity) {
+        this.cognitiveComplexity = cognitiveComplexity;
+    }
+    
+    public void setMaxNestingDepth(int maxNestingDepth) {
+        this.maxNestingDepth = maxNestingDepth;
+    }
+    
+    public void setLinesOfCode(int linesOfCode) {
+        this.linesOfCode = linesOfCode;
+    }
+    
+    public void setLoopCount(int loopCount) {
+        this.loopCount = loopCount;
+    }
+    
+    public void setCallCount(int callCount) {
+        this.callCount = callCount;
+    }
+    
     public int getLineCount() {
         return endLine - startLine + 1;
     }
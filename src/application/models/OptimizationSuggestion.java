@@ -1,29 +1,53 @@
 package application.models;
 
-public class OptimizationSuggestion {
+import java.io.Serializable;
+
+public class OptimizationSuggestion implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String type;
     private final String description;
     private final int lineNumber;
     private final String originalCode;
-    private final String suggestedCode;
+    private final LazyValue<String> suggestedCode;
     private final OptimizationSeverity severity;
+    private final AnalysisTier tier;
     
     public OptimizationSuggestion(String type, String description, int lineNumber, 
                                 String originalCode, String suggestedCode, 
                                 OptimizationSeverity severity) {
+        this(type, description, lineNumber, originalCode, suggestedCode, severity, AnalysisTier.STANDARD);
+    }
+    
+    public OptimizationSuggestion(String type, String description, int lineNumber, 
+                                String originalCode, String suggestedCode, 
+                                OptimizationSeverity severity, AnalysisTier tier) {
+        this(type, description, lineNumber, originalCode, LazyValue.of(suggestedCode), severity, tier);
+    }
+    
+    // Suggestion text is usually generated on first read; most findings are never opened
+    public OptimizationSuggestion(String type, String description, int lineNumber, 
+                                String originalCode, LazyValue<String> suggestedCode, 
+                                OptimizationSeverity severity, AnalysisTier tier) {
         this.type = type;
         this.description = description;
         this.lineNumber = lineNumber;
         this.originalCode = originalCode;
         this.suggestedCode = suggestedCode;
         this.severity = severity;
+        this.tier = tier;
     }
     
     public String getType() { return type; }
     public String getDescription() { return description; }
     public int getLineNumber() { return lineNumber; }
     public String getOriginalCode() { return originalCode; }
-    public String getSuggestedCode() { return suggestedCode; }
+    public String getSuggestedCode() { return suggestedCode.get(); }
     public OptimizationSeverity getSeverity() { return severity; }
+    public AnalysisTier getTier() { return tier; }
+    
+    public boolean isSuggestedCodeComputed() {
+        return suggestedCode.isComputed();
+    }
 }
\ No newline at end of file
@@ -1,29 +1,64 @@
 package application.models;
 
-public class SecurityIssue {
+import java.io.Serializable;
+
+public class SecurityIssue implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
     
     private final String type;
     private final String description;
     private final int lineNumber;
     private final String vulnerableCode;
-    private final String recommendation;
+    private final LazyValue<String> recommendation;
     private final SecuritySeverity severity;
+    private final AnalysisTier tier;
+    private final String resource;
     
     public SecurityIssue(String type, String description, int lineNumber,
                         String vulnerableCode, String recommendation,
                         SecuritySeverity severity) {
+        this(type, description, lineNumber, vulnerableCode, recommendation, severity, AnalysisTier.STANDARD);
+    }
+    
+    public SecurityIssue(String type, String description, int lineNumber,
+                        String vulnerableCode, String recommendation,
+                        SecuritySeverity severity, AnalysisTier tier) {
+        this(type, description, lineNumber, vulnerableCode, LazyValue.of(recommendation), severity, tier);
+    }
+    
+    public SecurityIssue(String type, String description, int lineNumber,
+                        String vulnerableCode, LazyValue<String> recommendation,
+                        SecuritySeverity severity, AnalysisTier tier) {
+        this(type, description, null, lineNumber, vulnerableCode, recommendation, severity, tier);
+    }
+    
+    // An issue in a non-class resource, such as BOOT-INF/classes/application.properties inside an archive
+    public SecurityIssue(String type, String description, String resource, int lineNumber,
+                        String vulnerableCode, LazyValue<String> recommendation,
+                        SecuritySeverity severity, AnalysisTier tier) {
         this.type = type;
         this.description = description;
         this.lineNumber = lineNumber;
         this.vulnerableCode = vulnerableCode;
         this.recommendation = recommendation;
         this.severity = severity;
+        this.tier = tier;
+        this.resource = resource;
     }
     
     public String getType() { return type; }
     public String getDescription() { return description; }
     public int getLineNumber() { return lineNumber; }
     public String getVulnerableCode() { return vulnerableCode; }
-    public String getRecommendation() { return recommendation; }
+    public String getRecommendation() { return recommendation.get(); }
     public SecuritySeverity getSeverity() { return severity; }
+    public AnalysisTier getTier() { return tier; }
+    
+    // Null for issues in the analyzed class itself
+    public String getResource() { return resource; }
+    
+    public boolean isRecommendationComputed() {
+        return recommendation.isComputed();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package application.rules;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.Set;
+
+// Implementations are listed in META-INF/services/application.rules.AnalysisRule and need a public no-arg constructor
+public interface AnalysisRule {
+    
+    RuleMetadata getMetadata();
+    
+    Set<Class<? extends Node>> getNodeTypes();
+    
+    void check(Node node, RuleContext context);
+}
\ No newline at end of file
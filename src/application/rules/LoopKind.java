@@ -0,0 +1,36 @@
+package application.rules;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+
+public enum LoopKind {
+    FOR,
+    FOR_EACH,
+    WHILE,
+    DO_WHILE;
+    
+    public static LoopKind of(Node node) {
+        if (node instanceof ForStmt) return FOR;
+        if (node instanceof ForEachStmt) return FOR_EACH;
+        if (node instanceof WhileStmt) return WHILE;
+        if (node instanceof DoStmt) return DO_WHILE;
+        return null;
+    }
+    
+    // Parts of the loop statement that run on every iteration; for-init and the for-each iterable run once
+    static boolean isRepeatedPart(Node loop, Node child) {
+        if (loop instanceof ForStmt) {
+            for (Node init : ((ForStmt) loop).getInitialization()) {
+                if (init == child) return false;
+            }
+            return true;
+        }
+        if (loop instanceof ForEachStmt) {
+            return ((ForEachStmt) loop).getBody() == child;
+        }
+        return true;
+    }
+}
\ No newline at end of file
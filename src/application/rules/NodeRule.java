@@ -0,0 +1,34 @@
+package application.rules;
+
+import com.github.javaparser.ast.Node;
+
+import java.util.Collections;
+import java.util.Set;
+
+public abstract class NodeRule<T extends Node> implements AnalysisRule {
+    
+    private final Class<T> nodeType;
+    private final RuleMetadata metadata;
+    
+    protected NodeRule(Class<T> nodeType, RuleMetadata metadata) {
+        this.nodeType = nodeType;
+        this.metadata = metadata;
+    }
+    
+    @Override
+    public RuleMetadata getMetadata() {
+        return metadata;
+    }
+    
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.singleton(nodeType);
+    }
+    
+    @Override
+    public void check(Node node, RuleContext context) {
+        checkNode(nodeType.cast(node), context);
+    }
+    
+    protected abstract void checkNode(T node, RuleContext context);
+}
\ No newline at end of file
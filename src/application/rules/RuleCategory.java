@@ -0,0 +1,6 @@
+package application.rules;
+
+public enum RuleCategory {
+    OPTIMIZATION,
+    SECURITY
+}
\ No newline at end of file
@@ -0,0 +1,231 @@
+package application.rules;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.Statement;
+import application.analysis.CodeMetrics;
+import application.analysis.CodeMetricsTable;
+import application.analysis.ControlFlowGraph;
+import application.analysis.DefUseIndex;
+import application.analysis.LocalTypes;
+import application.analysis.MethodDataflow;
+import application.models.AnalysisTier;
+import application.models.LazyValue;
+import application.models.OptimizationSeverity;
+import application.models.OptimizationSuggestion;
+import application.models.SecurityIssue;
+import application.models.SecuritySeverity;
+import application.services.CSGenerator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class RuleContext {
+    
+    private final CompilationUnit compilationUnit;
+    private final CSGenerator codeGenerator;
+    private final List<OptimizationSuggestion> optimizationSuggestions = new ArrayList<>();
+    private final List<SecurityIssue> securityIssues = new ArrayList<>();
+    private final Map<Node, DefUseIndex> defUseIndexes = new IdentityHashMap<>();
+    private final Map<Node, ControlFlowGraph> controlFlowGraphs = new IdentityHashMap<>();
+    private final Map<Node, MethodDataflow> dataflows = new IdentityHashMap<>();
+    private final Map<Node, LocalTypes> localTypes = new IdentityHashMap<>();
+    private final CodeMetricsTable codeMetrics;
+    private final Deque<MethodDeclaration> methods = new ArrayDeque<>();
+    private final Deque<Deque<Statement>> suspendedLoops = new ArrayDeque<>();
+    private final Deque<Integer> suspendedIterationDepths = new ArrayDeque<>();
+    private Deque<Statement> loops = new ArrayDeque<>();
+    private int iterationDepth;
+    private Set<String> fieldNames;
+    private AnalysisRule currentRule;
+    
+    public RuleContext(CompilationUnit compilationUnit, CSGenerator codeGenerator) {
+        this(compilationUnit, codeGenerator, new CodeMetricsTable());
+    }
+    
+    public RuleContext(CompilationUnit compilationUnit, CSGenerator codeGenerator, CodeMetricsTable codeMetrics) {
+        this.compilationUnit = compilationUnit;
+        this.codeGenerator = codeGenerator;
+        this.codeMetrics = codeMetrics;
+    }
+    
+    public CompilationUnit getCompilationUnit() {
+        return compilationUnit;
+    }
+    
+    public CSGenerator getCodeGenerator() {
+        return codeGenerator;
+    }
+    
+    public MethodDeclaration getCurrentMethod() {
+        return methods.peek();
+    }
+    
+    public int getLoopDepth() {
+        return loops.size();
+    }
+    
+    // Loops that re-run the node being checked; a lambda body in between runs on its own schedule
+    public int getIterationDepth() {
+        return iterationDepth;
+    }
+    
+    public boolean isInLoop() {
+        return !loops.isEmpty();
+    }
+    
+    public boolean isInLoop(LoopKind kind) {
+        for (Statement loop : loops) {
+            if (LoopKind.of(loop) == kind) return true;
+        }
+        return false;
+    }
+    
+    public Statement getEnclosingLoop() {
+        return loops.peek();
+    }
+    
+    public LoopKind getEnclosingLoopKind() {
+        return loops.isEmpty() ? null : LoopKind.of(loops.peek());
+    }
+    
+    public Set<String> getFieldNames() {
+        if (fieldNames == null) {
+            fieldNames = new HashSet<>();
+            for (FieldDeclaration fd : compilationUnit.findAll(FieldDeclaration.class)) {
+                fd.getVariables().forEach(var -> fieldNames.add(var.getNameAsString()));
+            }
+        }
+        return fieldNames;
+    }
+    
+    // One index, graph and dataflow per enclosing method, constructor or initializer, built on first query
+    public DefUseIndex getDefUseIndex(Node node) {
+        return defUseIndexes.computeIfAbsent(ControlFlowGraph.findOwner(node), DefUseIndex::build);
+    }
+    
+    public ControlFlowGraph getControlFlowGraph(Node node) {
+        return controlFlowGraphs.computeIfAbsent(ControlFlowGraph.findOwner(node), ControlFlowGraph::build);
+    }
+    
+    public MethodDataflow getDataflow(Node node) {
+        return dataflows.computeIfAbsent(ControlFlowGraph.findOwner(node),
+            owner -> new MethodDataflow(getControlFlowGraph(owner), getDefUseIndex(owner)));
+    }
+    
+    public LocalTypes getLocalTypes(Node node) {
+        return localTypes.computeIfAbsent(ControlFlowGraph.findOwner(node),
+            owner -> new LocalTypes(getDefUseIndex(owner)));
+    }
+    
+    public CodeMetrics getCodeMetrics(Node node) {
+        return codeMetrics.get(node);
+    }
+    
+    public int getLineNumber(Node node) {
+        return node.getBegin().map(pos -> pos.line).orElse(0);
+    }
+    
+    public void reportOptimization(String type, String description, Node node, String originalCode,
+                                   String suggestedCode, OptimizationSeverity severity) {
+        addOptimization(type, description, node, originalCode, LazyValue.of(suggestedCode), severity);
+    }
+    
+    // The suggestion for this issue type is generated by CSGenerator only when it is first read
+    public void reportOptimization(String type, String description, Node node, String originalCode,
+                                   OptimizationSeverity severity) {
+        addOptimization(type, description, node, originalCode,
+                        new LazyValue<>(codeGenerator.pendingOptimizationSuggestion(type, node, getCurrentMethod())),
+                        severity);
+    }
+    
+    public void reportSecurityIssue(String type, String description, Node node, String vulnerableCode,
+                                    String recommendation, SecuritySeverity severity) {
+        addSecurityIssue(type, description, node, vulnerableCode, LazyValue.of(recommendation), severity);
+    }
+    
+    public void reportSecurityIssue(String type, String description, Node node, String vulnerableCode,
+                                    SecuritySeverity severity) {
+        addSecurityIssue(type, description, node, vulnerableCode,
+                         new LazyValue<>(codeGenerator.pendingSecuritySuggestion(type, node, getCurrentMethod())),
+                         severity);
+    }
+    
+    private void addOptimization(String type, String description, Node node, String originalCode,
+                                 LazyValue<String> suggestedCode, OptimizationSeverity severity) {
+        optimizationSuggestions.add(new OptimizationSuggestion(type, description, getLineNumber(node),
+                                                               originalCode, suggestedCode, severity,
+                                                               emittingTier()));
+    }
+    
+    private void addSecurityIssue(String type, String description, Node node, String vulnerableCode,
+                                  LazyValue<String> recommendation, SecuritySeverity severity) {
+        securityIssues.add(new SecurityIssue(type, description, getLineNumber(node),
+                                             vulnerableCode, recommendation, severity, emittingTier()));
+    }
+    
+    public List<OptimizationSuggestion> getOptimizationSuggestions() {
+        return optimizationSuggestions;
+    }
+    
+    public List<SecurityIssue> getSecurityIssues() {
+        return securityIssues;
+    }
+    
+    private AnalysisTier emittingTier() {
+        return currentRule != null ? currentRule.getMetadata().getCostTier() : AnalysisTier.STANDARD;
+    }
+    
+    void enterMethod(MethodDeclaration md) {
+        methods.push(md);
+    }
+    
+    void exitMethod() {
+        methods.pop();
+    }
+    
+    void enterLoop(Statement loop) {
+        loops.push(loop);
+        iterationDepth++;
+    }
+    
+    void exitLoop() {
+        loops.pop();
+        iterationDepth--;
+    }
+    
+    // Members of a local or anonymous class declared inside a loop do not run once per iteration
+    void enterBody() {
+        suspendedLoops.push(loops);
+        loops = new ArrayDeque<>();
+        suspendedIterationDepths.push(iterationDepth);
+        iterationDepth = 0;
+    }
+    
+    void exitBody() {
+        loops = suspendedLoops.pop();
+        iterationDepth = suspendedIterationDepths.pop();
+    }
+    
+    // A lambda body stays inside the enclosing loops but no longer iterates with them
+    void enterLambda() {
+        suspendedIterationDepths.push(iterationDepth);
+        iterationDepth = 0;
+    }
+    
+    void exitLambda() {
+        iterationDepth = suspendedIterationDepths.pop();
+    }
+    
+    void setCurrentRule(AnalysisRule rule) {
+        this.currentRule = rule;
+    }
+}
\ No newline at end of file
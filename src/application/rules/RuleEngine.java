@@ -0,0 +1,119 @@
+package application.rules;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.stmt.Statement;
+import application.models.AnalysisTier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RuleEngine {
+    
+    private static final AnalysisRule[] NO_RULES = new AnalysisRule[0];
+    
+    private final List<AnalysisRule> rules;
+    // Concrete node class -> interested rules, filled in on first sight of each class
+    private final Map<Class<?>, AnalysisRule[]> dispatchTable = new ConcurrentHashMap<>();
+    
+    public RuleEngine(List<AnalysisRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+    
+    public List<AnalysisRule> getRules() {
+        return rules;
+    }
+    
+    public RuleEngine select(RuleCategory category, Set<AnalysisTier> tiers) {
+        List<AnalysisRule> selected = new ArrayList<>();
+        for (AnalysisRule rule : rules) {
+            RuleMetadata metadata = rule.getMetadata();
+            if (metadata.getCategory() == category && tiers.contains(metadata.getCostTier())) {
+                selected.add(rule);
+            }
+        }
+        return new RuleEngine(selected);
+    }
+    
+    public void run(Node root, RuleContext context) {
+        if (rules.isEmpty()) return;
+        
+        try {
+            traverse(root, context);
+        } finally {
+            context.setCurrentRule(null);
+        }
+    }
+    
+    private void traverse(Node node, RuleContext context) {
+        boolean isMethod = node instanceof MethodDeclaration;
+        boolean isBody = node instanceof CallableDeclaration || node instanceof InitializerDeclaration;
+        if (isBody) {
+            context.enterBody();
+        }
+        if (isMethod) {
+            context.enterMethod((MethodDeclaration) node);
+        }
+        
+        for (AnalysisRule rule : rulesFor(node.getClass())) {
+            context.setCurrentRule(rule);
+            rule.check(node, context);
+        }
+        
+        // The lambda itself is checked at its loops' depth, its body only at the depth of loops inside it
+        boolean isLambda = node instanceof LambdaExpr;
+        if (isLambda) {
+            context.enterLambda();
+        }
+        
+        boolean isLoop = LoopKind.of(node) != null;
+        for (Node child : node.getChildNodes()) {
+            boolean repeated = isLoop && LoopKind.isRepeatedPart(node, child);
+            if (repeated) {
+                context.enterLoop((Statement) node);
+            }
+            traverse(child, context);
+            if (repeated) {
+                context.exitLoop();
+            }
+        }
+        
+        if (isLambda) {
+            context.exitLambda();
+        }
+        if (isMethod) {
+            context.exitMethod();
+        }
+        if (isBody) {
+            context.exitBody();
+        }
+    }
+    
+    private AnalysisRule[] rulesFor(Class<?> nodeClass) {
+        AnalysisRule[] interested = dispatchTable.get(nodeClass);
+        if (interested == null) {
+            interested = dispatchTable.computeIfAbsent(nodeClass, this::resolveRules);
+        }
+        return interested;
+    }
+    
+    private AnalysisRule[] resolveRules(Class<?> nodeClass) {
+        List<AnalysisRule> interested = new ArrayList<>();
+        for (AnalysisRule rule : rules) {
+            for (Class<? extends Node> nodeType : rule.getNodeTypes()) {
+                if (nodeType.isAssignableFrom(nodeClass)) {
+                    interested.add(rule);
+                    break;
+                }
+            }
+        }
+        return interested.isEmpty() ? NO_RULES : interested.toArray(NO_RULES);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package application.rules;
+
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.models.SecuritySeverity;
+
+public class RuleMetadata {
+    
+    private final String id;
+    private final RuleCategory category;
+    private final OptimizationSeverity optimizationSeverity;
+    private final SecuritySeverity securitySeverity;
+    private final AnalysisTier costTier;
+    private final String description;
+    
+    public RuleMetadata(String id, RuleCategory category, OptimizationSeverity severity,
+                        AnalysisTier costTier, String description) {
+        this(id, category, severity, null, costTier, description);
+    }
+    
+    public RuleMetadata(String id, RuleCategory category, SecuritySeverity severity,
+                        AnalysisTier costTier, String description) {
+        this(id, category, null, severity, costTier, description);
+    }
+    
+    private RuleMetadata(String id, RuleCategory category, OptimizationSeverity optimizationSeverity,
+                         SecuritySeverity securitySeverity, AnalysisTier costTier, String description) {
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("Rule id must not be empty");
+        }
+        if (costTier == AnalysisTier.BYTECODE) {
+            throw new IllegalArgumentException("Rule " + id + " cannot run in the bytecode tier");
+        }
+        // The severity has to come from the enum of the rule's own category
+        boolean optimization = category == RuleCategory.OPTIMIZATION;
+        if ((optimization ? optimizationSeverity : securitySeverity) == null) {
+            throw new IllegalArgumentException("Rule " + id + " needs a " + (optimization ? "optimization" : "security") +
+                                               " severity for category " + category);
+        }
+        this.id = id;
+        this.category = category;
+        this.optimizationSeverity = optimizationSeverity;
+        this.securitySeverity = securitySeverity;
+        this.costTier = costTier;
+        this.description = description;
+    }
+    
+    public String getId() { return id; }
+    public RuleCategory getCategory() { return category; }
+    public OptimizationSeverity getOptimizationSeverity() { return optimizationSeverity; }
+    public SecuritySeverity getSecuritySeverity() { return securitySeverity; }
+    public AnalysisTier getCostTier() { return costTier; }
+    public String getDescription() { return description; }
+    
+    @Override
+    public String toString() {
+        Enum<?> severity = optimizationSeverity != null ? optimizationSeverity : securitySeverity;
+        return id + " [" + category + ", " + severity + ", " + costTier + "]";
+    }
+}
\ No newline at end of file
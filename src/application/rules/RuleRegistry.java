@@ -0,0 +1,82 @@
+package application.rules;
+
+import application.rules.optimization.*;
+import application.rules.security.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+public class RuleRegistry {
+    
+    private static volatile RuleEngine defaultEngine;
+    
+    public static RuleEngine getDefaultEngine() {
+        RuleEngine engine = defaultEngine;
+        if (engine == null) {
+            synchronized (RuleRegistry.class) {
+                engine = defaultEngine;
+                if (engine == null) {
+                    engine = new RuleEngine(loadRules(RuleRegistry.class.getClassLoader()));
+                    defaultEngine = engine;
+                }
+            }
+        }
+        return engine;
+    }
+    
+    public static List<AnalysisRule> builtInRules() {
+        List<AnalysisRule> rules = new ArrayList<>();
+        rules.add(new UnusedVariableRule());
+        rules.add(new UninitializedVariableRule());
+        rules.add(new InefficientLoopConditionRule());
+        rules.add(new InfiniteLoopRule());
+        rules.add(new LoopInvariantCalculationRule());
+        rules.add(new RedundantConditionRule());
+        rules.add(new DivisionByPowerOfTwoRule());
+        rules.add(new StringConcatenationInLoopRule());
+        rules.add(new UnnecessaryObjectCreationRule());
+        rules.add(new WrapperObjectCreationRule());
+        rules.add(new AutoboxingInLoopRule());
+        rules.add(new AllocationInLoopRule());
+        rules.add(new VarargsInLoopRule());
+        rules.add(new CapturingLambdaInLoopRule());
+        rules.add(new StringFormattingInLoopRule());
+        rules.add(new LinearSearchInLoopRule());
+        rules.add(new ListAsQueueRule());
+        rules.add(new KeySetLookupRule());
+        rules.add(new LegacySynchronizedCollectionRule());
+        rules.add(new UnsizedCollectionInLoopRule());
+        rules.add(new LinkedListRandomAccessRule());
+        rules.add(new ResourceLeakRule());
+        rules.add(new UnbufferedIoRule());
+        rules.add(new ByteAtATimeReadRule());
+        rules.add(new ReadAllBytesRule());
+        rules.add(new EmptyMethodRule());
+        rules.add(new TooManyParametersRule());
+        rules.add(new CyclomaticComplexityRule());
+        rules.add(new ExceptionHandlingRule());
+        return rules;
+    }
+    
+    // Rules found through ServiceLoader replace a built-in rule with the same id
+    public static List<AnalysisRule> loadRules(ClassLoader classLoader) {
+        Map<String, AnalysisRule> rulesById = new LinkedHashMap<>();
+        for (AnalysisRule rule : builtInRules()) {
+            rulesById.put(rule.getMetadata().getId(), rule);
+        }
+        
+        try {
+            for (AnalysisRule rule : ServiceLoader.load(AnalysisRule.class, classLoader)) {
+                rulesById.put(rule.getMetadata().getId(), rule);
+            }
+        } catch (ServiceConfigurationError e) {
+            System.err.println("Could not load analysis rules: " + e.getMessage());
+        }
+        
+        return new ArrayList<>(rulesById.values());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import application.analysis.DefUseIndex;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class AllocationInLoopRule extends PerIterationRule {
+    
+    private static final List<String> REUSABLE_TYPES = Arrays.asList(
+        "ArrayList", "LinkedList", "ArrayDeque", "PriorityQueue", "Vector",
+        "HashMap", "LinkedHashMap", "TreeMap", "ConcurrentHashMap", "Hashtable",
+        "HashSet", "LinkedHashSet", "TreeSet", "StringBuilder", "StringBuffer"
+    );
+    
+    public AllocationInLoopRule() {
+        super(new RuleMetadata("ALLOCATION_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "Collections, arrays or builders allocated for a single loop iteration"),
+              ObjectCreationExpr.class, ArrayCreationExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        String allocated;
+        if (node instanceof ObjectCreationExpr) {
+            ObjectCreationExpr oce = (ObjectCreationExpr) node;
+            allocated = oce.getType().getNameAsString();
+            if (!REUSABLE_TYPES.contains(allocated) || oce.getAnonymousClassBody().isPresent()) return;
+        } else {
+            // An array sized by something that changes per iteration cannot simply be reused
+            ArrayCreationExpr ace = (ArrayCreationExpr) node;
+            boolean fixedSize = ace.getInitializer().isPresent() || ace.getLevels().stream()
+                .allMatch(level -> level.getDimension().map(Expression::isIntegerLiteralExpr).orElse(false));
+            if (!fixedSize) return;
+            allocated = ace.getElementType().asString() + " array";
+        }
+        
+        // Only a value confined to its iteration can be hoisted; one that is stored or passed on is needed each time
+        VariableDeclarator local = node.getParentNode()
+            .filter(parent -> parent instanceof VariableDeclarator)
+            .map(parent -> (VariableDeclarator) parent)
+            .orElse(null);
+        if (local == null) return;
+        
+        DefUseIndex.Symbol symbol = context.getDefUseIndex(local).getSymbol(local);
+        if (symbol == null || escapes(symbol)) return;
+        
+        reportInLoop("ALLOCATION_IN_LOOP",
+                     "New " + allocated + " '" + local.getNameAsString() + "' is allocated on every iteration",
+                     node, OptimizationSeverity.MEDIUM, depth, context);
+    }
+    
+    private boolean escapes(DefUseIndex.Symbol symbol) {
+        if (!symbol.getWrites().isEmpty()) return true;
+        
+        for (NameExpr read : symbol.getReads()) {
+            Node parent = read.getParentNode().orElse(null);
+            boolean confined =
+                (parent instanceof MethodCallExpr && ((MethodCallExpr) parent).getScope().orElse(null) == read) ||
+                (parent instanceof ArrayAccessExpr && ((ArrayAccessExpr) parent).getName() == read) ||
+                parent instanceof FieldAccessExpr ||
+                (parent instanceof ForEachStmt && ((ForEachStmt) parent).getIterable() == read);
+            if (!confined) return true;
+        }
+        return false;
+    }
+}
\ No newline at end of file
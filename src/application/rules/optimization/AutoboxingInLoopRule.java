@@ -0,0 +1,89 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.*;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class AutoboxingInLoopRule extends PerIterationRule {
+    
+    private static final List<String> WRAPPER_TYPES = Arrays.asList(
+        "Integer", "Long", "Double", "Float", "Short", "Byte", "Character", "Boolean"
+    );
+    
+    private static final List<String> BOXING_METHODS = Arrays.asList(
+        "add", "addFirst", "addLast", "offer", "offerFirst", "offerLast", "push",
+        "put", "putIfAbsent", "contains", "containsKey", "containsValue"
+    );
+    
+    public AutoboxingInLoopRule() {
+        super(new RuleMetadata("AUTOBOXING_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Primitive values boxed into wrapper objects on every loop iteration"),
+              MethodCallExpr.class, AssignExpr.class, UnaryExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        if (node instanceof MethodCallExpr) {
+            checkCollectionCall((MethodCallExpr) node, depth, context);
+        } else if (node instanceof AssignExpr) {
+            AssignExpr ae = (AssignExpr) node;
+            if (ae.getOperator() != AssignExpr.Operator.ASSIGN || ae.getValue() instanceof BinaryExpr) {
+                checkWrapperArithmetic(ae, ae.getTarget(), depth, context);
+            }
+        } else {
+            UnaryExpr ue = (UnaryExpr) node;
+            if (ue.getOperator() == UnaryExpr.Operator.POSTFIX_INCREMENT ||
+                ue.getOperator() == UnaryExpr.Operator.POSTFIX_DECREMENT ||
+                ue.getOperator() == UnaryExpr.Operator.PREFIX_INCREMENT ||
+                ue.getOperator() == UnaryExpr.Operator.PREFIX_DECREMENT) {
+                checkWrapperArithmetic(ue, ue.getExpression(), depth, context);
+            }
+        }
+    }
+    
+    private void checkCollectionCall(MethodCallExpr mce, int depth, RuleContext context) {
+        if (!BOXING_METHODS.contains(mce.getNameAsString()) || !mce.getScope().isPresent()) return;
+        
+        String scopeType = localType(mce.getScope().get(), context);
+        if (scopeType == null || !holdsWrappers(scopeType)) return;
+        
+        // List.add(int index, E element) takes its index unboxed
+        List<Expression> arguments = mce.getArguments();
+        int first = "add".equals(mce.getNameAsString()) && arguments.size() == 2 ? 1 : 0;
+        for (int i = first; i < arguments.size(); i++) {
+            String argumentType = localType(arguments.get(i), context);
+            if (isPrimitive(argumentType)) {
+                reportInLoop("AUTOBOXING_IN_LOOP",
+                             "Primitive " + argumentType + " '" + arguments.get(i) + "' is boxed on every iteration",
+                             mce, OptimizationSeverity.LOW, depth, context);
+                return;
+            }
+        }
+    }
+    
+    private void checkWrapperArithmetic(Expression update, Expression target, int depth, RuleContext context) {
+        String targetType = localType(target, context);
+        if (targetType != null && WRAPPER_TYPES.contains(targetType)) {
+            reportInLoop("AUTOBOXING_IN_LOOP",
+                         "Arithmetic on " + targetType + " '" + target + "' unboxes and re-boxes on every iteration",
+                         update, OptimizationSeverity.LOW, depth, context);
+        }
+    }
+    
+    private boolean holdsWrappers(String type) {
+        int typeArguments = type.indexOf('<');
+        if (typeArguments < 0) return false;
+        
+        for (String argument : type.substring(typeArguments + 1).split("[<>,\\s]+")) {
+            if (WRAPPER_TYPES.contains(argument)) return true;
+        }
+        return false;
+    }
+}
\ No newline at end of file
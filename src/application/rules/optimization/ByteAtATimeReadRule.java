@@ -0,0 +1,50 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class ByteAtATimeReadRule extends PerIterationRule {
+    
+    public ByteAtATimeReadRule() {
+        super(new RuleMetadata("BYTE_AT_A_TIME_READ", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "Loops that call read() once per byte or char on an unbuffered stream or reader"),
+              MethodCallExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        MethodCallExpr mce = (MethodCallExpr) node;
+        if (!"read".equals(mce.getNameAsString()) || !mce.getArguments().isEmpty()) return;
+        
+        Expression scope = mce.getScope().map(IoTypes::unwrap).orElse(null);
+        if (scope == null) return;
+        
+        String type = sourceType(scope, context);
+        if (type == null || !(type.endsWith("InputStream") || type.endsWith("Reader"))) return;
+        if (IoTypes.BUFFERING.contains(type) || IoTypes.IN_MEMORY.contains(type)) return;
+        
+        // Straight onto a file or socket every call is a system call; other wrappers at least cost a virtual call chain
+        boolean direct = IoTypes.OPENING.contains(type) || "InputStreamReader".equals(type) ||
+                         "SocketInputStream".equals(type);
+        reportInLoop("BYTE_AT_A_TIME_READ",
+                     type + ".read() on '" + scope + "' fetches one " + (type.endsWith("Reader") ? "char" : "byte") +
+                     " per call; read into a buffer or wrap the source in a " +
+                     (type.endsWith("Reader") ? "BufferedReader" : "BufferedInputStream"),
+                     mce, direct ? OptimizationSeverity.MEDIUM : OptimizationSeverity.LOW, depth, context);
+    }
+    
+    // The created class where it is visible; socket.getInputStream() is as unbuffered as a FileInputStream
+    private String sourceType(Expression scope, RuleContext context) {
+        if (scope instanceof MethodCallExpr) {
+            return "getInputStream".equals(((MethodCallExpr) scope).getNameAsString()) ? "SocketInputStream" : null;
+        }
+        return LocalTypes.rawName(context.getLocalTypes(scope).getInstantiatedType(scope));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import application.analysis.DefUseIndex;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class CapturingLambdaInLoopRule extends PerIterationRule {
+    
+    public CapturingLambdaInLoopRule() {
+        super(new RuleMetadata("CAPTURING_LAMBDA_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Lambdas that capture locals and are therefore allocated on every loop iteration"),
+              LambdaExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        LambdaExpr lambda = (LambdaExpr) node;
+        DefUseIndex index = context.getDefUseIndex(lambda);
+        Node loop = context.getEnclosingLoop();
+        
+        Set<String> loopVariables = new LinkedHashSet<>();
+        Set<String> outerVariables = new LinkedHashSet<>();
+        for (NameExpr name : lambda.getBody().findAll(NameExpr.class)) {
+            DefUseIndex.Symbol symbol = index.resolve(name);
+            if (symbol == null || lambda.isAncestorOf(symbol.getDeclaration())) continue;
+            
+            if (loop.isAncestorOf(symbol.getDeclaration())) {
+                loopVariables.add(symbol.getName());
+            } else {
+                outerVariables.add(symbol.getName());
+            }
+        }
+        
+        // A non-capturing lambda is a shared constant, so only captures cost an allocation
+        if (!loopVariables.isEmpty()) {
+            reportInLoop("CAPTURING_LAMBDA_IN_LOOP",
+                         "Lambda captures loop variable(s) " + loopVariables + " and is allocated on every iteration",
+                         lambda, OptimizationSeverity.LOW, depth, context);
+        } else if (!outerVariables.isEmpty()) {
+            reportInLoop("CAPTURING_LAMBDA_IN_LOOP",
+                         "Lambda captures " + outerVariables + " and is re-allocated on every iteration; create it before the loop",
+                         lambda, OptimizationSeverity.LOW, depth, context);
+        }
+    }
+}
\ No newline at end of file
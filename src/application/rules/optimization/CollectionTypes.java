@@ -0,0 +1,45 @@
+package application.rules.optimization;
+
+import application.analysis.LocalTypes;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// Raw JDK type names the collection rules reason about
+final class CollectionTypes {
+    
+    static final Set<String> LISTS = new HashSet<>(Arrays.asList(
+        "List", "ArrayList", "LinkedList", "Vector", "CopyOnWriteArrayList", "AbstractList", "Stack"
+    ));
+    
+    static final Set<String> MAPS = new HashSet<>(Arrays.asList(
+        "Map", "HashMap", "LinkedHashMap", "TreeMap", "SortedMap", "NavigableMap",
+        "ConcurrentMap", "ConcurrentHashMap", "Hashtable", "WeakHashMap", "IdentityHashMap"
+    ));
+    
+    static final Set<String> PRESIZABLE = new HashSet<>(Arrays.asList(
+        "ArrayList", "Vector", "ArrayDeque", "HashMap", "LinkedHashMap", "HashSet", "LinkedHashSet",
+        "ConcurrentHashMap", "Hashtable"
+    ));
+    
+    static final Set<String> LEGACY_SYNCHRONIZED = new HashSet<>(Arrays.asList(
+        "Vector", "Hashtable", "StringBuffer", "Stack"
+    ));
+    
+    private CollectionTypes() {
+    }
+    
+    static boolean isList(String type) {
+        return LISTS.contains(LocalTypes.rawName(type));
+    }
+    
+    static boolean isMap(String type) {
+        return MAPS.contains(LocalTypes.rawName(type));
+    }
+    
+    static boolean isHashed(String type) {
+        String raw = LocalTypes.rawName(type);
+        return raw != null && raw.contains("Hash");
+    }
+}
\ No newline at end of file
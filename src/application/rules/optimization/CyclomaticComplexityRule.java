@@ -0,0 +1,34 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class CyclomaticComplexityRule extends NodeRule<MethodDeclaration> {
+    
+    public CyclomaticComplexityRule() {
+        super(MethodDeclaration.class,
+              new RuleMetadata("HIGH_CYCLOMATIC_COMPLEXITY", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM,
+                               AnalysisTier.DEEP, "Method with cyclomatic complexity above 10"));
+    }
+    
+    @Override
+    protected void checkNode(MethodDeclaration md, RuleContext context) {
+        int complexity = context.getCodeMetrics(md).getCyclomaticComplexity();
+        if (complexity > 10) {
+            String originalCode = md.getDeclarationAsString();
+            String suggestedCode = "Consider refactoring this method to reduce complexity. Current complexity: " + complexity;
+            
+            context.reportOptimization("HIGH_CYCLOMATIC_COMPLEXITY",
+                                       "Method '" + md.getNameAsString() + "' has high cyclomatic complexity: " + complexity,
+                                       md,
+                                       originalCode,
+                                       suggestedCode,
+                                       complexity > 20 ? OptimizationSeverity.HIGH : OptimizationSeverity.MEDIUM);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LiteralExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class DivisionByPowerOfTwoRule extends NodeRule<BinaryExpr> {
+    
+    public DivisionByPowerOfTwoRule() {
+        super(BinaryExpr.class,
+              new RuleMetadata("DIVISION_OPTIMIZATION", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Division by a power of two literal"));
+    }
+    
+    @Override
+    protected void checkNode(BinaryExpr be, RuleContext context) {
+        if (be.getOperator() == BinaryExpr.Operator.DIVIDE) {
+            Expression right = be.getRight();
+            if (right instanceof NameExpr) {
+                // A local divisor that always holds the same literal is as good as the literal
+                LiteralExpr constant = context.getDataflow(be).getConstantValue((NameExpr) right);
+                if (constant != null) {
+                    right = constant;
+                }
+            }
+            if (right instanceof IntegerLiteralExpr) {
+                IntegerLiteralExpr divisor = (IntegerLiteralExpr) right;
+                int divisorValue = divisor.asInt();
+                if (isPowerOfTwo(divisorValue) && divisorValue > 1) {
+                    String originalCode = be.toString();
+                    context.reportOptimization("DIVISION_OPTIMIZATION",
+                                               "Division by power of 2 can be optimized",
+                                               be,
+                                               originalCode,
+                                               OptimizationSeverity.LOW);
+                }
+            }
+        }
+    }
+    
+    private boolean isPowerOfTwo(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class EmptyMethodRule extends NodeRule<MethodDeclaration> {
+    
+    public EmptyMethodRule() {
+        super(MethodDeclaration.class,
+              new RuleMetadata("EMPTY_METHOD", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Concrete method with an empty body"));
+    }
+    
+    @Override
+    protected void checkNode(MethodDeclaration md, RuleContext context) {
+        if (md.getBody().isPresent() && md.getBody().get().getStatements().isEmpty() && !md.isAbstract()) {
+            String originalCode = md.getDeclarationAsString();
+            context.reportOptimization("EMPTY_METHOD",
+                                       "Method has empty body",
+                                       md,
+                                       originalCode,
+                                       OptimizationSeverity.LOW);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.stmt.ForStmt;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Optional;
+
+public class InefficientLoopConditionRule extends NodeRule<ForStmt> {
+    
+    public InefficientLoopConditionRule() {
+        super(ForStmt.class,
+              new RuleMetadata("INEFFICIENT_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "size() or length() re-evaluated in a for loop condition"));
+    }
+    
+    @Override
+    protected void checkNode(ForStmt fs, RuleContext context) {
+        Optional<Expression> compare = fs.getCompare();
+        if (compare.isPresent() && compare.get() instanceof BinaryExpr) {
+            BinaryExpr condition = (BinaryExpr) compare.get();
+            if (condition.getRight() instanceof MethodCallExpr) {
+                MethodCallExpr methodCall = (MethodCallExpr) condition.getRight();
+                String methodName = methodCall.getNameAsString();
+                
+                if (("size".equals(methodName) || "length".equals(methodName)) &&
+                    !isMethodCallOnSimpleVariable(methodCall)) {
+                    String originalCode = condition.toString();
+                    String suggestedCode = "int size = collection." + methodName + "();\n" +
+                                         "for (int i = 0; i < size; i++) { ... }";
+                    
+                    context.reportOptimization("INEFFICIENT_LOOP",
+                                               "Method call '" + methodName + "()' in loop condition may be inefficient",
+                                               fs,
+                                               originalCode,
+                                               suggestedCode,
+                                               OptimizationSeverity.MEDIUM);
+                }
+            }
+        }
+    }
+    
+    private boolean isMethodCallOnSimpleVariable(MethodCallExpr methodCall) {
+        return methodCall.getScope().isPresent() &&
+               methodCall.getScope().get() instanceof NameExpr;
+    }
+}
\ No newline at end of file
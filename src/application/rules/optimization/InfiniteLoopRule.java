@@ -0,0 +1,55 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.BreakStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class InfiniteLoopRule extends NodeRule<WhileStmt> {
+    
+    public InfiniteLoopRule() {
+        super(WhileStmt.class,
+              new RuleMetadata("INFINITE_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.HIGH, AnalysisTier.STANDARD,
+                               "while (true) without a break statement"));
+    }
+    
+    @Override
+    protected void checkNode(WhileStmt ws, RuleContext context) {
+        Expression condition = ws.getCondition();
+        if (condition instanceof BooleanLiteralExpr) {
+            BooleanLiteralExpr bool = (BooleanLiteralExpr) condition;
+            if (bool.getValue() && !hasBreakStatement(ws.getBody())) {
+                String originalCode = ws.toString();
+                String suggestedCode = "while (condition) {\n" +
+                                     "    if (exitCondition) break;\n" +
+                                     "}";
+                
+                context.reportOptimization("INFINITE_LOOP",
+                                           "Potential infinite loop detected - no break statement found",
+                                           ws,
+                                           originalCode,
+                                           suggestedCode,
+                                           OptimizationSeverity.HIGH);
+            }
+        }
+    }
+    
+    private boolean hasBreakStatement(Statement stmt) {
+        if (stmt instanceof BreakStmt) {
+            return true;
+        }
+        if (stmt instanceof BlockStmt) {
+            BlockStmt block = (BlockStmt) stmt;
+            return block.getStatements().stream().anyMatch(this::hasBreakStatement);
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.CastExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import application.analysis.LocalTypes;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// Raw JDK type and method names the stream and JDBC rules reason about
+final class IoTypes {
+    
+    // Constructors that open a file, archive or socket themselves
+    static final Set<String> OPENING = new HashSet<>(Arrays.asList(
+        "FileInputStream", "FileOutputStream", "FileReader", "FileWriter", "RandomAccessFile",
+        "ZipFile", "JarFile", "Socket", "ServerSocket"
+    ));
+    
+    // Constructors that take over another stream and close it with their own close()
+    static final Set<String> WRAPPERS = new HashSet<>(Arrays.asList(
+        "BufferedInputStream", "BufferedOutputStream", "BufferedReader", "BufferedWriter",
+        "InputStreamReader", "OutputStreamWriter", "DataInputStream", "DataOutputStream",
+        "ObjectInputStream", "ObjectOutputStream", "PrintStream", "PrintWriter", "Scanner", "Formatter",
+        "LineNumberReader", "PushbackInputStream", "PushbackReader", "GZIPInputStream", "GZIPOutputStream",
+        "ZipInputStream", "ZipOutputStream", "JarInputStream", "JarOutputStream", "InflaterInputStream",
+        "DeflaterOutputStream", "CheckedInputStream", "CheckedOutputStream", "DigestInputStream", "DigestOutputStream"
+    ));
+    
+    // Wrappers that read or write the stream underneath in blocks; ObjectInput/OutputStream keep a block buffer too
+    static final Set<String> BUFFERING = new HashSet<>(Arrays.asList(
+        "BufferedInputStream", "BufferedOutputStream", "BufferedReader", "BufferedWriter", "LineNumberReader",
+        "Scanner", "ObjectInputStream", "ObjectOutputStream"
+    ));
+    
+    // Sources that are already in memory, where a call per byte costs no system call
+    static final Set<String> IN_MEMORY = new HashSet<>(Arrays.asList(
+        "ByteArrayInputStream", "StringReader", "CharArrayReader", "ByteArrayOutputStream", "StringWriter",
+        "CharArrayWriter"
+    ));
+    
+    // Files.* and JDBC calls whose result has to be closed by the caller
+    static final Set<String> OPENING_FILES_METHODS = new HashSet<>(Arrays.asList(
+        "newInputStream", "newOutputStream", "newBufferedReader", "newBufferedWriter", "newByteChannel",
+        "newDirectoryStream", "lines", "list", "walk", "find"
+    ));
+    
+    static final Set<String> OPENING_JDBC_METHODS = new HashSet<>(Arrays.asList(
+        "getConnection", "createStatement", "prepareStatement", "prepareCall"
+    ));
+    
+    private IoTypes() {
+    }
+    
+    // A new stream, reader, writer, channel, socket or JDBC object that this code now has to close
+    static boolean isAcquisition(Expression expression, LocalTypes types) {
+        expression = unwrap(expression);
+        if (expression instanceof ObjectCreationExpr) {
+            ObjectCreationExpr creation = (ObjectCreationExpr) expression;
+            String type = LocalTypes.rawName(creation.getTypeAsString());
+            if (OPENING.contains(type)) return true;
+            if (!WRAPPERS.contains(type) || creation.getArguments().isEmpty()) return false;
+            
+            // new PrintWriter("out.txt") and new Scanner(file) open the file; new Scanner(text) does not
+            Expression wrapped = unwrap(creation.getArgument(0));
+            String wrappedType = LocalTypes.rawName(types.getDeclaredType(wrapped));
+            if ("File".equals(wrappedType) || "Path".equals(wrappedType)) return true;
+            if ("String".equals(wrappedType)) return !"Scanner".equals(type);
+            return isAcquisition(wrapped, types) || holdsAcquisition(wrapped, types);
+        }
+        
+        if (expression instanceof MethodCallExpr) {
+            MethodCallExpr call = (MethodCallExpr) expression;
+            String name = call.getNameAsString();
+            String scope = call.getScope().map(Expression::toString).orElse("");
+            if (OPENING_JDBC_METHODS.contains(name)) return true;
+            if ("Files".equals(scope) || scope.endsWith(".Files")) return OPENING_FILES_METHODS.contains(name);
+            return "open".equals(name) && (scope.endsWith("FileChannel") || scope.endsWith("AsynchronousFileChannel"));
+        }
+        return false;
+    }
+    
+    // A local whose value comes from an acquisition, for wrappers built over a stream opened a line earlier
+    static boolean holdsAcquisition(Expression expression, LocalTypes types) {
+        if (!(expression instanceof NameExpr)) return false;
+        
+        VariableDeclarator declarator = types.findDeclarator(expression);
+        return declarator != null && declarator.getInitializer().filter(value -> isAcquisition(value, types)).isPresent();
+    }
+    
+    // The expression as its parent sees it, past any parentheses and casts around it
+    static Expression outermost(Expression expression) {
+        Expression outer = expression;
+        while (outer.getParentNode().orElse(null) instanceof EnclosedExpr ||
+               outer.getParentNode().orElse(null) instanceof CastExpr) {
+            outer = (Expression) outer.getParentNode().get();
+        }
+        return outer;
+    }
+    
+    static Expression unwrap(Expression expression) {
+        while (expression instanceof EnclosedExpr || expression instanceof CastExpr) {
+            expression = expression instanceof EnclosedExpr ? ((EnclosedExpr) expression).getInner()
+                                                            : ((CastExpr) expression).getExpression();
+        }
+        return expression;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import application.analysis.DefUseIndex;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class KeySetLookupRule extends NodeRule<ForEachStmt> {
+    
+    public KeySetLookupRule() {
+        super(ForEachStmt.class,
+              new RuleMetadata("KEYSET_LOOKUP", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Iterating keySet() and looking each key up again with get()"));
+    }
+    
+    @Override
+    protected void checkNode(ForEachStmt fes, RuleContext context) {
+        if (!(fes.getIterable() instanceof MethodCallExpr)) return;
+        
+        MethodCallExpr keySet = (MethodCallExpr) fes.getIterable();
+        if (!"keySet".equals(keySet.getNameAsString()) || !keySet.getArguments().isEmpty() ||
+            !keySet.getScope().isPresent()) return;
+        
+        Expression map = keySet.getScope().get();
+        LocalTypes types = context.getLocalTypes(fes);
+        if (!CollectionTypes.isMap(types.getDeclaredType(map))) return;
+        
+        VariableDeclarator key = fes.getVariable().getVariables().get(0);
+        DefUseIndex index = context.getDefUseIndex(fes);
+        
+        boolean looksUpKey = fes.getBody().findFirst(MethodCallExpr.class, call ->
+            "get".equals(call.getNameAsString()) && call.getArguments().size() == 1 &&
+            call.getScope().map(scope -> scope.toString().equals(map.toString())).orElse(false) &&
+            call.getArgument(0) instanceof NameExpr &&
+            index.resolve((NameExpr) call.getArgument(0)) == index.getSymbol(key)).isPresent();
+        if (!looksUpKey) return;
+        
+        boolean treeMap = LocalTypes.rawName(types.getInstantiatedType(map)).startsWith("Tree");
+        context.reportOptimization("KEYSET_LOOKUP",
+                                   "Iterating " + map + ".keySet() and calling get() repeats every lookup; iterate entrySet()",
+                                   fes,
+                                   "for (" + fes.getVariable() + " : " + keySet + ")",
+                                   treeMap ? OptimizationSeverity.MEDIUM : OptimizationSeverity.LOW);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class LegacySynchronizedCollectionRule extends NodeRule<ObjectCreationExpr> {
+    
+    public LegacySynchronizedCollectionRule() {
+        super(ObjectCreationExpr.class,
+              new RuleMetadata("LEGACY_SYNCHRONIZED_COLLECTION", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW,
+                               AnalysisTier.STANDARD, "Vector, Hashtable, Stack or StringBuffer locking on every call"));
+    }
+    
+    @Override
+    protected void checkNode(ObjectCreationExpr oce, RuleContext context) {
+        String type = oce.getType().getNameAsString();
+        if (!CollectionTypes.LEGACY_SYNCHRONIZED.contains(type) || oce.getAnonymousClassBody().isPresent()) return;
+        
+        context.reportOptimization("LEGACY_SYNCHRONIZED_COLLECTION",
+                                   type + " synchronizes every call; use " + replacementFor(type) + " instead",
+                                   oce,
+                                   oce.toString(),
+                                   OptimizationSeverity.LOW);
+    }
+    
+    private String replacementFor(String type) {
+        switch (type) {
+            case "Vector": return "ArrayList";
+            case "Hashtable": return "HashMap (or ConcurrentHashMap when shared)";
+            case "Stack": return "ArrayDeque";
+            default: return "StringBuilder";
+        }
+    }
+}
\ No newline at end of file
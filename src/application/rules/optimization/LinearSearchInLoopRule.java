@@ -0,0 +1,53 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class LinearSearchInLoopRule extends PerIterationRule {
+    
+    private static final List<String> SEARCH_METHODS = Arrays.asList("contains", "indexOf", "lastIndexOf");
+    
+    public LinearSearchInLoopRule() {
+        super(new RuleMetadata("LINEAR_SEARCH_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "List.contains/indexOf inside a loop, which makes the loop quadratic"),
+              MethodCallExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        MethodCallExpr mce = (MethodCallExpr) node;
+        if (!SEARCH_METHODS.contains(mce.getNameAsString()) || mce.getArguments().size() != 1) return;
+        
+        Expression scope = mce.getScope().orElse(null);
+        if (scope == null || !isList(scope, context)) return;
+        
+        // A list built inside the same iteration is searched once per build, which is not the quadratic case
+        LocalTypes types = context.getLocalTypes(scope);
+        VariableDeclarator declarator = types.findDeclarator(scope);
+        if (declarator != null && context.getEnclosingLoop().isAncestorOf(declarator)) return;
+        
+        reportInLoop("LINEAR_SEARCH_IN_LOOP",
+                     "List." + mce.getNameAsString() + " on '" + scope + "' scans the whole list on every iteration",
+                     mce, OptimizationSeverity.MEDIUM, depth, context);
+    }
+    
+    private boolean isList(Expression scope, RuleContext context) {
+        if (scope instanceof MethodCallExpr) {
+            MethodCallExpr call = (MethodCallExpr) scope;
+            return "asList".equals(call.getNameAsString()) &&
+                   call.getScope().map(owner -> "Arrays".equals(owner.toString())).orElse(false);
+        }
+        return CollectionTypes.isList(context.getLocalTypes(scope).getDeclaredType(scope));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class LinkedListRandomAccessRule extends NodeRule<MethodCallExpr> {
+    
+    public LinkedListRandomAccessRule() {
+        super(MethodCallExpr.class,
+              new RuleMetadata("LINKED_LIST_RANDOM_ACCESS", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "Index-based access on a LinkedList, which walks the list on every call"));
+    }
+    
+    @Override
+    protected void checkNode(MethodCallExpr mce, RuleContext context) {
+        String name = mce.getNameAsString();
+        int arguments = mce.getArguments().size();
+        boolean indexed = ("get".equals(name) && arguments == 1) || ("set".equals(name) && arguments == 2) ||
+                          ("remove".equals(name) && arguments == 1) || ("add".equals(name) && arguments == 2);
+        if (!indexed || !mce.getScope().isPresent()) return;
+        
+        Expression scope = mce.getScope().get();
+        LocalTypes types = context.getLocalTypes(scope);
+        if (!"LinkedList".equals(LocalTypes.rawName(types.getInstantiatedType(scope)))) return;
+        
+        // remove(Object) shares the name; only an int index walks the list, and the ends are cheap
+        Expression index = mce.getArgument(0);
+        if (!"int".equals(types.getDeclaredType(index)) && !(index instanceof BinaryExpr)) return;
+        if (isEnd(index, scope)) return;
+        
+        context.reportOptimization("LINKED_LIST_RANDOM_ACCESS",
+                                   "LinkedList." + name + "(index) on '" + scope + "' walks the list; use an ArrayList or an iterator",
+                                   mce,
+                                   mce.toString(),
+                                   context.isInLoop() ? OptimizationSeverity.HIGH : OptimizationSeverity.MEDIUM);
+    }
+    
+    private boolean isEnd(Expression index, Expression scope) {
+        if (index instanceof IntegerLiteralExpr) {
+            return "0".equals(index.toString());
+        }
+        return index.toString().equals(scope + ".size() - 1");
+    }
+}
\ No newline at end of file
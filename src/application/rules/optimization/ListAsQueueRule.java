@@ -0,0 +1,44 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class ListAsQueueRule extends NodeRule<MethodCallExpr> {
+    
+    public ListAsQueueRule() {
+        super(MethodCallExpr.class,
+              new RuleMetadata("LIST_AS_QUEUE", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "remove(0)/add(0, x) on an array-backed list, which shifts every element"));
+    }
+    
+    @Override
+    protected void checkNode(MethodCallExpr mce, RuleContext context) {
+        String name = mce.getNameAsString();
+        boolean removeFirst = "remove".equals(name) && mce.getArguments().size() == 1;
+        boolean addFirst = "add".equals(name) && mce.getArguments().size() == 2;
+        if (!(removeFirst || addFirst) || !isZero(mce.getArgument(0)) || !mce.getScope().isPresent()) return;
+        
+        Expression scope = mce.getScope().get();
+        String type = LocalTypes.rawName(context.getLocalTypes(scope).getInstantiatedType(scope));
+        if (!CollectionTypes.isList(type) || "LinkedList".equals(type)) return;
+        
+        context.reportOptimization("LIST_AS_QUEUE",
+                                   (removeFirst ? "remove(0)" : "add(0, ...)") + " on " + type + " '" + scope +
+                                   "' shifts every element; use an ArrayDeque",
+                                   mce,
+                                   mce.toString(),
+                                   context.isInLoop() ? OptimizationSeverity.HIGH : OptimizationSeverity.MEDIUM);
+    }
+    
+    private boolean isZero(Expression expression) {
+        return expression instanceof IntegerLiteralExpr && "0".equals(((IntegerLiteralExpr) expression).getValue());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import application.analysis.ControlFlowGraph;
+import application.analysis.MethodDataflow;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class LoopInvariantCalculationRule extends NodeRule<MethodCallExpr> {
+    
+    public LoopInvariantCalculationRule() {
+        super(MethodCallExpr.class,
+              new RuleMetadata("LOOP_INVARIANT_CALCULATION", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM,
+                               AnalysisTier.STANDARD, "Expensive Math call with loop-invariant arguments"));
+    }
+    
+    @Override
+    protected void checkNode(MethodCallExpr mce, RuleContext context) {
+        if (!context.isInLoop() || !isExpensiveCalculation(mce)) {
+            return;
+        }
+        
+        MethodDataflow dataflow = context.getDataflow(mce);
+        ControlFlowGraph cfg = dataflow.getControlFlowGraph();
+        ControlFlowGraph.BasicBlock block = cfg.getBlock(mce);
+        ControlFlowGraph.Loop loop = block != null ? cfg.getInnermostLoop(block) : null;
+        if (loop == null || !hasInvariantArguments(mce, loop, dataflow)) {
+            return;
+        }
+        
+        String originalCode = mce.toString();
+        context.reportOptimization("LOOP_INVARIANT_CALCULATION",
+                                   "Expensive calculation inside loop: " + mce.getNameAsString(),
+                                   mce,
+                                   originalCode,
+                                   OptimizationSeverity.MEDIUM);
+    }
+    
+    // Invariant when no definition reaching the arguments comes from inside the innermost loop
+    private boolean hasInvariantArguments(MethodCallExpr mce, ControlFlowGraph.Loop loop, MethodDataflow dataflow) {
+        ControlFlowGraph cfg = dataflow.getControlFlowGraph();
+        for (Expression argument : mce.getArguments()) {
+            if (argument.findFirst(MethodCallExpr.class, call -> !isExpensiveCalculation(call)).isPresent()) {
+                return false;
+            }
+            
+            for (NameExpr name : argument.findAll(NameExpr.class)) {
+                for (Node definition : dataflow.getReachingDefinitions(name)) {
+                    if (loop.contains(cfg.getBlock(definition))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    private boolean isExpensiveCalculation(MethodCallExpr mce) {
+        String methodName = mce.getNameAsString();
+        String scopeName = "";
+        if (mce.getScope().isPresent() && mce.getScope().get() instanceof NameExpr) {
+            scopeName = ((NameExpr) mce.getScope().get()).getNameAsString();
+        }
+        
+        return ("Math".equals(scopeName) &&
+               ("pow".equals(methodName) || "sqrt".equals(methodName) ||
+                "sin".equals(methodName) || "cos".equals(methodName) ||
+                "log".equals(methodName) || "exp".equals(methodName)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import application.models.OptimizationSeverity;
+import application.rules.AnalysisRule;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Base for rules that only matter when the node runs once per loop iteration
+public abstract class PerIterationRule implements AnalysisRule {
+    
+    private static final List<String> PRIMITIVE_TYPES = Arrays.asList(
+        "int", "long", "double", "float", "boolean", "char", "byte", "short"
+    );
+    
+    private final RuleMetadata metadata;
+    private final Set<Class<? extends Node>> nodeTypes;
+    
+    @SafeVarargs
+    protected PerIterationRule(RuleMetadata metadata, Class<? extends Node>... nodeTypes) {
+        this.metadata = metadata;
+        // Copied one by one so the generic varargs array never escapes this constructor
+        Set<Class<? extends Node>> types = new HashSet<>();
+        for (Class<? extends Node> nodeType : nodeTypes) {
+            types.add(nodeType);
+        }
+        this.nodeTypes = Collections.unmodifiableSet(types);
+    }
+    
+    @Override
+    public RuleMetadata getMetadata() {
+        return metadata;
+    }
+    
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return nodeTypes;
+    }
+    
+    @Override
+    public void check(Node node, RuleContext context) {
+        if (!context.isInLoop()) return;
+        
+        int depth = context.getIterationDepth();
+        if (depth > 0) {
+            checkInLoop(node, depth, context);
+        }
+    }
+    
+    protected abstract void checkInLoop(Node node, int depth, RuleContext context);
+    
+    // Every extra enclosing loop multiplies the allocation count, so each level raises the severity one step
+    protected void reportInLoop(String type, String description, Node node, OptimizationSeverity baseSeverity,
+                                int depth, RuleContext context) {
+        int level = Math.min(baseSeverity.ordinal() + depth - 1, OptimizationSeverity.HIGH.ordinal());
+        context.reportOptimization(type,
+                                   description + (depth > 1 ? " (nested " + depth + " loops deep)" : ""),
+                                   node,
+                                   node.toString(),
+                                   OptimizationSeverity.values()[level]);
+    }
+    
+    protected String localType(Expression expression, RuleContext context) {
+        return context.getLocalTypes(expression).getDeclaredType(expression);
+    }
+    
+    protected boolean isPrimitive(String type) {
+        return type != null && PRIMITIVE_TYPES.contains(type);
+    }
+}
\ No newline at end of file
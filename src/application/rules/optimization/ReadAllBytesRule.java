@@ -0,0 +1,105 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ReadAllBytesRule extends NodeRule<MethodCallExpr> {
+    
+    private static final Set<String> WHOLE_FILE_READS = new HashSet<>(Arrays.asList(
+        "readAllBytes", "readAllLines", "readString"
+    ));
+    
+    // Calls that name a fixed resource rather than one the caller chose
+    private static final Set<String> FIXED_SOURCES = new HashSet<>(Arrays.asList(
+        "get", "of", "getResource", "getResourceAsStream", "getClass", "getClassLoader", "toURI", "resolve"
+    ));
+    
+    private static final Set<String> SIZE_CALLS = new HashSet<>(Arrays.asList(
+        "size", "length", "getSize", "getContentLength", "getContentLengthLong", "available"
+    ));
+    
+    public ReadAllBytesRule() {
+        super(MethodCallExpr.class,
+              new RuleMetadata("READ_ALL_BYTES", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "Whole-file reads into memory on inputs of unbounded size"));
+    }
+    
+    @Override
+    protected void checkNode(MethodCallExpr mce, RuleContext context) {
+        String name = mce.getNameAsString();
+        if (!WHOLE_FILE_READS.contains(name) || !mce.getScope().isPresent()) return;
+        
+        // Files.readAllBytes(path) reads the path; in.readAllBytes() reads the stream it is called on
+        String scope = mce.getScope().get().toString();
+        Expression input;
+        if ("Files".equals(scope) || scope.endsWith(".Files")) {
+            if (mce.getArguments().isEmpty()) return;
+            input = mce.getArgument(0);
+        } else if ("readAllBytes".equals(name) && mce.getArguments().isEmpty()) {
+            input = mce.getScope().get();
+        } else {
+            return;
+        }
+        
+        if (isFixed(input) || hasSizeCheck(input, context)) return;
+        
+        context.reportOptimization("READ_ALL_BYTES",
+                                   name + "() loads all of '" + input + "' into memory at once, however large it is; " +
+                                   "stream it or check its size first",
+                                   mce,
+                                   mce.toString(),
+                                   context.isInLoop() ? OptimizationSeverity.HIGH : OptimizationSeverity.MEDIUM);
+    }
+    
+    // Literals, constants and lookups built only from them, such as Paths.get("config.json")
+    private boolean isFixed(Expression input) {
+        input = IoTypes.unwrap(input);
+        if (input instanceof LiteralExpr) return true;
+        if (input instanceof NameExpr || input instanceof FieldAccessExpr) {
+            String simpleName = input instanceof NameExpr ? ((NameExpr) input).getNameAsString()
+                                                          : ((FieldAccessExpr) input).getNameAsString();
+            return !simpleName.isEmpty() && Character.isUpperCase(simpleName.charAt(0));
+        }
+        if (input instanceof MethodCallExpr) {
+            MethodCallExpr call = (MethodCallExpr) input;
+            if (!FIXED_SOURCES.contains(call.getNameAsString())) return false;
+            if (call.getScope().filter(owner -> !isFixed(owner)).isPresent()) return false;
+            return call.getArguments().stream().allMatch(this::isFixed);
+        }
+        return false;
+    }
+    
+    // Files.size(path), file.length() or conn.getContentLength() in the same method bounds the read
+    private boolean hasSizeCheck(Expression input, RuleContext context) {
+        String text = IoTypes.unwrap(input).toString();
+        Node owner = context.getControlFlowGraph(input).getOwner();
+        for (MethodCallExpr call : owner.findAll(MethodCallExpr.class)) {
+            if (!SIZE_CALLS.contains(call.getNameAsString())) continue;
+            
+            String scope = call.getScope().map(Expression::toString).orElse("");
+            if (!"Files".equals(scope) && refersTo(text, scope)) return true;
+            for (Expression argument : call.getArguments()) {
+                if (refersTo(text, argument.toString())) return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean refersTo(String input, String checked) {
+        return !checked.isEmpty() && (input.equals(checked) || input.startsWith(checked + "."));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.stmt.IfStmt;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class RedundantConditionRule extends NodeRule<IfStmt> {
+    
+    public RedundantConditionRule() {
+        super(IfStmt.class,
+              new RuleMetadata("REDUNDANT_CONDITION", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "If statement with a constant boolean condition"));
+    }
+    
+    @Override
+    protected void checkNode(IfStmt is, RuleContext context) {
+        Expression condition = is.getCondition();
+        if (condition instanceof BooleanLiteralExpr) {
+            String originalCode = condition.toString();
+            String suggestedCode = "if (true) { ... } can be simplified to just: { ... }\n" +
+                                 "if (false) { ... } can be removed entirely";
+            
+            context.reportOptimization("REDUNDANT_CONDITION",
+                                       "If statement with constant boolean condition",
+                                       is,
+                                       originalCode,
+                                       suggestedCode,
+                                       OptimizationSeverity.LOW);
+        }
+    }
+}
\ No newline at end of file
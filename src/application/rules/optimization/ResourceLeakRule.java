@@ -0,0 +1,302 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.TryStmt;
+import application.analysis.ControlFlowGraph;
+import application.analysis.DataflowAnalysis;
+import application.analysis.DataflowResult;
+import application.analysis.DataflowSolver;
+import application.analysis.DefUseIndex;
+import application.analysis.LocalTypes;
+import application.analysis.MethodDataflow;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.AnalysisRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+// Streams, channels, sockets and JDBC objects held in a local that some path out of the method does not close.
+// Each acquisition gets a one-bit forward dataflow over the method's graph: set where the resource is opened, cleared
+// where it is closed, handed to another owner or known to be null. A bit that reaches the exit is a leak.
+public class ResourceLeakRule implements AnalysisRule {
+    
+    private static final RuleMetadata METADATA = new RuleMetadata(
+        "RESOURCE_LEAK", RuleCategory.OPTIMIZATION, OptimizationSeverity.HIGH, AnalysisTier.STANDARD,
+        "Streams, readers, channels and JDBC resources that are not closed on every path");
+    
+    private static final Set<Class<? extends Node>> NODE_TYPES = Collections.unmodifiableSet(
+        new HashSet<>(Arrays.asList(ObjectCreationExpr.class, MethodCallExpr.class)));
+    
+    @Override
+    public RuleMetadata getMetadata() {
+        return METADATA;
+    }
+    
+    @Override
+    public Set<Class<? extends Node>> getNodeTypes() {
+        return NODE_TYPES;
+    }
+    
+    @Override
+    public void check(Node node, RuleContext context) {
+        Expression acquisition = (Expression) node;
+        if (!IoTypes.isAcquisition(acquisition, context.getLocalTypes(acquisition))) return;
+        
+        Expression outer = IoTypes.outermost(acquisition);
+        Node parent = outer.getParentNode().orElse(null);
+        
+        // The wrapper around it is the acquisition that has to be closed
+        if (parent instanceof ObjectCreationExpr &&
+            IoTypes.WRAPPERS.contains(LocalTypes.rawName(((ObjectCreationExpr) parent).getTypeAsString()))) {
+            return;
+        }
+        
+        if (parent instanceof MethodCallExpr && ((MethodCallExpr) parent).getScope().orElse(null) == outer) {
+            // new FileInputStream(f).read(), Files.lines(p).count(): nothing is left to close it
+            if (!"close".equals(((MethodCallExpr) parent).getNameAsString())) {
+                report("RESOURCE_LEAK", describe(acquisition) + " is used once and never closed",
+                       acquisition, OptimizationSeverity.HIGH, context);
+            }
+            return;
+        }
+        
+        DefUseIndex.Symbol symbol = assignedLocal(parent, outer, context);
+        if (symbol != null) {
+            checkLocal(acquisition, symbol, context);
+        }
+    }
+    
+    // The local the resource is stored in; null when it goes to a field, a return, a call or a try-with-resources
+    private DefUseIndex.Symbol assignedLocal(Node parent, Expression outer, RuleContext context) {
+        MethodDataflow dataflow = context.getDataflow(outer);
+        DefUseIndex index = dataflow.getDefUseIndex();
+        DefUseIndex.Symbol symbol = null;
+        
+        if (parent instanceof VariableDeclarator) {
+            Node declaration = parent.getParentNode().orElse(null);
+            if (declaration != null && declaration.getParentNode().orElse(null) instanceof TryStmt) return null;
+            symbol = index.getSymbol(parent);
+        } else if (parent instanceof AssignExpr && ((AssignExpr) parent).getOperator() == AssignExpr.Operator.ASSIGN &&
+                   ((AssignExpr) parent).getTarget() instanceof NameExpr) {
+            symbol = index.resolve((NameExpr) ((AssignExpr) parent).getTarget());
+        }
+        
+        if (!dataflow.isTracked(symbol) || symbol.getKind() != DefUseIndex.SymbolKind.LOCAL) return null;
+        return symbol;
+    }
+    
+    private void checkLocal(Expression acquisition, DefUseIndex.Symbol symbol, RuleContext context) {
+        ControlFlowGraph graph = context.getControlFlowGraph(acquisition);
+        Node opened = graph.getElement(acquisition);
+        if (opened == null || !graph.isReachable(graph.getBlock(opened))) return;
+        
+        Set<Node> released = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean closedInHandler = false;
+        boolean closed = false;
+        boolean used = false;
+        
+        for (NameExpr read : symbol.getReads()) {
+            Node element = graph.getElement(read);
+            boolean closes = isClosed(read);
+            // A close in finally runs on every way out of its try, which the graph does not route through finally
+            if ((closes && isInFinally(read)) || isTryResource(read)) return;
+            
+            if (element == null) return;
+            if (closes || escapes(read) || isInNestedBody(read, graph.getOwner())) {
+                released.add(element);
+            }
+            closed |= closes;
+            closedInHandler |= closes && isInCatch(read);
+            used |= !closes && isMethodScope(read);
+        }
+        
+        ResourceState analysis = new ResourceState(symbol, opened, released, graph, context.getDefUseIndex(acquisition));
+        DataflowResult result = DataflowSolver.solve(graph, analysis);
+        if (DataflowAnalysis.get(result.getBlockStart(graph.getExit()), 0)) {
+            report("RESOURCE_LEAK",
+                   describe(acquisition) + " in '" + symbol.getName() + "' is not closed on every path",
+                   acquisition, OptimizationSeverity.HIGH, context);
+        } else if (closed && used && !closedInHandler) {
+            report("RESOURCE_LEAK_ON_EXCEPTION",
+                   describe(acquisition) + " in '" + symbol.getName() + "' is skipped by close() when an exception is thrown",
+                   acquisition, OptimizationSeverity.MEDIUM, context);
+        }
+    }
+    
+    private void report(String type, String description, Expression acquisition, OptimizationSeverity severity,
+                        RuleContext context) {
+        Node element = context.getControlFlowGraph(acquisition).getElement(acquisition);
+        context.reportOptimization(type, description, acquisition,
+                                   (element != null ? element : acquisition).toString(), severity);
+    }
+    
+    private static String describe(Expression acquisition) {
+        if (acquisition instanceof ObjectCreationExpr) {
+            return LocalTypes.rawName(((ObjectCreationExpr) acquisition).getTypeAsString());
+        }
+        MethodCallExpr call = (MethodCallExpr) acquisition;
+        return call.getScope().map(scope -> scope + ".").orElse("") + call.getNameAsString() + "(...)";
+    }
+    
+    // in.close(), or a helper such as IOUtils.closeQuietly(in)
+    private static boolean isClosed(NameExpr read) {
+        Node parent = read.getParentNode().orElse(null);
+        if (!(parent instanceof MethodCallExpr)) return false;
+        
+        MethodCallExpr call = (MethodCallExpr) parent;
+        if (call.getScope().orElse(null) == read) return "close".equals(call.getNameAsString());
+        return call.getNameAsString().startsWith("close");
+    }
+    
+    private static boolean isMethodScope(NameExpr read) {
+        Node parent = read.getParentNode().orElse(null);
+        return parent instanceof MethodCallExpr && ((MethodCallExpr) parent).getScope().orElse(null) == read;
+    }
+    
+    // Passed on, returned or stored elsewhere: whoever receives it is responsible for closing it
+    private static boolean escapes(NameExpr read) {
+        Expression value = IoTypes.outermost(read);
+        Node parent = value.getParentNode().orElse(null);
+        while (parent instanceof ConditionalExpr && ((ConditionalExpr) parent).getCondition() != value) {
+            value = (Expression) parent;
+            parent = parent.getParentNode().orElse(null);
+        }
+        
+        if (parent instanceof MethodCallExpr) return ((MethodCallExpr) parent).getScope().orElse(null) != value;
+        if (parent instanceof AssignExpr) return ((AssignExpr) parent).getValue() == value;
+        return parent instanceof ObjectCreationExpr || parent instanceof VariableDeclarator ||
+               parent instanceof ReturnStmt || parent instanceof ArrayInitializerExpr ||
+               parent instanceof LambdaExpr;
+    }
+    
+    private static boolean isInFinally(Node node) {
+        Node child = node;
+        for (Node current = node.getParentNode().orElse(null); current != null;
+             current = current.getParentNode().orElse(null)) {
+            if (current instanceof TryStmt && ((TryStmt) current).getFinallyBlock().orElse(null) == child) return true;
+            child = current;
+        }
+        return false;
+    }
+    
+    private static boolean isInCatch(Node node) {
+        for (Node current = node.getParentNode().orElse(null); current != null;
+             current = current.getParentNode().orElse(null)) {
+            if (current instanceof CatchClause) return true;
+        }
+        return false;
+    }
+    
+    // try (in) { ... } on an existing variable
+    private static boolean isTryResource(NameExpr read) {
+        Node parent = read.getParentNode().orElse(null);
+        return parent instanceof TryStmt &&
+               ((TryStmt) parent).getResources().stream().anyMatch(resource -> resource == read);
+    }
+    
+    // Lambdas and anonymous classes run on their own schedule, so a use there hands the resource over
+    private static boolean isInNestedBody(Node node, Node owner) {
+        for (Node current = node.getParentNode().orElse(null); current != null && current != owner;
+             current = current.getParentNode().orElse(null)) {
+            if (current instanceof LambdaExpr) return true;
+            if (current instanceof ObjectCreationExpr && ((ObjectCreationExpr) current).getAnonymousClassBody().isPresent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // One bit: the resource is open and still this method's to close
+    private static class ResourceState extends DataflowAnalysis {
+        
+        private final DefUseIndex.Symbol symbol;
+        private final Node opened;
+        private final ControlFlowGraph.BasicBlock openedBlock;
+        private final Set<Node> released;
+        private final Set<Node> redefined = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final DefUseIndex index;
+        
+        ResourceState(DefUseIndex.Symbol symbol, Node opened, Set<Node> released, ControlFlowGraph graph,
+                      DefUseIndex index) {
+            super(Direction.FORWARD, false, 1);
+            this.symbol = symbol;
+            this.opened = opened;
+            this.openedBlock = graph.getBlock(opened);
+            this.released = released;
+            this.index = index;
+            for (Expression write : symbol.getWrites()) {
+                Node element = graph.getElement(write);
+                if (element != null) redefined.add(element);
+            }
+        }
+        
+        @Override
+        public void initializeBoundary(long[] facts) {
+        }
+        
+        @Override
+        public void transfer(Node element, long[] facts) {
+            if (released.contains(element) || redefined.contains(element)) {
+                clear(facts, 0);
+            }
+            if (element == opened) {
+                set(facts, 0);
+            }
+        }
+        
+        // Exception edges carry the facts from the end of their block; out of the opening block, the likeliest thrower
+        // is the constructor or call that failed to open the resource
+        @Override
+        public void transferEdge(ControlFlowGraph.Edge edge, long[] facts) {
+            if (edge.getKind() == ControlFlowGraph.EdgeKind.EXCEPTION) {
+                if (edge.getSource() == openedBlock) clear(facts, 0);
+                return;
+            }
+            if (edge.getKind() == ControlFlowGraph.EdgeKind.NORMAL) return;
+            
+            List<Node> elements = edge.getSource().getElements();
+            if (!elements.isEmpty() && elements.get(elements.size() - 1) instanceof Expression &&
+                isNullOn((Expression) elements.get(elements.size() - 1), edge.getKind() == ControlFlowGraph.EdgeKind.TRUE)) {
+                clear(facts, 0);
+            }
+        }
+        
+        // Whether the condition taking this outcome means the variable holds null
+        private boolean isNullOn(Expression condition, boolean outcome) {
+            condition = IoTypes.unwrap(condition);
+            if (condition instanceof UnaryExpr &&
+                ((UnaryExpr) condition).getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+                return isNullOn(((UnaryExpr) condition).getExpression(), !outcome);
+            }
+            if (!(condition instanceof BinaryExpr)) return false;
+            
+            BinaryExpr binary = (BinaryExpr) condition;
+            BinaryExpr.Operator operator = binary.getOperator();
+            if ((operator == BinaryExpr.Operator.AND && outcome) || (operator == BinaryExpr.Operator.OR && !outcome)) {
+                return isNullOn(binary.getLeft(), outcome) || isNullOn(binary.getRight(), outcome);
+            }
+            boolean comparesEqual = (operator == BinaryExpr.Operator.EQUALS && outcome) ||
+                                    (operator == BinaryExpr.Operator.NOT_EQUALS && !outcome);
+            return comparesEqual && (isNullComparison(binary.getLeft(), binary.getRight()) ||
+                                     isNullComparison(binary.getRight(), binary.getLeft()));
+        }
+        
+        private boolean isNullComparison(Expression variable, Expression value) {
+            variable = IoTypes.unwrap(variable);
+            return value instanceof NullLiteralExpr && variable instanceof NameExpr &&
+                   index.resolve((NameExpr) variable) == symbol;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.*;
+import application.analysis.DefUseIndex;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class StringConcatenationInLoopRule extends NodeRule<AssignExpr> {
+    
+    public StringConcatenationInLoopRule() {
+        super(AssignExpr.class,
+              new RuleMetadata("STRING_CONCATENATION_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.HIGH,
+                               AnalysisTier.STANDARD, "String concatenation inside a loop"));
+    }
+    
+    @Override
+    protected void checkNode(AssignExpr ae, RuleContext context) {
+        if (!context.isInLoop()) {
+            return;
+        }
+        
+        boolean isStringConcatenation = false;
+        String targetVar = "";
+        
+        if (ae.getOperator() == AssignExpr.Operator.PLUS) {
+            if (ae.getTarget() instanceof NameExpr) {
+                targetVar = ((NameExpr) ae.getTarget()).getNameAsString();
+                if (isStringVariable((NameExpr) ae.getTarget(), context) || ae.getValue() instanceof StringLiteralExpr) {
+                    isStringConcatenation = true;
+                }
+            }
+        } else if (ae.getOperator() == AssignExpr.Operator.ASSIGN) {
+            if (ae.getValue() instanceof BinaryExpr) {
+                BinaryExpr be = (BinaryExpr) ae.getValue();
+                if (be.getOperator() == BinaryExpr.Operator.PLUS) {
+                    if (ae.getTarget() instanceof NameExpr && be.getLeft() instanceof NameExpr) {
+                        targetVar = ((NameExpr) ae.getTarget()).getNameAsString();
+                        String leftVar = ((NameExpr) be.getLeft()).getNameAsString();
+                        
+                        if (targetVar.equals(leftVar) &&
+                            (hasStringOperand(be, context) || isStringVariable((NameExpr) ae.getTarget(), context))) {
+                            isStringConcatenation = true;
+                        }
+                    }
+                }
+            }
+        }
+        
+        if (isStringConcatenation && !isPrintStatement(ae) && !isSimpleLogging(ae)) {
+            String originalCode = ae.toString();
+            context.reportOptimization("STRING_CONCATENATION_IN_LOOP",
+                                       "String concatenation inside loop may impact performance",
+                                       ae,
+                                       originalCode,
+                                       OptimizationSeverity.HIGH);
+        }
+    }
+    
+    private boolean hasStringOperand(BinaryExpr be, RuleContext context) {
+        return be.getLeft() instanceof StringLiteralExpr ||
+               be.getRight() instanceof StringLiteralExpr ||
+               containsStringVariable(be, context);
+    }
+    
+    private boolean containsStringVariable(BinaryExpr be, RuleContext context) {
+        return (be.getLeft() instanceof NameExpr && isStringVariable((NameExpr) be.getLeft(), context)) ||
+               (be.getRight() instanceof NameExpr && isStringVariable((NameExpr) be.getRight(), context));
+    }
+    
+    private boolean isStringVariable(NameExpr reference, RuleContext context) {
+        String varName = reference.getNameAsString();
+        DefUseIndex index = context.getDefUseIndex(reference);
+        DefUseIndex.Symbol symbol = index.resolve(reference);
+        
+        if (symbol != null ? "String".equals(symbol.getType()) : index.isDeclaredAs(varName, "String")) {
+            return true;
+        }
+        
+        return varName.toLowerCase().contains("string") ||
+               varName.toLowerCase().contains("message") ||
+               varName.toLowerCase().contains("text") ||
+               varName.toLowerCase().contains("report") ||
+               varName.toLowerCase().equals("result") ||
+               varName.toLowerCase().contains("output");
+    }
+    
+    private boolean isPrintStatement(Node node) {
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null) {
+            if (parent instanceof MethodCallExpr) {
+                MethodCallExpr mce = (MethodCallExpr) parent;
+                if (mce.getNameAsString().contains("print")) {
+                    return true;
+                }
+            }
+            parent = parent.getParentNode().orElse(null);
+        }
+        return false;
+    }
+    
+    private boolean isSimpleLogging(Node node) {
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null) {
+            String parentStr = parent.toString().toLowerCase();
+            if (parentStr.contains("log") || parentStr.contains("debug") ||
+                parentStr.contains("info") || parentStr.contains("error")) {
+                return true;
+            }
+            parent = parent.getParentNode().orElse(null);
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class StringFormattingInLoopRule extends PerIterationRule {
+    
+    private static final String REGEX_METACHARACTERS = ".$|()[{^?*+\\";
+    
+    public StringFormattingInLoopRule() {
+        super(new RuleMetadata("STRING_FORMAT_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "String.format and String.split re-parse their pattern on every loop iteration"),
+              MethodCallExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        MethodCallExpr mce = (MethodCallExpr) node;
+        String name = mce.getNameAsString();
+        Expression scope = mce.getScope().orElse(null);
+        
+        if (("format".equals(name) && scope != null && "String".equals(scope.toString())) ||
+            ("formatted".equals(name) && scope != null && "String".equals(localType(scope, context)))) {
+            reportInLoop("STRING_FORMAT_IN_LOOP",
+                         "String formatting parses the format pattern on every iteration",
+                         mce, OptimizationSeverity.MEDIUM, depth, context);
+        } else if ("split".equals(name) && scope != null && isStringSplit(mce, scope, context)) {
+            // String.split skips the regex engine for a single plain character, but still allocates the result
+            boolean compilesPattern = !isFastPathSeparator(mce.getArgument(0));
+            reportInLoop("STRING_SPLIT_IN_LOOP",
+                         compilesPattern ? "String.split compiles its regular expression on every iteration"
+                                         : "String.split allocates a new array on every iteration",
+                         mce, compilesPattern ? OptimizationSeverity.MEDIUM : OptimizationSeverity.LOW, depth, context);
+        }
+    }
+    
+    private boolean isStringSplit(MethodCallExpr mce, Expression scope, RuleContext context) {
+        if (mce.getArguments().isEmpty() || mce.getArguments().size() > 2) return false;
+        
+        String scopeType = localType(scope, context);
+        String separatorType = localType(mce.getArgument(0), context);
+        return "String".equals(scopeType) || (scopeType == null && "String".equals(separatorType));
+    }
+    
+    private boolean isFastPathSeparator(Expression separator) {
+        if (!(separator instanceof StringLiteralExpr)) return false;
+        
+        String value = ((StringLiteralExpr) separator).asString();
+        return (value.length() == 1 && REGEX_METACHARACTERS.indexOf(value.charAt(0)) < 0) ||
+               (value.length() == 2 && value.charAt(0) == '\\' && !Character.isLetterOrDigit(value.charAt(1)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class TooManyParametersRule extends NodeRule<MethodDeclaration> {
+    
+    private static final int MAX_PARAMETERS = 7;
+    
+    public TooManyParametersRule() {
+        super(MethodDeclaration.class,
+              new RuleMetadata("TOO_MANY_PARAMETERS", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "Method declares more than " + MAX_PARAMETERS + " parameters"));
+    }
+    
+    @Override
+    protected void checkNode(MethodDeclaration md, RuleContext context) {
+        if (md.getBody().isPresent() && md.getParameters().size() > MAX_PARAMETERS) {
+            String originalCode = md.getDeclarationAsString();
+            context.reportOptimization("TOO_MANY_PARAMETERS",
+                                       "Method has too many parameters (" + md.getParameters().size() + ")",
+                                       md,
+                                       originalCode,
+                                       OptimizationSeverity.MEDIUM);
+        }
+    }
+}
\ No newline at end of file
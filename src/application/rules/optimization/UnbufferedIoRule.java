@@ -0,0 +1,165 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.ArrayCreationExpr;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.ThisExpr;
+import application.analysis.ControlFlowGraph;
+import application.analysis.DefUseIndex;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class UnbufferedIoRule extends NodeRule<ObjectCreationExpr> {
+    
+    // Calls that move one value at a time, whatever their arguments
+    private static final Set<String> SINGLE_VALUE_CALLS = new HashSet<>(Arrays.asList(
+        "readBoolean", "readByte", "readUnsignedByte", "readShort", "readUnsignedShort", "readChar", "readInt",
+        "readLong", "readFloat", "readDouble", "readLine", "readUTF",
+        "writeBoolean", "writeByte", "writeShort", "writeChar", "writeInt", "writeLong", "writeFloat", "writeDouble",
+        "writeBytes", "writeChars", "writeUTF", "print", "println", "printf", "format", "append", "newLine"
+    ));
+    
+    public UnbufferedIoRule() {
+        super(ObjectCreationExpr.class,
+              new RuleMetadata("UNBUFFERED_IO", RuleCategory.OPTIMIZATION, OptimizationSeverity.MEDIUM, AnalysisTier.STANDARD,
+                               "File streams, readers and writers used for small reads or writes in a loop without a buffer"));
+    }
+    
+    @Override
+    protected void checkNode(ObjectCreationExpr oce, RuleContext context) {
+        String type = LocalTypes.rawName(oce.getTypeAsString());
+        String buffer = bufferFor(type);
+        if (buffer == null) return;
+        
+        // Follow the wrappers outwards; a buffering one anywhere in the chain settles it
+        Expression outer = IoTypes.outermost(oce);
+        while (outer.getParentNode().orElse(null) instanceof ObjectCreationExpr) {
+            String wrapper = LocalTypes.rawName(((ObjectCreationExpr) outer.getParentNode().get()).getTypeAsString());
+            if (!IoTypes.WRAPPERS.contains(wrapper)) return;
+            if (IoTypes.BUFFERING.contains(wrapper)) return;
+            outer = IoTypes.outermost((Expression) outer.getParentNode().get());
+        }
+        
+        ControlFlowGraph graph = context.getControlFlowGraph(oce);
+        for (Expression use : usesOf(outer, context)) {
+            if (use == null) return;
+            
+            // One small transfer costs one system call either way; only repeated ones add up
+            MethodCallExpr user = (MethodCallExpr) use.getParentNode().get();
+            ControlFlowGraph.BasicBlock block = graph.getBlock(user);
+            if (block == null || !graph.isInLoop(block)) continue;
+            
+            MethodCallExpr call = user.getScope().orElse(null) == use ? user : transferInCallee(user, use);
+            if (call == null || !isSmallTransfer(call, context.getLocalTypes(call))) continue;
+            // A bare read() in a loop is BYTE_AT_A_TIME_READ's finding
+            if (call == user && "read".equals(call.getNameAsString()) && call.getArguments().isEmpty()) continue;
+            
+            OptimizationSeverity severity = type.endsWith("Stream") ? OptimizationSeverity.HIGH : OptimizationSeverity.MEDIUM;
+            context.reportOptimization("UNBUFFERED_IO",
+                                       type + " has no buffer, so each " + call.getNameAsString() + "() " +
+                                       (call == user ? "" : "in " + user.getNameAsString() + "() ") +
+                                       "reaches the file on every iteration; wrap it in a " + buffer,
+                                       oce,
+                                       oce.toString(),
+                                       severity);
+            return;
+        }
+    }
+    
+    private static String bufferFor(String type) {
+        switch (type) {
+            case "FileInputStream": return "BufferedInputStream";
+            case "FileOutputStream": return "BufferedOutputStream";
+            case "FileReader": return "BufferedReader";
+            case "FileWriter": return "BufferedWriter";
+            default: return null;
+        }
+    }
+    
+    // The unbuffered object, or the reads of the local holding it, where a call is made on it or passed it; a null
+    // entry means it is buffered later on
+    private List<Expression> usesOf(Expression outer, RuleContext context) {
+        List<Expression> uses = new ArrayList<>();
+        Node parent = outer.getParentNode().orElse(null);
+        if (parent instanceof MethodCallExpr) {
+            uses.add(outer);
+            return uses;
+        }
+        
+        DefUseIndex index = context.getDefUseIndex(outer);
+        DefUseIndex.Symbol symbol = null;
+        if (parent instanceof VariableDeclarator) {
+            symbol = index.getSymbol(parent);
+        } else if (parent instanceof AssignExpr && ((AssignExpr) parent).getTarget() instanceof NameExpr) {
+            symbol = index.resolve((NameExpr) ((AssignExpr) parent).getTarget());
+        }
+        if (symbol == null) return uses;
+        
+        for (NameExpr read : symbol.getReads()) {
+            Expression wrapped = IoTypes.outermost(read);
+            Node user = wrapped.getParentNode().orElse(null);
+            if (user instanceof ObjectCreationExpr &&
+                IoTypes.BUFFERING.contains(LocalTypes.rawName(((ObjectCreationExpr) user).getTypeAsString()))) {
+                uses.add(0, null);
+                return uses;
+            }
+            if (user instanceof MethodCallExpr) {
+                uses.add(((MethodCallExpr) user).getScope().orElse(null) == read ? read : wrapped);
+            }
+        }
+        return uses;
+    }
+    
+    // The first small transfer a method of this compilation unit makes on the parameter the object was passed as
+    private MethodCallExpr transferInCallee(MethodCallExpr call, Expression argument) {
+        int position = call.getArguments().indexOf(argument);
+        if (position < 0 || call.getScope().filter(scope -> !(scope instanceof ThisExpr)).isPresent()) return null;
+        
+        CompilationUnit unit = call.findCompilationUnit().orElse(null);
+        if (unit == null) return null;
+        for (MethodDeclaration method : unit.findAll(MethodDeclaration.class)) {
+            if (!method.getNameAsString().equals(call.getNameAsString()) ||
+                method.getParameters().size() != call.getArguments().size() || !method.getBody().isPresent()) continue;
+            
+            String parameter = method.getParameter(position).getNameAsString();
+            for (MethodCallExpr inner : method.getBody().get().findAll(MethodCallExpr.class)) {
+                Expression scope = inner.getScope().orElse(null);
+                if (scope instanceof NameExpr && ((NameExpr) scope).getNameAsString().equals(parameter)) return inner;
+            }
+        }
+        return null;
+    }
+    
+    // read(), write(b), readInt(), println(s): anything but a transfer of a whole array
+    private boolean isSmallTransfer(MethodCallExpr call, LocalTypes types) {
+        String name = call.getNameAsString();
+        if (SINGLE_VALUE_CALLS.contains(name)) return true;
+        if (!"read".equals(name) && !"write".equals(name)) return false;
+        
+        if (call.getArguments().isEmpty()) return true;
+        if (call.getArguments().size() > 1) return false;
+        
+        Expression argument = call.getArgument(0);
+        if (argument instanceof ArrayCreationExpr) return false;
+        String argumentType = types.getDeclaredType(argument);
+        return argumentType != null && !argumentType.endsWith("]") && !argumentType.endsWith("Buffer");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.NameExpr;
+import application.analysis.DefUseIndex;
+import application.analysis.MethodDataflow;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class UninitializedVariableRule extends NodeRule<VariableDeclarator> {
+    
+    public UninitializedVariableRule() {
+        super(VariableDeclarator.class,
+              new RuleMetadata("UNINITIALIZED_VARIABLE", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Local variable read on a path where it is not definitely assigned"));
+    }
+    
+    @Override
+    protected void checkNode(VariableDeclarator vd, RuleContext context) {
+        if (vd.getInitializer().isPresent()) return;
+        
+        MethodDataflow dataflow = context.getDataflow(vd);
+        DefUseIndex.Symbol symbol = dataflow.getDefUseIndex().getSymbol(vd);
+        if (!dataflow.isTracked(symbol) || symbol.getKind() != DefUseIndex.SymbolKind.LOCAL) return;
+        
+        for (NameExpr read : symbol.getReads()) {
+            if (!dataflow.isDefinitelyAssigned(read)) {
+                String originalCode = vd.toString();
+                context.reportOptimization("UNINITIALIZED_VARIABLE",
+                                           "Variable '" + vd.getNameAsString() + "' declared without initialization",
+                                           vd,
+                                           originalCode,
+                                           OptimizationSeverity.LOW);
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class UnnecessaryObjectCreationRule extends NodeRule<ObjectCreationExpr> {
+    
+    public UnnecessaryObjectCreationRule() {
+        super(ObjectCreationExpr.class,
+              new RuleMetadata("UNNECESSARY_OBJECT_CREATION", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW,
+                               AnalysisTier.STANDARD, "new String() instead of a literal"));
+    }
+    
+    @Override
+    protected void checkNode(ObjectCreationExpr oce, RuleContext context) {
+        if ("String".equals(oce.getTypeAsString()) && oce.getArguments().size() == 0) {
+            String originalCode = oce.toString();
+            context.reportOptimization("UNNECESSARY_OBJECT_CREATION",
+                                       "Unnecessary String object creation",
+                                       oce,
+                                       originalCode,
+                                       OptimizationSeverity.LOW);
+        }
+    }
+}
\ No newline at end of file
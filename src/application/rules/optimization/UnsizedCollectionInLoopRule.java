@@ -0,0 +1,113 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.*;
+import com.github.javaparser.ast.stmt.*;
+import application.analysis.DefUseIndex;
+import application.analysis.LocalTypes;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class UnsizedCollectionInLoopRule extends PerIterationRule {
+    
+    public UnsizedCollectionInLoopRule() {
+        super(new RuleMetadata("UNSIZED_COLLECTION_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Default-sized collection filled by a loop whose trip count is known up front"),
+              MethodCallExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        MethodCallExpr mce = (MethodCallExpr) node;
+        String name = mce.getNameAsString();
+        if (!("add".equals(name) && mce.getArguments().size() == 1) &&
+            !("put".equals(name) && mce.getArguments().size() == 2)) return;
+        if (!(mce.getScope().orElse(null) instanceof NameExpr)) return;
+        
+        NameExpr collection = (NameExpr) mce.getScope().get();
+        DefUseIndex.Symbol symbol = context.getDefUseIndex(mce).resolve(collection);
+        if (symbol == null || !(symbol.getDeclaration() instanceof VariableDeclarator) || !symbol.getWrites().isEmpty()) return;
+        
+        VariableDeclarator declarator = (VariableDeclarator) symbol.getDeclaration();
+        Expression initializer = declarator.getInitializer().orElse(null);
+        if (!(initializer instanceof ObjectCreationExpr) || !((ObjectCreationExpr) initializer).getArguments().isEmpty()) return;
+        
+        String type = ((ObjectCreationExpr) initializer).getType().getNameAsString();
+        Statement loop = context.getEnclosingLoop();
+        if (!CollectionTypes.PRESIZABLE.contains(type) || loop.isAncestorOf(declarator)) return;
+        
+        // One report per collection, on its first use inside the loop
+        NameExpr firstUse = symbol.getReads().stream().filter(loop::isAncestorOf).findFirst().orElse(null);
+        if (firstUse != collection) return;
+        
+        // Only counted for/for-each loops have a trip count; tripCount also rules out while and do loops
+        String bound = tripCount(loop, context);
+        if (bound == null || !isUnconditional(mce, loop)) return;
+        
+        String capacity = CollectionTypes.isHashed(type) ? "(int) (" + bound + " / 0.75f) + 1" : bound;
+        reportInLoop("UNSIZED_COLLECTION_IN_LOOP",
+                     "'" + collection + "' grows repeatedly while the loop adds " + bound +
+                     " elements; create it with new " + type + "<>(" + capacity + ")",
+                     mce, OptimizationSeverity.LOW, depth, context);
+    }
+    
+    // Only statements that run on every iteration justify sizing for the full trip count
+    private boolean isUnconditional(MethodCallExpr mce, Statement loop) {
+        Node child = mce;
+        Node parent = mce.getParentNode().orElse(null);
+        while (parent != null && parent != loop) {
+            if (!(parent instanceof ExpressionStmt) && !(parent instanceof BlockStmt)) return false;
+            child = parent;
+            parent = parent.getParentNode().orElse(null);
+        }
+        if (parent != loop) return false;
+        
+        Statement body = (loop instanceof ForStmt) ? ((ForStmt) loop).getBody() : ((ForEachStmt) loop).getBody();
+        // An early continue, break or return skips the add on some iterations
+        boolean exitsEarly = body.findFirst(Statement.class, statement ->
+            statement instanceof ContinueStmt || statement instanceof BreakStmt ||
+            statement instanceof ReturnStmt || statement instanceof ThrowStmt).isPresent();
+        return child == body && !exitsEarly;
+    }
+    
+    private String tripCount(Statement loop, RuleContext context) {
+        if (loop instanceof ForEachStmt) {
+            Expression iterable = ((ForEachStmt) loop).getIterable();
+            if (!(iterable instanceof NameExpr)) return null;
+            
+            String type = context.getLocalTypes(iterable).getDeclaredType(iterable);
+            if (type == null) return null;
+            if (type.endsWith("[]")) return iterable + ".length";
+            return CollectionTypes.isList(type) || LocalTypes.rawName(type).endsWith("Set") ||
+                   LocalTypes.rawName(type).equals("Collection") ? iterable + ".size()" : null;
+        }
+        
+        if (!(loop instanceof ForStmt)) return null;
+        ForStmt fs = (ForStmt) loop;
+        if (!fs.getCompare().isPresent() || !(fs.getCompare().get() instanceof BinaryExpr)) return null;
+        if (fs.getInitialization().size() != 1 || !isZeroStart(fs.getInitialization().get(0))) return null;
+        
+        BinaryExpr compare = (BinaryExpr) fs.getCompare().get();
+        if (compare.getOperator() != BinaryExpr.Operator.LESS || !(compare.getLeft() instanceof NameExpr)) return null;
+        
+        Expression bound = compare.getRight();
+        boolean simpleBound = bound instanceof NameExpr || bound instanceof IntegerLiteralExpr ||
+                              (bound instanceof FieldAccessExpr && "length".equals(((FieldAccessExpr) bound).getNameAsString())) ||
+                              (bound instanceof MethodCallExpr && "size".equals(((MethodCallExpr) bound).getNameAsString()));
+        return simpleBound ? bound.toString() : null;
+    }
+    
+    private boolean isZeroStart(Expression init) {
+        if (!(init instanceof VariableDeclarationExpr)) return false;
+        
+        VariableDeclarationExpr declaration = (VariableDeclarationExpr) init;
+        return declaration.getVariables().size() == 1 &&
+               declaration.getVariable(0).getInitializer()
+                   .map(value -> value instanceof IntegerLiteralExpr && "0".equals(value.toString()))
+                   .orElse(false);
+    }
+}
\ No newline at end of file
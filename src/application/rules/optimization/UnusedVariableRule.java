@@ -0,0 +1,92 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import application.analysis.DefUseIndex;
+import application.analysis.MethodDataflow;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class UnusedVariableRule extends NodeRule<VariableDeclarator> {
+    
+    public UnusedVariableRule() {
+        super(VariableDeclarator.class,
+              new RuleMetadata("UNUSED_VARIABLE", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Local variable declared but never used, or assigned but never read"));
+    }
+    
+    @Override
+    protected void checkNode(VariableDeclarator vd, RuleContext context) {
+        String variableName = vd.getNameAsString();
+        
+        if (isCommonUnusedVariable(variableName) ||
+            context.getFieldNames().contains(variableName) ||
+            isLoopControlVariable(vd) ||
+            isParameterVariable(vd)) {
+            return;
+        }
+        
+        // Written but never read counts as unused: no stored value is live afterwards
+        boolean referenced = context.getDefUseIndex(vd).isReferenced(vd);
+        if (!referenced || !isAnyValueRead(vd, context)) {
+            String originalCode = vd.toString();
+            context.reportOptimization("UNUSED_VARIABLE",
+                                       "Local variable '" + variableName + "' is " +
+                                       (referenced ? "assigned but never read" : "declared but never used"),
+                                       vd,
+                                       originalCode,
+                                       OptimizationSeverity.LOW);
+        }
+    }
+    
+    private boolean isAnyValueRead(VariableDeclarator vd, RuleContext context) {
+        MethodDataflow dataflow = context.getDataflow(vd);
+        DefUseIndex.Symbol symbol = dataflow.getDefUseIndex().getSymbol(vd);
+        return !dataflow.isTracked(symbol) || dataflow.hasLiveDefinition(symbol);
+    }
+    
+    private boolean isCommonUnusedVariable(String varName) {
+        return varName.startsWith("_") ||
+               varName.equals("args") ||
+               varName.equals("e") ||
+               varName.equals("ex") ||
+               varName.equals("exception") ||
+               varName.equals("ignored");
+    }
+    
+    private boolean isLoopControlVariable(VariableDeclarator vd) {
+        Node parent = vd.getParentNode().orElse(null);
+        while (parent != null) {
+            if (parent instanceof ForStmt || parent instanceof ForEachStmt) {
+                return true;
+            }
+            if (parent instanceof WhileStmt) {
+                String varName = vd.getNameAsString();
+                String parentStr = parent.toString();
+                return parentStr.contains(varName + " =") && parentStr.contains(varName + "++") ||
+                       parentStr.contains(varName + " <") || parentStr.contains(varName + " >");
+            }
+            parent = parent.getParentNode().orElse(null);
+        }
+        return false;
+    }
+    
+    private boolean isParameterVariable(VariableDeclarator vd) {
+        Node parent = vd.getParentNode().orElse(null);
+        while (parent != null) {
+            if (parent instanceof Parameter) {
+                return true;
+            }
+            parent = parent.getParentNode().orElse(null);
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.*;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+import java.util.List;
+
+public class VarargsInLoopRule extends PerIterationRule {
+    
+    public VarargsInLoopRule() {
+        super(new RuleMetadata("VARARGS_IN_LOOP", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW, AnalysisTier.STANDARD,
+                               "Varargs calls that allocate an argument array on every loop iteration"),
+              MethodCallExpr.class);
+    }
+    
+    @Override
+    protected void checkInLoop(Node node, int depth, RuleContext context) {
+        MethodCallExpr mce = (MethodCallExpr) node;
+        if (isLibraryVarargsCall(mce) || isLocalVarargsCall(mce, context)) {
+            reportInLoop("VARARGS_IN_LOOP",
+                         "Varargs call '" + mce.getNameAsString() + "' allocates an argument array on every iteration",
+                         mce, OptimizationSeverity.LOW, depth, context);
+        }
+    }
+    
+    // String.format and printf are covered by the string formatting rule
+    private boolean isLibraryVarargsCall(MethodCallExpr mce) {
+        String owner = mce.getScope().map(Expression::toString).orElse("");
+        String name = mce.getNameAsString();
+        int arguments = mce.getArguments().size();
+        
+        switch (owner + "." + name) {
+            case "Arrays.asList":
+            case "Objects.hash":
+            case "MessageFormat.format":
+                return true;
+            case "Stream.of":
+                return arguments != 1;
+            case "Paths.get":
+            case "Path.of":
+                return arguments > 1;
+            case "EnumSet.of":
+                return arguments > 5;
+            case "String.join":
+                return arguments > 2 || (arguments == 2 && mce.getArgument(1) instanceof StringLiteralExpr);
+            default:
+                return false;
+        }
+    }
+    
+    private boolean isLocalVarargsCall(MethodCallExpr mce, RuleContext context) {
+        if (mce.getScope().isPresent() && !(mce.getScope().get() instanceof ThisExpr)) return false;
+        
+        Node enclosing = mce.getParentNode().orElse(null);
+        while (enclosing != null && !(enclosing instanceof TypeDeclaration)) {
+            enclosing = enclosing.getParentNode().orElse(null);
+        }
+        if (enclosing == null) return false;
+        TypeDeclaration<?> type = (TypeDeclaration<?>) enclosing;
+        
+        int arguments = mce.getArguments().size();
+        for (MethodDeclaration candidate : type.getMethodsByName(mce.getNameAsString())) {
+            List<Parameter> parameters = candidate.getParameters();
+            if (parameters.isEmpty() || !parameters.get(parameters.size() - 1).isVarArgs()) continue;
+            
+            // Passing an existing array in the varargs position does not allocate
+            if (arguments == parameters.size()) {
+                String lastType = localType(mce.getArgument(arguments - 1), context);
+                if (lastType == null || lastType.endsWith("[]")) continue;
+            }
+            if (arguments >= parameters.size() - 1) return true;
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package application.rules.optimization;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import application.models.AnalysisTier;
+import application.models.OptimizationSeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class WrapperObjectCreationRule extends NodeRule<ObjectCreationExpr> {
+    
+    public WrapperObjectCreationRule() {
+        super(ObjectCreationExpr.class,
+              new RuleMetadata("WRAPPER_OBJECT_CREATION", RuleCategory.OPTIMIZATION, OptimizationSeverity.LOW,
+                               AnalysisTier.STANDARD, "Wrapper constructor instead of valueOf()"));
+    }
+    
+    @Override
+    protected void checkNode(ObjectCreationExpr oce, RuleContext context) {
+        String typeName = oce.getTypeAsString();
+        
+        if (("Boolean".equals(typeName) || "Integer".equals(typeName) || "Long".equals(typeName))
+            && oce.getArguments().size() == 1 && !isInMethodCall(oce)) {
+            String originalCode = oce.toString();
+            context.reportOptimization("WRAPPER_OBJECT_CREATION",
+                                       "Consider using valueOf() method for wrapper objects",
+                                       oce,
+                                       originalCode,
+                                       OptimizationSeverity.LOW);
+        }
+    }
+    
+    private boolean isInMethodCall(ObjectCreationExpr oce) {
+        Node parent = oce.getParentNode().orElse(null);
+        return parent instanceof MethodCallExpr;
+    }
+}
\ No newline at end of file
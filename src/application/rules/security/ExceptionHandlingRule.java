@@ -0,0 +1,50 @@
+package application.rules.security;
+
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.TryStmt;
+import application.models.AnalysisTier;
+import application.models.SecuritySeverity;
+import application.rules.NodeRule;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleMetadata;
+
+public class ExceptionHandlingRule extends NodeRule<TryStmt> {
+    
+    public ExceptionHandlingRule() {
+        super(TryStmt.class,
+              new RuleMetadata("IMPROPER_EXCEPTION_HANDLING", RuleCategory.SECURITY, SecuritySeverity.LOW, AnalysisTier.STANDARD,
+                               "Empty catch blocks and catch blocks that only print the stack trace"));
+    }
+    
+    @Override
+    protected void checkNode(TryStmt ts, RuleContext context) {
+        for (CatchClause catchClause : ts.getCatchClauses()) {
+            if (catchClause.getBody().getStatements().isEmpty()) {
+                String originalCode = catchClause.toString();
+                context.reportSecurityIssue("EMPTY_CATCH_BLOCK",
+                                            "Empty catch block may hide security issues",
+                                            catchClause,
+                                            originalCode,
+                                            SecuritySeverity.LOW);
+            } else if (catchClause.getBody().getStatements().size() == 1) {
+                Statement stmt = catchClause.getBody().getStatements().get(0);
+                if (stmt instanceof ExpressionStmt &&
+                    ((ExpressionStmt) stmt).getExpression() instanceof MethodCallExpr) {
+                    MethodCallExpr mce = (MethodCallExpr) ((ExpressionStmt) stmt).getExpression();
+                    if ("printStackTrace".equals(mce.getNameAsString())) {
+                        String originalCode = catchClause.toString();
+                        context.reportSecurityIssue("POOR_EXCEPTION_HANDLING",
+                                                    "Exception handling only prints stack trace - consider proper logging",
+                                                    catchClause,
+                                                    originalCode,
+                                                    SecuritySeverity.LOW);
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
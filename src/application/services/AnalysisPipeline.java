@@ -0,0 +1,228 @@
+package application.services;
+
+import application.analysis.CodeMetricsTable;
+import application.analysis.TaintSummaries;
+import application.models.AnalysisTier;
+import application.models.ClassAnalysisResult;
+import application.models.ClassFileSummary;
+import application.models.LazyValue;
+import application.models.OptimizationSuggestion;
+import application.models.SecurityIssue;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class AnalysisPipeline {
+    
+    private final LazyValue<DecompilerService> decompilerService;
+    private final LazyValue<OptimizationService> optimizationService;
+    private final LazyValue<SecurityService> securityService;
+    private final LazyValue<GraphService> graphService;
+    private final LazyValue<HeatmapAnalyzer> heatmapAnalyzer;
+    private final LazyValue<QuickScanService> quickScanService = new LazyValue<>(QuickScanService::new);
+    
+    // Services are built on first use so that launching the UI does not pay for all of them
+    public AnalysisPipeline() {
+        this.decompilerService = new LazyValue<>(DecompilerService::new);
+        this.optimizationService = new LazyValue<>(OptimizationService::new);
+        this.securityService = new LazyValue<>(SecurityService::new);
+        this.graphService = new LazyValue<>(GraphService::new);
+        this.heatmapAnalyzer = new LazyValue<>(HeatmapAnalyzer::new);
+    }
+    
+    public AnalysisPipeline(DecompilerService decompilerService,
+                            OptimizationService optimizationService,
+                            SecurityService securityService,
+                            GraphService graphService,
+                            HeatmapAnalyzer heatmapAnalyzer) {
+        this.decompilerService = LazyValue.of(decompilerService);
+        this.optimizationService = LazyValue.of(optimizationService);
+        this.securityService = LazyValue.of(securityService);
+        this.graphService = LazyValue.of(graphService);
+        this.heatmapAnalyzer = LazyValue.of(heatmapAnalyzer);
+    }
+    
+    // Loads the parser classes ahead of the first real analysis; the rule services stay unbuilt until it runs
+    public void warmUp() {
+        try {
+            new AnalyzerService().parseCode("class WarmUp { void run(String s) { for (int i = 0; i < 1; i++) { s = s + i; } } }");
+        } catch (Exception e) {
+            System.err.println("Warm-up failed: " + e.getMessage());
+        }
+    }
+    
+    public ClassAnalysisResult analyze(File classFile) throws Exception {
+        return analyze(classFile, message -> { });
+    }
+    
+    public ClassAnalysisResult analyze(File classFile, Consumer<String> progress) throws Exception {
+        return analyze(classFile, AnalysisTier.DEEP, progress, result -> { });
+    }
+    
+    public ClassAnalysisResult analyze(File classFile, AnalysisTier maxTier, Consumer<String> progress,
+                                       Consumer<ClassAnalysisResult> onTierComplete) throws Exception {
+        progress.accept("Scanning bytecode...");
+        return analyze(classFile, quickScan(classFile), null, maxTier, progress, onTierComplete);
+    }
+    
+    // Continues from a bytecode scan the caller already ran, so the class file is not read again; a null
+    // quickResult means that scan failed. A parsed class, when given, stands in for decompiling and parsing.
+    public ClassAnalysisResult analyze(File classFile, ClassAnalysisResult quickResult, ParsedClass parsed,
+                                       AnalysisTier maxTier, Consumer<String> progress,
+                                       Consumer<ClassAnalysisResult> onTierComplete) throws Exception {
+        if (quickResult != null) {
+            onTierComplete.accept(quickResult);
+            if (maxTier == AnalysisTier.BYTECODE) {
+                progress.accept("Analysis complete");
+                return quickResult;
+            }
+        } else if (maxTier == AnalysisTier.BYTECODE) {
+            throw new IllegalStateException("Bytecode scan failed for " + classFile.getName());
+        }
+        
+        if (parsed == null) {
+            progress.accept("Decompiling class file...");
+            String code = decompilerService.get().decompile(classFile);
+            
+            progress.accept("Parsing code...");
+            parsed = parse(code);
+        }
+        AnalyzerService analyzerService = parsed.analyzerService;
+        String decompiledCode = parsed.decompiledCode;
+        CompilationUnit compilationUnit = analyzerService.getCompilationUnit();
+        // Measured once per method here and read by the rules of every tier and by the heatmap
+        CodeMetricsTable codeMetrics = new CodeMetricsTable();
+        
+        progress.accept("Running optimization analysis...");
+        List<OptimizationSuggestion> optimizations = new ArrayList<>(
+            optimizationService.get().analyzeOptimizations(compilationUnit, EnumSet.of(AnalysisTier.STANDARD), codeMetrics));
+        
+        progress.accept("Running security analysis...");
+        List<SecurityIssue> securityIssues = new ArrayList<>(
+            securityService.get().analyzeSecurityIssues(compilationUnit, EnumSet.of(AnalysisTier.STANDARD), codeMetrics));
+        
+        progress.accept("Extracting class information...");
+        var classInfo = analyzerService.extractClassInfo();
+        
+        ClassAnalysisResult standardResult = new ClassAnalysisResult(
+            decompiledCode,
+            List.copyOf(optimizations),
+            List.copyOf(securityIssues),
+            null,
+            null,
+            classInfo,
+            null,
+            AnalysisTier.STANDARD
+        );
+        onTierComplete.accept(standardResult);
+        if (maxTier == AnalysisTier.STANDARD) {
+            progress.accept("Analysis complete");
+            return standardResult;
+        }
+        
+        progress.accept("Running deep analysis...");
+        optimizations.addAll(optimizationService.get().analyzeOptimizations(compilationUnit, EnumSet.of(AnalysisTier.DEEP), codeMetrics));
+        securityIssues.addAll(securityService.get().analyzeSecurityIssues(compilationUnit, EnumSet.of(AnalysisTier.DEEP), codeMetrics));
+        optimizations.sort(Comparator.comparingInt(OptimizationSuggestion::getLineNumber));
+        securityIssues.sort(Comparator.comparingInt(SecurityIssue::getLineNumber));
+        
+        progress.accept("Analysis complete");
+        
+        // Graphs and the heatmap are only built when a tab or reporter first asks for them
+        ClassAnalysisResult deepResult = new ClassAnalysisResult(
+            decompiledCode,
+            optimizations,
+            securityIssues,
+            classInfo,
+            new LazyValue<>(() -> graphService.get().generateMethodCallGraph(compilationUnit)),
+            new LazyValue<>(() -> graphService.get().generateClassHierarchy(compilationUnit)),
+            new LazyValue<>(() -> heatmapAnalyzer.get().generateHeatmapData(compilationUnit, optimizations, securityIssues,
+                                                                            codeMetrics)),
+            AnalysisTier.DEEP
+        );
+        onTierComplete.accept(deepResult);
+        return deepResult;
+    }
+    
+    // Decompiled and parsed only, for passes that need every unit before the per-class analysis
+    public ParsedClass parse(File classFile) throws Exception {
+        return parse(decompilerService.get().decompile(classFile));
+    }
+    
+    // AnalyzerService keeps the parsed unit as state, so each class gets its own
+    private static ParsedClass parse(String decompiledCode) throws Exception {
+        AnalyzerService analyzerService = new AnalyzerService();
+        analyzerService.parseCode(decompiledCode);
+        return new ParsedClass(decompiledCode, analyzerService);
+    }
+    
+    // A reloaded result rebuilds what it dropped when spilled from its decompiled source, again only on first use
+    public void supplyAbsentData(ClassAnalysisResult result) {
+        if (!result.hasAbsentData()) return;
+        
+        LazyValue<CompilationUnit> unit = new LazyValue<>(() -> {
+            AnalyzerService analyzerService = new AnalyzerService();
+            try {
+                analyzerService.parseCode(result.getDecompiledCode());
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to re-parse spilled result", e);
+            }
+            return analyzerService.getCompilationUnit();
+        });
+        result.supplyAbsentData(
+            () -> graphService.get().generateMethodCallGraph(unit.get()),
+            () -> graphService.get().generateClassHierarchy(unit.get()),
+            () -> heatmapAnalyzer.get().generateHeatmapData(unit.get(), result.getOptimizationSuggestions(),
+                                                            result.getSecurityIssues()));
+    }
+    
+    public void setTaintSummaries(TaintSummaries taintSummaries) {
+        securityService.get().setTaintSummaries(taintSummaries);
+    }
+    
+    public ClassAnalysisResult quickScan(File classFile) {
+        ClassFileSummary summary = readClassFile(classFile);
+        return summary != null ? quickScan(summary) : null;
+    }
+    
+    public ClassAnalysisResult quickScan(ClassFileSummary summary) {
+        try {
+            return quickScanService.get().scan(summary);
+        } catch (RuntimeException e) {
+            System.err.println("Bytecode scan failed for " + summary.getSimpleName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public ClassFileSummary readClassFile(File classFile) {
+        try {
+            return quickScanService.get().read(classFile);
+        } catch (Exception e) {
+            System.err.println("Bytecode scan failed for " + classFile.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public DecompilerService getDecompilerService() {
+        return decompilerService.get();
+    }
+    
+    public static class ParsedClass {
+        private final String decompiledCode;
+        private final AnalyzerService analyzerService;
+        
+        private ParsedClass(String decompiledCode, AnalyzerService analyzerService) {
+            this.decompiledCode = decompiledCode;
+            this.analyzerService = analyzerService;
+        }
+        
+        public CompilationUnit getCompilationUnit() {
+            return analyzerService.getCompilationUnit();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package application.services;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AnalysisTimingCache {
+    
+    // Least recently used timings are dropped past this many, so the file stays small across many inputs
+    private static final int MAX_ENTRIES = 20_000;
+    
+    private final File cacheFile;
+    private final Properties timings = new Properties();
+    private final Map<File, String> archiveKeys = new ConcurrentHashMap<>();
+    
+    public AnalysisTimingCache() {
+        this(null);
+    }
+    
+    public AnalysisTimingCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+        load();
+    }
+    
+    public static File defaultCacheFile() {
+        return new File(System.getProperty("user.home"), ".java_analyzer/timings.properties");
+    }
+    
+    // Extracted archive entries land in a new temporary directory on every run, so they are keyed by content instead
+    public void registerArchiveEntry(File extractedFile, String entryName, long size, long crc) {
+        archiveKeys.put(extractedFile, "jar:" + entryName + "|" + size + "|" + Long.toHexString(crc));
+    }
+    
+    public void forgetArchiveEntries(File extractDirectory) {
+        String prefix = extractDirectory.getPath() + File.separator;
+        archiveKeys.keySet().removeIf(file -> file.getPath().startsWith(prefix));
+    }
+    
+    public synchronized Long getTimingNanos(File classFile) {
+        String key = keyFor(classFile);
+        long[] entry = parseEntry(timings.getProperty(key));
+        if (entry == null) return null;
+        
+        store(key, entry[0], entry[1]);
+        return entry[1];
+    }
+    
+    public synchronized void record(File classFile, long costUnits, long elapsedNanos) {
+        store(keyFor(classFile), costUnits, elapsedNanos);
+    }
+    
+    private void store(String key, long costUnits, long elapsedNanos) {
+        timings.setProperty(key, costUnits + "," + elapsedNanos + "," + System.currentTimeMillis());
+    }
+    
+    public synchronized List<long[]> getSamples() {
+        List<long[]> samples = new ArrayList<>();
+        for (String key : timings.stringPropertyNames()) {
+            long[] entry = parseEntry(timings.getProperty(key));
+            if (entry != null) {
+                samples.add(entry);
+            }
+        }
+        return samples;
+    }
+    
+    public synchronized void save() {
+        if (cacheFile == null) return;
+        
+        File parent = cacheFile.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            System.err.println("Failed to create timing cache directory: " + parent);
+            return;
+        }
+        
+        evictOldest();
+        try (OutputStream out = new FileOutputStream(cacheFile)) {
+            timings.store(out, "Per-class analysis timings (cost units, nanos, last used)");
+        } catch (IOException e) {
+            System.err.println("Failed to save timing cache: " + e.getMessage());
+        }
+    }
+    
+    private void load() {
+        if (cacheFile == null || !cacheFile.exists()) return;
+        
+        try (InputStream in = new FileInputStream(cacheFile)) {
+            timings.load(in);
+        } catch (IOException e) {
+            System.err.println("Failed to load timing cache: " + e.getMessage());
+        }
+    }
+    
+    private void evictOldest() {
+        int excess = timings.size() - MAX_ENTRIES;
+        if (excess <= 0) return;
+        
+        List<String> keys = new ArrayList<>(timings.stringPropertyNames());
+        keys.sort(Comparator.comparingLong(key -> lastUsed(timings.getProperty(key))));
+        for (String key : keys.subList(0, excess)) {
+            timings.remove(key);
+        }
+    }
+    
+    private String keyFor(File classFile) {
+        String archiveKey = archiveKeys.get(classFile);
+        if (archiveKey != null) return archiveKey;
+        
+        // Size and mtime in the key make a rebuilt class miss instead of reusing a stale timing
+        return classFile.getAbsolutePath() + "|" + classFile.length() + "|" + classFile.lastModified();
+    }
+    
+    // "units,nanos" from older files, "units,nanos,lastUsed" since eviction was added
+    private long[] parseEntry(String value) {
+        if (value == null) return null;
+        
+        String[] fields = value.split(",");
+        if (fields.length < 2) return null;
+        
+        try {
+            return new long[] {
+                Long.parseLong(fields[0]),
+                Long.parseLong(fields[1])
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private long lastUsed(String value) {
+        String[] fields = value.split(",");
+        try {
+            return fields.length > 2 ? Long.parseLong(fields[2]) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,474 @@
+package application.services;
+
+import application.analysis.TypeHierarchy;
+import application.models.AnalysisTier;
+import application.models.ClassFileSummary;
+import application.models.ClassFileSummary.MemberReference;
+import application.models.ClassFileSummary.MemberReferenceKind;
+import application.models.ClassFileSummary.MethodSummary;
+import application.models.LazyValue;
+import application.models.SecurityIssue;
+import application.models.SecuritySeverity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Deserialization and reflection risks that only show across a whole archive: which classes are Serializable through
+// any chain of supertypes, which readObject and Class.forName sites public code can reach, and which custom readObject
+// bodies lead into reflection or process execution. Each class is added once, as the bytecode scan reads it, and kept
+// as a compact list of calls; analyze() resolves those against the type hierarchy.
+public class ArchiveRiskService {
+    
+    private static final String SERIALIZABLE = "java/io/Serializable";
+    private static final String OBJECT_INPUT_STREAM = "java/io/ObjectInputStream";
+    private static final String OBJECT_INPUT = "java/io/ObjectInput";
+    private static final String XML_DECODER = "java/beans/XMLDecoder";
+    private static final String CLASS_LOADER = "java/lang/ClassLoader";
+    private static final String RESOLVE_CLASS = "resolveClass(Ljava/io/ObjectStreamClass;)Ljava/lang/Class;";
+    
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PROTECTED = 0x0004;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    
+    // Methods the serialization machinery calls on a Serializable class, as name plus descriptor
+    private static final Set<String> SERIALIZATION_CALLBACKS = Set.of(
+        "readObject(Ljava/io/ObjectInputStream;)V", "readObjectNoData()V",
+        "readResolve()Ljava/lang/Object;", "readExternal(Ljava/io/ObjectInput;)V");
+    
+    private static final LazyValue<String> DESERIALIZATION_RECOMMENDATION = LazyValue.of(
+        "Set an ObjectInputFilter that allows only the expected classes, or override resolveClass to reject " +
+        "everything else; prefer a data format such as JSON for untrusted input");
+    private static final LazyValue<String> GADGET_RECOMMENDATION = LazyValue.of(
+        "Keep readObject to restoring fields: validate them, and do not call reflection, process execution " +
+        "or other deserialization from it");
+    private static final LazyValue<String> REFLECTION_RECOMMENDATION = LazyValue.of(
+        "Map external input to an allow-list of known classes and methods instead of passing it to " +
+        "Class.forName or getMethod");
+    
+    private enum SiteKind {
+        DESERIALIZE, INPUT_FILTER, CLASS_LOOKUP, MEMBER_LOOKUP, REFLECTIVE_CALL, EXEC
+    }
+    
+    private final TypeHierarchy hierarchy = new TypeHierarchy();
+    private final Map<String, ClassRecord> classes = new LinkedHashMap<>();
+    // Concrete methods by name plus descriptor, the candidates for virtual dispatch
+    private final Map<String, List<MethodRecord>> implementations = new HashMap<>();
+    // One shared record per distinct call, by owner and then name plus descriptor
+    private final Map<String, Map<String, CallTarget>> callTargets = new HashMap<>();
+    
+    public synchronized void add(ClassFileSummary summary) {
+        String className = summary.getClassName();
+        if (classes.containsKey(className)) return;
+        
+        hierarchy.add(className, summary.getSuperClassName(), summary.getInterfaceNames(),
+                      (summary.getAccessFlags() & ACC_INTERFACE) != 0);
+        
+        ClassRecord record = new ClassRecord(className, summary.getAccessFlags());
+        for (MethodSummary method : summary.getMethods()) {
+            MethodRecord methodRecord = new MethodRecord(record, method.getName() + method.getDescriptor(),
+                                                         method.getAccessFlags(), method.getFirstLine());
+            for (MemberReference ref : method.getReferences()) {
+                SiteKind kind = siteKind(ref);
+                if (kind != null) {
+                    methodRecord.sites.add(new Site(kind, methodRecord, ref.getOwner(), ref.getName(),
+                                                    ref.getLineNumber()));
+                } else if (!isPlatformType(ref.getOwner())) {
+                    if (ref.getKind() == MemberReferenceKind.INVOKE) {
+                        CallTarget callTarget = callTarget(ref.getOwner(), ref.getName() + ref.getDescriptor());
+                        if (callTarget.lastCaller != methodRecord) {
+                            callTarget.callers.add(methodRecord);
+                            callTarget.lastCaller = methodRecord;
+                            methodRecord.calls.add(callTarget);
+                        }
+                    } else if (ref.getKind() == MemberReferenceKind.NEW) {
+                        methodRecord.instantiated.add(ref.getOwner());
+                    }
+                }
+            }
+            record.methods.put(methodRecord.signature, methodRecord);
+            if ((method.getAccessFlags() & ACC_ABSTRACT) == 0 && !method.getName().startsWith("<")) {
+                implementations.computeIfAbsent(methodRecord.signature, key -> new ArrayList<>()).add(methodRecord);
+            }
+        }
+        classes.put(className, record);
+    }
+    
+    public synchronized List<SecurityIssue> analyze() {
+        // Classes added since the last analysis can add targets to any call
+        for (Map<String, CallTarget> byOwner : callTargets.values()) {
+            for (CallTarget callTarget : byOwner.values()) callTarget.targets = null;
+        }
+        
+        Map<MethodRecord, MethodRecord> entryOf = reachableFromEntryPoints();
+        Map<MethodRecord, Site> nearestSink = nearestDangerousSites();
+        List<SecurityIssue> issues = new ArrayList<>();
+        
+        List<MethodRecord> callbacks = new ArrayList<>();
+        for (ClassRecord record : classes.values()) {
+            if (!hierarchy.isSubtype(record.name, SERIALIZABLE)) continue;
+            for (MethodRecord method : record.methods.values()) {
+                if (SERIALIZATION_CALLBACKS.contains(method.signature)) callbacks.add(method);
+            }
+        }
+        
+        for (MethodRecord callback : callbacks) {
+            Site sink = nearestSink.get(callback);
+            if (sink != null) {
+                issues.add(issue("DESERIALIZATION_GADGET",
+                    "Serializable " + simpleName(callback.owner.name) + "." + callback.name() +
+                    (sink.method == callback ? " calls " + describe(sink)
+                        : " reaches " + describe(sink) + " in " + simpleName(sink.method.owner.name) + "." +
+                          sink.method.name()) + "; deserializing it can run that code",
+                    callback, callback.firstLine, GADGET_RECOMMENDATION,
+                    SecuritySeverity.HIGH));
+            }
+        }
+        
+        for (Map.Entry<MethodRecord, MethodRecord> reached : entryOf.entrySet()) {
+            MethodRecord method = reached.getKey();
+            String via = method == reached.getValue() ? ""
+                : ", reachable from " + simpleName(reached.getValue().owner.name) + "." + reached.getValue().name();
+            boolean hasNameLookup = false;
+            boolean filtered = false;
+            for (Site site : method.sites) {
+                hasNameLookup |= site.kind == SiteKind.CLASS_LOOKUP || site.kind == SiteKind.MEMBER_LOOKUP;
+                filtered |= site.kind == SiteKind.INPUT_FILTER;
+            }
+            
+            for (Site site : method.sites) {
+                switch (site.kind) {
+                    case DESERIALIZE:
+                        // Inside readObject the stream is the one already being read; the outer call is reported
+                        if (!isDeserializationCall(site) || SERIALIZATION_CALLBACKS.contains(method.signature)) break;
+                        boolean restricted = filtered || createsRestrictedStream(method);
+                        issues.add(issue("UNSAFE_DESERIALIZATION",
+                            describe(site) + " in " + simpleName(method.owner.name) + "." + method.name() + via +
+                            (restricted ? "; the stream is restricted, check that the allowed classes are safe"
+                                        : "; the stream accepts any class on the classpath, including the " +
+                                          callbacks.size() + " Serializable classes in this archive with custom reads"),
+                            method, site.line, DESERIALIZATION_RECOMMENDATION,
+                            restricted ? SecuritySeverity.MEDIUM : SecuritySeverity.HIGH));
+                        break;
+                    case CLASS_LOOKUP:
+                        if (!isClassLookup(site)) break;
+                        issues.add(issue("UNSAFE_REFLECTION",
+                            describe(site) + " with a class name that is not a constant in " +
+                            simpleName(method.owner.name) + "." + method.name() + via,
+                            method, site.line, REFLECTION_RECOMMENDATION, SecuritySeverity.HIGH));
+                        break;
+                    case MEMBER_LOOKUP:
+                        issues.add(issue("UNSAFE_REFLECTION",
+                            describe(site) + " with a member name that is not a constant in " +
+                            simpleName(method.owner.name) + "." + method.name() + via,
+                            method, site.line, REFLECTION_RECOMMENDATION, SecuritySeverity.MEDIUM));
+                        break;
+                    case REFLECTIVE_CALL:
+                        if (!hasNameLookup) break;
+                        issues.add(issue("UNSAFE_REFLECTION",
+                            describe(site) + " on a class or method looked up by a name that is not a constant in " +
+                            simpleName(method.owner.name) + "." + method.name() + via,
+                            method, site.line, REFLECTION_RECOMMENDATION, SecuritySeverity.HIGH));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        
+        issues.sort(Comparator.comparing(SecurityIssue::getResource).thenComparingInt(SecurityIssue::getLineNumber));
+        return issues;
+    }
+    
+    // Public and protected methods of public classes, static initializers and serialization callbacks are where
+    // outside code gets in; the call graph is followed from there, mapping each method to the entry that reached it
+    private Map<MethodRecord, MethodRecord> reachableFromEntryPoints() {
+        Map<MethodRecord, MethodRecord> entryOf = new LinkedHashMap<>();
+        Deque<MethodRecord> queue = new ArrayDeque<>();
+        for (ClassRecord record : classes.values()) {
+            boolean publicClass = (record.accessFlags & ACC_PUBLIC) != 0;
+            boolean serializable = hierarchy.isSubtype(record.name, SERIALIZABLE);
+            for (MethodRecord method : record.methods.values()) {
+                boolean exposed = publicClass && (method.accessFlags & (ACC_PUBLIC | ACC_PROTECTED)) != 0;
+                if (exposed || method.signature.startsWith("<clinit>") ||
+                    (serializable && SERIALIZATION_CALLBACKS.contains(method.signature))) {
+                    entryOf.put(method, method);
+                    queue.add(method);
+                }
+                // Outside callers of an exposed abstract or overridable method land in its overrides
+                if (exposed) {
+                    for (MethodRecord target : targets(callTarget(record.name, method.signature))) {
+                        if (entryOf.putIfAbsent(target, method) == null) queue.add(target);
+                    }
+                }
+            }
+        }
+        
+        // A call target is expanded once, however many reached methods make that call
+        Set<CallTarget> expanded = new HashSet<>();
+        while (!queue.isEmpty()) {
+            MethodRecord method = queue.poll();
+            MethodRecord entry = entryOf.get(method);
+            for (CallTarget callTarget : method.calls) {
+                if (!expanded.add(callTarget)) continue;
+                for (MethodRecord target : targets(callTarget)) {
+                    if (entryOf.putIfAbsent(target, entry) == null) queue.add(target);
+                }
+            }
+        }
+        return entryOf;
+    }
+    
+    // Breadth-first backwards from every site that runs code chosen by the data (reflection, exec, nested
+    // deserialization), so each method learns the closest such site below it in one pass over the call graph
+    private Map<MethodRecord, Site> nearestDangerousSites() {
+        Map<MethodRecord, List<CallTarget>> dispatchedFrom = new HashMap<>();
+        for (Map<String, CallTarget> byOwner : callTargets.values()) {
+            for (CallTarget callTarget : byOwner.values()) {
+                if (callTarget.callers.isEmpty()) continue;
+                for (MethodRecord target : targets(callTarget)) {
+                    dispatchedFrom.computeIfAbsent(target, key -> new ArrayList<>()).add(callTarget);
+                }
+            }
+        }
+        
+        Map<MethodRecord, Site> nearest = new HashMap<>();
+        Deque<MethodRecord> queue = new ArrayDeque<>();
+        for (ClassRecord record : classes.values()) {
+            for (MethodRecord method : record.methods.values()) {
+                for (Site site : method.sites) {
+                    if (isDangerous(site)) {
+                        nearest.put(method, site);
+                        queue.add(method);
+                        break;
+                    }
+                }
+            }
+        }
+        
+        Set<CallTarget> expanded = new HashSet<>();
+        while (!queue.isEmpty()) {
+            MethodRecord method = queue.poll();
+            Site site = nearest.get(method);
+            for (CallTarget callTarget : dispatchedFrom.getOrDefault(method, Collections.emptyList())) {
+                if (!expanded.add(callTarget)) continue;
+                for (MethodRecord caller : callTarget.callers) {
+                    if (nearest.putIfAbsent(caller, site) == null) queue.add(caller);
+                }
+            }
+        }
+        return nearest;
+    }
+    
+    private boolean isDangerous(Site site) {
+        switch (site.kind) {
+            case EXEC:
+            case REFLECTIVE_CALL:
+                return true;
+            case CLASS_LOOKUP:
+                return isClassLookup(site);
+            case DESERIALIZE:
+                // readObject reading its own fields is how custom serialization works, not a nested stream
+                return isDeserializationCall(site) && !SERIALIZATION_CALLBACKS.contains(site.method.signature);
+            default:
+                return false;
+        }
+    }
+    
+    private CallTarget callTarget(String owner, String signature) {
+        return callTargets.computeIfAbsent(owner, key -> new HashMap<>())
+                          .computeIfAbsent(signature, key -> new CallTarget(owner, signature));
+    }
+    
+    // Class hierarchy analysis: the implementation the owner inherits, plus every override below the owner
+    private List<MethodRecord> targets(CallTarget callTarget) {
+        if (callTarget.targets != null) return callTarget.targets;
+        
+        String owner = callTarget.owner;
+        String signature = callTarget.signature;
+        List<MethodRecord> targets = new ArrayList<>();
+        for (String type = owner; type != null && classes.containsKey(type); type = hierarchy.getSuperName(type)) {
+            MethodRecord declared = classes.get(type).methods.get(signature);
+            if (declared != null) {
+                targets.add(declared);
+                break;
+            }
+        }
+        // Overrides are found from whichever side is smaller: the classes implementing the signature, each checked
+        // against the owner's subtype ranges, or the owner's subtypes, each checked for the signature
+        if (!signature.startsWith("<") && classes.containsKey(owner)) {
+            List<MethodRecord> candidates = implementations.getOrDefault(signature, Collections.emptyList());
+            if (candidates.size() <= hierarchy.subtypeCount(owner)) {
+                for (MethodRecord candidate : candidates) {
+                    String type = candidate.owner.name;
+                    if (!type.equals(owner) && hierarchy.isSubtype(type, owner)) targets.add(candidate);
+                }
+            } else {
+                hierarchy.forEachSubtype(owner, type -> {
+                    ClassRecord record = classes.get(type);
+                    if (record == null || type.equals(owner)) return;
+                    
+                    MethodRecord override = record.methods.get(signature);
+                    if (override != null && (override.accessFlags & ACC_ABSTRACT) == 0) targets.add(override);
+                });
+            }
+        }
+        
+        callTarget.targets = targets;
+        return targets;
+    }
+    
+    private boolean isDeserializationCall(Site site) {
+        return site.owner.equals(XML_DECODER) || site.owner.equals(OBJECT_INPUT) ||
+               hierarchy.isSubtype(site.owner, OBJECT_INPUT_STREAM);
+    }
+    
+    private boolean isClassLookup(Site site) {
+        return site.owner.equals("java/lang/Class") || hierarchy.isSubtype(site.owner, CLASS_LOADER);
+    }
+    
+    // A stream subclass from this archive that overrides resolveClass is taken to check what it loads
+    private boolean createsRestrictedStream(MethodRecord method) {
+        for (String type : method.instantiated) {
+            if (!hierarchy.isSubtype(type, OBJECT_INPUT_STREAM)) continue;
+            for (String current = type; current != null && classes.containsKey(current);
+                 current = hierarchy.getSuperName(current)) {
+                if (classes.get(current).methods.containsKey(RESOLVE_CLASS)) return true;
+            }
+        }
+        return false;
+    }
+    
+    private static SiteKind siteKind(MemberReference ref) {
+        if (ref.getKind() != MemberReferenceKind.INVOKE) return null;
+        
+        String owner = ref.getOwner();
+        String name = ref.getName();
+        String descriptor = ref.getDescriptor();
+        boolean constantName = ref.getLeadingStringArgument() != null;
+        
+        if ((name.equals("readObject") || name.equals("readUnshared")) && descriptor.equals("()Ljava/lang/Object;")) {
+            return SiteKind.DESERIALIZE;
+        }
+        if (name.equals("setObjectInputFilter")) return SiteKind.INPUT_FILTER;
+        if (name.equals("forName") && owner.equals("java/lang/Class") ||
+            name.equals("loadClass") && descriptor.startsWith("(Ljava/lang/String;")) {
+            return constantName ? null : SiteKind.CLASS_LOOKUP;
+        }
+        if (owner.equals("java/lang/Class")) {
+            switch (name) {
+                case "getMethod":
+                case "getDeclaredMethod":
+                case "getField":
+                case "getDeclaredField":
+                    return constantName ? null : SiteKind.MEMBER_LOOKUP;
+                case "newInstance":
+                    return SiteKind.REFLECTIVE_CALL;
+                default:
+                    return null;
+            }
+        }
+        if (owner.equals("java/lang/reflect/Method") && name.equals("invoke") ||
+            owner.equals("java/lang/reflect/Constructor") && name.equals("newInstance")) {
+            return SiteKind.REFLECTIVE_CALL;
+        }
+        if (owner.equals("java/lang/Runtime") && name.equals("exec") ||
+            owner.equals("java/lang/ProcessBuilder") && name.equals("start")) {
+            return SiteKind.EXEC;
+        }
+        return null;
+    }
+    
+    private static boolean isPlatformType(String owner) {
+        return owner.isEmpty() || owner.startsWith("java/") || owner.startsWith("javax/") ||
+               owner.startsWith("jdk/") || owner.startsWith("sun/") || owner.startsWith("[");
+    }
+    
+    private static String describe(Site site) {
+        return simpleName(site.owner) + "." + site.name;
+    }
+    
+    private static String simpleName(String internalName) {
+        return internalName.substring(internalName.lastIndexOf('/') + 1);
+    }
+    
+    private static SecurityIssue issue(String type, String description, MethodRecord method, int line,
+                                       LazyValue<String> recommendation, SecuritySeverity severity) {
+        return new SecurityIssue(type, description, method.owner.name.replace('/', '.'), line,
+                                 method.owner.name.replace('/', '.') + "." + method.name() + "()",
+                                 recommendation, severity, AnalysisTier.BYTECODE);
+    }
+    
+    private static class ClassRecord {
+        final String name;
+        final int accessFlags;
+        final Map<String, MethodRecord> methods = new LinkedHashMap<>();
+        
+        ClassRecord(String name, int accessFlags) {
+            this.name = name;
+            this.accessFlags = accessFlags;
+        }
+    }
+    
+    private static class MethodRecord {
+        final ClassRecord owner;
+        // Name followed by descriptor, e.g. readObject(Ljava/io/ObjectInputStream;)V
+        final String signature;
+        final int accessFlags;
+        final int firstLine;
+        // Calls into types that are not part of the platform, each distinct call once
+        final List<CallTarget> calls = new ArrayList<>();
+        final List<String> instantiated = new ArrayList<>();
+        final List<Site> sites = new ArrayList<>();
+        
+        MethodRecord(ClassRecord owner, String signature, int accessFlags, int firstLine) {
+            this.owner = owner;
+            this.signature = signature;
+            this.accessFlags = accessFlags;
+            this.firstLine = firstLine;
+        }
+        
+        String name() {
+            return signature.substring(0, signature.indexOf('('));
+        }
+    }
+    
+    // One call as written, shared by every method that makes it; analyze() resolves the implementations it can reach
+    private static class CallTarget {
+        final String owner;
+        final String signature;
+        final List<MethodRecord> callers = new ArrayList<>();
+        MethodRecord lastCaller;
+        List<MethodRecord> targets;
+        
+        CallTarget(String owner, String signature) {
+            this.owner = owner;
+            this.signature = signature;
+        }
+    }
+    
+    private static class Site {
+        final SiteKind kind;
+        final MethodRecord method;
+        final String owner;
+        final String name;
+        final int line;
+        
+        Site(SiteKind kind, MethodRecord method, String owner, String name, int line) {
+            this.kind = kind;
+            this.method = method;
+            this.owner = owner;
+            this.name = name;
+            this.line = line;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,452 @@
+package application.services;
+
+import application.analysis.TaintCatalog;
+import application.analysis.TaintSummaries;
+import application.models.AnalysisTier;
+import application.models.BatchAnalysisReport;
+import application.models.BatchTaskResult;
+import application.models.ClassAnalysisResult;
+import application.models.ClassFileSummary;
+import application.models.SecurityIssue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class BatchAnalysisService {
+    
+    private final AnalysisPipeline pipeline;
+    private final AnalysisTimingCache timingCache;
+    private final ClassCostEstimator costEstimator;
+    private final ResultStore resultStore;
+    private final ResultMemoryBudget memoryBudget;
+    private final ResourceScanService resourceScanner = new ResourceScanService();
+    private final DependencyScanService dependencyScanner = new DependencyScanService();
+    private final int workerCount;
+    private final File summariesFile;
+    private AnalysisTier maxTier = AnalysisTier.DEEP;
+    private List<SecurityIssue> archiveRisks = Collections.emptyList();
+    private Map<File, ClassAnalysisResult> quickResults = Collections.emptyMap();
+    // Temporary directories JARs were extracted to, removed again by shutdown()
+    private final List<Path> extractDirectories = Collections.synchronizedList(new ArrayList<>());
+    
+    public BatchAnalysisService(int workerCount) throws IOException {
+        this(workerCount, ResultMemoryBudget.defaultBudgetBytes());
+    }
+    
+    public BatchAnalysisService(int workerCount, long memoryBudgetBytes) throws IOException {
+        this(new AnalysisPipeline(), new AnalysisTimingCache(AnalysisTimingCache.defaultCacheFile()),
+             TaintSummaries.defaultCacheFile(), new ResultStore(), workerCount, memoryBudgetBytes);
+    }
+    
+    // A null summariesFile rebuilds the taint summaries from scratch on every run
+    public BatchAnalysisService(AnalysisPipeline pipeline, AnalysisTimingCache timingCache, File summariesFile,
+                                ResultStore resultStore, int workerCount, long memoryBudgetBytes) {
+        this.pipeline = pipeline;
+        this.timingCache = timingCache;
+        this.costEstimator = new ClassCostEstimator(timingCache);
+        this.resultStore = resultStore;
+        this.memoryBudget = new ResultMemoryBudget(memoryBudgetBytes, resultStore, pipeline::supplyAbsentData);
+        this.workerCount = Math.max(1, workerCount);
+        this.summariesFile = summariesFile;
+    }
+    
+    public void setMaxTier(AnalysisTier maxTier) {
+        this.maxTier = maxTier;
+    }
+    
+    public AnalysisTier getMaxTier() {
+        return maxTier;
+    }
+    
+    // Each class file is read once, spread over the worker pool; the same summary feeds the per-class scan and
+    // the archive-wide risk index, and the scan results are kept so the later tiers start from them
+    public Map<File, ClassAnalysisResult> quickScan(List<File> classFiles) throws InterruptedException {
+        Map<File, List<File>> nestedClassFiles = findNestedClassFiles(classFiles);
+        ArchiveRiskService risks = new ArchiveRiskService();
+        Map<File, ClassAnalysisResult> results = new LinkedHashMap<>();
+        
+        ExecutorService executor = newWorkerPool("scan-worker");
+        try {
+            List<Future<ScannedClass>> scans = new ArrayList<>();
+            for (File classFile : classFiles) {
+                scans.add(executor.submit(() -> scan(classFile, nestedClassFiles)));
+            }
+            
+            // Consumed in input order so the risk index, and with it the report, does not depend on timing
+            for (int i = 0; i < scans.size(); i++) {
+                ScannedClass scanned;
+                try {
+                    scanned = scans.get(i).get();
+                } catch (ExecutionException e) {
+                    scanned = new ScannedClass(null, Collections.emptyList());
+                }
+                scans.set(i, null);
+                
+                results.put(classFiles.get(i), scanned.result);
+                scanned.summaries.forEach(risks::add);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        archiveRisks = risks.analyze();
+        quickResults = results;
+        return results;
+    }
+    
+    private ScannedClass scan(File classFile, Map<File, List<File>> nestedClassFiles) {
+        List<ClassFileSummary> summaries = new ArrayList<>();
+        ClassFileSummary summary = pipeline.readClassFile(classFile);
+        if (summary != null) summaries.add(summary);
+        
+        for (File nestedFile : nestedClassFiles.getOrDefault(classFile, Collections.emptyList())) {
+            ClassFileSummary nested = pipeline.readClassFile(nestedFile);
+            if (nested != null) summaries.add(nested);
+        }
+        return new ScannedClass(summary != null ? pipeline.quickScan(summary) : null, summaries);
+    }
+    
+    // Deserialization and reflection findings that span classes, from the last quickScan
+    public List<SecurityIssue> getArchiveRisks() {
+        return archiveRisks;
+    }
+    
+    // Nested classes are not scheduled on their own, but their bytecode belongs in the type hierarchy and call graph
+    private Map<File, List<File>> findNestedClassFiles(List<File> classFiles) {
+        Map<File, File> outerByStem = new HashMap<>();
+        Set<File> directories = new LinkedHashSet<>();
+        for (File classFile : classFiles) {
+            File directory = classFile.getAbsoluteFile().getParentFile();
+            String name = classFile.getName();
+            outerByStem.put(new File(directory, name.substring(0, name.length() - ".class".length())), classFile);
+            directories.add(directory);
+        }
+        
+        Map<File, List<File>> nested = new HashMap<>();
+        for (File directory : directories) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".class") && name.indexOf('$') > 0);
+            if (files == null) continue;
+            
+            Arrays.sort(files);
+            for (File file : files) {
+                String name = file.getName();
+                File outer = outerByStem.get(new File(directory, name.substring(0, name.indexOf('$'))));
+                if (outer != null) nested.computeIfAbsent(outer, key -> new ArrayList<>()).add(file);
+            }
+        }
+        return nested;
+    }
+    
+    // Credentials in the properties, yml, xml and json files that ship next to the classes
+    public List<SecurityIssue> scanResources(File input) throws IOException {
+        return resourceScanner.scan(input);
+    }
+    
+    // Bundled libraries with known vulnerabilities, matched offline against the local vulnerability index
+    public List<SecurityIssue> scanDependencies(File input) throws IOException {
+        return dependencyScanner.scan(input);
+    }
+    
+    public BatchAnalysisReport analyze(File input) throws IOException, InterruptedException {
+        return analyzeClassFiles(collectClassFiles(input));
+    }
+    
+    public BatchAnalysisReport analyzeClassFiles(List<File> classFiles) throws InterruptedException {
+        List<WorkItem> items = new ArrayList<>();
+        for (File classFile : classFiles) {
+            long units = costEstimator.estimateUnits(classFile);
+            items.add(new WorkItem(classFile, units, costEstimator.estimateNanos(classFile, units)));
+        }
+        
+        // Largest-first (LPT): the estimates cover both passes of a class, so both are placed the same way
+        items.sort(Comparator.comparingLong((WorkItem item) -> item.estimatedNanos).reversed());
+        long[] predictedLoads = new long[workerCount];
+        List<ConcurrentLinkedDeque<WorkItem>> queues = placeItems(items, predictedLoads);
+        
+        long predictedMakespan = 0;
+        for (long load : predictedLoads) {
+            predictedMakespan = Math.max(predictedMakespan, load);
+        }
+        
+        long start = System.nanoTime();
+        // Every class is summarized before any is analyzed, so taint can be followed across class boundaries
+        if (maxTier == AnalysisTier.DEEP) {
+            // Methods whose bodies are unchanged since the last run keep their descriptions and summaries
+            TaintSummaries summaries = TaintSummaries.load(summariesFile, TaintCatalog.getDefault());
+            Set<String> unitKeys = ConcurrentHashMap.newKeySet();
+            runWorkers("summary-worker", queues, (item, workerIndex, stolen) -> summarizeItem(item, summaries, unitKeys));
+            summaries.retainUnits(unitKeys);
+            summaries.solve();
+            summaries.save(summariesFile);
+            pipeline.setTaintSummaries(summaries);
+            queues = placeItems(items, new long[workerCount]);
+        }
+        
+        List<BatchTaskResult> results = Collections.synchronizedList(new ArrayList<>());
+        runWorkers("batch-worker", queues, (item, workerIndex, stolen) -> results.add(analyzeItem(item, workerIndex, stolen)));
+        long actualMakespan = System.nanoTime() - start;
+        
+        costEstimator.calibrate();
+        timingCache.save();
+        
+        List<BatchTaskResult> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparing(task -> task.getClassFile().getPath()));
+        return new BatchAnalysisReport(ordered, workerCount, predictedMakespan, actualMakespan,
+                                       memoryBudget.getSpilledCount(), memoryBudget.getSpilledBytes());
+    }
+    
+    // Each item, largest first, goes to the currently lightest worker
+    private List<ConcurrentLinkedDeque<WorkItem>> placeItems(List<WorkItem> items, long[] predictedLoads) {
+        List<ConcurrentLinkedDeque<WorkItem>> queues = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            queues.add(new ConcurrentLinkedDeque<>());
+        }
+        for (WorkItem item : items) {
+            int lightest = 0;
+            for (int i = 1; i < workerCount; i++) {
+                if (predictedLoads[i] < predictedLoads[lightest]) lightest = i;
+            }
+            predictedLoads[lightest] += item.estimatedNanos;
+            queues.get(lightest).addLast(item);
+        }
+        return queues;
+    }
+    
+    private void runWorkers(String threadName, List<ConcurrentLinkedDeque<WorkItem>> queues, ItemTask task)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(workerCount);
+        ExecutorService executor = newWorkerPool(threadName);
+        for (int i = 0; i < workerCount; i++) {
+            final int workerIndex = i;
+            executor.execute(() -> {
+                try {
+                    runWorker(workerIndex, queues, task);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        
+        try {
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private ExecutorService newWorkerPool(String threadName) {
+        return Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private void runWorker(int workerIndex, List<ConcurrentLinkedDeque<WorkItem>> queues, ItemTask task) {
+        ConcurrentLinkedDeque<WorkItem> ownQueue = queues.get(workerIndex);
+        
+        while (true) {
+            boolean stolen = false;
+            WorkItem item = ownQueue.pollFirst();
+            
+            if (item == null) {
+                // Steal from the tail, where the victim keeps its smallest items
+                for (int offset = 1; offset < queues.size() && item == null; offset++) {
+                    item = queues.get((workerIndex + offset) % queues.size()).pollLast();
+                }
+                stolen = item != null;
+            }
+            
+            if (item == null) return;
+            
+            task.run(item, workerIndex, stolen);
+        }
+    }
+    
+    // The parsed unit is kept for the analysis pass unless the heap needs it back first
+    private void summarizeItem(WorkItem item, TaintSummaries summaries, Set<String> unitKeys) {
+        long start = System.nanoTime();
+        try {
+            AnalysisPipeline.ParsedClass parsed = pipeline.parse(item.classFile);
+            String unitKey = summaries.addUnit(parsed.getCompilationUnit());
+            if (unitKey != null) unitKeys.add(unitKey);
+            item.parsed = new SoftReference<>(parsed);
+        } catch (Exception e) {
+            // The analysis pass reports the same failure for this class
+        }
+        item.summaryNanos = System.nanoTime() - start;
+    }
+    
+    private BatchTaskResult analyzeItem(WorkItem item, int workerIndex, boolean stolen) {
+        long start = System.nanoTime();
+        ResultHandle result = null;
+        String error = null;
+        
+        try {
+            // Classes the last quickScan covered, including failed ones, are not read again
+            ClassAnalysisResult quickResult = quickResults.containsKey(item.classFile)
+                ? quickResults.get(item.classFile) : pipeline.quickScan(item.classFile);
+            AnalysisPipeline.ParsedClass parsed = item.parsed != null ? item.parsed.get() : null;
+            item.parsed = null;
+            
+            ClassAnalysisResult analysis = pipeline.analyze(item.classFile, quickResult, parsed, maxTier,
+                                                            message -> { }, tierResult -> { });
+            result = memoryBudget.admit(analysis);
+        } catch (Exception e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        
+        // A class's time includes its share of the summary pass, which is where it was decompiled and parsed
+        long elapsed = item.summaryNanos + System.nanoTime() - start;
+        // Timings of truncated runs would skew the full-analysis cost model
+        if (error == null && maxTier == AnalysisTier.DEEP) {
+            costEstimator.recordActual(item.classFile, item.costUnits, elapsed);
+        }
+        
+        return new BatchTaskResult(item.classFile, result, error, item.estimatedNanos,
+                                   elapsed, workerIndex, stolen);
+    }
+    
+    public List<File> collectClassFiles(File input) throws IOException {
+        if (input.isDirectory()) {
+            try (Stream<Path> paths = Files.walk(input.toPath())) {
+                return paths.filter(this::isTopLevelClass)
+                            .map(Path::toFile)
+                            .collect(Collectors.toList());
+            }
+        }
+        
+        if (input.getName().endsWith(".jar")) {
+            return extractJar(input);
+        }
+        
+        if (input.getName().endsWith(".class")) {
+            return Collections.singletonList(input);
+        }
+        
+        throw new IllegalArgumentException("Input must be a .class file, a directory or a .jar archive");
+    }
+    
+    private List<File> extractJar(File jarFile) throws IOException {
+        Path extractDirectory = Files.createTempDirectory("java_analyzer_jar");
+        extractDirectories.add(extractDirectory);
+        List<File> classFiles = new ArrayList<>();
+        
+        try (ZipFile zip = new ZipFile(jarFile)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().endsWith(".class")) continue;
+                
+                Path target = extractDirectory.resolve(entry.getName()).normalize();
+                if (!target.startsWith(extractDirectory)) {
+                    throw new IOException("Archive entry escapes extraction directory: " + entry.getName());
+                }
+                
+                Files.createDirectories(target.getParent());
+                try (InputStream in = zip.getInputStream(entry)) {
+                    Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                timingCache.registerArchiveEntry(target.toFile(), entry.getName(), entry.getSize(), entry.getCrc());
+                
+                if (isTopLevelClass(target)) {
+                    classFiles.add(target.toFile());
+                }
+            }
+        }
+        
+        return classFiles;
+    }
+    
+    private boolean isTopLevelClass(Path path) {
+        String name = path.getFileName().toString();
+        // CFR folds nested classes into their outer class, so they are not scheduled separately
+        return name.endsWith(".class") && !name.contains("$") && !name.equals("module-info.class");
+    }
+    
+    public void shutdown() {
+        pipeline.getDecompilerService().cleanup();
+        resultStore.close();
+        
+        synchronized (extractDirectories) {
+            for (Path extractDirectory : extractDirectories) {
+                timingCache.forgetArchiveEntries(extractDirectory.toFile());
+                deleteRecursively(extractDirectory);
+            }
+            extractDirectories.clear();
+        }
+    }
+    
+    private static void deleteRecursively(Path directory) {
+        if (!Files.exists(directory)) return;
+        
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a))
+                 .forEach(path -> {
+                     try {
+                         Files.delete(path);
+                     } catch (IOException e) {
+                         System.err.println("Failed to delete: " + path);
+                     }
+                 });
+        } catch (IOException e) {
+            System.err.println("Failed to remove extracted classes: " + e.getMessage());
+        }
+    }
+    
+    private static class ScannedClass {
+        final ClassAnalysisResult result;
+        final List<ClassFileSummary> summaries;
+        
+        ScannedClass(ClassAnalysisResult result, List<ClassFileSummary> summaries) {
+            this.result = result;
+            this.summaries = summaries;
+        }
+    }
+    
+    private interface ItemTask {
+        void run(WorkItem item, int workerIndex, boolean stolen);
+    }
+    
+    private static class WorkItem {
+        final File classFile;
+        final long costUnits;
+        final long estimatedNanos;
+        // Filled by the summary pass of a DEEP run and read by the analysis pass after it
+        long summaryNanos;
+        SoftReference<AnalysisPipeline.ParsedClass> parsed;
+        
+        WorkItem(File classFile, long costUnits, long estimatedNanos) {
+            this.classFile = classFile;
+            this.costUnits = costUnits;
+            this.estimatedNanos = estimatedNanos;
+        }
+    }
+}
\ No newline at end of file
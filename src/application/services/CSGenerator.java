@@ -7,15 +7,259 @@ import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.type.Type;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class CSGenerator {
     
+    private static final SuggestionTemplate UNUSED_VARIABLE = SuggestionTemplate.compile(
+        "// Remove unused variable:\n" +
+        "// %s %s%s;\n\n" +
+        "// The variable '%s' is declared but never used.\n" +
+        "// Simply delete this line to clean up the code.");
+    
+    private static final SuggestionTemplate STRING_BUILDER_FOR_VARIABLE = SuggestionTemplate.compile(
+        "// Replace string concatenation with StringBuilder:\n" +
+        "StringBuilder %sSb = new StringBuilder(%s);\n" +
+        "%sSb.append(%s);\n" +
+        "%s = %sSb.toString();\n\n" +
+        "// This avoids creating multiple intermediate String objects in the loop");
+    
+    private static final SuggestionTemplate STRING_BUILDER = SuggestionTemplate.compile(
+        "// Use StringBuilder for efficient concatenation:\n" +
+        "StringBuilder sb = new StringBuilder();\n" +
+        "sb.append(%s).append(%s);\n" +
+        "String result = sb.toString();");
+    
+    private static final SuggestionTemplate LOOP_INVARIANT = SuggestionTemplate.compile(
+        "// Move expensive calculation outside the loop:\n" +
+        "double %s = %s;\n\n" +
+        "// Inside the loop, use the pre-calculated value:\n" +
+        "// ... use %s instead of %s");
+    
+    private static final SuggestionTemplate OBJECT_REUSE = SuggestionTemplate.compile(
+        "// Avoid unnecessary object creation:\n" +
+        "// Consider reusing existing %s instances or using object pooling");
+    
+    private static final SuggestionTemplate WRAPPER_VALUE_OF = SuggestionTemplate.compile(
+        "// Use valueOf() method for better performance:\n" +
+        "%s variable = %s.valueOf(%s);\n\n" +
+        "// valueOf() reuses cached instances for common values");
+    
+    private static final SuggestionTemplate INITIALIZATION = SuggestionTemplate.compile(
+        "// Initialize variable at declaration:\n" +
+        "%s %s = %s;\n\n" +
+        "// This prevents potential NullPointerException");
+    
+    private static final SuggestionTemplate PARAMETER_OBJECT = SuggestionTemplate.compile(
+        "// Consider reducing parameters using parameter object pattern:\n" +
+        "public class %sParams {\n" +
+        "    // Group related parameters into fields\n" +
+        "}\n\n" +
+        "public void %s(%sParams params) {\n" +
+        "    // Use params.field instead of individual parameters\n" +
+        "}");
+    
+    private static final SuggestionTemplate SHIFT_DIVISION = SuggestionTemplate.compile(
+        "// Optimize division by power of 2 using bit shifting:\n" +
+        "%s >> %d // Instead of %s / %d\n\n" +
+        "// Bit shifting is faster than division");
+    
+    private static final SuggestionTemplate AUTOBOXING = SuggestionTemplate.compile(
+        "// Avoid boxing on every iteration:\n" +
+        "// %s\n\n" +
+        "// Keep the value in a primitive local (or a primitive array) and box once after the loop");
+    
+    private static final SuggestionTemplate HOISTED_ALLOCATION = SuggestionTemplate.compile(
+        "// Allocate once before the loop and reuse it:\n" +
+        "// %s\n\n" +
+        "// Reset it at the start of each iteration with clear(), setLength(0) or Arrays.fill()");
+    
+    private static final SuggestionTemplate VARARGS_ARRAY = SuggestionTemplate.compile(
+        "// Each varargs call allocates a new argument array:\n" +
+        "// %s\n\n" +
+        "// Build the array or list once before the loop when the arguments do not change");
+    
+    private static final SuggestionTemplate CAPTURING_LAMBDA = SuggestionTemplate.compile(
+        "// A capturing lambda is a new object each time it is evaluated:\n" +
+        "// %s\n\n" +
+        "// Create it once before the loop, or pass the changing value as a parameter");
+    
+    private static final SuggestionTemplate FORMAT_IN_LOOP = SuggestionTemplate.compile(
+        "// Formatting parses the pattern on every call:\n" +
+        "// %s\n\n" +
+        "// Append the parts to a StringBuilder instead, or format once outside the loop");
+    
+    private static final SuggestionTemplate PRECOMPILED_SPLIT = SuggestionTemplate.compile(
+        "// Compile the separator once, outside the loop:\n" +
+        "private static final Pattern SEPARATOR = Pattern.compile(%s);\n\n" +
+        "// Inside the loop:\n" +
+        "String[] parts = SEPARATOR.split(%s);");
+    
+    private static final SuggestionTemplate HASHED_LOOKUP = SuggestionTemplate.compile(
+        "// Build a hash set once before the loop:\n" +
+        "Set<Object> lookup = new HashSet<>(%s);\n\n" +
+        "// Inside the loop, lookup.contains(x) is constant time instead of a full scan of:\n" +
+        "// %s");
+    
+    private static final SuggestionTemplate DEQUE_QUEUE = SuggestionTemplate.compile(
+        "// Use a deque for first-element removal and insertion:\n" +
+        "Deque<Object> %s = new ArrayDeque<>();\n\n" +
+        "// poll()/pollFirst() and addFirst() are O(1); instead of:\n" +
+        "// %s");
+    
+    private static final SuggestionTemplate ENTRY_SET = SuggestionTemplate.compile(
+        "// Iterate entries so each value comes with its key:\n" +
+        "for (Map.Entry<K, V> entry : %s.entrySet()) {\n" +
+        "    K key = entry.getKey();\n" +
+        "    V value = entry.getValue();\n" +
+        "}\n\n" +
+        "// Instead of: %s");
+    
+    private static final SuggestionTemplate UNSYNCHRONIZED_COLLECTION = SuggestionTemplate.compile(
+        "// Prefer the unsynchronized replacement:\n" +
+        "// %s\n\n" +
+        "// ArrayList, HashMap, ArrayDeque and StringBuilder skip the per-call lock;\n" +
+        "// use java.util.concurrent types when the object really is shared between threads");
+    
+    private static final SuggestionTemplate PRESIZED_COLLECTION = SuggestionTemplate.compile(
+        "// Give the collection its final size when it is created:\n" +
+        "// %s\n\n" +
+        "// This avoids repeated array copies or rehashing while the loop fills it");
+    
+    private static final SuggestionTemplate SEQUENTIAL_ACCESS = SuggestionTemplate.compile(
+        "// Walk the list with an iterator instead of indexing it:\n" +
+        "for (ListIterator<Object> it = %s.listIterator(); it.hasNext(); ) {\n" +
+        "    Object element = it.next();\n" +
+        "}\n\n" +
+        "// Or switch to an ArrayList; instead of: %s");
+    
+    private static final SuggestionTemplate TRY_WITH_RESOURCES = SuggestionTemplate.compile(
+        "// Open the resource in try-with-resources so it is closed on every path:\n" +
+        "try (%s) {\n" +
+        "    // use it here\n" +
+        "}\n\n" +
+        "// An early return or an exception no longer leaves the file handle or connection open");
+    
+    private static final SuggestionTemplate BUFFERED_IO = SuggestionTemplate.compile(
+        "// Put a buffer between the code and the file (BufferedInputStream, BufferedReader, ...):\n" +
+        "// new BufferedInputStream(%s)\n\n" +
+        "// Small reads and writes are then served from memory, one system call per 8 KB");
+    
+    private static final SuggestionTemplate BLOCK_READ = SuggestionTemplate.compile(
+        "// Read a block at a time instead of one byte per call:\n" +
+        "byte[] buffer = new byte[8192];\n" +
+        "int count;\n" +
+        "while ((count = %s.read(buffer)) != -1) {\n" +
+        "    // process buffer[0..count)\n" +
+        "}");
+    
+    private static final SuggestionTemplate STREAMED_READ = SuggestionTemplate.compile(
+        "// Stream the input instead of loading it whole:\n" +
+        "// try (BufferedReader reader = Files.newBufferedReader(path)) { ... }\n" +
+        "// try (Stream<String> lines = Files.lines(path)) { ... }\n\n" +
+        "// Or reject inputs above a limit with Files.size(path) first; instead of: %s");
+    
+    private static final SuggestionTemplate NULL_CHECK = SuggestionTemplate.compile(
+        "// Add null check before method call:\n" +
+        "if (%s != null) {\n" +
+        "    %s;\n" +
+        "}\n\n" +
+        "// OR use Optional for better null handling:\n" +
+        "Optional.ofNullable(%s).ifPresent(obj -> obj.someMethod());");
+    
+    private static final SuggestionTemplate INSTANCEOF_CHECK = SuggestionTemplate.compile(
+        "// Add instanceof check before casting:\n" +
+        "if (obj instanceof %s) {\n" +
+        "    %s variable = (%s) obj;\n" +
+        "    // Use variable safely here\n" +
+        "}\n\n" +
+        "// This prevents ClassCastException");
+    
+    private static final SuggestionTemplate CLEARABLE_SECRET = SuggestionTemplate.compile(
+        "// Store sensitive data securely:\n" +
+        "char[] %s = {'s', 'e', 'c', 'r', 'e', 't'};\n" +
+        "// Process the data...\n" +
+        "Arrays.fill(%s, '\\0'); // Clear from memory\n\n" +
+        "// char[] can be cleared, String cannot");
+    
+    private static final SuggestionTemplate GENERIC_OPTIMIZATION = SuggestionTemplate.compile(
+        "// Consider optimizing this code section:\n" +
+        "// %s\n\n" +
+        "// Review for performance improvements");
+    
+    private static final SuggestionTemplate GENERIC_SECURITY = SuggestionTemplate.compile(
+        "// Review this code for security issues:\n" +
+        "// %s\n\n" +
+        "// Ensure proper input validation and error handling");
+    
+    private static final String SQL_INJECTION_FIX =
+        "// Fix SQL injection vulnerability:\n" +
+        "PreparedStatement stmt = conn.prepareStatement(\n" +
+        "    \"SELECT * FROM users WHERE id = ?\");\n" +
+        "stmt.setString(1, userId);\n" +
+        "ResultSet rs = stmt.executeQuery();\n\n" +
+        "// Never concatenate user input directly into SQL queries";
+    
+    private static final String COMMAND_INJECTION_FIX =
+        "// Fix command injection vulnerability:\n" +
+        "ProcessBuilder pb = new ProcessBuilder(\"command\", validatedInput);\n" +
+        "Process process = pb.start();\n\n" +
+        "// OR validate and sanitize input:\n" +
+        "if (input.matches(\"[a-zA-Z0-9]+\")) {\n" +
+        "    Runtime.getRuntime().exec(\"command \" + input);\n" +
+        "}\n\n" +
+        "// Never execute commands with unsanitized user input";
+    
+    private static final String PATH_TRAVERSAL_FIX =
+        "// Fix path traversal vulnerability:\n" +
+        "Path safePath = Paths.get(\"/safe/directory\").resolve(filename).normalize();\n" +
+        "if (!safePath.startsWith(\"/safe/directory\")) {\n" +
+        "    throw new SecurityException(\"Invalid path\");\n" +
+        "}\n" +
+        "FileInputStream fis = new FileInputStream(safePath.toFile());\n\n" +
+        "// Always validate and normalize file paths";
+    
+    // Issue types whose text never quotes the problem node, so a pending suggestion need not keep a printed copy
+    private static final Set<String> WITHOUT_ORIGINAL_CODE = new HashSet<>(Arrays.asList(
+        "UNUSED_VARIABLE", "STRING_CONCATENATION_IN_LOOP", "UNNECESSARY_OBJECT_CREATION", "WRAPPER_OBJECT_CREATION",
+        "UNINITIALIZED_VARIABLE", "TOO_MANY_PARAMETERS", "DIVISION_OPTIMIZATION", "STRING_SPLIT_IN_LOOP",
+        "BYTE_AT_A_TIME_READ", "SQL_INJECTION", "COMMAND_INJECTION", "PATH_TRAVERSAL", "UNSAFE_CASTING", "WEAK_RANDOM",
+        "SENSITIVE_DATA_EXPOSURE", "ARRAY_BOUNDS_CHECK", "EMPTY_CATCH_BLOCK"
+    ));
+    
+    // Renders pending suggestions; the generator keeps no per-instance state
+    private static final CSGenerator RENDERER = new CSGenerator();
+    
+    // Reports render hundreds of suggestions back to back, so each thread keeps one buffer
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+    
     public String generateOptimizationSuggestion(String issueType, Node problemNode, MethodDeclaration containingMethod) {
-        CodeContext context = extractContext(problemNode, containingMethod);
-        
+        return renderOptimization(issueType, extractContext(issueType, problemNode, containingMethod));
+    }
+    
+    public String generateSecuritySuggestion(String issueType, Node problemNode, MethodDeclaration containingMethod) {
+        return renderSecurity(issueType, extractContext(issueType, problemNode, containingMethod));
+    }
+    
+    // The strings the template reads are copied out of the tree now; the text is rendered on the first get()
+    public Supplier<String> pendingOptimizationSuggestion(String issueType, Node problemNode,
+                                                          MethodDeclaration containingMethod) {
+        return new PendingSuggestion(false, issueType, extractContext(issueType, problemNode, containingMethod));
+    }
+    
+    public Supplier<String> pendingSecuritySuggestion(String issueType, Node problemNode,
+                                                      MethodDeclaration containingMethod) {
+        return new PendingSuggestion(true, issueType, extractContext(issueType, problemNode, containingMethod));
+    }
+    
+    private String renderOptimization(String issueType, CodeContext context) {
         switch (issueType) {
             case "UNUSED_VARIABLE":
                 return generateUnusedVariableSuggestion(context);
@@ -33,14 +277,45 @@ public class CSGenerator {
                 return generateParameterReductionSuggestion(context);
             case "DIVISION_OPTIMIZATION":
                 return generateDivisionOptimizationSuggestion(context);
+            case "AUTOBOXING_IN_LOOP":
+                return render(AUTOBOXING, context.originalCode);
+            case "ALLOCATION_IN_LOOP":
+                return render(HOISTED_ALLOCATION, context.originalCode);
+            case "VARARGS_IN_LOOP":
+                return render(VARARGS_ARRAY, context.originalCode);
+            case "CAPTURING_LAMBDA_IN_LOOP":
+                return render(CAPTURING_LAMBDA, context.originalCode);
+            case "STRING_FORMAT_IN_LOOP":
+                return render(FORMAT_IN_LOOP, context.originalCode);
+            case "STRING_SPLIT_IN_LOOP":
+                return generateSplitSuggestion(context);
+            case "LINEAR_SEARCH_IN_LOOP":
+                return render(HASHED_LOOKUP, scopeOr(context, "list"), context.originalCode);
+            case "LIST_AS_QUEUE":
+                return render(DEQUE_QUEUE, scopeOr(context, "queue"), context.originalCode);
+            case "KEYSET_LOOKUP":
+                return generateEntrySetSuggestion(context);
+            case "LEGACY_SYNCHRONIZED_COLLECTION":
+                return render(UNSYNCHRONIZED_COLLECTION, context.originalCode);
+            case "UNSIZED_COLLECTION_IN_LOOP":
+                return render(PRESIZED_COLLECTION, context.originalCode);
+            case "LINKED_LIST_RANDOM_ACCESS":
+                return render(SEQUENTIAL_ACCESS, scopeOr(context, "list"), context.originalCode);
+            case "RESOURCE_LEAK":
+            case "RESOURCE_LEAK_ON_EXCEPTION":
+                return render(TRY_WITH_RESOURCES, context.originalCode);
+            case "UNBUFFERED_IO":
+                return render(BUFFERED_IO, context.originalCode);
+            case "BYTE_AT_A_TIME_READ":
+                return render(BLOCK_READ, scopeOr(context, "in"));
+            case "READ_ALL_BYTES":
+                return render(STREAMED_READ, context.originalCode);
             default:
                 return generateGenericOptimizationSuggestion(context);
         }
     }
     
-    public String generateSecuritySuggestion(String issueType, Node problemNode, MethodDeclaration containingMethod) {
-        CodeContext context = extractContext(problemNode, containingMethod);
-        
+    private String renderSecurity(String issueType, CodeContext context) {
         switch (issueType) {
             case "SQL_INJECTION":
                 return generateSQLInjectionFixSuggestion(context);
@@ -65,11 +340,12 @@ public class CSGenerator {
         }
     }
     
-    private CodeContext extractContext(Node problemNode, MethodDeclaration containingMethod) {
+    private CodeContext extractContext(String issueType, Node problemNode, MethodDeclaration containingMethod) {
         CodeContext context = new CodeContext();
-        context.problemNode = problemNode;
-        context.containingMethod = containingMethod;
-        context.originalCode = problemNode.toString();
+        context.containingMethodName = containingMethod != null ? containingMethod.getNameAsString() : null;
+        if (!WITHOUT_ORIGINAL_CODE.contains(issueType)) {
+            context.originalCode = problemNode.toString();
+        }
         
         if (problemNode instanceof VariableDeclarator) {
             VariableDeclarator vd = (VariableDeclarator) problemNode;
@@ -83,7 +359,6 @@ public class CSGenerator {
         
         if (problemNode instanceof BinaryExpr) {
             BinaryExpr be = (BinaryExpr) problemNode;
-            context.binaryOperator = be.getOperator().toString();
             context.leftOperand = be.getLeft().toString();
             context.rightOperand = be.getRight().toString();
             
@@ -111,70 +386,39 @@ public class CSGenerator {
         }
         
         if (problemNode instanceof CastExpr) {
-            CastExpr ce = (CastExpr) problemNode;
-            context.castTargetType = ce.getTypeAsString();
-            context.castExpression = ce.getExpression().toString();
+            context.castTargetType = ((CastExpr) problemNode).getTypeAsString();
         }
         
-        context.isInLoop = isInsideLoop(problemNode);
-        context.loopType = determineLoopType(problemNode);
-        context.surroundingVariables = extractSurroundingVariables(containingMethod);
+        if (problemNode instanceof ForEachStmt) {
+            Expression iterable = ((ForEachStmt) problemNode).getIterable();
+            if (iterable instanceof MethodCallExpr && ((MethodCallExpr) iterable).getScope().isPresent()) {
+                context.iterableScope = ((MethodCallExpr) iterable).getScope().get().toString();
+            }
+        }
         
         return context;
     }
     
     private String generateUnusedVariableSuggestion(CodeContext context) {
-        return String.format(
-            "// Remove unused variable:\n" +
-            "// %s %s%s;\n\n" +
-            "// The variable '%s' is declared but never used.\n" +
-            "// Simply delete this line to clean up the code.",
-            context.variableType,
-            context.variableName,
-            context.hasInitializer ? " = " + context.initializer : "",
-            context.variableName
-        );
+        return render(UNUSED_VARIABLE,
+                      context.variableType,
+                      context.variableName,
+                      context.hasInitializer ? " = " + context.initializer : "",
+                      context.variableName);
     }
     
     private String generateStringConcatenationSuggestion(CodeContext context) {
         if (context.variableName != null) {
-            return String.format(
-                "// Replace string concatenation with StringBuilder:\n" +
-                "StringBuilder %sSb = new StringBuilder(%s);\n" +
-                "%sSb.append(%s);\n" +
-                "%s = %sSb.toString();\n\n" +
-                "// This avoids creating multiple intermediate String objects in the loop",
-                context.variableName,
-                context.variableName,
-                context.variableName,
-                context.rightOperand,
-                context.variableName,
-                context.variableName
-            );
+            String name = context.variableName;
+            return render(STRING_BUILDER_FOR_VARIABLE, name, name, name, context.rightOperand, name, name);
         } else {
-            return String.format(
-                "// Use StringBuilder for efficient concatenation:\n" +
-                "StringBuilder sb = new StringBuilder();\n" +
-                "sb.append(%s).append(%s);\n" +
-                "String result = sb.toString();",
-                context.leftOperand,
-                context.rightOperand
-            );
+            return render(STRING_BUILDER, context.leftOperand, context.rightOperand);
         }
     }
     
     private String generateLoopInvariantSuggestion(CodeContext context) {
         String calculationVar = "calculated" + capitalize(context.methodName);
-        return String.format(
-            "// Move expensive calculation outside the loop:\n" +
-            "double %s = %s;\n\n" +
-            "// Inside the loop, use the pre-calculated value:\n" +
-            "// ... use %s instead of %s",
-            calculationVar,
-            context.originalCode,
-            calculationVar,
-            context.originalCode
-        );
+        return render(LOOP_INVARIANT, calculationVar, context.originalCode, calculationVar, context.originalCode);
     }
     
     private String generateObjectCreationSuggestion(CodeContext context) {
@@ -182,52 +426,23 @@ public class CSGenerator {
             return "// Replace unnecessary String creation:\n" +
                    "String variable = \"\"; // Instead of new String()";
         } else {
-            return String.format(
-                "// Avoid unnecessary object creation:\n" +
-                "// Consider reusing existing %s instances or using object pooling",
-                context.objectType
-            );
+            return render(OBJECT_REUSE, context.objectType);
         }
     }
     
     private String generateWrapperObjectSuggestion(CodeContext context) {
         String arg = context.constructorArguments.isEmpty() ? "value" : context.constructorArguments.get(0);
-        return String.format(
-            "// Use valueOf() method for better performance:\n" +
-            "%s variable = %s.valueOf(%s);\n\n" +
-            "// valueOf() reuses cached instances for common values",
-            context.objectType,
-            context.objectType,
-            arg
-        );
+        return render(WRAPPER_VALUE_OF, context.objectType, context.objectType, arg);
     }
     
     private String generateInitializationSuggestion(CodeContext context) {
         String initValue = getDefaultInitialization(context.variableType);
-        return String.format(
-            "// Initialize variable at declaration:\n" +
-            "%s %s = %s;\n\n" +
-            "// This prevents potential NullPointerException",
-            context.variableType,
-            context.variableName,
-            initValue
-        );
+        return render(INITIALIZATION, context.variableType, context.variableName, initValue);
     }
     
     private String generateParameterReductionSuggestion(CodeContext context) {
-        String methodName = context.containingMethod.getNameAsString();
-        return String.format(
-            "// Consider reducing parameters using parameter object pattern:\n" +
-            "public class %sParams {\n" +
-            "    // Group related parameters into fields\n" +
-            "}\n\n" +
-            "public void %s(%sParams params) {\n" +
-            "    // Use params.field instead of individual parameters\n" +
-            "}",
-            capitalize(methodName),
-            methodName,
-            capitalize(methodName)
-        );
+        String methodName = context.containingMethodName;
+        return render(PARAMETER_OBJECT, capitalize(methodName), methodName, capitalize(methodName));
     }
     
     private String generateDivisionOptimizationSuggestion(CodeContext context) {
@@ -236,15 +451,7 @@ public class CSGenerator {
                 int divisor = Integer.parseInt(context.rightOperand);
                 if (isPowerOfTwo(divisor)) {
                     int shiftAmount = Integer.numberOfTrailingZeros(divisor);
-                    return String.format(
-                        "// Optimize division by power of 2 using bit shifting:\n" +
-                        "%s >> %d // Instead of %s / %d\n\n" +
-                        "// Bit shifting is faster than division",
-                        context.leftOperand,
-                        shiftAmount,
-                        context.leftOperand,
-                        divisor
-                    );
+                    return render(SHIFT_DIVISION, context.leftOperand, shiftAmount, context.leftOperand, divisor);
                 }
             } catch (NumberFormatException e) {
                 // Fallback
@@ -253,72 +460,43 @@ public class CSGenerator {
         return "// Consider optimizing division operation";
     }
     
+    private String generateSplitSuggestion(CodeContext context) {
+        String separator = context.methodArguments.isEmpty() ? "\",\"" : context.methodArguments.get(0);
+        String input = context.methodScope != null ? context.methodScope : "input";
+        return render(PRECOMPILED_SPLIT, separator, input);
+    }
+    
+    private String generateEntrySetSuggestion(CodeContext context) {
+        return render(ENTRY_SET, context.iterableScope != null ? context.iterableScope : "map", context.originalCode);
+    }
+    
+    private String scopeOr(CodeContext context, String fallback) {
+        return context.methodScope != null ? context.methodScope : fallback;
+    }
+    
     private String generateSQLInjectionFixSuggestion(CodeContext context) {
         if (context.methodArguments != null && !context.methodArguments.isEmpty()) {
-            String query = context.methodArguments.get(0);
-            return String.format(
-                "// Fix SQL injection vulnerability:\n" +
-                "PreparedStatement stmt = conn.prepareStatement(\n" +
-                "    \"SELECT * FROM users WHERE id = ?\");\n" +
-                "stmt.setString(1, userId);\n" +
-                "ResultSet rs = stmt.executeQuery();\n\n" +
-                "// Never concatenate user input directly into SQL queries"
-            );
+            return SQL_INJECTION_FIX;
         }
         return "// Use PreparedStatement with parameterized queries to prevent SQL injection";
     }
     
     private String generateCommandInjectionFixSuggestion(CodeContext context) {
-        return String.format(
-            "// Fix command injection vulnerability:\n" +
-            "ProcessBuilder pb = new ProcessBuilder(\"command\", validatedInput);\n" +
-            "Process process = pb.start();\n\n" +
-            "// OR validate and sanitize input:\n" +
-            "if (input.matches(\"[a-zA-Z0-9]+\")) {\n" +
-            "    Runtime.getRuntime().exec(\"command \" + input);\n" +
-            "}\n\n" +
-            "// Never execute commands with unsanitized user input"
-        );
+        return COMMAND_INJECTION_FIX;
     }
     
     private String generatePathTraversalFixSuggestion(CodeContext context) {
-        return String.format(
-            "// Fix path traversal vulnerability:\n" +
-            "Path safePath = Paths.get(\"/safe/directory\").resolve(filename).normalize();\n" +
-            "if (!safePath.startsWith(\"/safe/directory\")) {\n" +
-            "    throw new SecurityException(\"Invalid path\");\n" +
-            "}\n" +
-            "FileInputStream fis = new FileInputStream(safePath.toFile());\n\n" +
-            "// Always validate and normalize file paths"
-        );
+        return PATH_TRAVERSAL_FIX;
     }
     
     private String generateNullPointerFixSuggestion(CodeContext context) {
-        return String.format(
-            "// Add null check before method call:\n" +
-            "if (%s != null) {\n" +
-            "    %s;\n" +
-            "}\n\n" +
-            "// OR use Optional for better null handling:\n" +
-            "Optional.ofNullable(%s).ifPresent(obj -> obj.someMethod());",
-            extractVariableFromMethodCall(context.originalCode),
-            context.originalCode,
-            extractVariableFromMethodCall(context.originalCode)
-        );
+        String variable = extractVariableFromMethodCall(context.originalCode);
+        return render(NULL_CHECK, variable, context.originalCode, variable);
     }
     
     private String generateUnsafeCastingFixSuggestion(CodeContext context) {
-        return String.format(
-            "// Add instanceof check before casting:\n" +
-            "if (obj instanceof %s) {\n" +
-            "    %s variable = (%s) obj;\n" +
-            "    // Use variable safely here\n" +
-            "}\n\n" +
-            "// This prevents ClassCastException",
-            context.castTargetType,
-            context.castTargetType,
-            context.castTargetType
-        );
+        String type = context.castTargetType;
+        return render(INSTANCEOF_CHECK, type, type, type);
     }
     
     private String generateWeakRandomFixSuggestion(CodeContext context) {
@@ -329,15 +507,8 @@ public class CSGenerator {
     }
     
     private String generateSensitiveDataFixSuggestion(CodeContext context) {
-        return String.format(
-            "// Store sensitive data securely:\n" +
-            "char[] %s = {'s', 'e', 'c', 'r', 'e', 't'};\n" +
-            "// Process the data...\n" +
-            "Arrays.fill(%s, '\\0'); // Clear from memory\n\n" +
-            "// char[] can be cleared, String cannot",
-            context.variableName != null ? context.variableName : "sensitiveData",
-            context.variableName != null ? context.variableName : "sensitiveData"
-        );
+        String name = context.variableName != null ? context.variableName : "sensitiveData";
+        return render(CLEARABLE_SECRET, name, name);
     }
     
     private String generateArrayBoundsFixSuggestion(CodeContext context) {
@@ -359,15 +530,18 @@ public class CSGenerator {
     }
     
     private String generateGenericOptimizationSuggestion(CodeContext context) {
-        return "// Consider optimizing this code section:\n" +
-               "// " + context.originalCode + "\n\n" +
-               "// Review for performance improvements";
+        return render(GENERIC_OPTIMIZATION, context.originalCode);
     }
     
     private String generateGenericSecuritySuggestion(CodeContext context) {
-        return "// Review this code for security issues:\n" +
-               "// " + context.originalCode + "\n\n" +
-               "// Ensure proper input validation and error handling";
+        return render(GENERIC_SECURITY, context.originalCode);
+    }
+    
+    private String render(SuggestionTemplate template, Object... arguments) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.render(buffer, arguments);
+        return buffer.toString();
     }
     
     private String getDefaultInitialization(String type) {
@@ -390,44 +564,6 @@ public class CSGenerator {
         return n > 0 && (n & (n - 1)) == 0;
     }
     
-    private boolean isInsideLoop(Node node) {
-        Node parent = node.getParentNode().orElse(null);
-        while (parent != null) {
-            if (parent instanceof ForStmt || parent instanceof WhileStmt || 
-                parent instanceof DoStmt || parent instanceof ForEachStmt) {
-                return true;
-            }
-            parent = parent.getParentNode().orElse(null);
-        }
-        return false;
-    }
-    
-    private String determineLoopType(Node node) {
-        Node parent = node.getParentNode().orElse(null);
-        while (parent != null) {
-            if (parent instanceof ForStmt) return "FOR";
-            if (parent instanceof WhileStmt) return "WHILE";
-            if (parent instanceof DoStmt) return "DO_WHILE";
-            if (parent instanceof ForEachStmt) return "FOR_EACH";
-            parent = parent.getParentNode().orElse(null);
-        }
-        return "NONE";
-    }
-    
-    private List<String> extractSurroundingVariables(MethodDeclaration method) {
-        List<String> variables = new ArrayList<>();
-        if (method != null) {
-            method.accept(new com.github.javaparser.ast.visitor.VoidVisitorAdapter<Void>() {
-                @Override
-                public void visit(VariableDeclarator vd, Void arg) {
-                    variables.add(vd.getNameAsString());
-                    super.visit(vd, arg);
-                }
-            }, null);
-        }
-        return variables;
-    }
-    
     private String extractVariableFromMethodCall(String methodCall) {
         if (methodCall.contains(".")) {
             return methodCall.substring(0, methodCall.indexOf("."));
@@ -440,15 +576,36 @@ public class CSGenerator {
         return str.substring(0, 1).toUpperCase() + str.substring(1);
     }
     
-    private static class CodeContext {
-        Node problemNode;
-        MethodDeclaration containingMethod;
+    private static final class PendingSuggestion implements Supplier<String>, Serializable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final boolean security;
+        private final String issueType;
+        private final CodeContext context;
+        
+        PendingSuggestion(boolean security, String issueType, CodeContext context) {
+            this.security = security;
+            this.issueType = issueType;
+            this.context = context;
+        }
+        
+        @Override
+        public String get() {
+            return security ? RENDERER.renderSecurity(issueType, context) : RENDERER.renderOptimization(issueType, context);
+        }
+    }
+    
+    // Strings only, so a pending suggestion holds nothing of the parsed unit
+    private static class CodeContext implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        String containingMethodName;
         String originalCode;
         String variableName;
         String variableType;
         boolean hasInitializer;
         String initializer;
-        String binaryOperator;
         String leftOperand;
         String rightOperand;
         String methodName;
@@ -457,9 +614,6 @@ public class CSGenerator {
         String objectType;
         List<String> constructorArguments;
         String castTargetType;
-        String castExpression;
-        boolean isInLoop;
-        String loopType;
-        List<String> surroundingVariables;
+        String iterableScope;
     }
 }
\ No newline at end of file
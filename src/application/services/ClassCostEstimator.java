@@ -0,0 +1,84 @@
+package application.services;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class ClassCostEstimator {
+    
+    // Every class pays for a CFR child JVM, so there is a large fixed cost on top of the size term
+    private static final long DEFAULT_FIXED_COST_NANOS = 400_000_000L;
+    private static final long DEFAULT_NANOS_PER_UNIT = 20_000L;
+    private static final int CONSTANT_POOL_ENTRY_UNITS = 16;
+    private static final int MIN_CALIBRATION_SAMPLES = 4;
+    
+    private final AnalysisTimingCache timingCache;
+    private long fixedCostNanos = DEFAULT_FIXED_COST_NANOS;
+    private long nanosPerUnit = DEFAULT_NANOS_PER_UNIT;
+    
+    public ClassCostEstimator(AnalysisTimingCache timingCache) {
+        this.timingCache = timingCache;
+        calibrate();
+    }
+    
+    public long estimateUnits(File classFile) {
+        return classFile.length() + (long) readConstantPoolCount(classFile) * CONSTANT_POOL_ENTRY_UNITS;
+    }
+    
+    public long estimateNanos(File classFile, long costUnits) {
+        Long historic = timingCache.getTimingNanos(classFile);
+        if (historic != null) {
+            return historic;
+        }
+        return fixedCostNanos + costUnits * nanosPerUnit;
+    }
+    
+    public void calibrate() {
+        List<long[]> samples = timingCache.getSamples();
+        if (samples.size() < MIN_CALIBRATION_SAMPLES) return;
+        
+        double meanUnits = 0;
+        double meanNanos = 0;
+        for (long[] sample : samples) {
+            meanUnits += sample[0];
+            meanNanos += sample[1];
+        }
+        meanUnits /= samples.size();
+        meanNanos /= samples.size();
+        
+        double covariance = 0;
+        double variance = 0;
+        for (long[] sample : samples) {
+            double du = sample[0] - meanUnits;
+            covariance += du * (sample[1] - meanNanos);
+            variance += du * du;
+        }
+        
+        if (variance == 0) return;
+        
+        double slope = covariance / variance;
+        double intercept = meanNanos - slope * meanUnits;
+        
+        if (slope > 0 && intercept >= 0) {
+            nanosPerUnit = Math.max(1, Math.round(slope));
+            fixedCostNanos = Math.round(intercept);
+        }
+    }
+    
+    public void recordActual(File classFile, long costUnits, long elapsedNanos) {
+        timingCache.record(classFile, costUnits, elapsedNanos);
+    }
+    
+    private int readConstantPoolCount(File classFile) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(classFile))) {
+            if (in.readInt() != 0xCAFEBABE) return 0;
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            return in.readUnsignedShort();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
\ No newline at end of file
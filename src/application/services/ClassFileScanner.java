@@ -0,0 +1,440 @@
+package application.services;
+
+import application.models.ClassFileSummary;
+import application.models.ClassFileSummary.FieldSummary;
+import application.models.ClassFileSummary.MemberReference;
+import application.models.ClassFileSummary.MemberReferenceKind;
+import application.models.ClassFileSummary.MethodSummary;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClassFileScanner {
+    
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+    
+    private static final int NOT_CONSTANT = Integer.MIN_VALUE;
+    
+    public ClassFileSummary scan(File classFile) throws IOException {
+        return scan(Files.readAllBytes(classFile.toPath()));
+    }
+    
+    public ClassFileSummary scan(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IllegalArgumentException("Invalid class file format");
+        }
+        in.readUnsignedShort();
+        int majorVersion = in.readUnsignedShort();
+        
+        ConstantPool pool = readConstantPool(in);
+        
+        int accessFlags = in.readUnsignedShort();
+        String className = pool.className(in.readUnsignedShort());
+        int superIndex = in.readUnsignedShort();
+        String superClassName = superIndex != 0 ? pool.className(superIndex) : null;
+        
+        int interfaceCount = in.readUnsignedShort();
+        List<String> interfaces = new ArrayList<>();
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(pool.className(in.readUnsignedShort()));
+        }
+        
+        ClassFileSummary summary = new ClassFileSummary(className, superClassName, interfaces,
+                                                        accessFlags, majorVersion, pool.size());
+        
+        for (int i = 1; i < pool.size(); i++) {
+            if (pool.tags[i] == CONSTANT_STRING) {
+                summary.getStringConstants().add(pool.utf8((Integer) pool.values[i]));
+            }
+        }
+        
+        int fieldCount = in.readUnsignedShort();
+        for (int i = 0; i < fieldCount; i++) {
+            summary.getFields().add(readField(in, pool));
+        }
+        
+        int methodCount = in.readUnsignedShort();
+        for (int i = 0; i < methodCount; i++) {
+            summary.getMethods().add(readMethod(in, pool));
+        }
+        
+        return summary;
+    }
+    
+    private ConstantPool readConstantPool(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        ConstantPool pool = new ConstantPool(count);
+        
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            pool.tags[i] = tag;
+            
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    pool.values[i] = in.readUTF();
+                    break;
+                case CONSTANT_INTEGER:
+                    pool.values[i] = in.readInt();
+                    break;
+                case CONSTANT_FLOAT:
+                    pool.values[i] = in.readFloat();
+                    break;
+                case CONSTANT_LONG:
+                    pool.values[i] = in.readLong();
+                    i++;
+                    break;
+                case CONSTANT_DOUBLE:
+                    pool.values[i] = in.readDouble();
+                    i++;
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    pool.values[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    pool.values[i] = new int[] { in.readUnsignedShort(), in.readUnsignedShort() };
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    in.readUnsignedByte();
+                    pool.values[i] = in.readUnsignedShort();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at index " + i);
+            }
+        }
+        
+        return pool;
+    }
+    
+    private FieldSummary readField(DataInputStream in, ConstantPool pool) throws IOException {
+        int accessFlags = in.readUnsignedShort();
+        String name = pool.utf8(in.readUnsignedShort());
+        String descriptor = pool.utf8(in.readUnsignedShort());
+        Object constantValue = null;
+        
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = pool.utf8(in.readUnsignedShort());
+            int length = in.readInt();
+            
+            if ("ConstantValue".equals(attributeName)) {
+                constantValue = pool.constantValue(in.readUnsignedShort());
+            } else {
+                in.skipNBytes(length);
+            }
+        }
+        
+        return new FieldSummary(name, descriptor, accessFlags, constantValue);
+    }
+    
+    private MethodSummary readMethod(DataInputStream in, ConstantPool pool) throws IOException {
+        int accessFlags = in.readUnsignedShort();
+        String name = pool.utf8(in.readUnsignedShort());
+        String descriptor = pool.utf8(in.readUnsignedShort());
+        
+        byte[] code = null;
+        int[] lineTable = new int[0];
+        
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = pool.utf8(in.readUnsignedShort());
+            int length = in.readInt();
+            
+            if ("Code".equals(attributeName)) {
+                in.readUnsignedShort();
+                in.readUnsignedShort();
+                code = new byte[in.readInt()];
+                in.readFully(code);
+                in.skipNBytes(in.readUnsignedShort() * 8L);
+                lineTable = readLineNumberTable(in, pool);
+            } else {
+                in.skipNBytes(length);
+            }
+        }
+        
+        if (code == null) {
+            return new MethodSummary(name, descriptor, accessFlags, 0, 0, new ArrayList<>());
+        }
+        
+        List<MemberReference> references = readReferences(code, lineTable, pool);
+        int firstLine = lineTable.length > 0 ? lineTable[1] : 0;
+        return new MethodSummary(name, descriptor, accessFlags, code.length, firstLine, references);
+    }
+    
+    private int[] readLineNumberTable(DataInputStream in, ConstantPool pool) throws IOException {
+        int[] lineTable = new int[0];
+        
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = pool.utf8(in.readUnsignedShort());
+            int length = in.readInt();
+            
+            if ("LineNumberTable".equals(attributeName)) {
+                int entries = in.readUnsignedShort();
+                lineTable = new int[entries * 2];
+                for (int e = 0; e < entries; e++) {
+                    lineTable[e * 2] = in.readUnsignedShort();
+                    lineTable[e * 2 + 1] = in.readUnsignedShort();
+                }
+            } else {
+                in.skipNBytes(length);
+            }
+        }
+        
+        return lineTable;
+    }
+    
+    private List<MemberReference> readReferences(byte[] code, int[] lineTable, ConstantPool pool) {
+        List<MemberReference> references = new ArrayList<>();
+        String lastStringConstant = null;
+        String leadingString = null;
+        int pushedSinceString = 0;
+        int pc = 0;
+        
+        while (pc < code.length) {
+            int opcode = code[pc] & 0xFF;
+            String stringConstant = null;
+            
+            switch (opcode) {
+                case 0x12:
+                    stringConstant = pool.stringAt(code[pc + 1] & 0xFF);
+                    break;
+                case 0x13:
+                    stringConstant = pool.stringAt(u2(code, pc + 1));
+                    break;
+                case 0xb2:
+                case 0xb4:
+                    references.add(pool.memberReference(MemberReferenceKind.FIELD_READ, u2(code, pc + 1),
+                                                        lineAt(lineTable, pc), lastStringConstant));
+                    break;
+                case 0xb3:
+                case 0xb5:
+                    references.add(pool.memberReference(MemberReferenceKind.FIELD_WRITE, u2(code, pc + 1),
+                                                        lineAt(lineTable, pc), lastStringConstant));
+                    break;
+                case 0xb6:
+                case 0xb7:
+                case 0xb8:
+                case 0xb9:
+                    // The string is the first argument only if exactly the other arguments were pushed after it
+                    int index = u2(code, pc + 1);
+                    boolean firstArgument = leadingString != null &&
+                                            pushedSinceString == parameterCount(pool.descriptorOf(index)) - 1;
+                    references.add(pool.memberReference(MemberReferenceKind.INVOKE, index, lineAt(lineTable, pc),
+                                                        lastStringConstant, firstArgument ? leadingString : null));
+                    break;
+                case 0xba:
+                    references.add(pool.dynamicReference(u2(code, pc + 1), lineAt(lineTable, pc)));
+                    break;
+                case 0xbb:
+                    references.add(new MemberReference(MemberReferenceKind.NEW, pool.className(u2(code, pc + 1)),
+                                                       "<new>", "", lineAt(lineTable, pc), null));
+                    break;
+                default:
+                    break;
+            }
+            
+            lastStringConstant = stringConstant;
+            if (stringConstant != null) {
+                leadingString = stringConstant;
+                pushedSinceString = 0;
+            } else if (leadingString != null) {
+                int effect = constantStackEffect(opcode);
+                if (effect == NOT_CONSTANT) leadingString = null;
+                else pushedSinceString += effect;
+            }
+            pc += instructionLength(code, pc);
+        }
+        
+        return references;
+    }
+    
+    // Stack effect, in values, of the instructions that build further constant or local arguments
+    // (aconst_null, iconst_*, bipush, sipush, ldc, iload, aload, dup, getstatic and array set-up); others end the run
+    private static int constantStackEffect(int opcode) {
+        switch (opcode) {
+            case 0x01: case 0x02: case 0x03: case 0x04: case 0x05: case 0x06: case 0x07: case 0x08:
+            case 0x10: case 0x11: case 0x12: case 0x13: case 0x15: case 0x19:
+            case 0x1a: case 0x1b: case 0x1c: case 0x1d: case 0x2a: case 0x2b: case 0x2c: case 0x2d:
+            case 0x59: case 0xb2:
+                return 1;
+            case 0xbd:
+                return 0;
+            case 0x32:
+                return -1;
+            case 0x53:
+                return -3;
+            default:
+                return NOT_CONSTANT;
+        }
+    }
+    
+    private static int parameterCount(String descriptor) {
+        int count = 0;
+        int position = 1;
+        while (position < descriptor.length() && descriptor.charAt(position) != ')') {
+            while (descriptor.charAt(position) == '[') position++;
+            position = descriptor.charAt(position) == 'L' ? descriptor.indexOf(';', position) + 1 : position + 1;
+            count++;
+        }
+        return count;
+    }
+    
+    private int instructionLength(byte[] code, int pc) {
+        int opcode = code[pc] & 0xFF;
+        
+        if (opcode == 0xaa) {
+            int base = (pc + 4) & ~3;
+            int low = s4(code, base + 4);
+            int high = s4(code, base + 8);
+            return base - pc + 12 + (high - low + 1) * 4;
+        }
+        if (opcode == 0xab) {
+            int base = (pc + 4) & ~3;
+            int pairs = s4(code, base + 4);
+            return base - pc + 8 + pairs * 8;
+        }
+        if (opcode == 0xc4) {
+            return (code[pc + 1] & 0xFF) == 0x84 ? 6 : 4;
+        }
+        
+        return OPCODE_LENGTHS[opcode];
+    }
+    
+    private int lineAt(int[] lineTable, int pc) {
+        int line = 0;
+        int bestStart = -1;
+        for (int i = 0; i < lineTable.length; i += 2) {
+            if (lineTable[i] <= pc && lineTable[i] > bestStart) {
+                bestStart = lineTable[i];
+                line = lineTable[i + 1];
+            }
+        }
+        return line;
+    }
+    
+    private static int u2(byte[] code, int offset) {
+        return ((code[offset] & 0xFF) << 8) | (code[offset + 1] & 0xFF);
+    }
+    
+    private static int s4(byte[] code, int offset) {
+        return ((code[offset] & 0xFF) << 24) | ((code[offset + 1] & 0xFF) << 16)
+             | ((code[offset + 2] & 0xFF) << 8) | (code[offset + 3] & 0xFF);
+    }
+    
+    private static final int[] OPCODE_LENGTHS = buildOpcodeLengths();
+    
+    private static int[] buildOpcodeLengths() {
+        int[] lengths = new int[256];
+        java.util.Arrays.fill(lengths, 1);
+        
+        lengths[0x10] = 2;
+        lengths[0x11] = 3;
+        lengths[0x12] = 2;
+        lengths[0x13] = 3;
+        lengths[0x14] = 3;
+        for (int op = 0x15; op <= 0x19; op++) lengths[op] = 2;
+        for (int op = 0x36; op <= 0x3a; op++) lengths[op] = 2;
+        lengths[0x84] = 3;
+        for (int op = 0x99; op <= 0xa8; op++) lengths[op] = 3;
+        lengths[0xa9] = 2;
+        for (int op = 0xb2; op <= 0xb8; op++) lengths[op] = 3;
+        lengths[0xb9] = 5;
+        lengths[0xba] = 5;
+        lengths[0xbb] = 3;
+        lengths[0xbc] = 2;
+        lengths[0xbd] = 3;
+        lengths[0xc0] = 3;
+        lengths[0xc1] = 3;
+        lengths[0xc5] = 4;
+        lengths[0xc6] = 3;
+        lengths[0xc7] = 3;
+        lengths[0xc8] = 5;
+        lengths[0xc9] = 5;
+        
+        return lengths;
+    }
+    
+    private static class ConstantPool {
+        final int[] tags;
+        final Object[] values;
+        
+        ConstantPool(int count) {
+            tags = new int[count];
+            values = new Object[count];
+        }
+        
+        int size() {
+            return tags.length;
+        }
+        
+        String utf8(int index) {
+            return (String) values[index];
+        }
+        
+        String className(int index) {
+            return utf8((Integer) values[index]);
+        }
+        
+        String stringAt(int index) {
+            return tags[index] == CONSTANT_STRING ? utf8((Integer) values[index]) : null;
+        }
+        
+        Object constantValue(int index) {
+            return tags[index] == CONSTANT_STRING ? utf8((Integer) values[index]) : values[index];
+        }
+        
+        MemberReference memberReference(MemberReferenceKind kind, int index, int line, String precedingString) {
+            return memberReference(kind, index, line, precedingString, null);
+        }
+        
+        MemberReference memberReference(MemberReferenceKind kind, int index, int line, String precedingString,
+                                        String leadingString) {
+            int[] ref = (int[]) values[index];
+            int[] nameAndType = (int[]) values[ref[1]];
+            return new MemberReference(kind, className(ref[0]), utf8(nameAndType[0]),
+                                       utf8(nameAndType[1]), line, precedingString, leadingString);
+        }
+        
+        String descriptorOf(int index) {
+            return utf8(((int[]) values[((int[]) values[index])[1]])[1]);
+        }
+        
+        MemberReference dynamicReference(int index, int line) {
+            int[] nameAndType = (int[]) values[((int[]) values[index])[1]];
+            return new MemberReference(MemberReferenceKind.INVOKE_DYNAMIC, "", utf8(nameAndType[0]),
+                                       utf8(nameAndType[1]), line, null);
+        }
+    }
+}
\ No newline at end of file
@@ -6,26 +6,44 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DecompilerService {
     
     private static final String CFR_JAR_PATH = "lib/cfr-0.152.jar";
-    private final Path tempDirectory;
+    private static final String CFR_ARCHIVE_NAME = "cfr.jsa";
+    private Path tempDirectory;
+    private final Map<String, Path> outputsByClass = new ConcurrentHashMap<>();
     
-    public DecompilerService() {
-        try {
-            tempDirectory = Files.createTempDirectory("java_analyzer_temp");
-            tempDirectory.toFile().deleteOnExit();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create temporary directory", e);
+    private synchronized Path getTempDirectory() {
+        // Created on the first decompilation rather than at launch
+        if (tempDirectory == null) {
+            try {
+                tempDirectory = Files.createTempDirectory("java_analyzer_temp");
+                tempDirectory.toFile().deleteOnExit();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create temporary directory", e);
+            }
         }
+        return tempDirectory;
     }
     
     public String decompile(File classFile) throws Exception {
         validateClassFile(classFile);
         
-        String outputPath = tempDirectory.toString();
-        String decompiledCode = executeCFRDecompilation(classFile, outputPath);
+        // A batch run reads each class twice (summaries, then analysis); the second read reuses CFR's output
+        String key = classFile.getAbsolutePath() + "|" + classFile.length() + "|" + classFile.lastModified();
+        Path previous = outputsByClass.get(key);
+        if (previous != null && Files.exists(previous)) {
+            return Files.readString(previous);
+        }
+        
+        // A directory per call keeps concurrent batch runs from reading each other's output
+        String outputPath = Files.createTempDirectory(getTempDirectory(), "run").toString();
+        Path decompiledFile = executeCFRDecompilation(classFile, outputPath);
+        outputsByClass.put(key, decompiledFile);
+        String decompiledCode = Files.readString(decompiledFile);
         
         if (decompiledCode == null || decompiledCode.trim().isEmpty()) {
             throw new RuntimeException("Decompilation failed - no output generated");
@@ -64,7 +82,7 @@ public class DecompilerService {
         }
     }
     
-    private String executeCFRDecompilation(File classFile, String outputPath) throws Exception {
+    private Path executeCFRDecompilation(File classFile, String outputPath) throws Exception {
         List<String> command = buildCFRCommand(classFile, outputPath);
         
         ProcessBuilder processBuilder = new ProcessBuilder(command);
@@ -79,12 +97,19 @@ public class DecompilerService {
             throw new RuntimeException("CFR decompilation failed with exit code: " + exitCode + "\nOutput: " + output);
         }
         
-        return findAndReadDecompiledFile(classFile, outputPath);
+        return findDecompiledFile(classFile, outputPath);
     }
     
     private List<String> buildCFRCommand(File classFile, String outputPath) {
         List<String> command = new ArrayList<>();
         command.add("java");
+        
+        // Every class is decompiled in a fresh JVM, so a class-data sharing archive saves most of its startup
+        Path cfrArchive = getArchiveDirectory().resolve(CFR_ARCHIVE_NAME);
+        if (Files.isReadable(cfrArchive)) {
+            command.add("-XX:SharedArchiveFile=" + cfrArchive);
+        }
+        
         command.add("-jar");
         command.add(CFR_JAR_PATH);
         command.add(classFile.getAbsolutePath());
@@ -111,7 +136,7 @@ public class DecompilerService {
         return output.toString();
     }
     
-    private String findAndReadDecompiledFile(File originalClassFile, String outputPath) throws IOException {
+    private Path findDecompiledFile(File originalClassFile, String outputPath) throws IOException {
         String className = originalClassFile.getName().replace(".class", "");
         Path decompiledFile = Paths.get(outputPath, className + ".java");
         
@@ -123,7 +148,7 @@ public class DecompilerService {
             throw new FileNotFoundException("Decompiled file not found for class: " + className);
         }
         
-        return Files.readString(decompiledFile);
+        return decompiledFile;
     }
     
     private Path findDecompiledFileRecursively(Path directory, String className) throws IOException {
@@ -133,12 +158,23 @@ public class DecompilerService {
                    .orElse(null);
     }
     
+    public static Path getArchiveDirectory() {
+        String configured = System.getProperty("analyzer.cds.dir");
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".java_analyzer", "cds");
+    }
+    
     public boolean isCFRAvailable() {
         File cfrJar = new File(CFR_JAR_PATH);
         return cfrJar.exists() && cfrJar.canRead();
     }
     
-    public void cleanup() {
+    public synchronized void cleanup() {
+        outputsByClass.clear();
+        if (tempDirectory == null) return;
+        
         try {
             if (Files.exists(tempDirectory)) {
                 Files.walk(tempDirectory)
@@ -0,0 +1,288 @@
+package application.services;
+
+import application.analysis.VulnerabilityIndex;
+import application.models.AnalysisTier;
+import application.models.LazyValue;
+import application.models.SecurityIssue;
+import application.models.SecuritySeverity;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Inflater;
+
+// Names the libraries inside an archive and looks them up in the vulnerability index. A library is known by its
+// pom.properties, by its manifest, by its file name, or, when repackaging stripped all of those, by the fingerprint of
+// its class entries. Nested jars (BOOT-INF/lib, WEB-INF/lib, ...) are read in memory without extracting them, and
+// fingerprints come from the central directory's CRCs, so no class is inflated.
+public class DependencyScanService {
+    
+    // app.ear!/lib/app.war!/WEB-INF/lib/x.jar is as deep as packaging usually goes
+    private static final int MAX_DEPTH = 3;
+    
+    private final VulnerabilityIndex index;
+    
+    public DependencyScanService() {
+        this(VulnerabilityIndex.getDefault());
+    }
+    
+    public DependencyScanService(VulnerabilityIndex index) {
+        this.index = index;
+    }
+    
+    public List<SecurityIssue> scan(File input) throws IOException {
+        List<SecurityIssue> issues = new ArrayList<>();
+        if (index == null) return issues;
+        
+        Inflater inflater = new Inflater(true);
+        try {
+            for (Path archive : findArchives(input)) {
+                try (ZipArchive zip = ZipArchive.open(archive)) {
+                    String location = input.isDirectory()
+                        ? input.toPath().relativize(archive).toString().replace(File.separatorChar, '/')
+                        : zip.getName();
+                    scanArchive(zip, location, 0, inflater, issues);
+                } catch (IOException e) {
+                    System.err.println("Skipping " + archive + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return issues;
+    }
+    
+    // Fingerprints of the archive ("" key) and of each of its packages, for adding shaded copies to a feed
+    public Map<String, String> fingerprint(File archive) throws IOException {
+        try (ZipArchive zip = ZipArchive.open(archive.toPath())) {
+            List<ZipArchive.Entry> classes = classEntries(zip.entries());
+            Map<String, String> fingerprints = new LinkedHashMap<>();
+            fingerprints.put("", fingerprintOf(classes));
+            for (Map.Entry<String, List<ZipArchive.Entry>> pkg : byPackage(classes).entrySet()) {
+                fingerprints.put(pkg.getKey(), fingerprintOf(pkg.getValue()));
+            }
+            return fingerprints;
+        }
+    }
+    
+    private List<Path> findArchives(File input) throws IOException {
+        if (!input.isDirectory()) {
+            List<Path> single = new ArrayList<>();
+            if (isArchiveName(input.getName())) single.add(input.toPath());
+            return single;
+        }
+        try (Stream<Path> paths = Files.walk(input.toPath())) {
+            return paths.filter(Files::isRegularFile)
+                        .filter(path -> isArchiveName(path.getFileName().toString()))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+    
+    private void scanArchive(ZipArchive zip, String location, int depth, Inflater inflater,
+                             List<SecurityIssue> issues) throws IOException {
+        List<ZipArchive.Entry> entries = zip.entries();
+        Set<String> libraries = new LinkedHashSet<>();
+        List<ZipArchive.Entry> nested = new ArrayList<>();
+        ZipArchive.Entry manifest = null;
+        
+        for (ZipArchive.Entry entry : entries) {
+            if (entry.isDirectory()) continue;
+            if (entry.name.startsWith("META-INF/maven/") && entry.name.endsWith("/pom.properties")) {
+                String coordinates = readPomProperties(zip, entry, inflater);
+                if (coordinates != null) libraries.add(coordinates);
+            } else if (entry.name.equalsIgnoreCase("META-INF/MANIFEST.MF")) {
+                manifest = entry;
+            } else if (isArchiveName(entry.name) && depth < MAX_DEPTH) {
+                nested.add(entry);
+            }
+        }
+        
+        // The manifest and file name only speak for the archive itself, which pom.properties usually already named
+        if (libraries.isEmpty()) {
+            String coordinates = manifest != null ? readManifest(zip, manifest, inflater) : null;
+            if (coordinates == null) coordinates = fromFileName(zip.getName());
+            if (coordinates != null) libraries.add(coordinates);
+        }
+        
+        List<ZipArchive.Entry> classes = classEntries(entries);
+        if (!classes.isEmpty()) {
+            addFingerprintMatch(fingerprintOf(classes), libraries);
+            for (List<ZipArchive.Entry> pkg : byPackage(classes).values()) {
+                addFingerprintMatch(fingerprintOf(pkg), libraries);
+            }
+        }
+        
+        for (String library : libraries) {
+            report(library, location, issues);
+        }
+        
+        nested.sort(Comparator.comparingLong(entry -> entry.localOffset));
+        for (ZipArchive.Entry entry : nested) {
+            String nestedLocation = location + "!/" + entry.name;
+            try {
+                // Stored jars, the usual case for fat jars, are a view of the outer archive rather than a copy
+                ByteBuffer bytes = zip.readEntry(entry, inflater);
+                String name = entry.name.substring(entry.name.lastIndexOf('/') + 1);
+                scanArchive(ZipArchive.of(name, bytes), nestedLocation, depth + 1, inflater, issues);
+            } catch (IOException e) {
+                System.err.println("Skipping " + nestedLocation + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    private void addFingerprintMatch(String fingerprint, Set<String> libraries) {
+        String coordinates = index.resolveFingerprint(fingerprint);
+        if (coordinates != null) libraries.add(coordinates);
+    }
+    
+    private void report(String library, String location, List<SecurityIssue> issues) {
+        String[] coordinates = library.split(":");
+        if (coordinates.length != 3) return;
+        
+        for (VulnerabilityIndex.Advisory advisory : index.find(coordinates[0], coordinates[1], coordinates[2])) {
+            SecuritySeverity severity;
+            try {
+                severity = SecuritySeverity.valueOf(advisory.getSeverity());
+            } catch (IllegalArgumentException e) {
+                severity = SecuritySeverity.HIGH;
+            }
+            
+            String upgrade = "Upgrade " + coordinates[0] + ":" + coordinates[1] + " to a version outside " +
+                             advisory.getAffectedVersions() + ", or remove it if nothing uses it";
+            issues.add(new SecurityIssue("VULNERABLE_DEPENDENCY",
+                advisory.getId() + ": " + advisory.getSummary(), location, 0, library,
+                LazyValue.of(upgrade), severity, AnalysisTier.BYTECODE));
+        }
+    }
+    
+    // groupId:artifactId:version from META-INF/maven/<groupId>/<artifactId>/pom.properties
+    private String readPomProperties(ZipArchive zip, ZipArchive.Entry entry, Inflater inflater) {
+        try {
+            Properties properties = new Properties();
+            properties.load(new ByteArrayInputStream(toBytes(zip.readEntry(entry, inflater))));
+            String groupId = properties.getProperty("groupId");
+            String artifactId = properties.getProperty("artifactId");
+            String version = properties.getProperty("version");
+            if (groupId == null || artifactId == null || version == null) return null;
+            return groupId.trim() + ":" + artifactId.trim() + ":" + version.trim();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Skipping " + zip.getName() + "!/" + entry.name + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // OSGi bundles name themselves by Bundle-SymbolicName, other jars at best by Implementation-Title
+    private String readManifest(ZipArchive zip, ZipArchive.Entry entry, Inflater inflater) {
+        try {
+            Attributes attributes = new Manifest(new ByteArrayInputStream(toBytes(zip.readEntry(entry, inflater))))
+                .getMainAttributes();
+            String symbolicName = attributes.getValue("Bundle-SymbolicName");
+            String coordinates = symbolicName != null
+                ? resolve(symbolicName.split(";")[0].trim(), attributes.getValue("Bundle-Version"))
+                : null;
+            if (coordinates == null && attributes.getValue("Implementation-Title") != null) {
+                coordinates = resolve(attributes.getValue("Implementation-Title").trim(),
+                                      attributes.getValue("Implementation-Version"));
+            }
+            return coordinates;
+        } catch (IOException e) {
+            System.err.println("Skipping " + zip.getName() + "!/" + entry.name + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // snakeyaml-1.33.jar: the artifactId is everything before the first '-' that starts a number
+    private String fromFileName(String name) {
+        int extension = name.lastIndexOf('.');
+        String stem = extension > 0 ? name.substring(0, extension) : name;
+        for (int i = 1; i < stem.length() - 1; i++) {
+            if (stem.charAt(i) == '-' && Character.isDigit(stem.charAt(i + 1))) {
+                return resolve(stem.substring(0, i), stem.substring(i + 1));
+            }
+        }
+        return null;
+    }
+    
+    private String resolve(String name, String version) {
+        if (version == null || version.isBlank()) return null;
+        String artifact = index.resolveAlias(name);
+        return artifact != null ? artifact + ":" + version.trim() : null;
+    }
+    
+    // Class entries that belong to the library itself; module-info and multi-release copies vary between builds
+    private static List<ZipArchive.Entry> classEntries(List<ZipArchive.Entry> entries) {
+        List<ZipArchive.Entry> classes = new ArrayList<>();
+        for (ZipArchive.Entry entry : entries) {
+            if (!entry.name.endsWith(".class") || entry.name.startsWith("META-INF/")) continue;
+            if (entry.name.endsWith("module-info.class")) continue;
+            classes.add(entry);
+        }
+        classes.sort(Comparator.comparing(entry -> entry.name));
+        return classes;
+    }
+    
+    private static Map<String, List<ZipArchive.Entry>> byPackage(List<ZipArchive.Entry> classes) {
+        Map<String, List<ZipArchive.Entry>> packages = new TreeMap<>();
+        for (ZipArchive.Entry entry : classes) {
+            int slash = entry.name.lastIndexOf('/');
+            String pkg = slash > 0 ? entry.name.substring(0, slash).replace('/', '.') : "";
+            packages.computeIfAbsent(pkg, key -> new ArrayList<>()).add(entry);
+        }
+        return packages;
+    }
+    
+    // SHA-256 over the sorted (name, CRC-32) pairs; the CRC is in the central directory, so nothing is inflated
+    private static String fingerprintOf(List<ZipArchive.Entry> classes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        
+        for (ZipArchive.Entry entry : classes) {
+            digest.update(entry.name.getBytes(StandardCharsets.UTF_8));
+            digest.update(new byte[] {
+                0, (byte) (entry.crc >>> 24), (byte) (entry.crc >>> 16), (byte) (entry.crc >>> 8), (byte) entry.crc
+            });
+        }
+        
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < 16; i++) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+    
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+    
+    private static boolean isArchiveName(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".jar") || lower.endsWith(".war") || lower.endsWith(".ear");
+    }
+}
\ No newline at end of file
@@ -3,10 +3,12 @@ package application.services;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.stmt.*;
-import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import application.analysis.CodeMetrics;
+import application.analysis.CodeMetricsTable;
 import application.models.*;
 
 import java.util.*;
@@ -16,6 +18,14 @@ public class HeatmapAnalyzer {
     public HeatmapData generateHeatmapData(CompilationUnit compilationUnit, 
                                          List<OptimizationSuggestion> optimizations,
                                          List<SecurityIssue> securityIssues) {
+        return generateHeatmapData(compilationUnit, optimizations, securityIssues, new CodeMetricsTable());
+    }
+    
+    // Reuses whatever the rules already measured in the same table
+    public HeatmapData generateHeatmapData(CompilationUnit compilationUnit,
+                                         List<OptimizationSuggestion> optimizations,
+                                         List<SecurityIssue> securityIssues,
+                                         CodeMetricsTable codeMetrics) {
         
         if (compilationUnit == null) {
             return new HeatmapData();
@@ -23,8 +33,7 @@ public class HeatmapAnalyzer {
         
         HeatmapData heatmapData = new HeatmapData();
         
-        analyzeCodeStructure(compilationUnit, heatmapData);
-        calculateComplexityMetrics(compilationUnit, heatmapData);
+        analyzeCodeStructure(compilationUnit, heatmapData, codeMetrics);
         mapIssueDistribution(optimizations, securityIssues, heatmapData);
         calculateQualityScores(heatmapData);
         generateHeatmapRegions(heatmapData);
@@ -32,16 +41,12 @@ public class HeatmapAnalyzer {
         return heatmapData;
     }
     
-    private void analyzeCodeStructure(CompilationUnit compilationUnit, HeatmapData heatmapData) {
-        StructureAnalyzer analyzer = new StructureAnalyzer(heatmapData);
+    private void analyzeCodeStructure(CompilationUnit compilationUnit, HeatmapData heatmapData,
+                                      CodeMetricsTable codeMetrics) {
+        StructureAnalyzer analyzer = new StructureAnalyzer(heatmapData, codeMetrics);
         compilationUnit.accept(analyzer, null);
     }
     
-    private void calculateComplexityMetrics(CompilationUnit compilationUnit, HeatmapData heatmapData) {
-        ComplexityCalculator calculator = new ComplexityCalculator(heatmapData);
-        compilationUnit.accept(calculator, null);
-    }
-    
     private void mapIssueDistribution(List<OptimizationSuggestion> optimizations,
                                     List<SecurityIssue> securityIssues, 
                                     HeatmapData heatmapData) {
@@ -257,12 +262,14 @@ public class HeatmapAnalyzer {
     private class StructureAnalyzer extends VoidVisitorAdapter<Void> {
         
         private final HeatmapData heatmapData;
+        private final CodeMetricsTable codeMetrics;
         private String currentClassName;
         private String currentMethodName;
         private int currentMethodStart;
         
-        public StructureAnalyzer(HeatmapData heatmapData) {
+        public StructureAnalyzer(HeatmapData heatmapData, CodeMetricsTable codeMetrics) {
             this.heatmapData = heatmapData;
+            this.codeMetrics = codeMetrics;
         }
         
         @Override
@@ -300,97 +307,35 @@ public class HeatmapAnalyzer {
                 md.getParameters().size()
             );
             
-            heatmapData.addMethodMetrics(methodMetrics);
+            CodeMetrics codeMetrics = recordComplexity(md);
+            methodMetrics.setCyclomaticComplexity(codeMetrics.getCyclomaticComplexity());
+            methodMetrics.setCognitiveComplexity(codeMetrics.getCognitiveComplexity());
+            methodMetrics.setMaxNestingDepth(codeMetrics.getMaxNestingDepth());
+            methodMetrics.setLinesOfCode(codeMetrics.getLinesOfCode());
+            methodMetrics.setLoopCount(codeMetrics.getLoopCount());
+            methodMetrics.setCallCount(codeMetrics.getCallCount());
             
-            super.visit(md, arg);
-        }
-        
-        private int getLineNumber(Node node) {
-            return node.getBegin().map(pos -> pos.line).orElse(0);
-        }
-    }
-    
-    private class ComplexityCalculator extends VoidVisitorAdapter<Void> {
-        
-        private final HeatmapData heatmapData;
-        private String currentMethodName;
-        private int cyclomaticComplexity;
-        
-        public ComplexityCalculator(HeatmapData heatmapData) {
-            this.heatmapData = heatmapData;
-        }
-        
-        @Override
-        public void visit(MethodDeclaration md, Void arg) {
-            currentMethodName = md.getNameAsString();
-            cyclomaticComplexity = 1;
+            heatmapData.addMethodMetrics(methodMetrics);
             
             super.visit(md, arg);
-            
-            MethodMetrics metrics = heatmapData.getMethodMetrics().stream()
-                .filter(m -> m.getMethodName().equals(currentMethodName))
-                .findFirst()
-                .orElse(null);
-            
-            if (metrics != null) {
-                metrics.setCyclomaticComplexity(cyclomaticComplexity);
-            }
-        }
-        
-        @Override
-        public void visit(IfStmt n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(ForStmt n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(WhileStmt n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
         }
         
         @Override
-        public void visit(ForEachStmt n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
+        public void visit(ConstructorDeclaration cd, Void arg) {
+            recordComplexity(cd);
+            super.visit(cd, arg);
         }
         
         @Override
-        public void visit(DoStmt n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
+        public void visit(InitializerDeclaration id, Void arg) {
+            recordComplexity(id);
+            super.visit(id, arg);
         }
         
-        @Override
-        public void visit(SwitchStmt n, Void arg) {
-            cyclomaticComplexity += n.getEntries().size();
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(CatchClause n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
-        }
-        
-        @Override
-        public void visit(ConditionalExpr n, Void arg) {
-            cyclomaticComplexity++;
-            heatmapData.incrementLineComplexity(getLineNumber(n));
-            super.visit(n, arg);
+        private CodeMetrics recordComplexity(Node owner) {
+            CodeMetrics metrics = codeMetrics.get(owner);
+            metrics.getDecisionLines().forEach(heatmapData::incrementLineComplexity);
+            return metrics;
         }
         
         private int getLineNumber(Node node) {
@@ -0,0 +1,46 @@
+package application.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read-only windows over a file; a read never crosses a window, so callers loop in chunks
+class MappedFile implements Closeable {
+    
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart;
+    
+    MappedFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+    
+    long size() {
+        return size;
+    }
+    
+    // Up to length bytes at position, little-endian; the full length unless the file ends first
+    ByteBuffer read(long position, int length) throws IOException {
+        length = (int) Math.max(0, Math.min(length, size - position));
+        if (window == null || position < windowStart || position + length > windowStart + window.capacity()) {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Math.max(WINDOW_SIZE, length), size - position));
+        }
+        return window.slice((int) (position - windowStart), length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,264 @@
+package application.services;
+
+import application.models.*;
+import application.models.ClassFileSummary.FieldSummary;
+import application.models.ClassFileSummary.MemberReference;
+import application.models.ClassFileSummary.MemberReferenceKind;
+import application.models.ClassFileSummary.MethodSummary;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class QuickScanService {
+    
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_PROTECTED = 0x0004;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    
+    private final ClassFileScanner scanner = new ClassFileScanner();
+    
+    public ClassAnalysisResult scan(File classFile) throws Exception {
+        return scan(read(classFile));
+    }
+    
+    public ClassFileSummary read(File classFile) throws Exception {
+        return scanner.scan(classFile);
+    }
+    
+    public ClassAnalysisResult scan(ClassFileSummary summary) {
+        List<OptimizationSuggestion> optimizations = new ArrayList<>();
+        List<SecurityIssue> securityIssues = new ArrayList<>();
+        
+        checkCredentialFields(summary, securityIssues);
+        for (MethodSummary method : summary.getMethods()) {
+            if ((method.getAccessFlags() & ACC_SYNTHETIC) != 0) continue;
+            
+            checkMethodShape(method, optimizations);
+            checkReferences(method, optimizations, securityIssues);
+        }
+        
+        return new ClassAnalysisResult(null, optimizations, securityIssues, null, null,
+                                       extractClassInfo(summary), null, AnalysisTier.BYTECODE);
+    }
+    
+    private void checkCredentialFields(ClassFileSummary summary, List<SecurityIssue> issues) {
+        for (FieldSummary field : summary.getFields()) {
+            if (field.getConstantValue() instanceof String &&
+                isCredentialName(field.getName()) && !((String) field.getConstantValue()).isEmpty()) {
+                addSecurityIssue(issues, "HARDCODED_CREDENTIALS",
+                                 "Hardcoded credential found in constant: " + field.getName(),
+                                 0, field.getName() + " = \"" + field.getConstantValue() + "\"",
+                                 SecuritySeverity.CRITICAL);
+            }
+        }
+    }
+    
+    private void checkMethodShape(MethodSummary method, List<OptimizationSuggestion> optimizations) {
+        if (method.getName().startsWith("<")) return;
+        
+        int parameterCount = countParameters(method.getDescriptor());
+        if (parameterCount > 7) {
+            addOptimization(optimizations, "TOO_MANY_PARAMETERS",
+                            "Method has too many parameters (" + parameterCount + ")",
+                            method.getFirstLine(), method.getName() + method.getDescriptor(),
+                            OptimizationSeverity.MEDIUM);
+        }
+        
+        // A lone return instruction is the compiled form of an empty body
+        if (method.getCodeLength() == 1 && (method.getAccessFlags() & ACC_ABSTRACT) == 0) {
+            addOptimization(optimizations, "EMPTY_METHOD", "Method has empty body",
+                            method.getFirstLine(), method.getName() + method.getDescriptor(),
+                            OptimizationSeverity.LOW);
+        }
+    }
+    
+    private void checkReferences(MethodSummary method, List<OptimizationSuggestion> optimizations,
+                                 List<SecurityIssue> securityIssues) {
+        boolean buildsStrings = false;
+        for (MemberReference ref : method.getReferences()) {
+            if (ref.matches("java/lang/StringBuilder", "append") ||
+                (ref.getKind() == MemberReferenceKind.INVOKE_DYNAMIC && "makeConcatWithConstants".equals(ref.getName()))) {
+                buildsStrings = true;
+                break;
+            }
+        }
+        
+        for (MemberReference ref : method.getReferences()) {
+            String owner = ref.getOwner();
+            String name = ref.getName();
+            int line = ref.getLineNumber();
+            
+            if (ref.getKind() == MemberReferenceKind.INVOKE && ref.matches("java/lang/Runtime", "exec")) {
+                addSecurityIssue(securityIssues, "COMMAND_INJECTION",
+                                 "Potentially dangerous Runtime.exec() call", line,
+                                 "Runtime.exec" + ref.getDescriptor(), SecuritySeverity.HIGH);
+            } else if (ref.getKind() == MemberReferenceKind.INVOKE && owner.startsWith("java/sql/") &&
+                       !owner.equals("java/sql/PreparedStatement") &&
+                       ("executeQuery".equals(name) || "executeUpdate".equals(name) || "execute".equals(name)) &&
+                       ref.getDescriptor().startsWith("(Ljava/lang/String;")) {
+                if (buildsStrings) {
+                    addSecurityIssue(securityIssues, "SQL_INJECTION",
+                                     "SQL executed from a dynamically built string", line,
+                                     owner.replace('/', '.') + "." + name, SecuritySeverity.CRITICAL);
+                } else {
+                    addSecurityIssue(securityIssues, "DYNAMIC_SQL_CONSTRUCTION",
+                                     "SQL executed through a plain Statement", line,
+                                     owner.replace('/', '.') + "." + name, SecuritySeverity.MEDIUM);
+                }
+            } else if (ref.getKind() == MemberReferenceKind.NEW && "java/util/Random".equals(owner)) {
+                addSecurityIssue(securityIssues, "WEAK_RANDOM",
+                                 "java.util.Random instantiated (not suitable for security purposes)", line,
+                                 "new Random()", SecuritySeverity.LOW);
+            } else if (ref.getKind() == MemberReferenceKind.FIELD_WRITE && ref.getPrecedingStringConstant() != null &&
+                       isCredentialName(name) && !ref.getPrecedingStringConstant().isEmpty()) {
+                addSecurityIssue(securityIssues, "HARDCODED_CREDENTIALS",
+                                 "Hardcoded credential found in field: " + name, line,
+                                 name + " = \"" + ref.getPrecedingStringConstant() + "\"",
+                                 SecuritySeverity.CRITICAL);
+            } else if (ref.getKind() == MemberReferenceKind.INVOKE && "<init>".equals(name)) {
+                checkConstructorCall(ref, optimizations);
+            }
+        }
+    }
+    
+    private void checkConstructorCall(MemberReference ref, List<OptimizationSuggestion> optimizations) {
+        String owner = ref.getOwner();
+        
+        if ("java/lang/String".equals(owner) && "()V".equals(ref.getDescriptor())) {
+            addOptimization(optimizations, "UNNECESSARY_OBJECT_CREATION",
+                            "Unnecessary String object creation", ref.getLineNumber(),
+                            "new String()", OptimizationSeverity.LOW);
+        } else if (("java/lang/Integer".equals(owner) || "java/lang/Long".equals(owner) ||
+                    "java/lang/Boolean".equals(owner)) && countParameters(ref.getDescriptor()) == 1) {
+            String simpleName = owner.substring(owner.lastIndexOf('/') + 1);
+            addOptimization(optimizations, "WRAPPER_OBJECT_CREATION",
+                            "Consider using valueOf() method for wrapper objects", ref.getLineNumber(),
+                            "new " + simpleName + "(...)", OptimizationSeverity.LOW);
+        }
+    }
+    
+    private ClassInfo extractClassInfo(ClassFileSummary summary) {
+        List<FieldInfo> fields = new ArrayList<>();
+        for (FieldSummary field : summary.getFields()) {
+            if ((field.getAccessFlags() & ACC_SYNTHETIC) != 0) continue;
+            fields.add(new FieldInfo(field.getName(), descriptorToType(field.getDescriptor(), new int[] { 0 }),
+                                     accessModifier(field.getAccessFlags()),
+                                     (field.getAccessFlags() & ACC_STATIC) != 0,
+                                     (field.getAccessFlags() & ACC_FINAL) != 0));
+        }
+        
+        List<MethodInfo> methods = new ArrayList<>();
+        Set<String> imports = new HashSet<>();
+        for (MethodSummary method : summary.getMethods()) {
+            int flags = method.getAccessFlags();
+            if ((flags & ACC_SYNTHETIC) != 0 || "<clinit>".equals(method.getName())) continue;
+            
+            List<String> parameters = new ArrayList<>();
+            String descriptor = method.getDescriptor();
+            int[] position = { 1 };
+            while (descriptor.charAt(position[0]) != ')') {
+                parameters.add(descriptorToType(descriptor, position) + " arg" + parameters.size());
+            }
+            position[0]++;
+            String returnType = descriptorToType(descriptor, position);
+            
+            boolean isConstructor = "<init>".equals(method.getName());
+            methods.add(new MethodInfo(isConstructor ? summary.getSimpleName() : method.getName(),
+                                       returnType, parameters, accessModifier(flags),
+                                       (flags & ACC_STATIC) != 0, (flags & ACC_ABSTRACT) != 0,
+                                       (flags & ACC_FINAL) != 0));
+            
+            for (MemberReference ref : method.getReferences()) {
+                if (!ref.getOwner().isEmpty() && !ref.getOwner().equals(summary.getClassName())) {
+                    imports.add(ref.getOwner().replace('/', '.'));
+                }
+            }
+        }
+        
+        int classFlags = summary.getAccessFlags();
+        List<String> sortedImports = new ArrayList<>(imports);
+        sortedImports.sort(null);
+        return new ClassInfo(summary.getSimpleName(), summary.getPackageName(), fields, methods,
+                             sortedImports, accessModifier(classFlags),
+                             (classFlags & ACC_ABSTRACT) != 0 && (classFlags & ACC_INTERFACE) == 0,
+                             (classFlags & ACC_FINAL) != 0, (classFlags & ACC_INTERFACE) != 0);
+    }
+    
+    private String descriptorToType(String descriptor, int[] position) {
+        int dimensions = 0;
+        while (descriptor.charAt(position[0]) == '[') {
+            dimensions++;
+            position[0]++;
+        }
+        
+        String type;
+        char c = descriptor.charAt(position[0]++);
+        switch (c) {
+            case 'B': type = "byte"; break;
+            case 'C': type = "char"; break;
+            case 'D': type = "double"; break;
+            case 'F': type = "float"; break;
+            case 'I': type = "int"; break;
+            case 'J': type = "long"; break;
+            case 'S': type = "short"; break;
+            case 'Z': type = "boolean"; break;
+            case 'V': type = "void"; break;
+            case 'L': {
+                int end = descriptor.indexOf(';', position[0]);
+                String internalName = descriptor.substring(position[0], end);
+                position[0] = end + 1;
+                type = internalName.substring(internalName.lastIndexOf('/') + 1).replace('$', '.');
+                break;
+            }
+            default:
+                type = "?";
+        }
+        
+        return type + "[]".repeat(dimensions);
+    }
+    
+    private int countParameters(String descriptor) {
+        int count = 0;
+        int[] position = { 1 };
+        while (position[0] < descriptor.length() && descriptor.charAt(position[0]) != ')') {
+            descriptorToType(descriptor, position);
+            count++;
+        }
+        return count;
+    }
+    
+    private String accessModifier(int flags) {
+        if ((flags & ACC_PUBLIC) != 0) return "public";
+        if ((flags & ACC_PRIVATE) != 0) return "private";
+        if ((flags & ACC_PROTECTED) != 0) return "protected";
+        return "package-private";
+    }
+    
+    private boolean isCredentialName(String name) {
+        String lower = name.toLowerCase();
+        return lower.contains("password") || lower.contains("secret") || lower.contains("token") ||
+               lower.contains("api_key") || lower.contains("apikey") || lower.contains("credential");
+    }
+    
+    private void addOptimization(List<OptimizationSuggestion> optimizations, String type, String description,
+                                 int lineNumber, String originalCode, OptimizationSeverity severity) {
+        optimizations.add(new OptimizationSuggestion(type, description, lineNumber, originalCode,
+                                                     "// Decompile the class for a concrete suggestion",
+                                                     severity, AnalysisTier.BYTECODE));
+    }
+    
+    private void addSecurityIssue(List<SecurityIssue> issues, String type, String description,
+                                  int lineNumber, String vulnerableCode, SecuritySeverity severity) {
+        issues.add(new SecurityIssue(type, description, lineNumber, vulnerableCode,
+                                     "// Decompile the class for a concrete recommendation",
+                                     severity, AnalysisTier.BYTECODE));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,417 @@
+package application.services;
+
+import application.analysis.KeywordAutomaton;
+import application.analysis.SecretScanner;
+import application.models.AnalysisTier;
+import application.models.LazyValue;
+import application.models.SecurityIssue;
+import application.models.SecuritySeverity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Looks for hardcoded credentials in the non-class files of an archive or directory (properties, yml, xml, json, ...).
+// Files are memory-mapped a window at a time and scanned line by line, so neither archives nor entries are loaded whole.
+public class ResourceScanService {
+    
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // Longer lines (minified JSON, embedded blobs) are scanned in pieces of this length
+    private static final int MAX_LINE = 16 * 1024;
+    // A NUL byte this early means the entry is binary and is not scanned further
+    private static final int BINARY_PROBE = 8 * 1024;
+    
+    private static final String[] BINARY_EXTENSIONS = {
+        ".class", ".jar", ".war", ".ear", ".zip", ".gz", ".png", ".jpg", ".jpeg", ".gif", ".ico",
+        ".so", ".dll", ".dylib", ".jnilib", ".ttf", ".otf", ".woff", ".woff2", ".jks", ".p12"
+    };
+    
+    // Keys whose value is a credential whatever it looks like; other credential-like keys need a secret-looking value
+    private static final KeywordAutomaton SECRET_KEYS = new KeywordAutomaton(
+        "password", "passwd", "pwd", "secret", "token", "credential", "apikey", "api_key", "api-key",
+        "access_key", "access-key", "private_key", "private-key");
+    
+    private static final LazyValue<String> RECOMMENDATION = LazyValue.of(
+        "Move the value out of the artifact: read it from an environment variable or a secret store, " +
+        "and reference it with a placeholder such as ${DB_PASSWORD}");
+    
+    public List<SecurityIssue> scan(File input) throws IOException {
+        List<SecurityIssue> issues = new ArrayList<>();
+        LineScanner lines = new LineScanner(issues);
+        
+        if (input.isDirectory()) {
+            Path root = input.toPath();
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(root)) {
+                files = paths.filter(Files::isRegularFile)
+                             .filter(path -> !isBinaryName(path.getFileName().toString()))
+                             .sorted()
+                             .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                scanFile(file, root.relativize(file).toString().replace(File.separatorChar, '/'), lines);
+            }
+        } else if (isArchiveName(input.getName())) {
+            scanArchive(input.toPath(), lines);
+        } else if (!isBinaryName(input.getName())) {
+            scanFile(input.toPath(), input.getName(), lines);
+        }
+        return issues;
+    }
+    
+    private void scanFile(Path file, String resource, LineScanner lines) throws IOException {
+        try (MappedFile mapped = new MappedFile(file)) {
+            lines.start(resource);
+            for (long position = 0; position < mapped.size(); ) {
+                ByteBuffer chunk = mapped.read(position, (int) Math.min(CHUNK_SIZE, mapped.size() - position));
+                position += chunk.remaining();
+                if (!lines.accept(chunk)) break;
+            }
+            lines.finish();
+        }
+    }
+    
+    private void scanArchive(Path archive, LineScanner lines) throws IOException {
+        Inflater inflater = new Inflater(true);
+        
+        try (ZipArchive zip = ZipArchive.open(archive)) {
+            for (ZipArchive.Entry entry : resourceEntries(zip)) {
+                long dataOffset = zip.dataOffset(entry);
+                if (dataOffset < 0) {
+                    System.err.println("Skipping " + zip.getName() + "!/" + entry.name + ": bad local header");
+                    continue;
+                }
+                
+                lines.start(zip.getName() + "!/" + entry.name);
+                if (entry.method == ZipArchive.STORED) {
+                    readStored(zip, dataOffset, entry.compressedSize, lines);
+                } else {
+                    readDeflated(zip, dataOffset, entry.compressedSize, inflater, lines, entry.name);
+                }
+                lines.finish();
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    // Resource entries worth scanning, in archive order so the mapped window only moves forward
+    private List<ZipArchive.Entry> resourceEntries(ZipArchive zip) throws IOException {
+        List<ZipArchive.Entry> entries = new ArrayList<>();
+        for (ZipArchive.Entry entry : zip.entries()) {
+            if (entry.isDirectory() || entry.isEncrypted() || isBinaryName(entry.name)) continue;
+            if (entry.method != ZipArchive.STORED && entry.method != ZipArchive.DEFLATED) continue;
+            
+            entries.add(entry);
+        }
+        
+        entries.sort(Comparator.comparingLong(entry -> entry.localOffset));
+        return entries;
+    }
+    
+    private void readStored(ZipArchive zip, long offset, long length, LineScanner lines) throws IOException {
+        for (long read = 0; read < length; ) {
+            ByteBuffer chunk = zip.read(offset + read, (int) Math.min(CHUNK_SIZE, length - read));
+            if (!chunk.hasRemaining()) return;
+            read += chunk.remaining();
+            if (!lines.accept(chunk)) return;
+        }
+    }
+    
+    private void readDeflated(ZipArchive zip, long offset, long length, Inflater inflater,
+                              LineScanner lines, String name) throws IOException {
+        inflater.reset();
+        ByteBuffer output = ByteBuffer.allocate(CHUNK_SIZE);
+        long read = 0;
+        
+        try {
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (read >= length) return;
+                    ByteBuffer input = zip.read(offset + read, (int) Math.min(CHUNK_SIZE, length - read));
+                    if (!input.hasRemaining()) return;
+                    read += input.remaining();
+                    inflater.setInput(input);
+                }
+                
+                output.clear();
+                int inflated = inflater.inflate(output);
+                if (inflated == 0 && inflater.needsDictionary()) return;
+                output.flip();
+                if (output.hasRemaining() && !lines.accept(output)) return;
+            }
+        } catch (DataFormatException e) {
+            System.err.println("Skipping corrupt archive entry " + name + ": " + e.getMessage());
+        }
+    }
+    
+    private static boolean isArchiveName(String name) {
+        String lower = name.toLowerCase();
+        return lower.endsWith(".jar") || lower.endsWith(".war") || lower.endsWith(".ear") || lower.endsWith(".zip");
+    }
+    
+    private static boolean isBinaryName(String name) {
+        for (String extension : BINARY_EXTENSIONS) {
+            if (name.regionMatches(true, name.length() - extension.length(), extension, 0, extension.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Splits the bytes of one file into lines and checks the key/value pairs on each
+    private static class LineScanner {
+        
+        private final List<SecurityIssue> issues;
+        private final SecretScanner secrets = new SecretScanner();
+        private final char[] line = new char[MAX_LINE];
+        private final LineView view = new LineView(line);
+        private String resource;
+        private int length;
+        private int lineNumber;
+        private long bytesRead;
+        private int reportedLine;
+        // <property name="password" value="..."/>: the credential name comes from an earlier attribute
+        private int namedStart;
+        private int namedEnd;
+        
+        LineScanner(List<SecurityIssue> issues) {
+            this.issues = issues;
+        }
+        
+        void start(String resource) {
+            this.resource = resource;
+            length = 0;
+            lineNumber = 1;
+            bytesRead = 0;
+            reportedLine = 0;
+        }
+        
+        // False once the content turns out to be binary
+        boolean accept(ByteBuffer chunk) {
+            while (chunk.hasRemaining()) {
+                byte b = chunk.get();
+                if (b == 0 && bytesRead < BINARY_PROBE) {
+                    length = 0;
+                    return false;
+                }
+                bytesRead++;
+                
+                if (b == '\n') {
+                    scanLine();
+                    length = 0;
+                    lineNumber++;
+                } else if (b != '\r') {
+                    if (length == MAX_LINE) {
+                        scanLine();
+                        length = 0;
+                    }
+                    // Latin-1 keeps every byte one char; the keywords and separators are all ASCII
+                    line[length++] = (char) (b & 0xFF);
+                }
+            }
+            return true;
+        }
+        
+        void finish() {
+            if (length > 0) scanLine();
+            length = 0;
+        }
+        
+        private void scanLine() {
+            int start = 0;
+            int end = length;
+            while (start < end && Character.isWhitespace(line[start])) start++;
+            while (end > start && Character.isWhitespace(line[end - 1])) end--;
+            if (start == end || isComment(start, end) || regionMatches(start, end, "-----end")) return;
+            
+            namedStart = -1;
+            if (SecretScanner.looksLikeIssuedSecret(view.of(start, end))) {
+                report("Private key or issued API key in resource", "", view.toString(), SecuritySeverity.CRITICAL);
+                return;
+            }
+            
+            // key=value, key: value, "key": "value", key="value" attributes and <key>value</key>
+            for (int i = start; i < end; i++) {
+                char ch = line[i];
+                boolean found = (ch == '=' || ch == ':') ? checkPair(start, i, end)
+                              : ch == '>' && checkElement(start, i, end);
+                if (found) return;
+            }
+        }
+        
+        private boolean isComment(int start, int end) {
+            char first = line[start];
+            return first == '#' || first == '!' || first == ';' ||
+                   (first == '/' && start + 1 < end && (line[start + 1] == '/' || line[start + 1] == '*')) ||
+                   (first == '<' && start + 3 < end && line[start + 1] == '!' && line[start + 2] == '-');
+        }
+        
+        private boolean checkPair(int lineStart, int separator, int end) {
+            int keyEnd = separator;
+            while (keyEnd > lineStart && (line[keyEnd - 1] == ' ' || line[keyEnd - 1] == '\t')) keyEnd--;
+            if (keyEnd > lineStart && (line[keyEnd - 1] == '"' || line[keyEnd - 1] == '\'')) keyEnd--;
+            int keyStart = keyEnd;
+            while (keyStart > lineStart && isKeyChar(line[keyStart - 1])) keyStart--;
+            if (keyStart == keyEnd) return false;
+            
+            int valueStart = separator + 1;
+            // scheme://host is a URL, not a key/value pair
+            if (line[separator] == ':' && valueStart < end && line[valueStart] == '/') return false;
+            while (valueStart < end && (line[valueStart] == ' ' || line[valueStart] == '\t')) valueStart++;
+            
+            int valueEnd;
+            if (valueStart < end && (line[valueStart] == '"' || line[valueStart] == '\'')) {
+                char quote = line[valueStart++];
+                valueEnd = valueStart;
+                while (valueEnd < end && line[valueEnd] != quote) valueEnd++;
+            } else {
+                valueEnd = end;
+                while (valueEnd > valueStart && (line[valueEnd - 1] == ',' || line[valueEnd - 1] == ';')) valueEnd--;
+            }
+            
+            if (keyEnd - keyStart == 4 && regionMatches(keyStart, keyEnd, "name")) {
+                namedStart = valueStart;
+                namedEnd = valueEnd;
+                return false;
+            }
+            if (namedStart >= 0 && keyEnd - keyStart == 5 && regionMatches(keyStart, keyEnd, "value")) {
+                return check(namedStart, namedEnd, valueStart, valueEnd);
+            }
+            return check(keyStart, keyEnd, valueStart, valueEnd);
+        }
+        
+        private boolean checkElement(int lineStart, int close, int end) {
+            int open = close - 1;
+            while (open >= lineStart && line[open] != '<') open--;
+            if (open < lineStart || close - open < 2 || !Character.isLetter(line[open + 1])) return false;
+            
+            int tagEnd = open + 1;
+            while (tagEnd < close && isKeyChar(line[tagEnd])) tagEnd++;
+            int valueEnd = close + 1;
+            while (valueEnd < end && line[valueEnd] != '<') valueEnd++;
+            return check(open + 1, tagEnd, close + 1, valueEnd);
+        }
+        
+        private boolean check(int keyStart, int keyEnd, int valueStart, int valueEnd) {
+            while (valueStart < valueEnd && Character.isWhitespace(line[valueStart])) valueStart++;
+            while (valueEnd > valueStart && Character.isWhitespace(line[valueEnd - 1])) valueEnd--;
+            
+            CharSequence key = view.of(keyStart, keyEnd);
+            if (!SecretScanner.isCredentialName(key) || isPlaceholder(valueStart, valueEnd)) return false;
+            
+            boolean secretKey = SECRET_KEYS.findAll(key) != 0;
+            String keyName = key.toString();
+            boolean secretValue = secrets.looksLikeSecret(view.of(valueStart, valueEnd));
+            // A weak name such as key or user needs a secret-looking value, and a class name is not one
+            if (!secretKey && (!secretValue || isQualifiedName(valueStart, valueEnd))) return false;
+            
+            report("Hardcoded credential in resource: " + keyName, keyName,
+                   new String(line, valueStart, valueEnd - valueStart),
+                   secretValue ? SecuritySeverity.CRITICAL : SecuritySeverity.HIGH);
+            return true;
+        }
+        
+        // ${...}, #{...}, {{...}} and ENC(...) are resolved elsewhere; numbers and booleans are settings, not secrets
+        private boolean isPlaceholder(int start, int end) {
+            int length = end - start;
+            if (length < 4) return true;
+            
+            char first = line[start];
+            if ((first == '$' || first == '#' || first == '{' || first == '%') && line[start + 1] == '{') return true;
+            if (first == '<' || regionMatches(start, end, "enc(") || regionMatches(start, end, "changeme") ||
+                regionMatches(start, end, "true") || regionMatches(start, end, "false")) {
+                return true;
+            }
+            
+            for (int i = start; i < end; i++) {
+                if (!Character.isDigit(line[i])) return false;
+            }
+            return true;
+        }
+        
+        private boolean isQualifiedName(int start, int end) {
+            boolean dotted = false;
+            for (int i = start; i < end; i++) {
+                char ch = line[i];
+                if (ch == '.') dotted = true;
+                else if (!Character.isJavaIdentifierPart(ch)) return false;
+            }
+            return dotted;
+        }
+        
+        private boolean regionMatches(int start, int end, String prefix) {
+            if (end - start < prefix.length()) return false;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (Character.toLowerCase(line[start + i]) != prefix.charAt(i)) return false;
+            }
+            return true;
+        }
+        
+        private static boolean isKeyChar(char ch) {
+            return Character.isLetterOrDigit(ch) || ch == '.' || ch == '_' || ch == '-';
+        }
+        
+        private void report(String description, String key, String value, SecuritySeverity severity) {
+            // One finding per line, even when a long line is scanned in pieces
+            if (reportedLine == lineNumber) return;
+            reportedLine = lineNumber;
+            
+            String shown = key.isEmpty() ? mask(value) : key + " = " + mask(value);
+            issues.add(new SecurityIssue("HARDCODED_CREDENTIALS", description, resource, lineNumber, shown,
+                                         RECOMMENDATION, severity, AnalysisTier.BYTECODE));
+        }
+        
+        // Findings end up in reports and logs, so only the start of the value is shown
+        private static String mask(String value) {
+            return value.length() <= 8 ? "****" : value.substring(0, 4) + "****";
+        }
+    }
+    
+    // A reusable CharSequence over part of the line buffer
+    private static class LineView implements CharSequence {
+        
+        private final char[] chars;
+        private int start;
+        private int end;
+        
+        LineView(char[] chars) {
+            this.chars = chars;
+        }
+        
+        LineView of(int start, int end) {
+            this.start = start;
+            this.end = end;
+            return this;
+        }
+        
+        @Override
+        public int length() {
+            return end - start;
+        }
+        
+        @Override
+        public char charAt(int index) {
+            return chars[start + index];
+        }
+        
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new String(chars, start + from, to - from);
+        }
+        
+        @Override
+        public String toString() {
+            return new String(chars, start, end - start);
+        }
+    }
+}
\ No newline at end of file
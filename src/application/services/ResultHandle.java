@@ -0,0 +1,55 @@
+package application.services;
+
+import application.models.ClassAnalysisResult;
+
+import java.lang.ref.SoftReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class ResultHandle implements Supplier<ClassAnalysisResult> {
+    
+    private final ResultStore store;
+    private final Consumer<ClassAnalysisResult> onReload;
+    private final long estimatedBytes;
+    private ClassAnalysisResult inMemory;
+    private ResultStore.Location location;
+    private SoftReference<ClassAnalysisResult> reloaded;
+    
+    ResultHandle(ClassAnalysisResult result, ResultStore store, Consumer<ClassAnalysisResult> onReload) {
+        this.inMemory = result;
+        this.store = store;
+        this.onReload = onReload;
+        this.estimatedBytes = ResultSizeEstimator.estimate(result);
+    }
+    
+    @Override
+    public synchronized ClassAnalysisResult get() {
+        if (inMemory != null) {
+            return inMemory;
+        }
+        
+        // Reloads are only softly held so browsing spilled results cannot undo the budget
+        ClassAnalysisResult cached = reloaded != null ? reloaded.get() : null;
+        if (cached == null) {
+            cached = store.read(location);
+            onReload.accept(cached);
+            reloaded = new SoftReference<>(cached);
+        }
+        return cached;
+    }
+    
+    synchronized void spill() {
+        if (inMemory == null) return;
+        
+        location = store.append(inMemory);
+        inMemory = null;
+    }
+    
+    public synchronized boolean isSpilled() {
+        return inMemory == null;
+    }
+    
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package application.services;
+
+import application.models.ClassAnalysisResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class ResultMemoryBudget {
+    
+    private final long budgetBytes;
+    private final ResultStore store;
+    private final Consumer<ClassAnalysisResult> onReload;
+    private final Deque<ResultHandle> resident = new ArrayDeque<>();
+    private long residentBytes;
+    private int spilledCount;
+    
+    public ResultMemoryBudget(long budgetBytes, ResultStore store) {
+        this(budgetBytes, store, result -> { });
+    }
+    
+    public ResultMemoryBudget(long budgetBytes, ResultStore store, Consumer<ClassAnalysisResult> onReload) {
+        this.budgetBytes = budgetBytes;
+        this.store = store;
+        this.onReload = onReload;
+    }
+    
+    public static long defaultBudgetBytes() {
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+    
+    public ResultHandle admit(ClassAnalysisResult result) {
+        ResultHandle handle = new ResultHandle(result, store, onReload);
+        List<ResultHandle> evicted = new ArrayList<>();
+        
+        synchronized (this) {
+            resident.addLast(handle);
+            residentBytes += handle.getEstimatedBytes();
+            
+            // Oldest results spill first; the one just admitted is the likeliest to be read next
+            while (residentBytes > budgetBytes && resident.size() > 1) {
+                ResultHandle oldest = resident.pollFirst();
+                residentBytes -= oldest.getEstimatedBytes();
+                spilledCount++;
+                evicted.add(oldest);
+            }
+        }
+        
+        // Serialization runs outside the lock so the other workers keep admitting meanwhile
+        for (ResultHandle oldest : evicted) {
+            oldest.spill();
+        }
+        return handle;
+    }
+    
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+    
+    public synchronized int getSpilledCount() {
+        return spilledCount;
+    }
+    
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+    
+    public long getSpilledBytes() {
+        return store.getSpilledBytes();
+    }
+}
\ No newline at end of file
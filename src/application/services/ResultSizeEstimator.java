@@ -0,0 +1,71 @@
+package application.services;
+
+import application.models.ClassAnalysisResult;
+import application.models.HeatmapData;
+import application.models.OptimizationSuggestion;
+import application.models.SecurityIssue;
+
+public final class ResultSizeEstimator {
+    
+    private static final long OBJECT_OVERHEAD = 48;
+    private static final long MAP_ENTRY_OVERHEAD = 64;
+    private static final long PARSED_UNIT_FACTOR = 16;
+    
+    private ResultSizeEstimator() {
+    }
+    
+    public static long estimate(ClassAnalysisResult result) {
+        if (result == null) return 0;
+        
+        long bytes = OBJECT_OVERHEAD + stringBytes(result.getDecompiledCode());
+        
+        for (OptimizationSuggestion suggestion : result.getOptimizationSuggestions()) {
+            bytes += OBJECT_OVERHEAD
+                   + stringBytes(suggestion.getType())
+                   + stringBytes(suggestion.getDescription())
+                   + stringBytes(suggestion.getOriginalCode())
+                   + (suggestion.isSuggestedCodeComputed() ? stringBytes(suggestion.getSuggestedCode()) : 0);
+        }
+        
+        for (SecurityIssue issue : result.getSecurityIssues()) {
+            bytes += OBJECT_OVERHEAD
+                   + stringBytes(issue.getType())
+                   + stringBytes(issue.getDescription())
+                   + stringBytes(issue.getVulnerableCode())
+                   + (issue.isRecommendationComputed() ? stringBytes(issue.getRecommendation()) : 0);
+        }
+        
+        // Pending graphs or heatmap keep the parsed unit alive, which is far larger than the source text
+        if (!result.isGraphDataComputed() || !result.isHeatmapDataComputed()) {
+            bytes += PARSED_UNIT_FACTOR * stringBytes(result.getDecompiledCode());
+        }
+        
+        if (result.isGraphDataComputed() && result.getMethodCallGraph() != null) {
+            bytes += (result.getMethodCallGraph().getNodes().size()
+                    + result.getMethodCallGraph().getEdges().size()) * 2 * OBJECT_OVERHEAD;
+        }
+        
+        if (result.isGraphDataComputed() && result.getClassHierarchy() != null) {
+            bytes += (result.getClassHierarchy().getNodes().size()
+                    + result.getClassHierarchy().getEdges().size()) * 2 * OBJECT_OVERHEAD;
+        }
+        
+        HeatmapData heatmap = result.isHeatmapDataComputed() ? result.getHeatmapData() : null;
+        if (heatmap != null) {
+            bytes += (heatmap.getIssueDistribution().size()
+                    + heatmap.getLineQualityScores().size()
+                    + heatmap.getMethodQualityScores().size()
+                    + heatmap.getClassQualityScores().size()) * MAP_ENTRY_OVERHEAD;
+            bytes += (heatmap.getMethodMetrics().size()
+                    + heatmap.getClassMetrics().size()
+                    + heatmap.getHeatmapRegions().size()) * 2 * OBJECT_OVERHEAD;
+            bytes += heatmap.getTotalIssueCount() * 2 * OBJECT_OVERHEAD;
+        }
+        
+        return bytes;
+    }
+    
+    private static long stringBytes(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD + 2L * value.length();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+package application.services;
+
+import application.models.ClassAnalysisResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultStore implements AutoCloseable {
+    
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    
+    private final Path directory;
+    private final long segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    
+    public ResultStore() throws IOException {
+        this(Files.createTempDirectory("java_analyzer_results"), DEFAULT_SEGMENT_SIZE);
+    }
+    
+    public ResultStore(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+    
+    public Location append(ClassAnalysisResult result) {
+        byte[] bytes = serialize(result);
+        synchronized (this) {
+            return write(bytes);
+        }
+    }
+    
+    private Location write(byte[] bytes) {
+        try {
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || (segment.size > 0 && segment.size + bytes.length > segmentSize)) {
+                if (segment != null) {
+                    segment.seal();
+                }
+                segment = openSegment(segments.size());
+                segments.add(segment);
+            }
+            
+            long offset = segment.size;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer, offset + buffer.position());
+            }
+            segment.size += bytes.length;
+            
+            return new Location(segments.size() - 1, offset, bytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill analysis result", e);
+        }
+    }
+    
+    public ClassAnalysisResult read(Location location) {
+        ByteBuffer view;
+        synchronized (this) {
+            view = segments.get(location.segment).view(location.offset, location.length);
+        }
+        
+        byte[] bytes = new byte[location.length];
+        view.get(bytes);
+        return deserialize(bytes);
+    }
+    
+    public synchronized long getSpilledBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return total;
+    }
+    
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                System.err.println("Failed to delete result segment: " + segment.path);
+            }
+        }
+        segments.clear();
+        
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            System.err.println("Failed to delete result store directory: " + directory);
+        }
+    }
+    
+    private Segment openSegment(int index) throws IOException {
+        Path path = directory.resolve(String.format("segment-%05d.bin", index));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(path, channel);
+    }
+    
+    private byte[] serialize(ClassAnalysisResult result) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize analysis result", e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private ClassAnalysisResult deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (ClassAnalysisResult) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled analysis result", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Spilled analysis result has unknown type", e);
+        }
+    }
+    
+    public static class Location {
+        private final int segment;
+        private final long offset;
+        private final int length;
+        
+        Location(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+        
+        public int getLength() { return length; }
+    }
+    
+    private static class Segment {
+        final Path path;
+        final FileChannel channel;
+        long size;
+        MappedByteBuffer mapped;
+        
+        Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+        
+        void seal() throws IOException {
+            // Full segments never change again, so one mapping serves every later read
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        
+        ByteBuffer view(long offset, int length) {
+            try {
+                if (mapped != null) {
+                    ByteBuffer view = mapped.duplicate();
+                    view.position((int) offset);
+                    view.limit((int) offset + length);
+                    return view.slice();
+                }
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map result segment " + path, e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -2,226 +2,255 @@ package application.services;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.*;
 import com.github.javaparser.ast.stmt.*;
-import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import application.analysis.CodeMetricsTable;
+import application.analysis.ControlFlowGraph;
+import application.analysis.DefUseIndex;
+import application.analysis.MethodDataflow;
+import application.analysis.MethodFacts;
+import application.analysis.SecretScanner;
+import application.analysis.TaintAnalysis;
+import application.analysis.TaintCatalog;
+import application.analysis.TaintSummaries;
+import application.analysis.TaintSummary;
+import application.models.AnalysisTier;
+import application.models.LazyValue;
 import application.models.SecurityIssue;
 import application.models.SecuritySeverity;
+import application.rules.RuleCategory;
+import application.rules.RuleContext;
+import application.rules.RuleEngine;
+import application.rules.RuleRegistry;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SecurityService {
     
-    private static final List<String> DANGEROUS_RUNTIME_METHODS = Arrays.asList(
-        "exec", "getRuntime", "ProcessBuilder"
-    );
+    private final CSGenerator codeGenerator = new CSGenerator();
+    private final TaintCatalog taintCatalog = TaintCatalog.getDefault();
+    private volatile TaintSummaries taintSummaries;
+    private final RuleEngine ruleEngine;
+    private final Map<Set<AnalysisTier>, RuleEngine> enginesByTiers = new ConcurrentHashMap<>();
     
-    private static final List<String> SQL_METHODS = Arrays.asList(
-        "executeQuery", "executeUpdate", "execute"
-    );
+    public SecurityService() {
+        this(RuleRegistry.getDefaultEngine());
+    }
     
-    private static final List<String> FILE_OPERATIONS = Arrays.asList(
-        "FileInputStream", "FileOutputStream", "FileReader", "FileWriter",
-        "RandomAccessFile", "File", "Files"
-    );
+    public SecurityService(RuleEngine ruleEngine) {
+        this.ruleEngine = ruleEngine;
+    }
     
-    private final CSGenerator codeGenerator = new CSGenerator();
+    // Summaries covering a whole archive; without them each unit is summarized on its own
+    public void setTaintSummaries(TaintSummaries taintSummaries) {
+        this.taintSummaries = taintSummaries;
+    }
     
     public List<SecurityIssue> analyzeSecurityIssues(CompilationUnit compilationUnit) {
+        return analyzeSecurityIssues(compilationUnit, EnumSet.of(AnalysisTier.STANDARD, AnalysisTier.DEEP));
+    }
+    
+    public List<SecurityIssue> analyzeSecurityIssues(CompilationUnit compilationUnit, Set<AnalysisTier> tiers) {
+        return analyzeSecurityIssues(compilationUnit, tiers, new CodeMetricsTable());
+    }
+    
+    public List<SecurityIssue> analyzeSecurityIssues(CompilationUnit compilationUnit, Set<AnalysisTier> tiers,
+                                                     CodeMetricsTable codeMetrics) {
         List<SecurityIssue> issues = new ArrayList<>();
         
-        SecurityAnalyzer analyzer = new SecurityAnalyzer(issues);
-        compilationUnit.accept(analyzer, null);
+        SecurityAnalyzer analyzer = new SecurityAnalyzer(issues, tiers);
+        analyzer.analyze(compilationUnit);
+        
+        Set<AnalysisTier> key = tiers.isEmpty() ? EnumSet.noneOf(AnalysisTier.class) : EnumSet.copyOf(tiers);
+        RuleEngine engine = enginesByTiers.computeIfAbsent(key,
+            selected -> ruleEngine.select(RuleCategory.SECURITY, selected));
+        RuleContext context = new RuleContext(compilationUnit, codeGenerator, codeMetrics);
+        engine.run(compilationUnit, context);
+        issues.addAll(context.getSecurityIssues());
         
+        issues.sort(Comparator.comparingInt(SecurityIssue::getLineNumber));
         return issues;
     }
     
-    private class SecurityAnalyzer extends VoidVisitorAdapter<Void> {
+    // Walks the unit once: every node feeds the fact tables of the scopes it sits in, and the checks
+    // it triggers are queued until its method has been walked completely, so they see the full facts
+    private class SecurityAnalyzer {
         
         private final List<SecurityIssue> issues;
-        private final Set<String> nullCheckedVariables = new HashSet<>();
-        private final Set<String> initializedVariables = new HashSet<>();
-        private final Set<String> parameterNames = new HashSet<>();
-        private final Set<String> fieldNames = new HashSet<>();
-        private final Set<String> exceptionVariables = new HashSet<>();
-        private final Set<String> enhancedForLoopVariables = new HashSet<>();
+        private final Deque<Scope> scopes = new ArrayDeque<>();
+        private final Map<Node, MethodDataflow> dataflowByOwner = new IdentityHashMap<>();
+        private final Map<Node, MethodFacts> factsByOwner = new IdentityHashMap<>();
+        private final Map<Node, TaintAnalysis> taintByOwner = new IdentityHashMap<>();
+        private final Map<Node, TaintAnalysis> summaryTaintByOwner = new IdentityHashMap<>();
+        private final Map<Node, TaintAnalysis> parameterTaintByOwner = new IdentityHashMap<>();
+        private TaintSummaries summaries;
+        private boolean unitHasSinkCandidate;
+        private final SecretScanner secretScanner = new SecretScanner();
         private final Set<Integer> securityIssueLines = new HashSet<>();
+        private final boolean standard;
+        private final boolean deep;
+        private AnalysisTier emittingTier = AnalysisTier.STANDARD;
+        private Set<String> parameterNames = Collections.emptySet();
         private MethodDeclaration currentMethod;
         
-        public SecurityAnalyzer(List<SecurityIssue> issues) {
+        public SecurityAnalyzer(List<SecurityIssue> issues, Set<AnalysisTier> tiers) {
             this.issues = issues;
+            this.standard = tiers.contains(AnalysisTier.STANDARD);
+            this.deep = tiers.contains(AnalysisTier.DEEP);
         }
         
-        @Override
-        public void visit(CompilationUnit cu, Void arg) {
-            collectFieldNames(cu);
-            super.visit(cu, arg);
+        public void analyze(CompilationUnit compilationUnit) {
+            traverse(compilationUnit);
         }
         
-        private void collectFieldNames(CompilationUnit cu) {
-            cu.accept(new VoidVisitorAdapter<Void>() {
-                @Override
-                public void visit(com.github.javaparser.ast.body.FieldDeclaration fd, Void arg) {
-                    fd.getVariables().forEach(var -> fieldNames.add(var.getNameAsString()));
-                    super.visit(fd, arg);
-                }
-            }, null);
-        }
-        
-        @Override
-        public void visit(MethodDeclaration md, Void arg) {
-            this.currentMethod = md;
-            nullCheckedVariables.clear();
-            initializedVariables.clear();
-            parameterNames.clear();
-            exceptionVariables.clear();
-            enhancedForLoopVariables.clear();
+        private void traverse(Node node) {
+            boolean isScope = node instanceof CompilationUnit || node instanceof MethodDeclaration ||
+                              node instanceof ConstructorDeclaration || node instanceof InitializerDeclaration;
+            if (isScope) {
+                openScope(node);
+            }
             
-            md.getParameters().forEach(param -> parameterNames.add(param.getNameAsString()));
+            // Enclosing methods see the nodes of local and anonymous classes too, as a whole-body walk would
+            for (Scope scope : scopes) {
+                scope.facts.record(node);
+            }
+            dispatch(node);
             
-            collectNullChecks(md);
-            collectInitializedVariables(md);
-            collectExceptionVariables(md);
-            collectEnhancedForLoopVariables(md);
+            for (Node child : node.getChildNodes()) {
+                traverse(child);
+            }
             
-            super.visit(md, arg);
+            if (isScope) {
+                closeScope();
+            }
         }
         
-        @Override
-        public void visit(com.github.javaparser.ast.body.FieldDeclaration fd, Void arg) {
-            checkHardcodedCredentialsInFields(fd);
-            super.visit(fd, arg);
+        private void openScope(Node owner) {
+            Scope enclosing = scopes.peek();
+            MethodDeclaration method = owner instanceof MethodDeclaration ? (MethodDeclaration) owner
+                                     : enclosing != null ? enclosing.method : null;
+            Set<String> parameters = new HashSet<>();
+            if (owner instanceof CallableDeclaration) {
+                ((CallableDeclaration<?>) owner).getParameters().forEach(param -> parameters.add(param.getNameAsString()));
+            }
+            
+            Scope scope = new Scope(method, parameters);
+            factsByOwner.put(owner, scope.facts);
+            scopes.push(scope);
         }
         
-        @Override
-        public void visit(StringLiteralExpr sle, Void arg) {
-            checkHardcodedCredentialsInStrings(sle);
-            super.visit(sle, arg);
+        private void closeScope() {
+            Scope scope = scopes.pop();
+            currentMethod = scope.method;
+            parameterNames = scope.parameters;
+            for (Runnable check : scope.deferred) {
+                check.run();
+            }
         }
         
-        @Override
-        public void visit(ObjectCreationExpr oce, Void arg) {
-            checkUnsafeObjectCreation(oce);
-            checkFileOperationSecurity(oce);
-            super.visit(oce, arg);
+        private void defer(Runnable check) {
+            scopes.peek().deferred.add(check);
         }
         
-        private void collectEnhancedForLoopVariables(Node node) {
-            node.accept(new VoidVisitorAdapter<Void>() {
-                @Override
-                public void visit(ForEachStmt fes, Void arg) {
-                    enhancedForLoopVariables.add(fes.getVariable().getVariables().get(0).getNameAsString());
-                    super.visit(fes, arg);
-                }
-            }, null);
+        // For checks that ask about the whole unit: they wait for the unit scope, but keep their own method
+        private void deferToUnit(Runnable check) {
+            Scope origin = scopes.peek();
+            scopes.peekLast().deferred.add(() -> {
+                currentMethod = origin.method;
+                parameterNames = origin.parameters;
+                check.run();
+            });
         }
         
-        private void collectNullChecks(Node node) {
-            node.accept(new VoidVisitorAdapter<Void>() {
-                @Override
-                public void visit(BinaryExpr be, Void arg) {
-                    if (be.getOperator() == BinaryExpr.Operator.NOT_EQUALS) {
-                        if (be.getRight() instanceof NullLiteralExpr && be.getLeft() instanceof NameExpr) {
-                            nullCheckedVariables.add(((NameExpr) be.getLeft()).getNameAsString());
-                        }
-                        if (be.getLeft() instanceof NullLiteralExpr && be.getRight() instanceof NameExpr) {
-                            nullCheckedVariables.add(((NameExpr) be.getRight()).getNameAsString());
-                        }
-                    }
-                    super.visit(be, arg);
-                }
-                
-                @Override
-                public void visit(MethodCallExpr mce, Void arg) {
-                    String methodName = mce.getNameAsString();
-                    String className = getClassName(mce);
-                    
-                    if ("Objects".equals(className) && 
-                        ("nonNull".equals(methodName) || "requireNonNull".equals(methodName))) {
-                        if (!mce.getArguments().isEmpty() && mce.getArguments().get(0) instanceof NameExpr) {
-                            nullCheckedVariables.add(((NameExpr) mce.getArguments().get(0)).getNameAsString());
-                        }
-                    }
-                    super.visit(mce, arg);
+        // Checks that consult wider context only run when the deep tier is requested
+        private void runDeepCheck(Runnable check) {
+            runDeepCheck(check, false);
+        }
+        
+        private void runDeepCheck(Runnable check, boolean unitWide) {
+            if (!deep) return;
+            
+            Runnable deepCheck = () -> {
+                emittingTier = AnalysisTier.DEEP;
+                try {
+                    check.run();
+                } finally {
+                    emittingTier = AnalysisTier.STANDARD;
                 }
-            }, null);
+            };
+            if (unitWide) {
+                deferToUnit(deepCheck);
+            } else {
+                defer(deepCheck);
+            }
         }
         
-        private void collectInitializedVariables(Node node) {
-            node.accept(new VoidVisitorAdapter<Void>() {
-                @Override
-                public void visit(VariableDeclarationExpr vde, Void arg) {
-                    vde.getVariables().forEach(var -> {
-                        if (var.getInitializer().isPresent()) {
-                            initializedVariables.add(var.getNameAsString());
-                        }
+        private void dispatch(Node node) {
+            if (deep && !unitHasSinkCandidate && (node instanceof MethodCallExpr || node instanceof ObjectCreationExpr)) {
+                unitHasSinkCandidate = isSinkCandidate(node);
+            }
+            if (node instanceof FieldDeclaration) {
+                if (standard) {
+                    defer(() -> checkHardcodedCredentialsInFields((FieldDeclaration) node));
+                }
+            } else if (node instanceof StringLiteralExpr) {
+                runDeepCheck(() -> checkHardcodedCredentialsInStrings((StringLiteralExpr) node), true);
+            } else if (node instanceof ObjectCreationExpr) {
+                ObjectCreationExpr oce = (ObjectCreationExpr) node;
+                runDeepCheck(() -> checkUnsafeObjectCreation(oce), true);
+                runDeepCheck(() -> checkInterproceduralTaint(oce), true);
+                if (standard) {
+                    defer(() -> {
+                        checkFileOperationSecurity(oce);
+                        checkCommandInjection(oce);
                     });
-                    super.visit(vde, arg);
+                } else {
+                    defer(() -> recordSecuritySensitiveLine(oce));
                 }
-                
-                @Override
-                public void visit(AssignExpr ae, Void arg) {
-                    if (ae.getTarget() instanceof NameExpr) {
-                        initializedVariables.add(((NameExpr) ae.getTarget()).getNameAsString());
-                    }
-                    super.visit(ae, arg);
+            } else if (node instanceof MethodCallExpr) {
+                MethodCallExpr mce = (MethodCallExpr) node;
+                if (standard) {
+                    defer(() -> {
+                        checkDangerousMethodCalls(mce);
+                        checkSQLInjectionVulnerability(mce);
+                        checkFileOperationSecurity(mce);
+                    });
+                } else {
+                    defer(() -> recordSecuritySensitiveLine(mce));
                 }
-            }, null);
-        }
-        
-        private void collectExceptionVariables(Node node) {
-            node.accept(new VoidVisitorAdapter<Void>() {
-                @Override
-                public void visit(CatchClause cc, Void arg) {
-                    exceptionVariables.add(cc.getParameter().getNameAsString());
-                    super.visit(cc, arg);
+                runDeepCheck(() -> checkNullPointerDeReference(mce));
+                runDeepCheck(() -> checkInterproceduralTaint(mce), true);
+            } else if (node instanceof VariableDeclarationExpr) {
+                if (standard) {
+                    defer(() -> checkSensitiveDataExposure((VariableDeclarationExpr) node));
                 }
-            }, null);
-        }
-        
-        @Override
-        public void visit(MethodCallExpr mce, Void arg) {
-            checkDangerousMethodCalls(mce);
-            checkSQLInjectionVulnerability(mce);
-            checkNullPointerDeReference(mce);
-            super.visit(mce, arg);
-        }
-        
-        @Override
-        public void visit(VariableDeclarationExpr vde, Void arg) {
-            checkSensitiveDataExposure(vde);
-            super.visit(vde, arg);
-        }
-        
-        @Override
-        public void visit(ArrayAccessExpr aae, Void arg) {
-            checkArrayBoundsVulnerability(aae);
-            super.visit(aae, arg);
-        }
-        
-        @Override
-        public void visit(CastExpr ce, Void arg) {
-            checkUnsafeCasting(ce);
-            super.visit(ce, arg);
-        }
-        
-        @Override
-        public void visit(TryStmt ts, Void arg) {
-            checkImproperExceptionHandling(ts);
-            super.visit(ts, arg);
+            } else if (node instanceof ArrayAccessExpr) {
+                runDeepCheck(() -> checkArrayBoundsVulnerability((ArrayAccessExpr) node));
+            } else if (node instanceof CastExpr) {
+                runDeepCheck(() -> checkUnsafeCasting((CastExpr) node));
+            }
         }
         
-        private void checkHardcodedCredentialsInFields(com.github.javaparser.ast.body.FieldDeclaration fd) {
+        private void checkHardcodedCredentialsInFields(FieldDeclaration fd) {
             fd.getVariables().forEach(variable -> {
-                String variableName = variable.getNameAsString().toLowerCase();
-                
-                if (isCredentialFieldName(variableName) && variable.getInitializer().isPresent()) {
+                if (SecretScanner.isCredentialName(variable.getNameAsString()) && variable.getInitializer().isPresent()) {
                     Expression initializer = variable.getInitializer().get();
                     
                     if (initializer instanceof StringLiteralExpr && !isFromSecureSource(variable)) {
@@ -230,8 +259,7 @@ public class SecurityService {
                         
                         if (!value.isEmpty() && !isPlaceholderValue(value)) {
                             String originalCode = variable.toString();
-                            String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                                "HARDCODED_CREDENTIALS", fd, currentMethod);
+                            LazyValue<String> suggestedCode = suggestion("HARDCODED_CREDENTIALS", fd);
                             
                             addSecurityIssue("HARDCODED_CREDENTIALS",
                                            "Hardcoded credential found in field: " + variable.getNameAsString(),
@@ -247,11 +275,13 @@ public class SecurityService {
         
         private void checkHardcodedCredentialsInStrings(StringLiteralExpr sle) {
             String value = sle.getValue();
+            // Stored under a credential name, the value is a secret however guessable it is
+            String target = assignedName(sle);
+            boolean credentialTarget = target != null && SecretScanner.isCredentialName(target) && !isPlaceholderValue(value);
             
-            if (looksLikeCredential(value) && !isInTestContext(sle) && !isInConfigContext(sle)) {
+            if ((credentialTarget || secretScanner.looksLikeSecret(value)) && !isInTestContext(sle) && !isInConfigContext(sle)) {
                 String originalCode = sle.toString();
-                String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                    "HARDCODED_CREDENTIALS", sle, currentMethod);
+                LazyValue<String> suggestedCode = suggestion("HARDCODED_CREDENTIALS", sle);
                 
                 addSecurityIssue("HARDCODED_CREDENTIALS",
                                "Potential hardcoded credential in string literal",
@@ -262,78 +292,38 @@ public class SecurityService {
             }
         }
         
-        private boolean isCredentialFieldName(String fieldName) {
-            return fieldName.contains("password") || 
-                   fieldName.contains("secret") ||
-                   fieldName.contains("key") ||
-                   fieldName.contains("token") ||
-                   fieldName.contains("user") ||
-                   fieldName.contains("username") ||
-                   fieldName.contains("credential") ||
-                   fieldName.contains("auth") ||
-                   fieldName.contains("api_key") ||
-                   fieldName.contains("access_key");
-        }
-        
-        private boolean isPlaceholderValue(String value) {
-            String lowerValue = value.toLowerCase();
-            return lowerValue.equals("password") ||
-                   lowerValue.equals("secret") ||
-                   lowerValue.equals("user") ||
-                   lowerValue.equals("test") ||
-                   lowerValue.equals("example") ||
-                   lowerValue.equals("demo") ||
-                   lowerValue.equals("default") ||
-                   lowerValue.equals("changeme") ||
-                   lowerValue.equals("") ||
-                   lowerValue.startsWith("todo") ||
-                   lowerValue.startsWith("placeholder") ||
-                   lowerValue.startsWith("your_") ||
-                   lowerValue.startsWith("enter_");
-        }
-        
-        private boolean looksLikeCredential(String value) {
-            if (value.length() < 3) return false;
-            
-            String lowerValue = value.toLowerCase();
-            
-            if (looksLikePassword(value) || 
-                looksLikeApiKey(value) || 
-                looksLikeToken(value)) {
-                return true;
+        // The variable or field a literal initializes or is assigned to, if any
+        private String assignedName(StringLiteralExpr sle) {
+            Node parent = sle.getParentNode().orElse(null);
+            if (parent instanceof VariableDeclarator) {
+                return ((VariableDeclarator) parent).getNameAsString();
             }
-            
-            return lowerValue.equals("admin") ||
-                   lowerValue.equals("administrator") ||
-                   lowerValue.equals("root") ||
-                   lowerValue.equals("sa") ||
-                   (lowerValue.contains("admin") && value.length() < 20);
-        }
-        
-        private boolean looksLikePassword(String value) {
-            if (value.length() < 6) return false;
-            
-            boolean hasUpper = value.chars().anyMatch(Character::isUpperCase);
-            boolean hasLower = value.chars().anyMatch(Character::isLowerCase);
-            boolean hasDigit = value.chars().anyMatch(Character::isDigit);
-            boolean hasSpecial = value.chars().anyMatch(ch -> "!@#$%^&*()_+-=[]{}|;:,.<>?".indexOf(ch) >= 0);
-            
-            int complexityScore = (hasUpper ? 1 : 0) + (hasLower ? 1 : 0) + (hasDigit ? 1 : 0) + (hasSpecial ? 1 : 0);
-            return complexityScore >= 2;
+            if (parent instanceof AssignExpr && ((AssignExpr) parent).getValue() == sle) {
+                Expression target = ((AssignExpr) parent).getTarget();
+                if (target instanceof NameExpr) return ((NameExpr) target).getNameAsString();
+                if (target instanceof FieldAccessExpr) return ((FieldAccessExpr) target).getNameAsString();
+            }
+            return null;
         }
         
-        private boolean looksLikeApiKey(String value) {
-            if (value.length() < 16 || value.length() > 128) return false;
-            
-            long alphanumericCount = value.chars().filter(ch -> Character.isLetterOrDigit(ch) || ch == '-' || ch == '_').count();
-            double alphanumericRatio = (double) alphanumericCount / value.length();
-            
-            return alphanumericRatio > 0.8;
+        private boolean isPlaceholderValue(String value) {
+            return value.equalsIgnoreCase("password") ||
+                   value.equalsIgnoreCase("secret") ||
+                   value.equalsIgnoreCase("user") ||
+                   value.equalsIgnoreCase("test") ||
+                   value.equalsIgnoreCase("example") ||
+                   value.equalsIgnoreCase("demo") ||
+                   value.equalsIgnoreCase("default") ||
+                   value.equalsIgnoreCase("changeme") ||
+                   value.isEmpty() ||
+                   startsWithIgnoreCase(value, "todo") ||
+                   startsWithIgnoreCase(value, "placeholder") ||
+                   startsWithIgnoreCase(value, "your_") ||
+                   startsWithIgnoreCase(value, "enter_");
         }
         
-        private boolean looksLikeToken(String value) {
-            return value.contains(".") && value.length() > 20 ||
-                   (value.length() > 32 && value.chars().allMatch(ch -> Character.isLetterOrDigit(ch)));
+        private boolean startsWithIgnoreCase(String value, String prefix) {
+            return value.regionMatches(true, 0, prefix, 0, prefix.length());
         }
         
         private boolean isInTestContext(StringLiteralExpr sle) {
@@ -352,47 +342,22 @@ public class SecurityService {
         }
         
         private boolean isInConfigContext(StringLiteralExpr sle) {
-            Node parent = sle.getParentNode().orElse(null);
-            while (parent != null) {
-                String parentStr = parent.toString();
-                if (parentStr.contains("System.getProperty") ||
-                    parentStr.contains("System.getenv") ||
-                    parentStr.contains("config") ||
-                    parentStr.contains("properties")) {
-                    return true;
-                }
-                parent = parent.getParentNode().orElse(null);
-            }
-            return false;
+            MethodFacts facts = getUnitFacts(sle);
+            return facts.callsQualified("System.getProperty") ||
+                   facts.callsQualified("System.getenv") ||
+                   facts.mentions("config") ||
+                   facts.mentions("properties");
         }
         
         private void checkDangerousMethodCalls(MethodCallExpr mce) {
             String methodName = mce.getNameAsString();
-            String fullCall = mce.toString();
             
-            if ("exec".equals(methodName) && isRuntimeExec(mce)) {
-                if (!isInTestMethod(mce)) {
-                    String originalCode = mce.toString();
-                    String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                        "COMMAND_INJECTION", mce, currentMethod);
-                    
-                    int lineNumber = getLineNumber(mce);
-                    securityIssueLines.add(lineNumber);
-                    
-                    addSecurityIssue("COMMAND_INJECTION",
-                                   "Potentially dangerous Runtime.exec() call",
-                                   lineNumber,
-                                   originalCode,
-                                   suggestedCode,
-                                   SecuritySeverity.HIGH);
-                }
-            }
+            checkCommandInjection(mce);
             
-            if ("getRuntime".equals(methodName) && fullCall.contains("Runtime.getRuntime()")) {
+            if ("getRuntime".equals(methodName) && isRuntimeGetRuntime(mce)) {
                 if (!isInTestMethod(mce)) {
                     String originalCode = mce.toString();
-                    String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                        "COMMAND_INJECTION", mce, currentMethod);
+                    LazyValue<String> suggestedCode = suggestion("COMMAND_INJECTION", mce);
                     
                     addSecurityIssue("DANGEROUS_METHOD_CALL",
                                    "Use of Runtime.getRuntime() detected",
@@ -404,111 +369,210 @@ public class SecurityService {
             }
         }
         
+        // Runtime.exec, ProcessBuilder and the like, reported when an argument carries untrusted data
+        private void checkCommandInjection(Node call) {
+            TaintAnalysis taint = getTaintForSink(call, "COMMAND_INJECTION");
+            if (taint == null || isInTestMethod(call)) return;
+            
+            int lineNumber = getLineNumber(call);
+            securityIssueLines.add(lineNumber);
+            
+            boolean fromSource = taint.findTaintedArgument(call) != null;
+            if (!fromSource && findParameterArgument(call) == null) return;
+            
+            String originalCode = call.toString();
+            LazyValue<String> suggestedCode = suggestion("COMMAND_INJECTION", call);
+            
+            addSecurityIssue("COMMAND_INJECTION",
+                           "Command injection - " + (fromSource ? "untrusted input" : parameterOrigin(call)) +
+                           " reaches " + sinkName(call),
+                           lineNumber,
+                           originalCode,
+                           suggestedCode,
+                           SecuritySeverity.HIGH);
+        }
+        
         private void checkSQLInjectionVulnerability(MethodCallExpr mce) {
-            String methodName = mce.getNameAsString();
+            TaintAnalysis taint = getTaintForSink(mce, "SQL_INJECTION");
+            if (taint == null) return;
             
-            for (String sqlMethod : SQL_METHODS) {
-                if (methodName.equals(sqlMethod)) {
-                    int lineNumber = getLineNumber(mce);
-                    securityIssueLines.add(lineNumber);
-                    
-                    if (hasStringConcatenationInArguments(mce) && !isPreparedStatement(mce)) {
-                        String originalCode = mce.toString();
-                        String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                            "SQL_INJECTION", mce, currentMethod);
-                        
-                        addSecurityIssue("SQL_INJECTION",
-                                       "SQL injection vulnerability - string concatenation in query",
-                                       lineNumber,
-                                       originalCode,
-                                       suggestedCode,
-                                       SecuritySeverity.CRITICAL);
-                    } else if (hasVariableInArguments(mce) && !isPreparedStatement(mce)) {
-                        checkForDynamicSQLConstruction(mce);
-                    }
-                    break;
-                }
+            int lineNumber = getLineNumber(mce);
+            securityIssueLines.add(lineNumber);
+            
+            Expression query = taint.findTaintedArgument(mce);
+            String origin = "untrusted input";
+            if (query == null) {
+                query = findParameterArgument(mce);
+                origin = parameterOrigin(mce);
+            }
+            if (query == null) return;
+            
+            String originalCode = mce.toString();
+            LazyValue<String> suggestedCode = suggestion("SQL_INJECTION", mce);
+            if (isConcatenation(query)) {
+                addSecurityIssue("SQL_INJECTION",
+                               "SQL injection vulnerability - " + origin + " concatenated into query",
+                               lineNumber,
+                               originalCode,
+                               suggestedCode,
+                               SecuritySeverity.CRITICAL);
+            } else {
+                addSecurityIssue("DYNAMIC_SQL_CONSTRUCTION",
+                               "Dynamic SQL query built from " + origin + ": " + query,
+                               lineNumber,
+                               originalCode,
+                               suggestedCode,
+                               SecuritySeverity.CRITICAL);
             }
         }
         
-        private void checkForDynamicSQLConstruction(MethodCallExpr mce) {
-            for (Expression arg : mce.getArguments()) {
-                if (arg instanceof NameExpr) {
-                    NameExpr nameExpr = (NameExpr) arg;
-                    String varName = nameExpr.getNameAsString();
-                    
-                    if (varName.toLowerCase().contains("query") || 
-                        varName.toLowerCase().contains("sql") ||
-                        varName.toLowerCase().contains("statement")) {
-                        
-                        if (isDynamicSQLVariable(varName)) {
-                            String originalCode = mce.toString();
-                            String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                                "SQL_INJECTION", mce, currentMethod);
-                            
-                            addSecurityIssue("DYNAMIC_SQL_CONSTRUCTION",
-                                           "Dynamic SQL query construction detected",
-                                           getLineNumber(mce),
-                                           originalCode,
-                                           suggestedCode,
-                                           SecuritySeverity.CRITICAL);
-                        }
-                    }
+        private void checkFileOperationSecurity(Node call) {
+            TaintAnalysis taint = getTaintForSink(call, "PATH_TRAVERSAL");
+            if (taint == null) return;
+            boolean fromSource = taint.findTaintedArgument(call) != null;
+            if (!fromSource && findParameterArgument(call) == null) return;
+            
+            String originalCode = call.toString();
+            LazyValue<String> suggestedCode = suggestion("PATH_TRAVERSAL", call);
+            
+            int lineNumber = getLineNumber(call);
+            securityIssueLines.add(lineNumber);
+            
+            addSecurityIssue("PATH_TRAVERSAL",
+                           "Potential path traversal vulnerability - " +
+                           (fromSource ? "user input" : parameterOrigin(call)) + " in file path",
+                           lineNumber,
+                           originalCode,
+                           suggestedCode,
+                           SecuritySeverity.HIGH);
+        }
+        
+        // A sink argument built from a text parameter of a non-private method: nothing in the unit says where
+        // its callers get it, so an entry point is taken to be reachable with untrusted input
+        private Expression findParameterArgument(Node call) {
+            TaintAnalysis taint = parameterTaintByOwner.computeIfAbsent(ControlFlowGraph.findOwner(call),
+                owner -> TaintAnalysis.withUntrustedParameters(getDataflow(owner), taintCatalog));
+            return taint.findTaintedArgument(call);
+        }
+        
+        private String parameterOrigin(Node call) {
+            Node owner = ControlFlowGraph.findOwner(call);
+            return owner instanceof CallableDeclaration
+                ? "a parameter of " + ((CallableDeclaration<?>) owner).getNameAsString() + "()" : "a parameter";
+        }
+        
+        // The method's taint analysis when the call is a catalog sink of the category, else null; the
+        // name-only lookup comes first so methods without candidate sinks never build the analysis
+        private TaintAnalysis getTaintForSink(Node call, String category) {
+            if (!isSinkCandidate(call)) return null;
+            
+            TaintAnalysis taint = taintByOwner.computeIfAbsent(ControlFlowGraph.findOwner(call),
+                owner -> new TaintAnalysis(getDataflow(owner), taintCatalog));
+            TaintCatalog.Entry sink = taint.findSink(call);
+            return sink != null && category.equals(sink.getDetail()) ? taint : null;
+        }
+        
+        // Flows the per-method checks cannot see: through helper results and fields, or into a sink inside a helper
+        private void checkInterproceduralTaint(Node call) {
+            // On its own, a unit without a single sink has nothing for its summaries to lead to
+            if (taintSummaries == null && !unitHasSinkCandidate) return;
+            
+            String name = call instanceof ObjectCreationExpr ? TaintCatalog.CONSTRUCTOR : ((MethodCallExpr) call).getNameAsString();
+            int arity = call instanceof ObjectCreationExpr ? ((ObjectCreationExpr) call).getArguments().size()
+                                                           : ((MethodCallExpr) call).getArguments().size();
+            if (!isSinkCandidate(call) && !getSummaries(call).mayReachSink(name, arity)) return;
+            
+            TaintAnalysis taint = summaryTaintByOwner.computeIfAbsent(ControlFlowGraph.findOwner(call),
+                owner -> new TaintAnalysis(getDataflow(owner), taintCatalog, getSummaries(owner)));
+            TaintCatalog.Entry sink = taint.findSink(call);
+            if (sink != null) {
+                String category = sink.getDetail();
+                if (taint.findTaintedArgument(call) != null && !isReportedPerMethod(call, category)) {
+                    addInterproceduralIssue(category, call,
+                        "untrusted input reaches " + sinkName(call) + " through a helper method or field");
                 }
+                return;
             }
+            
+            TaintSummary summary = taint.findSummarySink(call);
+            if (summary == null) return;
+            
+            // A source inside the callee that reaches its sink is reported there; only the parameters are the caller's
+            long parameters = ~TaintSummary.SOURCE;
+            summary.getSinks().forEach((category, labels) -> {
+                if (taint.findTaintedArgument(call, labels & parameters) != null) {
+                    addInterproceduralIssue(category, call,
+                        "untrusted input passed to " + sinkName(call) + " reaches a sink inside it");
+                }
+            });
+        }
+        
+        private boolean isReportedPerMethod(Node call, String category) {
+            TaintAnalysis taint = getTaintForSink(call, category);
+            return taint != null && (taint.findTaintedArgument(call) != null || findParameterArgument(call) != null) &&
+                   !("COMMAND_INJECTION".equals(category) && isInTestMethod(call));
         }
         
-        private boolean isDynamicSQLVariable(String varName) {
-            if (currentMethod == null) return false;
+        private void addInterproceduralIssue(String category, Node call, String detail) {
+            if ("COMMAND_INJECTION".equals(category) && isInTestMethod(call)) return;
             
-            return currentMethod.getBody().isPresent() && 
-                   currentMethod.getBody().get().toString().contains(varName + " = ") &&
-                   currentMethod.getBody().get().toString().contains(" + ");
+            addSecurityIssue(category,
+                           categoryTitle(category) + " - " + detail,
+                           getLineNumber(call),
+                           call.toString(),
+                           suggestion(category, call),
+                           "SQL_INJECTION".equals(category) ? SecuritySeverity.CRITICAL : SecuritySeverity.HIGH);
         }
         
-        private void checkFileOperationSecurity(ObjectCreationExpr oce) {
-            String typeName = oce.getTypeAsString();
+        private String categoryTitle(String category) {
+            return "SQL_INJECTION".equals(category) ? "SQL injection"
+                 : "COMMAND_INJECTION".equals(category) ? "Command injection"
+                 : "PATH_TRAVERSAL".equals(category) ? "Path traversal" : category;
+        }
+        
+        private TaintSummaries getSummaries(Node node) {
+            if (taintSummaries != null) return taintSummaries;
             
-            if ("File".equals(typeName) || "FileInputStream".equals(typeName) || 
-                "FileOutputStream".equals(typeName) || "FileReader".equals(typeName) || 
-                "FileWriter".equals(typeName)) {
-                
-                for (Expression arg : oce.getArguments()) {
-                    if (containsStringConcatenation(arg) || isUserInput(arg)) {
-                        String originalCode = oce.toString();
-                        String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                            "PATH_TRAVERSAL", oce, currentMethod);
-                        
-                        int lineNumber = getLineNumber(oce);
-                        securityIssueLines.add(lineNumber);
-                        
-                        addSecurityIssue("PATH_TRAVERSAL",
-                                       "Potential path traversal vulnerability - user input in file path",
-                                       lineNumber,
-                                       originalCode,
-                                       suggestedCode,
-                                       SecuritySeverity.HIGH);
-                        break;
-                    }
-                }
+            if (summaries == null) {
+                CompilationUnit unit = node.findCompilationUnit().orElse(null);
+                summaries = unit != null ? TaintSummaries.forUnit(unit, taintCatalog, this::getDataflow)
+                                         : new TaintSummaries(taintCatalog);
             }
+            return summaries;
         }
         
-        private boolean containsStringConcatenation(Expression expr) {
-            if (expr instanceof BinaryExpr) {
-                BinaryExpr be = (BinaryExpr) expr;
-                return be.getOperator() == BinaryExpr.Operator.PLUS && 
-                       (hasStringOperand(be) || containsStringConcatenation(be.getLeft()) || 
-                        containsStringConcatenation(be.getRight()));
+        // A catalog sink by name and arity alone, before the receiver type is known
+        private boolean isSinkCandidate(Node call) {
+            if (call instanceof ObjectCreationExpr) {
+                ObjectCreationExpr creation = (ObjectCreationExpr) call;
+                return taintCatalog.findConstructor(TaintCatalog.Role.SINK, creation.getTypeAsString(),
+                                                    creation.getArguments().size()) != null;
             }
-            return false;
+            MethodCallExpr mce = (MethodCallExpr) call;
+            return taintCatalog.find(TaintCatalog.Role.SINK, null, mce.getNameAsString(), mce.getArguments().size()) != null;
+        }
+        
+        private String sinkName(Node call) {
+            return call instanceof ObjectCreationExpr
+                ? "new " + ((ObjectCreationExpr) call).getTypeAsString() + "()"
+                : ((MethodCallExpr) call).getNameAsString() + "()";
+        }
+        
+        private boolean isConcatenation(Expression expression) {
+            while (expression instanceof EnclosedExpr) {
+                expression = ((EnclosedExpr) expression).getInner();
+            }
+            return expression instanceof BinaryExpr && ((BinaryExpr) expression).getOperator() == BinaryExpr.Operator.PLUS;
         }
         
-        private boolean hasStringOperand(BinaryExpr be) {
-            return be.getLeft() instanceof StringLiteralExpr || 
-                   be.getRight() instanceof StringLiteralExpr ||
-                   be.getLeft() instanceof NameExpr || 
-                   be.getRight() instanceof NameExpr;
+        // Mirrors the line bookkeeping of the standard checks so a deep-only pass suppresses the same null checks
+        private void recordSecuritySensitiveLine(Node call) {
+            TaintAnalysis files = getTaintForSink(call, "PATH_TRAVERSAL");
+            if (getTaintForSink(call, "SQL_INJECTION") != null ||
+                (getTaintForSink(call, "COMMAND_INJECTION") != null && !isInTestMethod(call)) ||
+                (files != null && (files.findTaintedArgument(call) != null || findParameterArgument(call) != null))) {
+                securityIssueLines.add(getLineNumber(call));
+            }
         }
         
         private void checkNullPointerDeReference(MethodCallExpr mce) {
@@ -518,10 +582,9 @@ public class SecurityService {
                     NameExpr nameExpr = (NameExpr) scope;
                     String varName = nameExpr.getNameAsString();
                     
-                    if (shouldCheckForNull(varName, mce)) {
+                    if (shouldCheckForNull(nameExpr, mce)) {
                         String originalCode = mce.toString();
-                        String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                            "NULL_POINTER_DEREFERENCE", mce, currentMethod);
+                        LazyValue<String> suggestedCode = suggestion("NULL_POINTER_DEREFERENCE", mce);
                         
                         addSecurityIssue("NULL_POINTER_DEREFERENCE",
                                        "Potential null pointer dereference on variable: " + varName,
@@ -540,8 +603,7 @@ public class SecurityService {
             if ("Random".equals(typeName)) {
                 if (isSecurityCriticalContext(oce)) {
                     String originalCode = oce.toString();
-                    String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                        "WEAK_RANDOM", oce, currentMethod);
+                    LazyValue<String> suggestedCode = suggestion("WEAK_RANDOM", oce);
                     
                     addSecurityIssue("WEAK_RANDOM",
                                    "Using weak random number generator in security context",
@@ -565,8 +627,7 @@ public class SecurityService {
                     !isFromSecureSource(variable)) {
                     
                     String originalCode = variable.toString();
-                    String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                        "SENSITIVE_DATA_EXPOSURE", vde, currentMethod);
+                    LazyValue<String> suggestedCode = suggestion("SENSITIVE_DATA_EXPOSURE", vde);
                     
                     addSecurityIssue("SENSITIVE_DATA_EXPOSURE",
                                    "Sensitive data stored in String (immutable and may appear in memory dumps)",
@@ -578,7 +639,7 @@ public class SecurityService {
             });
         }
         
-        private boolean isFromSecureSource(com.github.javaparser.ast.body.VariableDeclarator variable) {
+        private boolean isFromSecureSource(VariableDeclarator variable) {
             if (!variable.getInitializer().isPresent()) return false;
             
             String init = variable.getInitializer().get().toString();
@@ -604,8 +665,7 @@ public class SecurityService {
             
             if (isRisky && !hasArrayBoundsCheck(aae)) {
                 String originalCode = aae.toString();
-                String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                    "ARRAY_BOUNDS_CHECK", aae, currentMethod);
+                LazyValue<String> suggestedCode = suggestion("ARRAY_BOUNDS_CHECK", aae);
                 
                 addSecurityIssue("ARRAY_BOUNDS_CHECK",
                                "Array access without bounds checking - potential ArrayIndexOutOfBoundsException",
@@ -618,8 +678,7 @@ public class SecurityService {
         private void checkUnsafeCasting(CastExpr ce) {
             if (!hasInstanceOfCheck(ce) && !isSimplePrimitiveCast(ce) && !isTrivialCast(ce)) {
                 String originalCode = ce.toString();
-                String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                    "UNSAFE_CASTING", ce, currentMethod);
+                LazyValue<String> suggestedCode = suggestion("UNSAFE_CASTING", ce);
                 
                 addSecurityIssue("UNSAFE_CASTING",
                                "Unsafe type casting without instanceof check",
@@ -630,46 +689,7 @@ public class SecurityService {
             }
         }
         
-        private void checkImproperExceptionHandling(TryStmt ts) {
-            List<CatchClause> catchClauses = ts.getCatchClauses();
-            
-            for (CatchClause catchClause : catchClauses) {
-                if (catchClause.getBody().getStatements().isEmpty()) {
-                    String originalCode = catchClause.toString();
-                    String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                        "EMPTY_CATCH_BLOCK", ts, currentMethod);
-                    
-                    addSecurityIssue("EMPTY_CATCH_BLOCK",
-                                   "Empty catch block may hide security issues",
-                                   getLineNumber(catchClause),
-                                   originalCode,
-                                   suggestedCode,
-                                   SecuritySeverity.LOW);
-                } else if (catchClause.getBody().getStatements().size() == 1) {
-                    Statement stmt = catchClause.getBody().getStatements().get(0);
-                    if (stmt instanceof ExpressionStmt) {
-                        ExpressionStmt exprStmt = (ExpressionStmt) stmt;
-                        if (exprStmt.getExpression() instanceof MethodCallExpr) {
-                            MethodCallExpr mce = (MethodCallExpr) exprStmt.getExpression();
-                            if ("printStackTrace".equals(mce.getNameAsString())) {
-                                String originalCode = catchClause.toString();
-                                String suggestedCode = codeGenerator.generateSecuritySuggestion(
-                                    "POOR_EXCEPTION_HANDLING", ts, currentMethod);
-                                
-                                addSecurityIssue("POOR_EXCEPTION_HANDLING",
-                                               "Exception handling only prints stack trace - consider proper logging",
-                                               getLineNumber(catchClause),
-                                               originalCode,
-                                               suggestedCode,
-                                               SecuritySeverity.LOW);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
-        private boolean shouldCheckForNull(String varName, MethodCallExpr mce) {
+        private boolean shouldCheckForNull(NameExpr nameExpr, MethodCallExpr mce) {
             int lineNumber = getLineNumber(mce);
             if (securityIssueLines.contains(lineNumber)) {
                 return false;
@@ -679,22 +699,41 @@ public class SecurityService {
                 return false;
             }
             
-            if (parameterNames.contains(varName) && !nullCheckedVariables.contains(varName)) {
-                return isDirectlyDereferenced(varName);
+            // Only locals are judged; parameters, fields and loop or catch variables are trusted
+            MethodDataflow dataflow = getDataflow(mce);
+            DefUseIndex.Symbol symbol = dataflow.getDefUseIndex().resolve(nameExpr);
+            if (symbol == null || symbol.getKind() != DefUseIndex.SymbolKind.LOCAL) {
+                return false;
             }
+            return dataflow.mayBeNull(nameExpr, this::isPossiblyNullValue);
+        }
+        
+        private MethodDataflow getDataflow(Node node) {
+            return dataflowByOwner.computeIfAbsent(ControlFlowGraph.findOwner(node), MethodDataflow::build);
+        }
+        
+        private MethodFacts getFacts(Node node) {
+            return factsByOwner.computeIfAbsent(ControlFlowGraph.findOwner(node), MethodFacts::build);
+        }
+        
+        private MethodFacts getUnitFacts(Node node) {
+            Node unit = node.findCompilationUnit().map(cu -> (Node) cu).orElse(node.findRootNode());
+            return factsByOwner.computeIfAbsent(unit, MethodFacts::build);
+        }
+        
+        private boolean isPossiblyNullValue(Expression value) {
+            if (value instanceof NullLiteralExpr) return true;
+            if (!(value instanceof MethodCallExpr)) return false;
             
-            if (isPotentiallyNullMethodReturn(varName)) {
-                return !nullCheckedVariables.contains(varName);
+            MethodCallExpr call = (MethodCallExpr) value;
+            String methodName = call.getNameAsString();
+            if ("orElse".equals(methodName)) {
+                return call.getArguments().size() == 1 && call.getArgument(0) instanceof NullLiteralExpr;
             }
-            
-            return !nullCheckedVariables.contains(varName) && 
-                   !initializedVariables.contains(varName) &&
-                   !fieldNames.contains(varName) &&
-                   !exceptionVariables.contains(varName) &&
-                   !enhancedForLoopVariables.contains(varName) &&
-                   !isKnownNonNullType(varName) &&
-                   !isThisOrSuper(varName) &&
-                   !isConstantOrStaticCall(varName);
+            return "readLine".equals(methodName) ||
+                   ("get".equals(methodName) && call.getArguments().size() == 1) ||
+                   methodName.startsWith("find") || methodName.startsWith("search") ||
+                   methodName.startsWith("lookup");
         }
         
         private boolean isInSecurityCriticalMethod() {
@@ -706,30 +745,12 @@ public class SecurityService {
             return false;
         }
         
-        private boolean isDirectlyDereferenced(String varName) {
-            if (currentMethod != null && currentMethod.getBody().isPresent()) {
-                String methodBody = currentMethod.getBody().get().toString();
-                return methodBody.matches(".*\\b" + varName + "\\.\\w+\\(.*");
-            }
-            return false;
-        }
-        
-        private boolean isPotentiallyNullMethodReturn(String varName) {
-            if (currentMethod != null && currentMethod.getBody().isPresent()) {
-                String methodBody = currentMethod.getBody().get().toString();
-                return methodBody.contains(varName + " = ") && 
-                       (methodBody.contains(".get") || methodBody.contains("find") || 
-                        methodBody.contains("search") || methodBody.contains("lookup"));
-            }
-            return false;
-        }
-        
-        private boolean isRuntimeExec(MethodCallExpr mce) {
-            if (!mce.getScope().isPresent()) return false;
+        private boolean isRuntimeGetRuntime(MethodCallExpr mce) {
+            if (!"getRuntime".equals(mce.getNameAsString()) || !mce.getScope().isPresent()) return false;
             
             Expression scope = mce.getScope().get();
-            return scope.toString().contains("Runtime.getRuntime()") ||
-                   scope.toString().contains("runtime");
+            return (scope instanceof NameExpr && "Runtime".equals(((NameExpr) scope).getNameAsString())) ||
+                   (scope instanceof FieldAccessExpr && "Runtime".equals(((FieldAccessExpr) scope).getNameAsString()));
         }
         
         private boolean isInTestMethod(Node node) {
@@ -746,85 +767,19 @@ public class SecurityService {
             return false;
         }
         
-        private boolean isPreparedStatement(MethodCallExpr mce) {
-            if (!mce.getScope().isPresent()) return false;
-            
-            return mce.getScope().get().toString().toLowerCase().contains("preparedstatement") ||
-                   mce.getScope().get().toString().toLowerCase().contains("statement");
-        }
-        
-        private boolean hasStringConcatenationInArguments(MethodCallExpr mce) {
-            return mce.getArguments().stream()
-                     .anyMatch(arg -> arg instanceof BinaryExpr && 
-                              ((BinaryExpr) arg).getOperator() == BinaryExpr.Operator.PLUS &&
-                              containsVariableReference((BinaryExpr) arg));
-        }
-        
-        private boolean hasVariableInArguments(MethodCallExpr mce) {
-            return mce.getArguments().stream()
-                     .anyMatch(arg -> arg instanceof NameExpr);
-        }
-        
-        private boolean containsVariableReference(BinaryExpr be) {
-            return (be.getLeft() instanceof NameExpr || be.getRight() instanceof NameExpr) ||
-                   (be.getLeft() instanceof BinaryExpr && containsVariableReference((BinaryExpr) be.getLeft())) ||
-                   (be.getRight() instanceof BinaryExpr && containsVariableReference((BinaryExpr) be.getRight()));
-        }
-        
-        private boolean hasPathValidation(MethodCallExpr mce) {
-            Node parent = mce.getParentNode().orElse(null);
-            while (parent != null && !(parent instanceof MethodDeclaration)) {
-                if (parent.toString().contains("normalize") || 
-                    parent.toString().contains("validate") ||
-                    parent.toString().contains("canonical")) {
-                    return true;
-                }
-                parent = parent.getParentNode().orElse(null);
-            }
-            return false;
-        }
-        
-        private boolean isKnownNonNullType(String varName) {
-            return Character.isUpperCase(varName.charAt(0)) ||
-                   varName.equals("System") ||
-                   varName.equals("Math") ||
-                   varName.equals("String") ||
-                   varName.equals("Objects");
-        }
-        
-        private boolean isThisOrSuper(String varName) {
-            return varName.equals("this") || varName.equals("super");
-        }
-        
-        private boolean isConstantOrStaticCall(String varName) {
-            return varName.toUpperCase().equals(varName) ||
-                   (Character.isUpperCase(varName.charAt(0)) && varName.length() > 1);
-        }
-        
-        private boolean isMethodResult(String varName) {
-            return varName.startsWith("get") || varName.startsWith("create") || 
-                   varName.startsWith("build") || varName.startsWith("new");
-        }
-        
+        // Judged on the whole unit: a class that handles credentials anywhere should not use Random
         private boolean isSecurityCriticalContext(Node node) {
-            Node parent = node;
-            while (parent != null) {
-                String nodeStr = parent.toString().toLowerCase();
-                if (nodeStr.contains("password") || nodeStr.contains("key") || 
-                    nodeStr.contains("token") || nodeStr.contains("crypto") ||
-                    nodeStr.contains("security") || nodeStr.contains("auth")) {
-                    return true;
-                }
-                parent = parent.getParentNode().orElse(null);
-            }
-            return false;
+            MethodFacts facts = getUnitFacts(node);
+            return facts.mentions("password") || facts.mentions("key") ||
+                   facts.mentions("token") || facts.mentions("crypto") ||
+                   facts.mentions("security") || facts.mentions("auth");
         }
         
-        private boolean isConstantDeclaration(com.github.javaparser.ast.body.VariableDeclarator variable) {
+        private boolean isConstantDeclaration(VariableDeclarator variable) {
             Node parent = variable.getParentNode().orElse(null);
             while (parent != null) {
-                if (parent instanceof com.github.javaparser.ast.body.FieldDeclaration) {
-                    com.github.javaparser.ast.body.FieldDeclaration fd = (com.github.javaparser.ast.body.FieldDeclaration) parent;
+                if (parent instanceof FieldDeclaration) {
+                    FieldDeclaration fd = (FieldDeclaration) parent;
                     return fd.isStatic() && fd.isFinal();
                 }
                 parent = parent.getParentNode().orElse(null);
@@ -833,34 +788,8 @@ public class SecurityService {
         }
         
         private boolean hasArrayBoundsCheck(ArrayAccessExpr aae) {
-            Node current = aae.getParentNode().orElse(null);
-            String arrayName = aae.getName().toString();
-            String indexName = aae.getIndex().toString();
-            
-            while (current != null && !(current instanceof BlockStmt) && !(current instanceof MethodDeclaration)) {
-                current = current.getParentNode().orElse(null);
-            }
-            
-            if (current != null) {
-                String context = current.toString();
-                return context.contains("if (" + indexName + " >= 0") ||
-                       context.contains("if (" + indexName + " < " + arrayName + ".length") ||
-                       context.contains(indexName + " >= 0 && " + indexName + " < ") ||
-                       context.contains("checkBounds") ||
-                       context.contains("isValidIndex");
-            }
-            
-            return false;
-        }
-        
-        private boolean isUserControlledInput(Expression expr) {
-            if (expr instanceof NameExpr) {
-                String varName = ((NameExpr) expr).getNameAsString().toLowerCase();
-                return (varName.contains("input") || varName.contains("param") || 
-                       varName.contains("request") || varName.contains("user")) &&
-                       parameterNames.contains(((NameExpr) expr).getNameAsString());
-            }
-            return false;
+            Expression index = aae.getIndex();
+            return index instanceof NameExpr && getFacts(aae).isBoundsChecked(((NameExpr) index).getNameAsString());
         }
         
         private boolean isSimplePrimitiveCast(CastExpr ce) {
@@ -879,47 +808,47 @@ public class SecurityService {
         }
         
         private boolean hasInstanceOfCheck(CastExpr ce) {
-            Node parent = ce.getParentNode().orElse(null);
-            while (parent != null && !(parent instanceof MethodDeclaration)) {
-                if (parent.toString().contains("instanceof")) {
-                    return true;
-                }
-                parent = parent.getParentNode().orElse(null);
+            MethodFacts facts = getFacts(ce);
+            Expression casted = ce.getExpression();
+            if (casted instanceof NameExpr) {
+                return facts.isInstanceOfChecked(((NameExpr) casted).getNameAsString());
             }
-            return false;
-        }
-        
-        private boolean hasUserInputInArguments(MethodCallExpr mce) {
-            return mce.getArguments().stream()
-                     .anyMatch(arg -> isUserInput(arg));
+            return facts.hasInstanceOf();
         }
         
-        private boolean isUserInput(Expression expr) {
-            if (expr instanceof NameExpr) {
-                String varName = ((NameExpr) expr).getNameAsString().toLowerCase();
-                return (varName.contains("input") || varName.contains("param") || 
-                       varName.contains("request") || varName.contains("user")) &&
-                       parameterNames.contains(((NameExpr) expr).getNameAsString());
-            }
-            return false;
+        private int getLineNumber(Node node) {
+            return node.getBegin().map(pos -> pos.line).orElse(0);
         }
         
-        private String getClassName(MethodCallExpr mce) {
-            if (mce.getScope().isPresent() && mce.getScope().get() instanceof NameExpr) {
-                return ((NameExpr) mce.getScope().get()).getNameAsString();
-            }
-            return "";
+        // Generated from the method being visited now, but only once the recommendation is read
+        private LazyValue<String> suggestion(String issueType, Node node) {
+            return new LazyValue<>(codeGenerator.pendingSecuritySuggestion(issueType, node, currentMethod));
         }
         
-        private int getLineNumber(Node node) {
-            return node.getBegin().map(pos -> pos.line).orElse(0);
+        private void addSecurityIssue(String type, String description, int lineNumber,
+                                    String vulnerableCode, String recommendation,
+                                    SecuritySeverity severity) {
+            addSecurityIssue(type, description, lineNumber, vulnerableCode, LazyValue.of(recommendation), severity);
         }
         
         private void addSecurityIssue(String type, String description, int lineNumber,
-                                    String vulnerableCode, String recommendation,
+                                    String vulnerableCode, LazyValue<String> recommendation,
                                     SecuritySeverity severity) {
             issues.add(new SecurityIssue(type, description, lineNumber, 
-                                        vulnerableCode, recommendation, severity));
+                                        vulnerableCode, recommendation, severity, emittingTier));
+        }
+    }
+    
+    // A method, constructor, initializer or the unit itself while it is being walked
+    private static class Scope {
+        final MethodDeclaration method;
+        final Set<String> parameters;
+        final MethodFacts facts = new MethodFacts();
+        final List<Runnable> deferred = new ArrayList<>();
+        
+        Scope(MethodDeclaration method, Set<String> parameters) {
+            this.method = method;
+            this.parameters = parameters;
         }
     }
 }
\ No newline at end of file
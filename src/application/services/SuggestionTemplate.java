@@ -0,0 +1,51 @@
+package application.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A format string split once into literal segments around its %s/%d slots; %% is a literal percent sign
+class SuggestionTemplate {
+    
+    private final String[] segments;
+    
+    private SuggestionTemplate(String[] segments) {
+        this.segments = segments;
+    }
+    
+    static SuggestionTemplate compile(String pattern) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            char next = i + 1 < pattern.length() ? pattern.charAt(i + 1) : 0;
+            
+            if (c == '%' && (next == 's' || next == 'd')) {
+                segments.add(segment.toString());
+                segment.setLength(0);
+                i++;
+            } else if (c == '%' && next == '%') {
+                segment.append('%');
+                i++;
+            } else if (c == '%') {
+                throw new IllegalArgumentException("Unsupported placeholder at " + i + " in template: " + pattern);
+            } else {
+                segment.append(c);
+            }
+        }
+        segments.add(segment.toString());
+        return new SuggestionTemplate(segments.toArray(new String[0]));
+    }
+    
+    void render(StringBuilder out, Object... arguments) {
+        if (arguments.length != segments.length - 1) {
+            throw new IllegalArgumentException("Template expects " + (segments.length - 1) +
+                                               " arguments but got " + arguments.length);
+        }
+        
+        out.append(segments[0]);
+        for (int i = 0; i < arguments.length; i++) {
+            out.append(arguments[i]).append(segments[i + 1]);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package application.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// A zip archive (jar, war, ear) read through its own central directory rather than java.util.zip, so large archives
+// are mapped a window at a time and an archive nested in another one can be read straight from memory
+class ZipArchive implements Closeable {
+    
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+    
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int END_OF_DIRECTORY = 0x06054b50;
+    private static final int ZIP64_END_OF_DIRECTORY = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int ZIP64_EXTRA = 0x0001;
+    private static final long UNSIGNED_INT = 0xFFFFFFFFL;
+    
+    private final String name;
+    private final MappedFile mapped;
+    private final ByteBuffer bytes;
+    
+    private ZipArchive(String name, MappedFile mapped, ByteBuffer bytes) {
+        this.name = name;
+        this.mapped = mapped;
+        this.bytes = bytes;
+    }
+    
+    static ZipArchive open(Path path) throws IOException {
+        return new ZipArchive(path.getFileName().toString(), new MappedFile(path), null);
+    }
+    
+    static ZipArchive of(String name, ByteBuffer bytes) {
+        return new ZipArchive(name, null, bytes.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    long size() {
+        return mapped != null ? mapped.size() : bytes.capacity();
+    }
+    
+    // Up to length bytes at position, little-endian
+    ByteBuffer read(long position, int length) throws IOException {
+        if (mapped != null) return mapped.read(position, length);
+        
+        int start = (int) Math.min(position, bytes.capacity());
+        int available = Math.max(0, Math.min(length, bytes.capacity() - start));
+        return bytes.slice(start, available).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    // Every entry, directories included, in central directory order
+    List<Entry> entries() throws IOException {
+        long[] directory = findCentralDirectory();
+        long position = directory[0];
+        long count = directory[1];
+        List<Entry> entries = new ArrayList<>();
+        
+        for (long i = 0; i < count; i++) {
+            ByteBuffer header = read(position, 46);
+            if (header.remaining() < 46 || header.getInt(0) != CENTRAL_HEADER) {
+                throw new IOException("Corrupt central directory in " + name);
+            }
+            
+            int flags = unsignedShort(header, 8);
+            int method = unsignedShort(header, 10);
+            int crc = header.getInt(16);
+            long compressedSize = header.getInt(20) & UNSIGNED_INT;
+            long size = header.getInt(24) & UNSIGNED_INT;
+            int nameLength = unsignedShort(header, 28);
+            int extraLength = unsignedShort(header, 30);
+            int commentLength = unsignedShort(header, 32);
+            long localOffset = header.getInt(42) & UNSIGNED_INT;
+            
+            String entryName = readName(position + 46, nameLength);
+            if (compressedSize == UNSIGNED_INT || size == UNSIGNED_INT || localOffset == UNSIGNED_INT) {
+                long[] sizes = readZip64Extra(read(position + 46 + nameLength, extraLength),
+                                              size, compressedSize, localOffset);
+                size = sizes[0];
+                compressedSize = sizes[1];
+                localOffset = sizes[2];
+            }
+            position += 46 + nameLength + extraLength + commentLength;
+            
+            entries.add(new Entry(entryName, flags, method, crc, compressedSize, size, localOffset));
+        }
+        return entries;
+    }
+    
+    // Where the entry's data starts, past its local header; -1 if the local header is damaged
+    long dataOffset(Entry entry) throws IOException {
+        ByteBuffer local = read(entry.localOffset, 30);
+        if (local.remaining() < 30 || local.getInt(0) != LOCAL_HEADER) return -1;
+        return entry.localOffset + 30 + unsignedShort(local, 26) + unsignedShort(local, 28);
+    }
+    
+    // The whole entry, for entries small enough to hold in memory; stored entries come back as a view of the archive
+    ByteBuffer readEntry(Entry entry, Inflater inflater) throws IOException {
+        if (entry.size > Integer.MAX_VALUE || entry.compressedSize > Integer.MAX_VALUE) {
+            throw new IOException(entry.name + " is too large to read whole");
+        }
+        if (entry.isEncrypted() || (entry.method != STORED && entry.method != DEFLATED)) {
+            throw new IOException(entry.name + " is encrypted or uses an unsupported compression method");
+        }
+        
+        long offset = dataOffset(entry);
+        if (offset < 0) throw new IOException("Bad local header for " + name + "!/" + entry.name);
+        
+        ByteBuffer data = read(offset, (int) entry.compressedSize);
+        if (entry.method == STORED) return data;
+        
+        inflater.reset();
+        inflater.setInput(data);
+        byte[] output = new byte[(int) entry.size];
+        try {
+            int length = 0;
+            while (length < output.length && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length, output.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += inflated;
+            }
+            return ByteBuffer.wrap(output, 0, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive entry " + name + "!/" + entry.name + ": " + e.getMessage());
+        }
+    }
+    
+    // Offset and entry count of the central directory, from the (ZIP64) end of central directory record
+    private long[] findCentralDirectory() throws IOException {
+        long size = size();
+        int tailLength = (int) Math.min(size, 22 + 0xFFFF);
+        long tailStart = size - tailLength;
+        ByteBuffer tail = read(tailStart, tailLength);
+        
+        for (int i = tailLength - 22; i >= 0; i--) {
+            if (tail.getInt(i) != END_OF_DIRECTORY) continue;
+            
+            long count = unsignedShort(tail, i + 10);
+            long offset = tail.getInt(i + 16) & UNSIGNED_INT;
+            if ((count == 0xFFFF || offset == UNSIGNED_INT) && i >= 20 && tail.getInt(i - 20) == ZIP64_LOCATOR) {
+                long zip64Offset = tail.getLong(i - 20 + 8);
+                ByteBuffer record = read(zip64Offset, 56);
+                if (record.remaining() < 56 || record.getInt(0) != ZIP64_END_OF_DIRECTORY) {
+                    throw new IOException("Corrupt ZIP64 end of central directory");
+                }
+                count = record.getLong(32);
+                offset = record.getLong(48);
+            }
+            return new long[] { offset, count };
+        }
+        throw new IOException("Not a zip archive: no end of central directory record");
+    }
+    
+    // Sizes and offset that did not fit 32 bits are stored, in this order, in the ZIP64 extra field
+    private long[] readZip64Extra(ByteBuffer extra, long size, long compressedSize, long localOffset) {
+        long[] values = { size, compressedSize, localOffset };
+        for (int position = 0; position + 4 <= extra.remaining(); ) {
+            int id = unsignedShort(extra, position);
+            int length = unsignedShort(extra, position + 2);
+            if (id == ZIP64_EXTRA) {
+                int field = position + 4;
+                for (int i = 0; i < values.length && field + 8 <= position + 4 + length; i++) {
+                    if (values[i] == UNSIGNED_INT) {
+                        values[i] = extra.getLong(field);
+                        field += 8;
+                    }
+                }
+                break;
+            }
+            position += 4 + length;
+        }
+        return values;
+    }
+    
+    private String readName(long position, int length) throws IOException {
+        ByteBuffer buffer = read(position, length);
+        byte[] entryName = new byte[buffer.remaining()];
+        buffer.get(entryName);
+        return new String(entryName, StandardCharsets.UTF_8);
+    }
+    
+    private static int unsignedShort(ByteBuffer buffer, int index) {
+        return buffer.getShort(index) & 0xFFFF;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (mapped != null) mapped.close();
+    }
+    
+    static class Entry {
+        final String name;
+        final int flags;
+        final int method;
+        final int crc;
+        final long compressedSize;
+        final long size;
+        final long localOffset;
+        
+        Entry(String name, int flags, int method, int crc, long compressedSize, long size, long localOffset) {
+            this.name = name;
+            this.flags = flags;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localOffset = localOffset;
+        }
+        
+        boolean isDirectory() {
+            return name.endsWith("/");
+        }
+        
+        boolean isEncrypted() {
+            return (flags & 1) != 0;
+        }
+    }
+}
\ No newline at end of file
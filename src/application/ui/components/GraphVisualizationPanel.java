@@ -319,12 +319,9 @@ public class GraphVisualizationPanel extends VBox {
     }
     
     private void redrawGraphs() {
-        if (currentMethodGraph != null) {
-            drawMethodCallGraph(currentMethodGraph);
-        }
-        if (currentHierarchyGraph != null) {
-            drawClassHierarchy(currentHierarchyGraph);
-        }
+        // Both draw methods handle a missing graph, which clears results from a previous class
+        drawMethodCallGraph(currentMethodGraph);
+        drawClassHierarchy(currentHierarchyGraph);
     }
     
     private void drawMethodCallGraph(MethodCallGraph methodCallGraph) {
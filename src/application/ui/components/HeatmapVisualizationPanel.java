@@ -219,10 +219,11 @@ public class HeatmapVisualizationPanel extends VBox {
             Label methodLabel = new Label(method.getMethodName());
             methodLabel.setFont(Font.font("Arial", FontWeight.BOLD, 10));
             
-            Label complexityLabel = new Label("Complexity: " + method.getCyclomaticComplexity());
+            Label complexityLabel = new Label("Complexity: " + method.getCyclomaticComplexity()
+                + " (cognitive " + method.getCognitiveComplexity() + ")");
             complexityLabel.setFont(Font.font("Arial", 9));
             
-            Label linesLabel = new Label("Lines: " + method.getLineCount());
+            Label linesLabel = new Label("Lines: " + method.getLineCount() + ", nesting " + method.getMaxNestingDepth());
             linesLabel.setFont(Font.font("Arial", 9));
             
             methodBox.getChildren().addAll(methodLabel, complexityLabel, linesLabel);
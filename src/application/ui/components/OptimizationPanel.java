@@ -70,7 +70,8 @@ public class OptimizationPanel extends VBox {
         details.append("Description: ").append(optimization.getDescription()).append("\n\n");
         details.append("Original Code:\n").append(optimization.getOriginalCode()).append("\n\n");
         details.append("Suggested Code:\n").append(optimization.getSuggestedCode()).append("\n\n");
-        details.append("Severity: ").append(optimization.getSeverity());
+        details.append("Severity: ").append(optimization.getSeverity()).append("\n\n");
+        details.append("Analysis tier: ").append(optimization.getTier());
         
         detailsTextArea.setText(details.toString());
     }
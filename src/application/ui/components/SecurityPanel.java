@@ -70,7 +70,8 @@ public class SecurityPanel extends VBox {
         details.append("Description: ").append(securityIssue.getDescription()).append("\n\n");
         details.append("Vulnerable Code:\n").append(securityIssue.getVulnerableCode()).append("\n\n");
         details.append("Recommendation:\n").append(securityIssue.getRecommendation()).append("\n\n");
-        details.append("Severity: ").append(securityIssue.getSeverity());
+        details.append("Severity: ").append(securityIssue.getSeverity()).append("\n\n");
+        details.append("Analysis tier: ").append(securityIssue.getTier());
         
         detailsTextArea.setText(details.toString());
     }
@@ -1,5 +1,6 @@
 package testing;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
@@ -43,6 +44,16 @@ public class EdgeCaseTests {
         System.out.println(result);
     }
     
+    public int testReadLineLoop(BufferedReader reader) throws IOException {
+        // 'line' should NOT be flagged as potential null: the loop condition checks it
+        int total = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            total += line.trim().length();
+        }
+        return total;
+    }
+    
     private void riskyOperation() throws Exception {
         throw new Exception("Test");
     }